@@ -0,0 +1,41 @@
+package com.dustin.boardserver;
+
+import com.dustin.boardserver.dto.PostDTO;
+
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+
+// 여러 벤치마크에서 함께 사용하는 입력 데이터입니다. 실행할 때마다 같은 데이터가 만들어지도록 시드를 고정합니다.
+public final class BenchmarkFixtures {
+
+    private BenchmarkFixtures() {
+    }
+
+    // 검색 결과 한 페이지에 해당하는 게시물 목록을 만듭니다. contentsLength는 본문 길이(글자 수)입니다.
+    public static List<PostDTO> posts(int count, int contentsLength) {
+        Random random = new Random(42);
+        String[] words = {"게시판", "공지", "질문", "답변", "스프링", "캐시", "레디스", "검색", "board", "post"};
+        List<PostDTO> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            StringBuilder contents = new StringBuilder(contentsLength);
+            while (contents.length() < contentsLength) {
+                contents.append(words[random.nextInt(words.length)]).append(' ');
+            }
+            posts.add(PostDTO.builder()
+                    .id(100000 + i)
+                    .name("게시물 제목 " + i)
+                    .isAdmin(0)
+                    .contents(contents.toString())
+                    .createTime(new Date(1700000000000L + i * 1000L))
+                    .views(random.nextInt(10000))
+                    .categoryId(1 + random.nextInt(10))
+                    .userId(1 + random.nextInt(1000))
+                    .fileId(0)
+                    .updateTime(new Date(1700000000000L + i * 2000L))
+                    .build());
+        }
+        return posts;
+    }
+}
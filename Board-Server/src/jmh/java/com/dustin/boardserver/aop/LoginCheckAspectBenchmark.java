@@ -0,0 +1,66 @@
+package com.dustin.boardserver.aop;
+
+import com.dustin.boardserver.utils.SessionUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.TimeUnit;
+
+// @LoginCheck가 붙은 컨트롤러 메서드를 호출할 때 LoginCheckAspect가 더하는 비용을 측정합니다.
+// direct는 프록시 없이 같은 메서드를 호출한 기준값이며, proxied와의 차이가 프록시와 어드바이스(세션 조회, 인자 교체) 비용입니다.
+// 요청 정보(RequestContextHolder)는 스레드별로 보관되므로 상태도 스레드마다 만듭니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class LoginCheckAspectBenchmark {
+
+    private PostEndpoint target;
+    private PostEndpoint proxy;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        SessionUtil.setLoginMemberId(request.getSession(), "dustin");
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+
+        target = new PostEndpoint();
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new LoginCheckAspect());
+        proxy = factory.getProxy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Benchmark
+    public String direct() {
+        return target.myPosts("dustin", 1);
+    }
+
+    @Benchmark
+    public String proxied() {
+        return proxy.myPosts(null, 1);
+    }
+
+    // PostController.myPostInfo처럼 첫 번째 인자로 로그인한 ID를 받는 메서드입니다.
+    public static class PostEndpoint {
+        @LoginCheck(type = LoginCheck.UserType.USER)
+        public String myPosts(String accountId, int page) {
+            return accountId;
+        }
+    }
+}
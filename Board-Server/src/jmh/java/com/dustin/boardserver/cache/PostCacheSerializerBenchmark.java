@@ -0,0 +1,78 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.BenchmarkFixtures;
+import com.dustin.boardserver.dto.PostPageDTO;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.util.concurrent.TimeUnit;
+
+// 검색 결과 캐시 값(PostPageDTO)을 기존 JSON 직렬화기와 바이너리 직렬화기로 저장/조회할 때의 비용을 비교합니다.
+// GenericJackson2JsonRedisSerializer(json) 자체의 비용도 이 벤치마크로 측정합니다.
+// ns/op와 함께 entryBytes(캐시 값 하나의 크기)를 보조 지표로 출력합니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PostCacheSerializerBenchmark {
+
+    // json: GenericJackson2JsonRedisSerializer, binary: PostCacheSerializer
+    @Param({"json", "binary"})
+    private String format;
+
+    // 한 페이지의 게시물 수입니다.
+    @Param({"20", "100"})
+    private int pageSize;
+
+    // 게시물 본문 길이(글자 수)입니다. 길수록 압축 효과가 커집니다.
+    @Param({"0", "2000"})
+    private int contentsLength;
+
+    private RedisSerializer<Object> serializer;
+    private PostPageDTO page;
+    private byte[] serialized;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ObjectMapper mapper = new ObjectMapper();
+        mapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        mapper.registerModules(new JavaTimeModule(), new Jdk8Module());
+        GenericJackson2JsonRedisSerializer json = new GenericJackson2JsonRedisSerializer(mapper);
+        serializer = "json".equals(format) ? json : new PostCacheSerializer(json, 1024);
+
+        page = new PostPageDTO(BenchmarkFixtures.posts(pageSize, contentsLength), "TkVXRVNUOjE3MDAwMDAwMDAwMDA6MTIzNDU");
+        serialized = serializer.serialize(page);
+    }
+
+    @Benchmark
+    public byte[] serialize(EntrySize entrySize) {
+        byte[] bytes = serializer.serialize(page);
+        entrySize.entryBytes = bytes.length;
+        return bytes;
+    }
+
+    @Benchmark
+    public Object deserialize() {
+        return serializer.deserialize(serialized);
+    }
+
+    // 보조 지표로 캐시 값 하나의 크기(byte)를 결과에 함께 기록합니다.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class EntrySize {
+        public long entryBytes;
+    }
+}
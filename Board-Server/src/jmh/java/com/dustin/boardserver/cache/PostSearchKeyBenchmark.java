@@ -0,0 +1,87 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+
+// 검색 캐시(getProducts)의 키를 만드는 비용을 측정합니다.
+// - spel: 이전에 사용하던 @Cacheable(key = "'getProducts' + #postSearchRequest.getName() + ...") 방식입니다.
+//   Spring 캐시와 같이 파싱한 식은 재사용하고, 호출마다 MethodBasedEvaluationContext를 만들어 평가합니다.
+// - keyGenerator: 현재 사용하는 PostSearchKeyGenerator입니다.
+// 세대 번호 조회(Redis GET)는 고정값을 반환하도록 바꿔 키 계산 자체의 비용만 측정합니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class PostSearchKeyBenchmark {
+    private static final String SPEL_KEY =
+            "'getProducts' + #postSearchRequest.getName() + #postSearchRequest.getCategoryId()";
+
+    private final ParameterNameDiscoverer parameterNameDiscoverer = new DefaultParameterNameDiscoverer();
+
+    private PostSearchKeyGenerator keyGenerator;
+    private Expression expression;
+    private Method method;
+    private Object[] args;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchMethodException {
+        keyGenerator = new PostSearchKeyGenerator(new FixedSearchCacheGeneration(), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(keyGenerator, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(keyGenerator, "maxPageSize", 100);
+        expression = new SpelExpressionParser().parseExpression(SPEL_KEY);
+        method = PostSearchKeyBenchmark.class.getMethod("getProducts", PostSearchRequest.class);
+        args = new Object[]{PostSearchRequest.builder()
+                .name(" 스프링 캐시 ")
+                .contents("레디스")
+                .categoryId(3)
+                .sortStatus(SortStatus.NEWEST)
+                .cursor("TkVXRVNUOjE3MDAwMDAwMDAwMDA6MTIzNDU")
+                .size(20)
+                .build()};
+    }
+
+    @Benchmark
+    public Object spel() {
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(this, method, args, parameterNameDiscoverer);
+        return expression.getValue(context);
+    }
+
+    @Benchmark
+    public Object keyGenerator() {
+        return keyGenerator.generate(this, method, args);
+    }
+
+    // 키를 만드는 대상 메서드입니다. (PostSearchReader.getProducts와 같은 시그니처)
+    public Object getProducts(PostSearchRequest postSearchRequest) {
+        return null;
+    }
+
+    private static final class FixedSearchCacheGeneration extends SearchCacheGeneration {
+        private FixedSearchCacheGeneration() {
+            super(null, null, 0);
+        }
+
+        @Override
+        public String keyPrefix(int categoryId) {
+            return categoryId == 0 ? "all:254" : "c" + categoryId + ":17";
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.dustin.boardserver.dto.response;
+
+import com.dustin.boardserver.BenchmarkFixtures;
+import com.dustin.boardserver.config.RedisConfig;
+import com.dustin.boardserver.dto.PostDTO;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.http.HttpStatus;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 게시물 목록 응답(CommonResponse<List<PostDTO>>)을 JSON으로 직렬화하는 비용을 측정합니다.
+// 애플리케이션과 같은 ObjectMapper(RedisConfig.objectMapper)를 사용하며, 응답 본문 크기(bodyBytes)를 보조 지표로 출력합니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class CommonResponseSerializationBenchmark {
+
+    // 응답에 담기는 게시물 수입니다.
+    @Param({"20", "100"})
+    private int postCount;
+
+    // 게시물 본문 길이(글자 수)입니다.
+    @Param({"0", "2000"})
+    private int contentsLength;
+
+    private ObjectWriter writer;
+    private CommonResponse<List<PostDTO>> response;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        writer = new RedisConfig().objectMapper().writerFor(new TypeReference<CommonResponse<List<PostDTO>>>() {
+        });
+        response = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "getMyPosts",
+                BenchmarkFixtures.posts(postCount, contentsLength));
+    }
+
+    @Benchmark
+    public byte[] serialize(BodySize bodySize) throws JsonProcessingException {
+        byte[] bytes = writer.writeValueAsBytes(response);
+        bodySize.bodyBytes = bytes.length;
+        return bytes;
+    }
+
+    // 보조 지표로 응답 본문 하나의 크기(byte)를 결과에 함께 기록합니다.
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    public static class BodySize {
+        public long bodyBytes;
+    }
+}
@@ -0,0 +1,83 @@
+package com.dustin.boardserver.mybatis;
+
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import org.apache.ibatis.binding.MapperMethod;
+import org.apache.ibatis.builder.xml.XMLConfigBuilder;
+import org.apache.ibatis.builder.xml.XMLMapperBuilder;
+import org.apache.ibatis.io.Resources;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.session.Configuration;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+// 검색 쿼리(PostSearchMapper.selectPosts)의 동적 SQL을 실행할 SQL로 만드는 비용을 측정합니다.
+// 애플리케이션과 같은 mybatis-config.xml과 postSearchMapper.xml을 읽어 구성하며,
+// <if>/<choose> 조건식(OGNL) 평가와 #{} 바인딩 목록 생성까지 포함합니다. DB 접근은 하지 않습니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SelectPostsSqlBenchmark {
+    private static final String STATEMENT = "com.dustin.boardserver.mapper.PostSearchMapper.selectPosts";
+
+    // firstPage: 카테고리 조건만 있는 첫 페이지
+    // nextPage: 검색어 두 개와 카테고리 조건이 있는 다음 페이지(커서 조건 포함)
+    @Param({"firstPage", "nextPage"})
+    private String scenario;
+
+    private MappedStatement mappedStatement;
+    private MapperMethod.ParamMap<Object> parameter;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        Configuration configuration;
+        try (InputStream config = Resources.getResourceAsStream("mybatis-config.xml")) {
+            configuration = new XMLConfigBuilder(config).parse();
+        }
+        String mapper = "mappers/postSearchMapper.xml";
+        try (InputStream xml = Resources.getResourceAsStream(mapper)) {
+            new XMLMapperBuilder(xml, configuration, mapper, configuration.getSqlFragments()).parse();
+        }
+        mappedStatement = configuration.getMappedStatement(STATEMENT);
+
+        PostSearchRequest request = PostSearchRequest.builder()
+                .categoryId(3)
+                .sortStatus(SortStatus.NEWEST)
+                .size(20)
+                .build();
+        PostCursor cursor = null;
+        if ("nextPage".equals(scenario)) {
+            request.setName("스프링");
+            request.setContents("캐시");
+            cursor = new PostCursor(SortStatus.NEWEST, new Date(1700000000000L), 3, 123450);
+        }
+
+        // 매퍼 인터페이스를 호출할 때 MyBatis가 만드는 것과 같은 형태의 파라미터입니다.
+        parameter = new MapperMethod.ParamMap<>();
+        parameter.put("request", request);
+        parameter.put("cursor", cursor);
+        parameter.put("limit", 21);
+        parameter.put("param1", request);
+        parameter.put("param2", cursor);
+        parameter.put("param3", 21);
+    }
+
+    @Benchmark
+    public BoundSql render() {
+        return mappedStatement.getBoundSql(parameter);
+    }
+}
@@ -0,0 +1,89 @@
+package com.dustin.boardserver.mybatis;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.RowBounds;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// StatementMetricsInterceptor가 쿼리 한 번에 더하는 비용을 측정합니다.
+// direct는 플러그인 없이 같은 호출(리플렉션 포함)을 실행한 기준값이며, intercepted와의 차이가 플러그인 비용입니다.
+// 실제 쿼리는 수백 μs 이상 걸리므로 차이가 수십~수백 ns 수준이면 무시할 수 있습니다.
+// 여러 스레드가 같은 구문을 동시에 기록할 때의 경합도 보기 위해 4개 스레드로 실행합니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+@Threads(4)
+public class StatementMetricsInterceptorBenchmark {
+
+    // 한 번의 조회가 반환하는 행 수입니다.
+    @Param({"20"})
+    private int rows;
+
+    private StatementMetricsInterceptor interceptor;
+    private Invocation invocation;
+
+    @Setup(Level.Trial)
+    public void setUp() throws Exception {
+        interceptor = new StatementMetricsInterceptor(new SimpleMeterRegistry(), new ObjectMapper(),
+                Long.MAX_VALUE / 1_000_000, 10, 100, 2000);
+
+        Configuration configuration = new Configuration();
+        MappedStatement mappedStatement = new MappedStatement.Builder(configuration,
+                "com.dustin.boardserver.mapper.PostSearchMapper.selectPosts",
+                new StaticSqlSource(configuration, "SELECT id FROM post WHERE categoryId = ?"),
+                SqlCommandType.SELECT).build();
+
+        List<Object> result = new ArrayList<>(rows);
+        for (int i = 0; i < rows; i++) {
+            result.add(i);
+        }
+        FakeExecutor executor = new FakeExecutor(result);
+        Method query = FakeExecutor.class.getMethod("query", MappedStatement.class, Object.class, RowBounds.class,
+                Object.class);
+        invocation = new Invocation(executor, query,
+                new Object[]{mappedStatement, 1, RowBounds.DEFAULT, null});
+    }
+
+    @Benchmark
+    public Object direct() throws Exception {
+        return invocation.proceed();
+    }
+
+    @Benchmark
+    public Object intercepted() throws Throwable {
+        return interceptor.intercept(invocation);
+    }
+
+    // Executor.query와 같은 인자를 받아 미리 만든 결과를 반환합니다.
+    public static class FakeExecutor {
+        private final List<Object> result;
+
+        public FakeExecutor(List<Object> result) {
+            this.result = result;
+        }
+
+        public List<Object> query(MappedStatement mappedStatement, Object parameter, RowBounds rowBounds,
+                                  Object resultHandler) {
+            return result;
+        }
+    }
+}
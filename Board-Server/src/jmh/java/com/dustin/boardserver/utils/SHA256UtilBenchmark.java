@@ -0,0 +1,53 @@
+package com.dustin.boardserver.utils;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.concurrent.TimeUnit;
+
+// 회원가입/로그인/비밀번호 변경마다 호출되는 SHA256Util.encryptSHA256의 비용을 측정합니다.
+// digestOnly는 같은 입력의 해시만 계산한 기준값이며, encrypt와의 차이가 MessageDigest 조회와 16진수 문자열 변환 비용입니다.
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Benchmark)
+public class SHA256UtilBenchmark {
+
+    // 비밀번호 길이(글자 수)입니다.
+    @Param({"8", "64"})
+    private int length;
+
+    private String password;
+    private byte[] passwordBytes;
+    private MessageDigest digest;
+
+    @Setup(Level.Trial)
+    public void setUp() throws NoSuchAlgorithmException {
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append((char) ('a' + i % 26));
+        }
+        password = sb.toString();
+        passwordBytes = password.getBytes(StandardCharsets.UTF_8);
+        digest = MessageDigest.getInstance(SHA256Util.ENCRYPTION_TYPE);
+    }
+
+    @Benchmark
+    public String encrypt() {
+        return SHA256Util.encryptSHA256(password);
+    }
+
+    @Benchmark
+    public byte[] digestOnly() {
+        return digest.digest(passwordBytes);
+    }
+}
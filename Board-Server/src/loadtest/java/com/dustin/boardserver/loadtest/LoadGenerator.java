@@ -0,0 +1,353 @@
+package com.dustin.boardserver.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.log4j.Log4j2;
+import org.HdrHistogram.ConcurrentHistogram;
+import org.HdrHistogram.Histogram;
+
+import java.io.File;
+import java.io.IOException;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+// 부하 테스트 서버(LoadTestServer)에 검색/글쓰기/댓글 쓰기/로그인을 섞어 요청하고, 엔드포인트별 처리량과 지연 시간을 출력합니다.
+// (./gradlew loadtest)
+//
+// 옵션(기본값)
+// - baseUrl(http://localhost:8080), concurrency(64): 동시에 요청하는 가상 사용자 수
+// - duration(60), warmup(10): 측정 시간과 측정 전 예열 시간(초). 예열 중의 요청은 결과에 넣지 않습니다.
+// - mix(search=70,postWrite=5,commentWrite=15,login=10): 작업별 비율
+// - rate(0): 0이면 가상 사용자마다 응답을 받자마자 다음 요청을 보냅니다(closed loop).
+//   0보다 크면 전체 초당 요청 수를 rate로 고정하고, 지연 시간을 "보냈어야 할 시각"부터 잽니다.
+//   서버가 밀려 요청이 늦게 나간 시간까지 지연 시간에 포함되므로 꼬리 지연(p99/p999)이 실제보다 작게 나오지 않습니다.
+// - users, posts, categories: LoadTestDataSeeder에 준 값과 같아야 합니다. 로그인 계정과 댓글을 달 게시물을 여기서 고릅니다.
+// - timeoutMillis(5000), seed(42), out(build/results/loadtest/results.json)
+//
+// 가상 사용자는 시작할 때 로그인하고 세션 쿠키를 유지합니다. 응답 코드가 2xx가 아니거나 시간 초과/연결 오류가 나면 오류로 셉니다.
+// 지연 시간은 오류 응답도 포함하며, 결과는 표로 출력하고 out 경로에 JSON으로 저장합니다.
+@Log4j2
+public class LoadGenerator {
+    // 로그인 실패를 오류로 집계할 때 사용하는 상태 코드입니다. (실제 응답 코드는 200)
+    private static final int LOGIN_FAILED_STATUS = 404;
+
+    enum Operation {
+        SEARCH("search", "GET /search"),
+        POST_WRITE("postWrite", "POST /posts"),
+        COMMENT_WRITE("commentWrite", "POST /posts/comments"),
+        LOGIN("login", "POST /users/sign-in");
+
+        private final String option;
+        private final String endpoint;
+
+        Operation(String option, String endpoint) {
+            this.option = option;
+            this.endpoint = endpoint;
+        }
+    }
+
+    private final String baseUrl;
+    private final int concurrency;
+    private final long durationSecond;
+    private final long warmupSecond;
+    private final double rate;
+    private final int users;
+    private final int posts;
+    private final int categories;
+    private final long seed;
+    private final Duration timeout;
+    private final String out;
+    private final Operation[] schedule;
+    private final Map<String, Object> config = new LinkedHashMap<>();
+
+    private final HttpClient client;
+    private final Map<Operation, EndpointStats> stats = new EnumMap<>(Operation.class);
+
+    private volatile long measureStartNanos;
+    private volatile long endNanos;
+
+    public LoadGenerator(LoadTestOptions options) {
+        this.baseUrl = options.get("baseUrl", "http://localhost:8080");
+        this.concurrency = options.getInt("concurrency", 64);
+        this.durationSecond = options.getLong("duration", 60);
+        this.warmupSecond = options.getLong("warmup", 10);
+        this.rate = Double.parseDouble(options.get("rate", "0"));
+        this.users = options.getInt("users", 100000);
+        this.posts = options.getInt("posts", 1000000);
+        this.categories = options.getInt("categories", 20);
+        this.seed = options.getLong("seed", 42);
+        this.timeout = Duration.ofMillis(options.getLong("timeoutMillis", 5000));
+        this.out = options.get("out", "build/results/loadtest/results.json");
+        String mix = options.get("mix", "search=70,postWrite=5,commentWrite=15,login=10");
+        this.schedule = schedule(mix);
+
+        config.put("baseUrl", baseUrl);
+        config.put("concurrency", concurrency);
+        config.put("durationSecond", durationSecond);
+        config.put("warmupSecond", warmupSecond);
+        config.put("rate", rate);
+        config.put("mix", mix);
+        config.put("users", users);
+        config.put("posts", posts);
+
+        this.client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(timeout)
+                .build();
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new EndpointStats());
+        }
+    }
+
+    public static void main(String[] args) throws Exception {
+        new LoadGenerator(new LoadTestOptions(args)).run();
+    }
+
+    public void run() throws InterruptedException, IOException {
+        log.info("부하 시작 : {} (예열 {}s, 측정 {}s)", config, warmupSecond, durationSecond);
+        long start = System.nanoTime();
+        measureStartNanos = start + TimeUnit.SECONDS.toNanos(warmupSecond);
+        endNanos = measureStartNanos + TimeUnit.SECONDS.toNanos(durationSecond);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < concurrency; i++) {
+                VirtualUser user = new VirtualUser(new Random(seed + i));
+                executor.submit(user::run);
+            }
+        } // 모든 가상 사용자가 끝날 때까지 기다립니다.
+
+        report();
+    }
+
+    // mix를 100칸짜리 작업 배열로 펼쳐 두고, 가상 사용자는 임의의 칸을 골라 실행합니다.
+    private static Operation[] schedule(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        int total = 0;
+        for (String entry : mix.split(",")) {
+            String[] pair = entry.trim().split("=");
+            Operation operation = null;
+            for (Operation candidate : Operation.values()) {
+                if (candidate.option.equals(pair[0].trim())) {
+                    operation = candidate;
+                }
+            }
+            if (operation == null || pair.length != 2) {
+                throw new IllegalArgumentException("mix 형식을 확인해주세요 : " + entry);
+            }
+            int weight = Integer.parseInt(pair[1].trim());
+            weights.put(operation, weight);
+            total += weight;
+        }
+        if (total <= 0) {
+            throw new IllegalArgumentException("mix의 비율 합이 0입니다 : " + mix);
+        }
+        List<Operation> slots = new ArrayList<>();
+        for (Map.Entry<Operation, Integer> entry : weights.entrySet()) {
+            long count = Math.round(entry.getValue() * 100.0 / total);
+            for (int i = 0; i < count; i++) {
+                slots.add(entry.getKey());
+            }
+        }
+        return slots.toArray(new Operation[0]);
+    }
+
+    private void report() throws IOException {
+        double seconds = durationSecond;
+        List<Map<String, Object>> endpoints = new ArrayList<>();
+        Histogram total = new Histogram(3);
+        long totalErrors = 0;
+
+        System.out.printf("%n%-24s %10s %8s %10s %10s %10s %10s %10s%n",
+                "endpoint", "count", "errors", "req/s", "p50(ms)", "p99(ms)", "p999(ms)", "max(ms)");
+        for (Operation operation : Operation.values()) {
+            EndpointStats endpointStats = stats.get(operation);
+            Histogram histogram = endpointStats.histogram.copy();
+            long errors = endpointStats.errors.sum();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            total.add(histogram);
+            totalErrors += errors;
+            Map<String, Object> row = row(operation.endpoint, histogram, errors, seconds);
+            row.put("errorsByStatus", endpointStats.errorsByStatus());
+            endpoints.add(row);
+            print(row);
+        }
+        Map<String, Object> totalRow = row("total", total, totalErrors, seconds);
+        print(totalRow);
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("config", config);
+        result.put("endpoints", endpoints);
+        result.put("total", totalRow);
+        File file = new File(out);
+        if (file.getParentFile() != null) {
+            file.getParentFile().mkdirs();
+        }
+        new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file, result);
+        System.out.printf("%n결과 저장 : %s%n", file.getAbsolutePath());
+    }
+
+    // 지연 시간은 마이크로초로 기록하고 밀리초로 출력합니다.
+    private static Map<String, Object> row(String name, Histogram histogram, long errors, double seconds) {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("endpoint", name);
+        row.put("count", histogram.getTotalCount());
+        row.put("errors", errors);
+        row.put("throughput", histogram.getTotalCount() / seconds);
+        row.put("meanMillis", histogram.getMean() / 1000.0);
+        row.put("p50Millis", histogram.getValueAtPercentile(50) / 1000.0);
+        row.put("p99Millis", histogram.getValueAtPercentile(99) / 1000.0);
+        row.put("p999Millis", histogram.getValueAtPercentile(99.9) / 1000.0);
+        row.put("maxMillis", histogram.getMaxValue() / 1000.0);
+        return row;
+    }
+
+    private static void print(Map<String, Object> row) {
+        System.out.printf("%-24s %10d %8d %10.1f %10.2f %10.2f %10.2f %10.2f%n",
+                row.get("endpoint"), row.get("count"), row.get("errors"), row.get("throughput"),
+                row.get("p50Millis"), row.get("p99Millis"), row.get("p999Millis"), row.get("maxMillis"));
+    }
+
+    // 가상 사용자 한 명입니다. 자기 세션 쿠키를 가지고 endNanos까지 작업을 반복합니다.
+    private final class VirtualUser {
+        private final Random random;
+        private final long intervalNanos;
+        private String sessionCookie;
+
+        private VirtualUser(Random random) {
+            this.random = random;
+            this.intervalNanos = rate > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) * concurrency / rate) : 0;
+        }
+
+        private void run() {
+            // 가상 사용자들이 한꺼번에 시작하지 않도록 첫 요청 시각을 간격 안에서 흩어 놓습니다.
+            long intended = System.nanoTime() + (intervalNanos > 0 ? (long) (random.nextDouble() * intervalNanos) : 0);
+            execute(Operation.LOGIN, intended);
+            while (true) {
+                if (intervalNanos > 0) {
+                    intended += intervalNanos;
+                    long wait = intended - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                } else {
+                    intended = System.nanoTime();
+                }
+                if (intended >= endNanos) {
+                    return;
+                }
+                execute(schedule[random.nextInt(schedule.length)], intended);
+            }
+        }
+
+        private void execute(Operation operation, long intendedNanos) {
+            int status;
+            try {
+                status = send(operation);
+            } catch (IOException e) {
+                status = -1;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+            long end = System.nanoTime();
+            if (intendedNanos >= measureStartNanos && end <= endNanos) {
+                stats.get(operation).record(TimeUnit.NANOSECONDS.toMicros(end - intendedNanos), status);
+            }
+        }
+
+        private int send(Operation operation) throws IOException, InterruptedException {
+            HttpRequest request = switch (operation) {
+                case SEARCH -> request("/search?name=" + encode(word()) + "&categoryId=" + randomCategory()
+                        + "&sortStatus=NEWEST&size=20").GET().build();
+                case POST_WRITE -> json("/posts", "{\"name\":\"" + word() + " 부하 테스트\",\"contents\":\""
+                        + word() + " " + word() + " " + word() + "\",\"categoryId\":" + (1 + random.nextInt(categories))
+                        + ",\"isAdmin\":0,\"views\":0,\"fileId\":0}");
+                case COMMENT_WRITE -> json("/posts/comments", "{\"postId\":" + (1 + random.nextInt(posts))
+                        + ",\"contents\":\"" + word() + " 댓글\",\"subCommentId\":0}");
+                case LOGIN -> {
+                    int n = 1 + random.nextInt(users);
+                    yield json("/users/sign-in", "{\"userId\":\"" + LoadTestDataSeeder.userId(n)
+                            + "\",\"password\":\"" + LoadTestDataSeeder.password(n) + "\"}");
+                }
+            };
+            HttpResponse<String> response = client.send(request, HttpResponse.BodyHandlers.ofString());
+            if (operation == Operation.LOGIN) {
+                response.headers().firstValue("Set-Cookie")
+                        .ifPresent(cookie -> sessionCookie = cookie.split(";", 2)[0]);
+                // 로그인 실패도 200 응답에 본문 "NOT_FOUND"로 옵니다.
+                if (response.body().contains("NOT_FOUND")) {
+                    return LOGIN_FAILED_STATUS;
+                }
+            }
+            return response.statusCode();
+        }
+
+        private HttpRequest.Builder request(String path) {
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout);
+            if (sessionCookie != null) {
+                builder.header("Cookie", sessionCookie);
+            }
+            return builder;
+        }
+
+        private HttpRequest json(String path, String body) {
+            return request(path)
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8))
+                    .build();
+        }
+
+        private String word() {
+            return LoadTestDataSeeder.WORDS[random.nextInt(LoadTestDataSeeder.WORDS.length)];
+        }
+
+        // 검색의 1/4은 카테고리 조건 없이(categoryId=0) 전체에서 찾습니다.
+        private int randomCategory() {
+            return random.nextInt(4) == 0 ? 0 : 1 + random.nextInt(categories);
+        }
+
+        private String encode(String value) {
+            return URLEncoder.encode(value, StandardCharsets.UTF_8);
+        }
+    }
+
+    // 엔드포인트 하나의 지연 시간 히스토그램과 오류 수입니다. 여러 가상 사용자가 동시에 기록합니다.
+    private static final class EndpointStats {
+        private final Histogram histogram = new ConcurrentHistogram(3);
+        private final LongAdder errors = new LongAdder();
+        private final Map<Integer, LongAdder> errorStatuses = new ConcurrentHashMap<>();
+
+        private void record(long micros, int status) {
+            histogram.recordValue(micros);
+            if (status < 200 || status >= 300) {
+                errors.increment();
+                errorStatuses.computeIfAbsent(status, key -> new LongAdder()).increment();
+            }
+        }
+
+        // 오류 응답 코드별 횟수입니다. 연결 오류와 시간 초과는 -1입니다.
+        private Map<String, Long> errorsByStatus() {
+            Map<String, Long> result = new LinkedHashMap<>();
+            errorStatuses.forEach((status, count) -> result.put(String.valueOf(status), count.sum()));
+            return result;
+        }
+    }
+}
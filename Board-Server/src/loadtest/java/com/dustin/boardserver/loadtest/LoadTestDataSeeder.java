@@ -0,0 +1,303 @@
+package com.dustin.boardserver.loadtest;
+
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.utils.SHA256Util;
+import lombok.extern.log4j.Log4j2;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+// 부하 테스트용 스키마를 만들고 데이터를 채웁니다.
+//
+// 옵션(기본값): users(100000), categories(20), posts(1000000), comments(2000000), tags(200), contentsLength(200), seed(42)
+// - 같은 seed면 항상 같은 데이터가 만들어집니다.
+// - 사용자 n(1부터)의 아이디/비밀번호는 userId(n)/password(n)이며, LoadGenerator가 로그인할 때 같은 규칙을 사용합니다.
+// - 게시물 제목은 WORDS의 단어로 시작하므로 WORDS의 단어로 제목 접두어 검색을 하면 결과가 나옵니다.
+// - 게시물 작성 시간은 최근 1년 안에 고르게 퍼지고, 게시물마다 태그가 0~2개 붙습니다.
+// - 샤드가 여럿이면 서버와 같은 규칙으로 나눠 넣습니다. (ShardRouter 참고)
+//   사용자/카테고리는 0번 샤드에, 게시물은 작성자의 샤드에, 댓글과 태그는 게시물의 샤드에 넣고,
+//   게시물/댓글/태그 ID는 ShardIdGenerator.encode로 만듭니다. 태그 목록은 샤드마다 같은 이름으로 한 벌씩 만듭니다.
+// 이미 게시물이 있는 DB(파일 DB를 다시 사용하는 경우)는 채우지 않습니다.
+@Log4j2
+public class LoadTestDataSeeder {
+    public static final String[] WORDS = {"스프링", "자바", "레디스", "캐시", "검색", "게시판", "공지", "질문", "답변", "후기",
+            "spring", "java", "redis", "mysql", "kotlin", "docker", "board", "cache", "search", "review"};
+
+    private static final int BATCH_SIZE = 1000;
+    private static final int COMMIT_SIZE = 10000;
+    private static final int PROGRESS_SIZE = 500000;
+    private static final long YEAR_MILLIS = TimeUnit.DAYS.toMillis(365);
+
+    private final int users;
+    private final int categories;
+    private final int posts;
+    private final int comments;
+    private final int tags;
+    private final int contentsLength;
+    private final Random random;
+    private int[] postIds;
+
+    public LoadTestDataSeeder(LoadTestOptions options) {
+        this.users = options.getInt("users", 100000);
+        this.categories = options.getInt("categories", 20);
+        this.posts = options.getInt("posts", 1000000);
+        this.comments = options.getInt("comments", 2000000);
+        this.tags = options.getInt("tags", 200);
+        this.contentsLength = options.getInt("contentsLength", 200);
+        this.random = new Random(options.getLong("seed", 42));
+    }
+
+    public static String userId(int n) {
+        return "loaduser" + n;
+    }
+
+    public static String password(int n) {
+        return "loadpass" + n;
+    }
+
+    // shards.get(0)이 0번 샤드입니다. 샤드가 하나면 샤딩하지 않을 때와 같은 ID(1부터 연속)로 채웁니다.
+    public void seed(List<Connection> shards) throws SQLException {
+        for (Connection connection : shards) {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RUNSCRIPT FROM 'classpath:/loadtest/schema.sql'");
+            }
+        }
+        if (count(shards.get(0), "post") > 0) {
+            log.info("이미 데이터가 있어 채우지 않습니다.");
+            return;
+        }
+
+        long start = System.nanoTime();
+        boolean[] autoCommits = new boolean[shards.size()];
+        for (int shard = 0; shard < shards.size(); shard++) {
+            autoCommits[shard] = shards.get(shard).getAutoCommit();
+            shards.get(shard).setAutoCommit(false);
+        }
+        try {
+            seedUsers(shards);
+            seedCategories(shards);
+            seedPosts(shards);
+            seedComments(shards);
+            seedTags(shards);
+        } finally {
+            for (int shard = 0; shard < shards.size(); shard++) {
+                shards.get(shard).setAutoCommit(autoCommits[shard]);
+            }
+        }
+        log.info("데이터 생성 완료 : {}개 샤드 ({}s)", shards.size(),
+                TimeUnit.NANOSECONDS.toSeconds(System.nanoTime() - start));
+    }
+
+    private void seedUsers(List<Connection> shards) throws SQLException {
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        insert(shards, "user", users,
+                "INSERT INTO `user` (userId, passWord, nickName, isAdmin, createTime, isWithDraw, status) VALUES (?, ?, ?, 0, ?, 0, 'DEFAULT')",
+                (insert, n) -> {
+                    PreparedStatement statement = insert.statement(0);
+                    statement.setString(1, userId(n));
+                    statement.setString(2, SHA256Util.encryptSHA256(password(n)));
+                    statement.setString(3, "nick" + n);
+                    statement.setTimestamp(4, now);
+                    return 0;
+                });
+    }
+
+    private void seedCategories(List<Connection> shards) throws SQLException {
+        insert(shards, "category", categories,
+                "INSERT INTO category (id, name) VALUES (?, ?)",
+                (insert, n) -> {
+                    PreparedStatement statement = insert.statement(0);
+                    statement.setInt(1, n);
+                    statement.setString(2, "category" + n);
+                    return 0;
+                });
+    }
+
+    // 사용자 n의 DB ID는 n이므로(user 테이블의 AUTO_INCREMENT) 작성자의 샤드는 n % 샤드 수입니다.
+    private void seedPosts(List<Connection> shards) throws SQLException {
+        long now = System.currentTimeMillis();
+        int[] sequences = new int[shards.size()];
+        postIds = new int[posts + 1];
+        insert(shards, "post", posts,
+                "INSERT INTO post (id, name, isAdmin, contents, createTime, views, categoryId, userId, fileId, updateTime) VALUES (?, ?, 0, ?, ?, ?, ?, ?, 0, ?)",
+                (insert, n) -> {
+                    Timestamp createTime = new Timestamp(now - (long) (random.nextDouble() * YEAR_MILLIS));
+                    String name = word() + " " + word() + " " + n;
+                    String contents = contents();
+                    int views = random.nextInt(10000);
+                    int categoryId = 1 + random.nextInt(categories);
+                    int userId = 1 + random.nextInt(users);
+                    int shard = userId % shards.size();
+                    postIds[n] = id(++sequences[shard], shard, shards.size());
+
+                    PreparedStatement statement = insert.statement(shard);
+                    statement.setInt(1, postIds[n]);
+                    statement.setString(2, name);
+                    statement.setString(3, contents);
+                    statement.setTimestamp(4, createTime);
+                    statement.setInt(5, views);
+                    statement.setInt(6, categoryId);
+                    statement.setInt(7, userId);
+                    statement.setTimestamp(8, createTime);
+                    return shard;
+                });
+    }
+
+    private void seedComments(List<Connection> shards) throws SQLException {
+        int[] sequences = new int[shards.size()];
+        insert(shards, "comment", comments,
+                "INSERT INTO `comment` (id, postId, contents, subCommentId) VALUES (?, ?, ?, 0)",
+                (insert, n) -> {
+                    int postId = postIds[1 + random.nextInt(posts)];
+                    int shard = postId % shards.size();
+                    PreparedStatement statement = insert.statement(shard);
+                    statement.setInt(1, id(++sequences[shard], shard, shards.size()));
+                    statement.setInt(2, postId);
+                    statement.setString(3, word() + " " + word() + " " + word());
+                    return shard;
+                });
+    }
+
+    // 게시물마다 서로 다른 태그를 0~2개 붙입니다. 태그 n의 ID는 샤드마다 id(n, shard)입니다.
+    private void seedTags(List<Connection> shards) throws SQLException {
+        for (int shard = 0; shard < shards.size(); shard++) {
+            int target = shard;
+            insert(shards, "tag", tags,
+                    "INSERT INTO `tag` (id, name, url) VALUES (?, ?, ?)",
+                    (insert, n) -> {
+                        PreparedStatement statement = insert.statement(target);
+                        statement.setInt(1, id(n, target, shards.size()));
+                        statement.setString(2, "tag" + n);
+                        statement.setString(3, "/tags/" + n);
+                        return target;
+                    });
+        }
+        if (tags == 0) {
+            return;
+        }
+        long start = System.nanoTime();
+        int rows = 0;
+        try (ShardedInsert insert = new ShardedInsert(shards, "INSERT INTO `post_tag` (postId, tagId) VALUES (?, ?)")) {
+            for (int n = 1; n <= posts; n++) {
+                int postId = postIds[n];
+                int shard = postId % shards.size();
+                int count = Math.min(random.nextInt(3), tags);
+                int first = random.nextInt(tags);
+                for (int i = 0; i < count; i++) {
+                    PreparedStatement statement = insert.statement(shard);
+                    statement.setInt(1, postId);
+                    statement.setInt(2, id(1 + (first + i) % tags, shard, shards.size()));
+                    insert.add(shard);
+                    rows++;
+                }
+            }
+        }
+        log.info("post_tag {}건 ({}ms)", rows, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    // count개의 행을 writer가 고른 샤드에 넣습니다. n은 1부터 시작합니다.
+    private void insert(List<Connection> shards, String table, int count, String sql, RowWriter writer) throws SQLException {
+        long start = System.nanoTime();
+        try (ShardedInsert insert = new ShardedInsert(shards, sql)) {
+            for (int n = 1; n <= count; n++) {
+                insert.add(writer.write(insert, n));
+                if (n % PROGRESS_SIZE == 0) {
+                    log.info("{} {}/{}", table, n, count);
+                }
+            }
+        }
+        log.info("{} {}건 ({}ms)", table, count, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private static int id(int sequence, int shard, int shardCount) {
+        return Math.toIntExact(ShardIdGenerator.encode(sequence, shard, shardCount));
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet resultSet = statement.executeQuery("SELECT COUNT(*) FROM `" + table + "`")) {
+            resultSet.next();
+            return resultSet.getLong(1);
+        }
+    }
+
+    private String word() {
+        return WORDS[random.nextInt(WORDS.length)];
+    }
+
+    private String contents() {
+        StringBuilder sb = new StringBuilder(contentsLength + 16);
+        while (sb.length() < contentsLength) {
+            sb.append(word()).append(' ');
+        }
+        return sb.toString();
+    }
+
+    // 행의 값을 insert.statement(shard)에 채우고 그 샤드 번호를 반환합니다.
+    private interface RowWriter {
+        int write(ShardedInsert insert, int n) throws SQLException;
+    }
+
+    // 샤드마다 같은 INSERT 문을 열어 두고, 샤드별로 BATCH_SIZE개씩 배치로 넣고 COMMIT_SIZE개마다 커밋합니다.
+    private static final class ShardedInsert implements AutoCloseable {
+        private final List<Connection> shards;
+        private final PreparedStatement[] statements;
+        private final int[] rows;
+
+        private ShardedInsert(List<Connection> shards, String sql) throws SQLException {
+            this.shards = shards;
+            this.statements = new PreparedStatement[shards.size()];
+            this.rows = new int[shards.size()];
+            try {
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    statements[shard] = shards.get(shard).prepareStatement(sql);
+                }
+            } catch (SQLException e) {
+                closeStatements();
+                throw e;
+            }
+        }
+
+        private PreparedStatement statement(int shard) {
+            return statements[shard];
+        }
+
+        private void add(int shard) throws SQLException {
+            statements[shard].addBatch();
+            rows[shard]++;
+            if (rows[shard] % BATCH_SIZE == 0) {
+                statements[shard].executeBatch();
+            }
+            if (rows[shard] % COMMIT_SIZE == 0) {
+                shards.get(shard).commit();
+            }
+        }
+
+        @Override
+        public void close() throws SQLException {
+            try {
+                for (int shard = 0; shard < shards.size(); shard++) {
+                    statements[shard].executeBatch();
+                    shards.get(shard).commit();
+                }
+            } finally {
+                closeStatements();
+            }
+        }
+
+        private void closeStatements() throws SQLException {
+            for (PreparedStatement statement : statements) {
+                if (statement != null) {
+                    statement.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.dustin.boardserver.loadtest;
+
+import java.util.HashMap;
+import java.util.Map;
+
+// 부하 테스트 프로그램의 실행 옵션입니다. "--이름=값" 형태의 인자를 읽고, 없는 옵션은 기본값을 사용합니다.
+// Gradle에서는 -Ploadtest.이름=값 으로 넘깁니다. (build.gradle의 loadtestArgs 참고)
+public class LoadTestOptions {
+    private final Map<String, String> values = new HashMap<>();
+
+    public LoadTestOptions(String[] args) {
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                continue;
+            }
+            int eq = arg.indexOf('=');
+            if (eq > 2) {
+                values.put(arg.substring(2, eq), arg.substring(eq + 1));
+            }
+        }
+    }
+
+    public String get(String name, String defaultValue) {
+        return values.getOrDefault(name, defaultValue);
+    }
+
+    public int getInt(String name, int defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Integer.parseInt(value);
+    }
+
+    public long getLong(String name, long defaultValue) {
+        String value = values.get(name);
+        return value == null ? defaultValue : Long.parseLong(value);
+    }
+}
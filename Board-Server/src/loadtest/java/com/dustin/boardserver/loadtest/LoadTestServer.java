@@ -0,0 +1,82 @@
+package com.dustin.boardserver.loadtest;
+
+import com.dustin.boardserver.BoardServerApplication;
+import com.github.fppt.jedismock.RedisServer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+// MySQL과 Redis 없이 서버를 띄우는 부하 테스트용 실행 클래스입니다. (./gradlew loadtestServer)
+//
+// 1. 프로세스 안에서 Redis 프로토콜 서버(jedis-mock)를 redisPort(기본 6380)로 띄웁니다.
+//    Lua 스크립트, pub/sub, 정렬 집합 등 서버가 사용하는 명령을 지원하며, 애플리케이션은 실제 Redis처럼 Lettuce로 접속합니다.
+// 2. jdbcUrl(기본: H2 메모리 DB, MySQL 호환 모드)에 스키마를 만들고 데이터를 채웁니다. (LoadTestDataSeeder 참고)
+//    색인/Bloom filter 등은 서버가 시작할 때 DB에서 다시 만들므로 데이터를 먼저 채운 뒤 서버를 시작합니다.
+//    --shards=N(기본 1)이면 H2 메모리 DB를 N개(board, board1, ... boardN-1) 만들어 샤드로 사용합니다. (ShardRouter 참고)
+// 3. loadtest 프로필(application-loadtest.properties)로 서버를 시작합니다.
+//
+// 그 밖의 --옵션은 스프링 설정으로도 전달되므로 --server.port=9090처럼 서버 설정을 바꿀 수 있습니다.
+// 메모리 DB와 검색 색인이 모두 힙에 올라가므로 게시물 수를 늘리면 -PloadtestHeap으로 힙도 늘려야 합니다.
+@Log4j2
+public class LoadTestServer {
+    static final String DEFAULT_JDBC_URL = shardJdbcUrl(0);
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options = new LoadTestOptions(args);
+        int redisPort = options.getInt("redisPort", 6380);
+        String jdbcUrl = options.get("jdbcUrl", DEFAULT_JDBC_URL);
+        List<String> shardUrls = new ArrayList<>();
+        for (int shard = 1; shard < options.getInt("shards", 1); shard++) {
+            shardUrls.add(shardJdbcUrl(shard));
+        }
+
+        RedisServer redisServer = RedisServer.newRedisServer(redisPort);
+        redisServer.start();
+        log.info("redis(jedis-mock) 시작 : port={}", redisPort);
+
+        try {
+            seed(options, jdbcUrl, shardUrls);
+
+            // 명령행 인자는 프로필 설정 파일보다 우선하므로 DB URL과 Redis 포트를 인자로 넘깁니다.
+            String[] springArgs = Arrays.copyOf(args, args.length + 3);
+            springArgs[args.length] = "--spring.datasource.jdbc-url=" + jdbcUrl;
+            springArgs[args.length + 1] = "--spring.data.redis.port=" + redisPort;
+            springArgs[args.length + 2] = "--datasource.shard.urls=" + String.join(",", shardUrls);
+            new SpringApplicationBuilder(BoardServerApplication.class)
+                    .profiles("loadtest")
+                    .run(springArgs);
+        } catch (Exception e) {
+            // Redis 서버 스레드가 남아 프로세스가 끝나지 않는 것을 막습니다.
+            redisServer.stop();
+            throw e;
+        }
+    }
+
+    // 모든 샤드에 커넥션을 열어 데이터를 채웁니다. 메모리 DB는 DB_CLOSE_DELAY=-1이므로 닫아도 남아 있습니다.
+    private static void seed(LoadTestOptions options, String jdbcUrl, List<String> shardUrls) throws SQLException {
+        List<Connection> connections = new ArrayList<>();
+        try {
+            connections.add(DriverManager.getConnection(jdbcUrl, "sa", ""));
+            for (String shardUrl : shardUrls) {
+                connections.add(DriverManager.getConnection(shardUrl, "sa", ""));
+            }
+            new LoadTestDataSeeder(options).seed(connections);
+        } finally {
+            for (Connection connection : connections) {
+                connection.close();
+            }
+        }
+    }
+
+    // shard번 샤드의 H2 메모리 DB URL입니다. 0번 샤드는 board, 나머지는 board1, board2, ...입니다.
+    static String shardJdbcUrl(int shard) {
+        return "jdbc:h2:mem:board" + (shard == 0 ? "" : shard) + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;"
+                + "CASE_INSENSITIVE_IDENTIFIERS=TRUE;NON_KEYWORDS=USER;DB_CLOSE_DELAY=-1";
+    }
+}
@@ -0,0 +1,74 @@
+-- 부하 테스트용 스키마입니다. 매퍼 XML(src/main/resources/mappers)이 사용하는 테이블과 컬럼, 조회 조건에 맞춘 인덱스를 만듭니다.
+-- H2의 MySQL 호환 모드(MODE=MySQL)에서 실행합니다. 샤드가 여럿이면 샤드마다 같은 스키마를 만듭니다.
+-- 샤드가 여럿이면 post/comment/tag의 ID는 서버(ShardIdGenerator)와 데이터 생성기(LoadTestDataSeeder)가 직접 넣습니다.
+
+CREATE TABLE IF NOT EXISTS `user`
+(
+    `id`         INT AUTO_INCREMENT PRIMARY KEY,
+    `userId`     VARCHAR(45)  NOT NULL,
+    `passWord`   VARCHAR(64)  NOT NULL,
+    `nickName`   VARCHAR(45)  NOT NULL,
+    `isAdmin`    TINYINT      NOT NULL DEFAULT 0,
+    `createTime` DATETIME     NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    `isWithDraw` TINYINT      NOT NULL DEFAULT 0,
+    `status`     VARCHAR(20)  NOT NULL DEFAULT 'DEFAULT',
+    `updateTime` DATETIME
+);
+CREATE UNIQUE INDEX IF NOT EXISTS `ux_user_userId` ON `user` (`userId`);
+CREATE INDEX IF NOT EXISTS `ix_user_nickName` ON `user` (`nickName`);
+
+CREATE TABLE IF NOT EXISTS `category`
+(
+    `id`   INT PRIMARY KEY,
+    `name` VARCHAR(45) NOT NULL
+);
+
+CREATE TABLE IF NOT EXISTS `post`
+(
+    `id`         INT AUTO_INCREMENT PRIMARY KEY,
+    `name`       VARCHAR(100) NOT NULL,
+    `isAdmin`    TINYINT      NOT NULL DEFAULT 0,
+    `contents`   VARCHAR(4000),
+    `createTime` DATETIME     NOT NULL,
+    `views`      INT          NOT NULL DEFAULT 0,
+    `categoryId` INT          NOT NULL,
+    `userId`     INT          NOT NULL,
+    `fileId`     INT          NOT NULL DEFAULT 0,
+    `updateTime` DATETIME
+);
+-- 키셋 페이지네이션(selectPosts)의 정렬 기준별 인덱스와 내 글 조회, 제목 접두어 검색용 인덱스입니다.
+CREATE INDEX IF NOT EXISTS `ix_post_createTime_id` ON `post` (`createTime`, `id`);
+CREATE INDEX IF NOT EXISTS `ix_post_categoryId_id` ON `post` (`categoryId`, `id`);
+CREATE INDEX IF NOT EXISTS `ix_post_userId` ON `post` (`userId`);
+CREATE INDEX IF NOT EXISTS `ix_post_name` ON `post` (`name`);
+
+CREATE TABLE IF NOT EXISTS `comment`
+(
+    `id`           INT AUTO_INCREMENT PRIMARY KEY,
+    `postId`       INT NOT NULL,
+    `contents`     VARCHAR(1000),
+    `subCommentId` INT NOT NULL DEFAULT 0
+);
+CREATE INDEX IF NOT EXISTS `ix_comment_postId` ON `comment` (`postId`);
+
+CREATE TABLE IF NOT EXISTS `tag`
+(
+    `id`   INT AUTO_INCREMENT PRIMARY KEY,
+    `name` VARCHAR(45) NOT NULL,
+    `url`  VARCHAR(200)
+);
+
+CREATE TABLE IF NOT EXISTS `post_tag`
+(
+    `postId` INT NOT NULL,
+    `tagId`  INT NOT NULL,
+    PRIMARY KEY (`postId`, `tagId`)
+);
+CREATE INDEX IF NOT EXISTS `ix_post_tag_tagId` ON `post_tag` (`tagId`);
+
+-- 샤드가 여럿일 때 사용하는 ID 순번입니다. 0번 샤드의 테이블만 사용합니다. 행이 없으면 서버가 모든 샤드의 가장 큰 ID 다음부터 만듭니다.
+CREATE TABLE IF NOT EXISTS `id_sequence`
+(
+    `name`      VARCHAR(45) PRIMARY KEY,
+    `nextValue` BIGINT NOT NULL
+);
@@ -0,0 +1,13 @@
+package com.dustin.boardserver.aop;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+// 이 메서드의 조회를 읽기 전용 복제본(replica)으로 보내도 된다는 표시입니다. (ReplicaRoutingDataSource 참고)
+// 쓰기 트랜잭션 안에서 호출되거나, 같은 세션이 방금 쓴 경우에는 primary에서 읽습니다.
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface ReplicaRead {
+}
@@ -0,0 +1,28 @@
+package com.dustin.boardserver.aop;
+
+import com.dustin.boardserver.datasource.ReplicaRoutingContext;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+// @ReplicaRead 메서드가 실행되는 동안 현재 스레드를 읽기 전용으로 표시합니다.
+// 실제 커넥션은 첫 쿼리에서 꺼내므로(LazyConnectionDataSourceProxy) 트랜잭션 어드바이스보다 먼저 실행될 필요는 없지만,
+// 표시가 트랜잭션 전체에 걸치도록 가장 바깥에서 실행합니다.
+@Component
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class ReplicaReadAspect {
+
+    @Around("@annotation(com.dustin.boardserver.aop.ReplicaRead)")
+    public Object routeToReplica(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        Boolean previous = ReplicaRoutingContext.setReadOnly(true);
+        try {
+            return proceedingJoinPoint.proceed();
+        } finally {
+            ReplicaRoutingContext.restoreReadOnly(previous);
+        }
+    }
+}
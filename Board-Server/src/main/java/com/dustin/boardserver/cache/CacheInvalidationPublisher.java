@@ -0,0 +1,43 @@
+package com.dustin.boardserver.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.UUID;
+
+// 다른 서버의 L1 캐시 엔트리를 지우도록 Redis pub/sub 채널로 무효화 메시지를 발행합니다.
+// 메시지 형식: "발행서버ID \n 캐시이름 \n 키" (키가 "*"이면 캐시 전체 삭제)
+// 자기 자신이 보낸 메시지는 발행 서버 ID로 구분하여 무시합니다.
+@Log4j2
+public class CacheInvalidationPublisher {
+    public static final String CHANNEL = "cache:invalidation";
+    static final String CLEAR_ALL = "*";
+
+    private final StringRedisTemplate redisTemplate;
+    private final String nodeId = UUID.randomUUID().toString();
+
+    public CacheInvalidationPublisher(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    public String getNodeId() {
+        return nodeId;
+    }
+
+    public void publishEvict(String cacheName, Object key) {
+        publish(cacheName, String.valueOf(key));
+    }
+
+    public void publishClear(String cacheName) {
+        publish(cacheName, CLEAR_ALL);
+    }
+
+    private void publish(String cacheName, String key) {
+        try {
+            redisTemplate.convertAndSend(CHANNEL, nodeId + "\n" + cacheName + "\n" + key);
+        } catch (RuntimeException e) {
+            // 발행에 실패해도 다른 서버의 L1은 TTL이 지나면 만료되므로 요청은 실패시키지 않습니다.
+            log.error("cache invalidation 발행 실패 : {} {}", cacheName, key, e);
+        }
+    }
+}
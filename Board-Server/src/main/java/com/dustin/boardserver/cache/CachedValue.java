@@ -0,0 +1,24 @@
+package com.dustin.boardserver.cache;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+// 미리 갱신(refresh-ahead) 캐시에 저장되는 값의 봉투(envelope)입니다.
+// 실제 값과 함께 언제 계산되었는지, 계산에 얼마나 걸렸는지를 저장하여
+// 만료 전에 갱신을 시작할 시점을 정하는 데 사용합니다.
+@Getter
+@Setter
+@AllArgsConstructor
+@NoArgsConstructor
+public class CachedValue {
+    // 캐시된 실제 값입니다.
+    private Object value;
+
+    // 값을 계산한 시각(epoch ms)입니다.
+    private long createdAt;
+
+    // 값을 계산하는 데 걸린 시간(ms)입니다. 오래 걸리는 값일수록 더 일찍 갱신을 시작합니다.
+    private long computeMillis;
+}
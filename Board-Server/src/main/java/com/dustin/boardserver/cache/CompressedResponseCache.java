@@ -0,0 +1,87 @@
+package com.dustin.boardserver.cache;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.zip.GZIPOutputStream;
+
+// 응답 본문을 JSON으로 직렬화하고 gzip으로 압축한 바이트를 ETag별로 캐시합니다.
+//
+// ETag는 데이터의 버전(검색 캐시 키, 사용자 게시물 세대 번호)으로 만들므로 같은 ETag의 본문은 같습니다.
+// 따라서 같은 검색/목록을 여러 클라이언트가 반복해서 받아도 직렬화와 압축은 ETag마다 한 번만 합니다.
+// - 전체 크기는 maximumBytes로 제한하며, 데이터가 바뀌면 ETag가 바뀌므로 이전 엔트리는 조회되지 않다가 밀려납니다.
+// - minBytes보다 작은 본문은 압축 이득이 적으므로 압축하지 않은 JSON을 그대로 보관합니다.
+// (톰캣의 server.compression은 강한 ETag가 붙은 응답을 압축하지 않으므로, ETag를 사용하는 응답은 여기서 압축합니다)
+// 지표: cache.gets{cache=compressedResponse}(적중/미스)
+@Component
+public class CompressedResponseCache {
+    private final ObjectMapper objectMapper;
+    private final Cache<String, CompressedBody> cache;
+    private final int minBytes;
+
+    public CompressedResponseCache(ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                   @Value("${response.gzip.maximumBytes:67108864}") long maximumBytes,
+                                   @Value("${response.gzip.minBytes:1024}") int minBytes) {
+        this.objectMapper = objectMapper;
+        this.minBytes = minBytes;
+        this.cache = Caffeine.newBuilder()
+                .maximumWeight(maximumBytes)
+                .weigher((String key, CompressedBody value) -> key.length() + value.bytes().length)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "compressedResponse");
+    }
+
+    // ETag에 해당하는 본문을 반환합니다. 캐시에 없으면 body를 직렬화하고 압축하여 저장합니다.
+    public CompressedBody get(String eTag, Object body) {
+        return cache.get(eTag, key -> compress(body));
+    }
+
+    // ETag가 붙은 200 응답을 만듭니다. 본문이 minBytes 이상이면 캐시된 gzip 바이트를 Content-Encoding: gzip으로 보냅니다.
+    // eTag는 gzip 응답용(ETagUtil.strong(..., true))이어야 합니다.
+    public ResponseEntity<Object> gzipResponse(String eTag, Object body) {
+        CompressedBody compressed = get(eTag, body);
+        ResponseEntity.BodyBuilder builder = ResponseEntity.ok()
+                .eTag(eTag)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING)
+                .contentType(MediaType.APPLICATION_JSON);
+        if (compressed.gzip()) {
+            builder.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return builder.body(compressed.bytes());
+    }
+
+    private CompressedBody compress(Object body) {
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(body);
+            if (json.length < minBytes) {
+                return new CompressedBody(json, false);
+            }
+            ByteArrayOutputStream buffer = new ByteArrayOutputStream(json.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(buffer)) {
+                gzip.write(json);
+            }
+            return new CompressedBody(buffer.toByteArray(), true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException(e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    // gzip이 false이면 bytes는 압축하지 않은 JSON입니다.
+    public record CompressedBody(byte[] bytes, boolean gzip) {
+    }
+}
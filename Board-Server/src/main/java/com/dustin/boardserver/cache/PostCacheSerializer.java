@@ -0,0 +1,394 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.CommentTreeDTO;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.PostPageDTO;
+import net.jpountz.lz4.LZ4Compressor;
+import net.jpountz.lz4.LZ4Factory;
+import net.jpountz.lz4.LZ4FastDecompressor;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+// 캐시 값을 Redis에 저장하기 위한 바이너리 직렬화기입니다.
+// JSON과 달리 필드 이름과 클래스 이름을 저장하지 않고, 정수는 가변 길이(varint)로 저장하여 값을 작게 만듭니다.
+//
+// 형식: [버전 1byte][플래그 1byte][본문]
+// - 플래그의 FLAG_LZ4가 켜져 있으면 본문은 [원본 길이 varint][LZ4로 압축한 본문]입니다.
+//   본문이 compressThreshold 바이트 이상이고 압축하여 실제로 작아질 때만 압축합니다.
+// - 본문은 [타입 1byte][값] 형식이며 PostDTO, List<PostDTO>, PostPageDTO, List<CommentTreeDTO>, CachedValue를 지원합니다.
+//   그 밖의 타입은 기존 JSON 직렬화기로 저장합니다. (TYPE_JSON)
+// - 이전 버전이 저장한 JSON 값은 첫 바이트가 '{', '[', '"' 등이므로 버전 바이트와 구분되어
+//   배포 중에도 기존 JSON 직렬화기로 읽을 수 있습니다.
+// - 타입을 추가하거나 형식을 바꾸면 VERSION을 올립니다. 배포 중 이전 서버와 새 서버가 같은 Redis를 쓰므로,
+//   읽을 수 없는 버전이나 타입의 값은 예외 대신 캐시 미스(null)로 처리하여 원본에서 다시 읽고 덮어쓰게 합니다.
+public class PostCacheSerializer implements RedisSerializer<Object> {
+    // 버전 2: TYPE_COMMENT_TREE_LIST 추가
+    static final byte VERSION = 2;
+    // 버전 2는 버전 1에 타입만 추가했으므로 버전 1로 저장된 값도 그대로 읽습니다.
+    static final byte MIN_READABLE_VERSION = 1;
+    static final byte FLAG_LZ4 = 1;
+
+    private static final byte TYPE_NULL = 0;
+    private static final byte TYPE_POST = 1;
+    private static final byte TYPE_POST_LIST = 2;
+    private static final byte TYPE_POST_PAGE = 3;
+    private static final byte TYPE_CACHED_VALUE = 4;
+    private static final byte TYPE_JSON = 5;
+    private static final byte TYPE_COMMENT_TREE_LIST = 6;
+
+    private static final LZ4Factory LZ4 = LZ4Factory.fastestInstance();
+
+    private final RedisSerializer<Object> jsonSerializer;
+    private final int compressThreshold;
+    private final LZ4Compressor compressor = LZ4.fastCompressor();
+    private final LZ4FastDecompressor decompressor = LZ4.fastDecompressor();
+
+    public PostCacheSerializer(RedisSerializer<Object> jsonSerializer, int compressThreshold) {
+        this.jsonSerializer = jsonSerializer;
+        this.compressThreshold = compressThreshold;
+    }
+
+    @Override
+    public byte[] serialize(Object value) throws SerializationException {
+        if (value == null) {
+            return new byte[0];
+        }
+        Writer body = new Writer(256);
+        writeValue(body, value);
+
+        if (body.size < compressThreshold) {
+            return body.toArray(VERSION, (byte) 0);
+        }
+        byte[] compressed = new byte[compressor.maxCompressedLength(body.size)];
+        int compressedLength = compressor.compress(body.buf, 0, body.size, compressed, 0, compressed.length);
+        if (compressedLength >= body.size) {
+            return body.toArray(VERSION, (byte) 0);
+        }
+        Writer out = new Writer(compressedLength + 7);
+        out.writeByte(VERSION);
+        out.writeByte(FLAG_LZ4);
+        out.writeVarInt(body.size);
+        out.writeBytes(compressed, 0, compressedLength);
+        return out.toArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] < MIN_READABLE_VERSION || bytes[0] > VERSION) {
+            if (isLegacyJson(bytes[0])) {
+                return jsonSerializer.deserialize(bytes);
+            }
+            // 다른 버전의 서버가 저장한 값이므로 캐시 미스로 처리합니다.
+            return null;
+        }
+
+        Reader reader = new Reader(bytes, 2);
+        if ((bytes[1] & FLAG_LZ4) != 0) {
+            int rawLength = reader.readVarInt();
+            byte[] raw = new byte[rawLength];
+            decompressor.decompress(bytes, reader.pos, raw, 0, rawLength);
+            reader = new Reader(raw, 0);
+        }
+        try {
+            return readValue(reader);
+        } catch (UnknownTypeException e) {
+            return null;
+        }
+    }
+
+    // 이전 버전의 GenericJackson2JsonRedisSerializer가 저장한 값인지 확인합니다.
+    private static boolean isLegacyJson(byte first) {
+        return first == '{' || first == '[' || first == '"' || first == '-' || first == 't' || first == 'f'
+                || first == 'n' || (first >= '0' && first <= '9');
+    }
+
+    private void writeValue(Writer out, Object value) {
+        if (value == null) {
+            out.writeByte(TYPE_NULL);
+        } else if (value instanceof PostDTO postDTO) {
+            out.writeByte(TYPE_POST);
+            writePost(out, postDTO);
+        } else if (value instanceof PostPageDTO page) {
+            out.writeByte(TYPE_POST_PAGE);
+            writePostList(out, page.getPostDTOList());
+            out.writeString(page.getNextCursor());
+        } else if (value instanceof CachedValue cachedValue) {
+            out.writeByte(TYPE_CACHED_VALUE);
+            out.writeVarLong(cachedValue.getCreatedAt());
+            out.writeVarLong(cachedValue.getComputeMillis());
+            writeValue(out, cachedValue.getValue());
+        } else if (value instanceof List<?> list && isListOf(list, PostDTO.class)) {
+            out.writeByte(TYPE_POST_LIST);
+            writePostList(out, list);
+        } else if (value instanceof List<?> list && isListOf(list, CommentTreeDTO.class)) {
+            out.writeByte(TYPE_COMMENT_TREE_LIST);
+            writeCommentTreeList(out, list);
+        } else {
+            out.writeByte(TYPE_JSON);
+            byte[] json = jsonSerializer.serialize(value);
+            out.writeVarInt(json.length);
+            out.writeBytes(json, 0, json.length);
+        }
+    }
+
+    private Object readValue(Reader in) {
+        byte type = in.readByte();
+        switch (type) {
+            case TYPE_NULL:
+                return null;
+            case TYPE_POST:
+                return readPost(in);
+            case TYPE_POST_LIST:
+                return readPostList(in);
+            case TYPE_POST_PAGE:
+                List<PostDTO> postDTOList = readPostList(in);
+                return new PostPageDTO(postDTOList, in.readString());
+            case TYPE_CACHED_VALUE:
+                long createdAt = in.readVarLong();
+                long computeMillis = in.readVarLong();
+                return new CachedValue(readValue(in), createdAt, computeMillis);
+            case TYPE_COMMENT_TREE_LIST:
+                return readCommentTreeList(in);
+            case TYPE_JSON:
+                int length = in.readVarInt();
+                return jsonSerializer.deserialize(in.readBytes(length));
+            default:
+                throw new UnknownTypeException(type);
+        }
+    }
+
+    // 빈 리스트는 어느 타입으로 저장해도 같은 값으로 읽히므로 PostDTO 리스트로 저장합니다.
+    private static boolean isListOf(List<?> list, Class<?> type) {
+        for (Object element : list) {
+            if (!type.isInstance(element)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writePostList(Writer out, List<?> list) {
+        if (list == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        // 0은 null 리스트를 나타내므로 크기에 1을 더해 저장합니다.
+        out.writeVarInt(list.size() + 1);
+        for (Object element : list) {
+            writePost(out, (PostDTO) element);
+        }
+    }
+
+    private static List<PostDTO> readPostList(Reader in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<PostDTO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(readPost(in));
+        }
+        return list;
+    }
+
+    // PostDTO의 필드를 선언 순서대로 저장합니다. 필드를 추가하면 VERSION을 올려야 합니다.
+    private static void writePost(Writer out, PostDTO post) {
+        out.writeVarInt(post.getId());
+        out.writeString(post.getName());
+        out.writeVarInt(post.getIsAdmin());
+        out.writeString(post.getContents());
+        out.writeDate(post.getCreateTime());
+        out.writeVarInt(post.getViews());
+        out.writeVarInt(post.getCategoryId());
+        out.writeVarInt(post.getUserId());
+        out.writeVarInt(post.getFileId());
+        out.writeDate(post.getUpdateTime());
+    }
+
+    private static PostDTO readPost(Reader in) {
+        PostDTO post = new PostDTO();
+        post.setId(in.readVarInt());
+        post.setName(in.readString());
+        post.setIsAdmin(in.readVarInt());
+        post.setContents(in.readString());
+        post.setCreateTime(in.readDate());
+        post.setViews(in.readVarInt());
+        post.setCategoryId(in.readVarInt());
+        post.setUserId(in.readVarInt());
+        post.setFileId(in.readVarInt());
+        post.setUpdateTime(in.readDate());
+        return post;
+    }
+
+    // 댓글과 답글을 깊이 우선으로 저장합니다. 답글 목록은 [개수 + 1][댓글...] 형식이며 0은 null입니다.
+    private static void writeCommentTreeList(Writer out, List<?> list) {
+        if (list == null) {
+            out.writeVarInt(0);
+            return;
+        }
+        out.writeVarInt(list.size() + 1);
+        for (Object element : list) {
+            CommentTreeDTO comment = (CommentTreeDTO) element;
+            out.writeVarInt(comment.getId());
+            out.writeVarInt(comment.getPostId());
+            out.writeString(comment.getContents());
+            out.writeVarInt(comment.getSubCommentId());
+            writeCommentTreeList(out, comment.getReplies());
+        }
+    }
+
+    private static List<CommentTreeDTO> readCommentTreeList(Reader in) {
+        int size = in.readVarInt() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<CommentTreeDTO> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            CommentTreeDTO comment = new CommentTreeDTO();
+            comment.setId(in.readVarInt());
+            comment.setPostId(in.readVarInt());
+            comment.setContents(in.readString());
+            comment.setSubCommentId(in.readVarInt());
+            comment.setReplies(readCommentTreeList(in));
+            list.add(comment);
+        }
+        return list;
+    }
+
+    // 이 서버가 모르는 타입입니다. 버전을 올리지 않고 타입을 추가한 값을 읽을 때 발생하며, 캐시 미스로 처리합니다.
+    private static final class UnknownTypeException extends SerializationException {
+        UnknownTypeException(byte type) {
+            super("알 수 없는 캐시 값 타입입니다 : " + type);
+        }
+    }
+
+    private static final class Writer {
+        private byte[] buf;
+        private int size;
+
+        Writer(int capacity) {
+            buf = new byte[capacity];
+        }
+
+        void writeByte(int b) {
+            ensure(1);
+            buf[size++] = (byte) b;
+        }
+
+        void writeBytes(byte[] bytes, int offset, int length) {
+            ensure(length);
+            System.arraycopy(bytes, offset, buf, size, length);
+            size += length;
+        }
+
+        // 음수가 들어와도 짧게 저장되도록 zigzag 인코딩 후 7비트씩 저장합니다.
+        void writeVarInt(int value) {
+            writeVarLong(value);
+        }
+
+        void writeVarLong(long value) {
+            long v = (value << 1) ^ (value >> 63);
+            ensure(10);
+            while ((v & ~0x7FL) != 0) {
+                buf[size++] = (byte) ((v & 0x7F) | 0x80);
+                v >>>= 7;
+            }
+            buf[size++] = (byte) v;
+        }
+
+        // 길이 + 1을 먼저 저장하고(0은 null) UTF-8 바이트를 저장합니다.
+        void writeString(String value) {
+            if (value == null) {
+                writeVarInt(0);
+                return;
+            }
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            writeVarInt(bytes.length + 1);
+            writeBytes(bytes, 0, bytes.length);
+        }
+
+        // 0은 null, 그 외에는 epoch ms + 1을 저장합니다.
+        void writeDate(Date value) {
+            writeVarLong(value == null ? 0 : value.getTime() + 1);
+        }
+
+        byte[] toArray() {
+            return Arrays.copyOf(buf, size);
+        }
+
+        // 앞에 헤더 두 바이트를 붙여 반환합니다.
+        byte[] toArray(byte version, byte flags) {
+            byte[] result = new byte[size + 2];
+            result[0] = version;
+            result[1] = flags;
+            System.arraycopy(buf, 0, result, 2, size);
+            return result;
+        }
+
+        private void ensure(int extra) {
+            if (size + extra > buf.length) {
+                buf = Arrays.copyOf(buf, Math.max(buf.length * 2, size + extra));
+            }
+        }
+    }
+
+    private static final class Reader {
+        private final byte[] buf;
+        private int pos;
+
+        Reader(byte[] buf, int pos) {
+            this.buf = buf;
+            this.pos = pos;
+        }
+
+        byte readByte() {
+            return buf[pos++];
+        }
+
+        byte[] readBytes(int length) {
+            byte[] bytes = Arrays.copyOfRange(buf, pos, pos + length);
+            pos += length;
+            return bytes;
+        }
+
+        int readVarInt() {
+            return (int) readVarLong();
+        }
+
+        long readVarLong() {
+            long v = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buf[pos++];
+                v |= (long) (b & 0x7F) << shift;
+                shift += 7;
+            } while ((b & 0x80) != 0);
+            return (v >>> 1) ^ -(v & 1);
+        }
+
+        String readString() {
+            int length = readVarInt() - 1;
+            if (length < 0) {
+                return null;
+            }
+            String value = new String(buf, pos, length, StandardCharsets.UTF_8);
+            pos += length;
+            return value;
+        }
+
+        Date readDate() {
+            long value = readVarLong();
+            return value == 0 ? null : new Date(value - 1);
+        }
+    }
+}
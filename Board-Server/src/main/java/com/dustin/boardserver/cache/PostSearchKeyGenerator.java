@@ -0,0 +1,157 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import com.dustin.boardserver.utils.HyperLogLog;
+import com.dustin.boardserver.utils.PostSearchNormalizer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.interceptor.KeyGenerator;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+// 검색 캐시(getProducts)의 키를 만드는 KeyGenerator입니다.
+//
+// PostSearchRequest에서 검색 결과를 바꾸는 필드만 정규화한 뒤 128비트 해시(지문)로 만들어 고정 길이 키를 생성합니다.
+// - 검색어(name, contents), 카테고리, 정렬, 커서, 페이지 크기가 키에 포함되므로 서로 다른 검색이 같은 캐시 엔트리를 공유하지 않습니다.
+// - id, views, userId는 검색 쿼리(selectPosts)가 사용하지 않으므로 키에 넣지 않습니다.
+//   넣으면 같은 결과가 값만 다른 키로 여러 번 저장되어 적중률이 떨어집니다.
+// - 검색어 앞뒤 공백, 대소문자(MySQL 기본 collation은 대소문자를 구분하지 않음), 기본 정렬/페이지 크기처럼
+//   의미가 같은 요청은 같은 키가 됩니다.
+// - 필드 값을 이어 붙인 문자열을 만들지 않고 문자 단위로 바로 해시에 넣습니다.
+//
+// 키 형식: "getProducts:" + 카테고리 세대 접두어 + ":" + 32자리 16진수 지문
+// 예) getProducts:c3:17:5f1c...
+//
+// 카테고리별로 서로 다른 키가 몇 개나 만들어지는지 HyperLogLog로 근사해
+// search.cache.keys{categoryId} 게이지로 노출합니다. 값이 크면 캐시 키 공간이 잘게 쪼개져 적중률이 낮다는 뜻입니다.
+// categoryId는 클라이언트가 보낸 값이므로 게이지는 처음 본 maxCategories개 카테고리까지만 만들고,
+// 나머지는 search.cache.keys{categoryId=other} 하나로 셉니다. (메모리와 지표 개수가 요청에 따라 늘어나지 않도록)
+@Component("postSearchKeyGenerator")
+public class PostSearchKeyGenerator implements KeyGenerator {
+    private static final char[] HEX = "0123456789abcdef".toCharArray();
+    private static final int OTHER_CATEGORIES = -1;
+
+    private final SearchCacheGeneration searchCacheGeneration;
+    private final MeterRegistry meterRegistry;
+    private final Map<Integer, HyperLogLog> keyCardinality = new ConcurrentHashMap<>();
+
+    @Value("${search.page.defaultSize:20}")
+    private int defaultPageSize;
+
+    @Value("${search.page.maxSize:100}")
+    private int maxPageSize;
+
+    // 키 개수 게이지를 따로 만들 최대 카테고리 수입니다.
+    @Value("${search.cache.keyStats.maxCategories:100}")
+    private int maxTrackedCategories;
+
+    public PostSearchKeyGenerator(SearchCacheGeneration searchCacheGeneration, MeterRegistry meterRegistry) {
+        this.searchCacheGeneration = searchCacheGeneration;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Override
+    public Object generate(Object target, Method method, Object... params) {
+        PostSearchRequest request = (PostSearchRequest) params[0];
+        return key(request);
+    }
+
+    public String key(PostSearchRequest request) {
+        Fingerprint fingerprint = new Fingerprint();
+        fingerprint.putText(PostSearchNormalizer.text(request.getName()));
+        fingerprint.putText(PostSearchNormalizer.text(request.getContents()));
+        fingerprint.putInt(request.getCategoryId());
+        fingerprint.putInt(PostSearchNormalizer.sortStatus(request.getSortStatus()).ordinal());
+        fingerprint.putRaw(PostSearchNormalizer.text(request.getCursor()));
+        fingerprint.putInt(PostSearchNormalizer.pageSize(request.getSize(), defaultPageSize, maxPageSize));
+        fingerprint.finish();
+
+        recordKey(request.getCategoryId(), fingerprint.high);
+        return "getProducts:" + searchCacheGeneration.keyPrefix(request.getCategoryId()) + ":" + fingerprint.toHex();
+    }
+
+    private void recordKey(int categoryId, long hash) {
+        HyperLogLog hyperLogLog = keyCardinality.get(categoryId);
+        if (hyperLogLog == null) {
+            int tracked = keyCardinality.size() < maxTrackedCategories ? categoryId : OTHER_CATEGORIES;
+            hyperLogLog = keyCardinality.computeIfAbsent(tracked, this::registerKeyCardinality);
+        }
+        hyperLogLog.add(hash);
+    }
+
+    private HyperLogLog registerKeyCardinality(int categoryId) {
+        HyperLogLog hyperLogLog = new HyperLogLog();
+        Gauge.builder("search.cache.keys", hyperLogLog, HyperLogLog::estimate)
+                .tag("categoryId", categoryId == OTHER_CATEGORIES ? "other" : String.valueOf(categoryId))
+                .description("getProducts 캐시에서 사용된 서로 다른 키의 근사 개수")
+                .register(meterRegistry);
+        return hyperLogLog;
+    }
+
+    // 두 개의 64비트 누산기로 이루어진 128비트 비암호화 해시입니다.
+    // 각 필드 앞에 종류/길이를 넣어 ("ab", "c")와 ("a", "bc")가 서로 다른 지문이 되도록 합니다.
+    private static final class Fingerprint {
+        private long high = 0x6A09E667F3BCC908L;
+        private long low = 0xBB67AE8584CAA73BL;
+
+        void putInt(int value) {
+            mix(0x1_0000_0000L | (value & 0xFFFFFFFFL));
+        }
+
+        // 검색어처럼 대소문자를 구분하지 않는 문자열입니다. null은 빈 문자열과 구분하며, 문자는 소문자로 바꿔 넣습니다.
+        void putText(String text) {
+            if (text == null) {
+                mix(0x2_0000_0000L);
+                return;
+            }
+            mix(0x3_0000_0000L | text.length());
+            for (int i = 0; i < text.length(); i++) {
+                mix(Character.toLowerCase(text.charAt(i)));
+            }
+        }
+
+        // 커서(base64url)처럼 대소문자가 다르면 다른 값인 문자열입니다. 문자를 그대로 넣습니다.
+        void putRaw(String text) {
+            if (text == null) {
+                mix(0x4_0000_0000L);
+                return;
+            }
+            mix(0x5_0000_0000L | text.length());
+            for (int i = 0; i < text.length(); i++) {
+                mix(text.charAt(i));
+            }
+        }
+
+        void finish() {
+            high = fmix(high ^ low);
+            low = fmix(low + high);
+        }
+
+        String toHex() {
+            char[] chars = new char[32];
+            for (int i = 0; i < 16; i++) {
+                chars[i] = HEX[(int) (high >>> (60 - 4 * i)) & 0xF];
+                chars[16 + i] = HEX[(int) (low >>> (60 - 4 * i)) & 0xF];
+            }
+            return new String(chars);
+        }
+
+        private void mix(long value) {
+            high = Long.rotateLeft((high ^ value) * 0x9E3779B97F4A7C15L, 31);
+            low = Long.rotateLeft((low ^ value) * 0xC2B2AE3D27D4EB4FL, 29) + high;
+        }
+
+        private static long fmix(long h) {
+            h ^= h >>> 33;
+            h *= 0xFF51AFD7ED558CCDL;
+            h ^= h >>> 33;
+            h *= 0xC4CEB9FE1A85EC53L;
+            h ^= h >>> 33;
+            return h;
+        }
+    }
+}
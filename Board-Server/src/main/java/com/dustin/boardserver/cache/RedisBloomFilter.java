@@ -0,0 +1,292 @@
+package com.dustin.boardserver.cache;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.connection.ReturnType;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+// Redis 비트맵에 저장하는 Bloom filter입니다. 여러 서버가 같은 필터를 공유하므로 한 서버에서 추가한 값을 다른 서버도 바로 봅니다.
+//
+// - "없음"은 확실하고 "있을 수 있음"은 오탐(false positive)일 수 있습니다. 있을 수 있으면 호출하는 쪽에서 DB로 확인합니다.
+// - 비트 수(m)와 해시 수(k)는 재구성할 때 예상 원소 수와 목표 오탐률로 정하며, 비트와 함께 meta hash에 저장합니다.
+//   조회/추가 스크립트는 자신이 알고 있는 m이 meta와 다르면 -1을 반환하고, 그러면 meta를 다시 읽어 한 번 재시도합니다.
+//   (다른 서버가 더 큰 필터로 재구성한 경우 예전 크기로 계산한 위치를 쓰지 않기 위해서입니다.)
+// - 필터가 아직 없거나 Redis에 장애가 있으면 "있을 수 있음"으로 답하여 항상 DB로 확인하게 합니다.
+//
+// 키: {name}(비트), {name}:meta(m, k, 용량 capacity, 원소 수 n)
+// 지표: user.bloom.checks{filter, result=absent|maybe|unavailable}, user.bloom.false.positives{filter},
+//       user.bloom.fpp{filter}(비트 채움 비율로 추정한 현재 오탐률), user.bloom.elements{filter}
+@Log4j2
+public class RedisBloomFilter {
+
+    // KEYS: 비트, meta / ARGV: m, 비트 위치...
+    private static final byte[] CHECK_SCRIPT = """
+            if redis.call('hget', KEYS[2], 'm') ~= ARGV[1] then
+                return -1
+            end
+            for i = 2, #ARGV do
+                if redis.call('getbit', KEYS[1], ARGV[i]) == 0 then
+                    return 0
+                end
+            end
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    // KEYS: 비트, meta / ARGV: m, 비트 위치...
+    private static final byte[] ADD_SCRIPT = """
+            if redis.call('hget', KEYS[2], 'm') ~= ARGV[1] then
+                return -1
+            end
+            for i = 2, #ARGV do
+                redis.call('setbit', KEYS[1], ARGV[i], 1)
+            end
+            redis.call('hincrby', KEYS[2], 'n', 1)
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    // KEYS: 비트, meta / ARGV: 비트 배열, m, k, capacity, n
+    // 비트와 meta를 한 번에 바꾸므로 조회하는 쪽에서 서로 맞지 않는 비트와 meta를 보지 않습니다.
+    private static final byte[] REPLACE_SCRIPT = """
+            redis.call('set', KEYS[1], ARGV[1])
+            redis.call('del', KEYS[2])
+            redis.call('hset', KEYS[2], 'm', ARGV[2], 'k', ARGV[3], 'capacity', ARGV[4], 'n', ARGV[5])
+            return 1
+            """.getBytes(StandardCharsets.UTF_8);
+
+    private final String name;
+    private final byte[] bitsKey;
+    private final byte[] metaKey;
+    private final StringRedisTemplate redisTemplate;
+
+    // meta에서 읽은 현재 필터 크기입니다. 0이면 아직 필터가 없습니다.
+    private volatile Shape shape = Shape.NONE;
+    private volatile double estimatedFpp;
+
+    private final Counter absent;
+    private final Counter maybe;
+    private final Counter unavailable;
+    private final Counter falsePositives;
+
+    public RedisBloomFilter(String name, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.name = name;
+        this.bitsKey = name.getBytes(StandardCharsets.UTF_8);
+        this.metaKey = (name + ":meta").getBytes(StandardCharsets.UTF_8);
+        this.redisTemplate = redisTemplate;
+        this.absent = Counter.builder("user.bloom.checks").tag("filter", name).tag("result", "absent").register(meterRegistry);
+        this.maybe = Counter.builder("user.bloom.checks").tag("filter", name).tag("result", "maybe").register(meterRegistry);
+        this.unavailable = Counter.builder("user.bloom.checks").tag("filter", name).tag("result", "unavailable").register(meterRegistry);
+        this.falsePositives = Counter.builder("user.bloom.false.positives").tag("filter", name).register(meterRegistry);
+        Gauge.builder("user.bloom.fpp", this, filter -> filter.estimatedFpp).tag("filter", name).register(meterRegistry);
+        Gauge.builder("user.bloom.elements", this, filter -> filter.shape.n()).tag("filter", name).register(meterRegistry);
+    }
+
+    // 값이 있을 수 있으면 true, 확실히 없으면 false입니다.
+    public boolean mightContain(String value) {
+        Long result = runWithShape(CHECK_SCRIPT, value);
+        if (result == null) {
+            unavailable.increment();
+            return true;
+        }
+        if (result == 0) {
+            absent.increment();
+            return false;
+        }
+        maybe.increment();
+        return true;
+    }
+
+    // 필터가 있을 수 있다고 했지만 DB에는 없었던 경우 호출합니다. 실제 오탐률을 지표로 확인하기 위해 사용합니다.
+    public void recordFalsePositive() {
+        falsePositives.increment();
+    }
+
+    // 값을 추가합니다. 실패하면 false를 반환하며, 이 경우 필터는 재구성할 때까지 이 값을 모릅니다.
+    public boolean add(String value) {
+        Long result = runWithShape(ADD_SCRIPT, value);
+        if (result == null) {
+            log.error("bloom filter 추가 실패 : {}", name);
+            return false;
+        }
+        return true;
+    }
+
+    // 필터가 존재하고 크기를 알고 있는지 확인합니다.
+    public boolean isReady() {
+        return shape.m() > 0 || loadShape().m() > 0;
+    }
+
+    // 원소 수가 재구성할 때 정한 용량을 넘었는지 확인합니다. 넘으면 오탐률이 목표보다 커지므로 더 크게 다시 만듭니다.
+    public boolean isOverCapacity() {
+        Shape current = loadShape();
+        return current.m() > 0 && current.n() > current.capacity();
+    }
+
+    // 새 필터를 만드는 Builder를 반환합니다. expectedCount는 지금 원소 수이며, growth배까지 목표 오탐률을 유지하도록 크기를 정합니다.
+    public Builder builder(long expectedCount, double growth, long minCapacity, double targetFpp) {
+        long capacity = Math.max(minCapacity, (long) Math.ceil(expectedCount * growth));
+        long m = optimalBits(capacity, targetFpp);
+        int k = optimalHashes(capacity, m);
+        return new Builder(m, k, capacity);
+    }
+
+    // 비트맵에서 켜진 비트 비율로 현재 오탐률을 다시 추정합니다. (BITCOUNT는 필터 크기에 비례하므로 주기적으로만 실행합니다.)
+    public void refreshStatistics() {
+        Shape current = loadShape();
+        if (current.m() == 0) {
+            estimatedFpp = 0;
+            return;
+        }
+        try {
+            Long ones = redisTemplate.execute((RedisCallback<Long>) connection -> connection.stringCommands().bitCount(bitsKey));
+            double fill = ones == null ? 0 : (double) ones / current.m();
+            estimatedFpp = Math.pow(fill, current.k());
+        } catch (RuntimeException e) {
+            log.error("bloom filter 통계 조회 실패 : {}", name, e);
+        }
+    }
+
+    public double getEstimatedFpp() {
+        return estimatedFpp;
+    }
+
+    // m이 meta와 다르면(다른 서버가 재구성함) meta를 다시 읽고 한 번 재시도합니다. 필터가 없거나 실패하면 null입니다.
+    private Long runWithShape(byte[] script, String value) {
+        Shape current = shape.m() > 0 ? shape : loadShape();
+        for (int attempt = 0; attempt < 2 && current.m() > 0; attempt++) {
+            Long result = eval(script, current, value);
+            if (result == null || result >= 0) {
+                return result;
+            }
+            current = loadShape();
+        }
+        return null;
+    }
+
+    private Long eval(byte[] script, Shape current, String value) {
+        long[] offsets = offsets(normalize(value), current.m(), current.k());
+        byte[][] keysAndArgs = new byte[2 + 1 + offsets.length][];
+        keysAndArgs[0] = bitsKey;
+        keysAndArgs[1] = metaKey;
+        keysAndArgs[2] = Long.toString(current.m()).getBytes(StandardCharsets.UTF_8);
+        for (int i = 0; i < offsets.length; i++) {
+            keysAndArgs[3 + i] = Long.toString(offsets[i]).getBytes(StandardCharsets.UTF_8);
+        }
+        try {
+            return redisTemplate.execute((RedisCallback<Long>) connection ->
+                    connection.scriptingCommands().eval(script, ReturnType.INTEGER, 2, keysAndArgs));
+        } catch (RuntimeException e) {
+            log.error("bloom filter 스크립트 실행 실패 : {}", name, e);
+            return null;
+        }
+    }
+
+    private Shape loadShape() {
+        try {
+            List<Object> values = redisTemplate.opsForHash().multiGet(name + ":meta", List.of("m", "k", "capacity", "n"));
+            if (values.get(0) == null) {
+                shape = Shape.NONE;
+            } else {
+                shape = new Shape(Long.parseLong((String) values.get(0)), Integer.parseInt((String) values.get(1)),
+                        Long.parseLong((String) values.get(2)), Long.parseLong((String) values.get(3)));
+            }
+        } catch (RuntimeException e) {
+            log.error("bloom filter meta 조회 실패 : {}", name, e);
+        }
+        return shape;
+    }
+
+    // DB의 기본 collation은 대소문자와 끝 공백을 구분하지 않으므로, 같은 값으로 취급되는 문자열이 같은 비트를 쓰도록 맞춥니다.
+    static String normalize(String value) {
+        return value == null ? "" : value.strip().toLowerCase(Locale.ROOT);
+    }
+
+    // 64비트 해시 두 개로 k개의 위치를 만듭니다. (Kirsch-Mitzenmacher double hashing)
+    static long[] offsets(String value, long m, int k) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        long h1 = 0xCBF29CE484222325L;
+        for (byte b : bytes) {
+            h1 = (h1 ^ (b & 0xFF)) * 0x100000001B3L;
+        }
+        h1 = mix(h1);
+        long h2 = mix(h1 ^ 0x9E3779B97F4A7C15L ^ bytes.length) | 1;
+        long[] offsets = new long[k];
+        for (int i = 0; i < k; i++) {
+            offsets[i] = Long.remainderUnsigned(h1 + i * h2, m);
+        }
+        return offsets;
+    }
+
+    // MurmurHash3의 64비트 finalizer입니다. 입력의 모든 비트가 출력 전체에 고르게 퍼지도록 섞습니다.
+    private static long mix(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+
+    // 원소 n개에서 오탐률 p를 만족하는 비트 수입니다. m = -n ln p / (ln 2)^2, Redis 비트맵 한계(2^32)를 넘지 않게 합니다.
+    static long optimalBits(long n, double p) {
+        long bits = (long) Math.ceil(-n * Math.log(p) / (Math.log(2) * Math.log(2)));
+        return Math.min(1L << 32, Math.max(64, (bits + 7) / 8 * 8));
+    }
+
+    // k = (m / n) ln 2
+    static int optimalHashes(long n, long m) {
+        return Math.max(1, (int) Math.round((double) m / n * Math.log(2)));
+    }
+
+    private record Shape(long m, int k, long capacity, long n) {
+        static final Shape NONE = new Shape(0, 0, 0, 0);
+    }
+
+    // 메모리에서 비트 배열을 만든 뒤 commit으로 Redis의 필터를 한 번에 교체합니다.
+    // Redis의 SETBIT는 바이트의 최상위 비트를 0번으로 쓰므로 같은 순서로 채웁니다.
+    public class Builder {
+        private final long m;
+        private final int k;
+        private final long capacity;
+        private final byte[] bits;
+        private long count;
+
+        private Builder(long m, int k, long capacity) {
+            this.m = m;
+            this.k = k;
+            this.capacity = capacity;
+            this.bits = new byte[(int) ((m + 7) / 8)];
+        }
+
+        public void add(String value) {
+            if (value == null) {
+                return;
+            }
+            for (long offset : offsets(normalize(value), m, k)) {
+                bits[(int) (offset >>> 3)] |= (byte) (0x80 >>> (offset & 7));
+            }
+            count++;
+        }
+
+        public void commit() {
+            List<byte[]> keysAndArgs = new ArrayList<>(7);
+            keysAndArgs.add(bitsKey);
+            keysAndArgs.add(metaKey);
+            keysAndArgs.add(bits);
+            for (long value : new long[]{m, k, capacity, count}) {
+                keysAndArgs.add(Long.toString(value).getBytes(StandardCharsets.UTF_8));
+            }
+            redisTemplate.execute((RedisCallback<Long>) connection -> connection.scriptingCommands()
+                    .eval(REPLACE_SCRIPT, ReturnType.INTEGER, 2, keysAndArgs.toArray(new byte[0][])));
+            shape = new Shape(m, k, capacity, count);
+            log.info("bloom filter 재구성 완료 : {} elements={}, bits={}, hashes={}, capacity={}", name, count, m, k, capacity);
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.dustin.boardserver.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.UUID;
+
+// 여러 서버 중 한 서버만 캐시 값을 다시 계산하도록 하는 짧은 임대(lease) 방식의 Redis 락입니다.
+// SET key token NX PX lease 로 획득하고, 자신이 건 락일 때만 지우도록 Lua 스크립트로 해제합니다.
+// 락을 가진 서버가 중간에 죽어도 lease가 지나면 자동으로 풀립니다.
+@Log4j2
+public class RedisLeaseLock {
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('get', KEYS[1]) == ARGV[1] then return redis.call('del', KEYS[1]) else return 0 end",
+            Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final Duration lease;
+
+    public RedisLeaseLock(StringRedisTemplate redisTemplate, Duration lease) {
+        this.redisTemplate = redisTemplate;
+        this.lease = lease;
+    }
+
+    public Duration getLease() {
+        return lease;
+    }
+
+    // 락을 얻으면 해제할 때 사용할 토큰을, 얻지 못하면 null을 반환합니다.
+    // Redis 장애 시에는 락 없이 진행할 수 있도록 빈 토큰을 반환합니다.
+    public String tryAcquire(String key) {
+        String token = UUID.randomUUID().toString();
+        try {
+            Boolean acquired = redisTemplate.opsForValue().setIfAbsent(lockKey(key), token, lease);
+            return Boolean.TRUE.equals(acquired) ? token : null;
+        } catch (RuntimeException e) {
+            log.error("cache lock 획득 실패 : {}", key, e);
+            return "";
+        }
+    }
+
+    public void release(String key, String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.execute(RELEASE_SCRIPT, Collections.singletonList(lockKey(key)), token);
+        } catch (RuntimeException e) {
+            log.error("cache lock 해제 실패 : {}", key, e);
+        }
+    }
+
+    private static String lockKey(String key) {
+        return "lock:" + key;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dustin.boardserver.cache;
+
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadLocalRandom;
+
+// 캐시 값을 만료 전에 백그라운드에서 미리 갱신하는 정책입니다. (stale-while-revalidate)
+//
+// - softTtl 이전: 대부분 캐시 값을 그대로 반환합니다. 다만 XFetch 확률로 조금 일찍 갱신을 시작하여
+//   같은 시각에 만들어진 키들이 한꺼번에 만료되지 않게 합니다.
+//   갱신 조건: now - computeMillis * beta * ln(random) >= createdAt + softTtl
+// - softTtl 이후 ~ softTtl + staleCap: 오래된 값을 즉시 반환하고, 백그라운드에서 한 번만 다시 계산합니다.
+//   DB 장애나 지연으로 갱신이 실패해도 이 구간 동안은 오래된 값을 계속 반환합니다.
+// - softTtl + staleCap 이후: 일반 캐시 미스와 같이 요청 스레드에서 계산합니다. (Redis TTL도 이 시점입니다.)
+@Getter
+public class RefreshAheadPolicy {
+    private final Duration softTtl;
+    private final Duration staleCap;
+    private final double beta;
+    private final Executor executor;
+
+    public RefreshAheadPolicy(Duration softTtl, Duration staleCap, double beta, Executor executor) {
+        this.softTtl = softTtl;
+        this.staleCap = staleCap;
+        this.beta = beta;
+        this.executor = executor;
+    }
+
+    // Redis에 설정할 TTL입니다. 이 시간이 지나면 오래된 값도 반환하지 않습니다.
+    public Duration hardTtl() {
+        return softTtl.plus(staleCap);
+    }
+
+    public boolean isServable(CachedValue cachedValue, long now) {
+        return now < cachedValue.getCreatedAt() + hardTtl().toMillis();
+    }
+
+    public boolean shouldRefresh(CachedValue cachedValue, long now) {
+        long softExpiry = cachedValue.getCreatedAt() + softTtl.toMillis();
+        if (now >= softExpiry) {
+            return true;
+        }
+        double random = ThreadLocalRandom.current().nextDouble();
+        return now - cachedValue.getComputeMillis() * beta * Math.log(random) >= softExpiry;
+    }
+}
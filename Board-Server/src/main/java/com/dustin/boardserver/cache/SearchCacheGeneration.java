@@ -0,0 +1,124 @@
+package com.dustin.boardserver.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// 검색 캐시(getProducts)의 카테고리별 세대(generation) 번호를 관리하는 클래스입니다.
+//
+// 캐시 키 앞에 카테고리의 세대 번호를 붙여 두고, 게시물이 변경되면 해당 카테고리의 세대 번호만 1 올립니다.
+// 그러면 이전 세대의 키는 더 이상 조회되지 않으므로 KEYS/SCAN이나 전체 삭제 없이 O(1)로 무효화되고,
+// 남아 있는 이전 세대 엔트리는 캐시 TTL이 지나면 Redis에서 자연스럽게 사라집니다.
+//
+// 카테고리를 지정하지 않은 검색(categoryId = 0)은 모든 카테고리의 게시물을 포함하므로
+// 전체(all) 세대 번호를 사용하며, 어떤 카테고리가 변경되더라도 함께 올라갑니다.
+//
+// 키를 만들 때마다 Redis를 읽으면 L1(Caffeine)에 적중해도 네트워크 왕복이 생기므로, 읽은 세대 번호를 서버 메모리에
+// localMillis 동안 보관합니다. 세대 번호를 올린 서버는 바로 지우고, 다른 서버에는 Redis pub/sub으로 알려 지우게 합니다.
+// 메시지를 놓친 서버도 localMillis가 지나면 새 세대 번호를 읽습니다.
+//
+// 세대 번호가 바뀐 것을 처음 본 시각도 기록합니다. 바뀐 직후에는 복제본이 아직 변경을 받지 못했을 수 있으므로,
+// 검색 캐시를 채우는 쪽(PostSearchReader)이 changedWithin으로 확인하여 그동안은 primary에서 읽습니다.
+@Component
+@Log4j2
+public class SearchCacheGeneration implements MessageListener {
+    static final String CACHE_NAME = "searchCacheGeneration";
+    private static final String CATEGORY_KEY_PREFIX = "search:gen:category:";
+    private static final String ALL_KEY = "search:gen:all";
+
+    private final StringRedisTemplate redisTemplate;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    // Redis 키 → 세대 번호입니다. localMillis가 0 이하이면 보관하지 않고 매번 Redis를 읽습니다.
+    private final Cache<String, String> generations;
+    // Redis 키 → 마지막으로 본 세대 번호와 그 번호를 처음 본 시각입니다. 기록이 없으면 방금 바뀐 것으로 봅니다.
+    private final Cache<String, Observed> observed = Caffeine.newBuilder().maximumSize(10_000).build();
+
+    public SearchCacheGeneration(StringRedisTemplate redisTemplate,
+                                 CacheInvalidationPublisher invalidationPublisher,
+                                 @Value("${search.cache.generation.localMillis:1000}") long localMillis) {
+        this.redisTemplate = redisTemplate;
+        this.invalidationPublisher = invalidationPublisher;
+        this.generations = localMillis > 0
+                ? Caffeine.newBuilder().expireAfterWrite(Duration.ofMillis(localMillis)).maximumSize(10_000).build()
+                : null;
+    }
+
+    // 검색 캐시 키의 앞부분을 만듭니다. 예) "c3:17" (3번 카테고리의 17세대), "all:254"
+    public String keyPrefix(int categoryId) {
+        String generation = read(redisKey(categoryId));
+        return categoryId == 0 ? "all:" + generation : "c" + categoryId + ":" + generation;
+    }
+
+    // 이 서버가 windowMillis 안에 카테고리의 세대 번호가 바뀐 것을 보았으면 true입니다.
+    // 바뀐 것을 늦게 알게 된 서버는 그 시각부터 세므로, 실제로 바뀐 시각부터 windowMillis 이상 true입니다.
+    public boolean changedWithin(int categoryId, long windowMillis) {
+        Observed last = observed.getIfPresent(redisKey(categoryId));
+        return last == null || System.currentTimeMillis() - last.seenAt() < windowMillis;
+    }
+
+    // 변경된 카테고리들의 세대 번호와 전체 세대 번호를 올려 해당 검색 캐시를 무효화합니다.
+    // Redis 장애로 실패해도 게시물 변경 자체는 실패시키지 않고, 이전 결과는 캐시 TTL 동안만 남습니다.
+    public void bump(int... categoryIds) {
+        try {
+            for (int categoryId : categoryIds) {
+                if (categoryId != 0) {
+                    redisTemplate.opsForValue().increment(CATEGORY_KEY_PREFIX + categoryId);
+                    evict(CATEGORY_KEY_PREFIX + categoryId);
+                }
+            }
+            redisTemplate.opsForValue().increment(ALL_KEY);
+            evict(ALL_KEY);
+        } catch (RuntimeException e) {
+            log.error("search cache generation 갱신 실패 : categoryIds={}", categoryIds, e);
+        }
+    }
+
+    // 다른 서버가 세대 번호를 올렸다는 메시지를 받으면 보관한 세대 번호를 지웁니다. 다른 캐시에 대한 메시지와 자신이 보낸 메시지는 무시합니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (generations == null || parts.length != 3 || !CACHE_NAME.equals(parts[1])
+                || parts[0].equals(invalidationPublisher.getNodeId())) {
+            return;
+        }
+        generations.invalidate(parts[2]);
+    }
+
+    // 이 서버에 보관한 세대 번호를 지우고 다른 서버에 알립니다.
+    // 읽는 중인 세대 번호가 있으면 읽기가 끝난 뒤 지워지므로, 올리기 전에 읽은 값이 남지 않습니다.
+    private void evict(String key) {
+        if (generations != null) {
+            generations.invalidate(key);
+            invalidationPublisher.publishEvict(CACHE_NAME, key);
+        }
+    }
+
+    private String read(String key) {
+        String generation = generations == null ? readRedis(key) : generations.get(key, this::readRedis);
+        Observed last = observed.getIfPresent(key);
+        if (last == null || !last.generation().equals(generation)) {
+            observed.put(key, new Observed(generation, System.currentTimeMillis()));
+        }
+        return generation;
+    }
+
+    private static String redisKey(int categoryId) {
+        return categoryId == 0 ? ALL_KEY : CATEGORY_KEY_PREFIX + categoryId;
+    }
+
+    private String readRedis(String key) {
+        String generation = redisTemplate.opsForValue().get(key);
+        return generation == null ? "0" : generation;
+    }
+
+    private record Observed(String generation, long seenAt) {
+    }
+}
@@ -0,0 +1,55 @@
+package com.dustin.boardserver.cache;
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 같은 키에 대한 동시 요청을 하나의 실행으로 합치는(single-flight) 클래스입니다.
+// 처음 도착한 요청(leader)만 loader를 실행하고, 실행 중에 도착한 같은 키의 요청은 그 결과를 함께 기다립니다.
+// 결과는 저장하지 않으며, 실행이 끝나면 다음 요청은 다시 새로 실행합니다.
+public class SingleFlight {
+    private final ConcurrentMap<String, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+
+    // 결과와 함께 이 호출이 leader였는지를 알려줍니다.
+    public Result execute(String key, Callable<Object> loader) throws Exception {
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        CompletableFuture<Object> existing = inFlight.putIfAbsent(key, future);
+        if (existing != null) {
+            try {
+                return new Result(existing.join(), false);
+            } catch (CompletionException e) {
+                throw unwrap(e);
+            }
+        }
+
+        try {
+            Object value = loader.call();
+            future.complete(value);
+            return new Result(value, true);
+        } catch (Exception e) {
+            future.completeExceptionally(e);
+            throw e;
+        } catch (Error e) {
+            future.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, future);
+        }
+    }
+
+    private static Exception unwrap(CompletionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof Exception) {
+            return (Exception) cause;
+        }
+        if (cause instanceof Error) {
+            throw (Error) cause;
+        }
+        return e;
+    }
+
+    public record Result(Object value, boolean leader) {
+    }
+}
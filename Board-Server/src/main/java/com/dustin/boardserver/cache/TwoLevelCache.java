@@ -0,0 +1,303 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.datasource.ReplicaRoutingContext;
+import com.dustin.boardserver.datasource.ShardContext;
+import com.github.benmanes.caffeine.cache.Cache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.cache.support.AbstractValueAdaptingCache;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+// 프로세스 내부 캐시(L1, Caffeine)와 Redis 캐시(L2)를 차례로 조회하는 2단계 캐시입니다.
+//
+// - 조회: L1 -> L2 -> 원본(DB) 순서로 찾고, 아래 단계에서 찾은 값은 위 단계에 채워 넣습니다.
+// - 저장(put)/삭제: L2에 반영한 뒤 L1에 반영하고, 다른 서버의 L1에서도 같은 키를 지우도록 무효화 메시지를 발행합니다.
+//   미스를 채우거나 미리 갱신할 때는 원본이 바뀐 것이 아니므로 발행하지 않습니다.
+//   (다른 서버의 L1에 남은 값은 원본이 바뀔 때 발행되는 삭제 메시지나 짧은 TTL로 지워집니다.)
+// - L1은 크기 제한(W-TinyLFU 교체)과 짧은 TTL을 가지므로, 무효화 메시지가 유실되어도 오래된 값이 오래 남지 않습니다.
+// - @Cacheable(sync = true)로 호출되는 get(key, valueLoader)는 같은 키의 동시 미스를 하나의 DB 조회로 합칩니다(single-flight).
+//   leaseLock이 설정되어 있으면 Redis 락으로 클러스터 전체에서도 한 서버만 다시 계산하고, 나머지 서버는 L2에 값이 채워지기를 기다립니다.
+// - refreshAhead 정책이 있으면 값을 CachedValue로 감싸 저장하고, 만료가 가까운 값은 즉시 반환하면서
+//   백그라운드에서 미리 갱신합니다. (RefreshAheadPolicy 참고)
+@Log4j2
+public class TwoLevelCache extends AbstractValueAdaptingCache {
+    private final String name;
+    private final Cache<String, Object> localCache;
+    private final org.springframework.cache.Cache redisCache;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final SingleFlight singleFlight = new SingleFlight();
+    // 분산 락을 사용하지 않으면 null입니다.
+    private final RedisLeaseLock leaseLock;
+    private final Duration lockPollInterval;
+    // 미리 갱신을 사용하지 않는 캐시이면 null입니다.
+    private final RefreshAheadPolicy refreshAhead;
+    // 이 서버에서 백그라운드 갱신 중인 키입니다. 같은 키를 중복으로 갱신하지 않기 위해 사용합니다.
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+
+    private final Counter l1Hits;
+    private final Counter l2Hits;
+    private final Counter misses;
+    private final Timer l1Latency;
+    private final Timer l2Latency;
+    private final Counter flightLeaders;
+    private final Counter flightCoalesced;
+    private final Counter lockAcquired;
+    private final Counter lockWaited;
+    private final Counter lockTimeouts;
+    private final Counter staleServed;
+    private final Counter refreshSucceeded;
+    private final Counter refreshFailed;
+
+    public TwoLevelCache(String name, Cache<String, Object> localCache, org.springframework.cache.Cache redisCache,
+                         CacheInvalidationPublisher invalidationPublisher, RedisLeaseLock leaseLock,
+                         Duration lockPollInterval, RefreshAheadPolicy refreshAhead, MeterRegistry meterRegistry) {
+        super(false);
+        this.name = name;
+        this.localCache = localCache;
+        this.redisCache = redisCache;
+        this.invalidationPublisher = invalidationPublisher;
+        this.leaseLock = leaseLock;
+        this.lockPollInterval = lockPollInterval;
+        this.refreshAhead = refreshAhead;
+        this.l1Hits = Counter.builder("cache.twolevel.gets").tag("cache", name).tag("result", "l1-hit").register(meterRegistry);
+        this.l2Hits = Counter.builder("cache.twolevel.gets").tag("cache", name).tag("result", "l2-hit").register(meterRegistry);
+        this.misses = Counter.builder("cache.twolevel.gets").tag("cache", name).tag("result", "miss").register(meterRegistry);
+        this.l1Latency = Timer.builder("cache.twolevel.latency").tag("cache", name).tag("level", "l1").register(meterRegistry);
+        this.l2Latency = Timer.builder("cache.twolevel.latency").tag("cache", name).tag("level", "l2").register(meterRegistry);
+        this.flightLeaders = Counter.builder("cache.singleflight").tag("cache", name).tag("role", "leader").register(meterRegistry);
+        this.flightCoalesced = Counter.builder("cache.singleflight").tag("cache", name).tag("role", "coalesced").register(meterRegistry);
+        this.lockAcquired = Counter.builder("cache.singleflight.lock").tag("cache", name).tag("result", "acquired").register(meterRegistry);
+        this.lockWaited = Counter.builder("cache.singleflight.lock").tag("cache", name).tag("result", "waited").register(meterRegistry);
+        this.lockTimeouts = Counter.builder("cache.singleflight.lock").tag("cache", name).tag("result", "timeout").register(meterRegistry);
+        this.staleServed = Counter.builder("cache.refresh").tag("cache", name).tag("result", "stale-served").register(meterRegistry);
+        this.refreshSucceeded = Counter.builder("cache.refresh").tag("cache", name).tag("result", "succeeded").register(meterRegistry);
+        this.refreshFailed = Counter.builder("cache.refresh").tag("cache", name).tag("result", "failed").register(meterRegistry);
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Object getNativeCache() {
+        return redisCache.getNativeCache();
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        long start = System.nanoTime();
+        Object value = localCache.getIfPresent(localKey(key));
+        l1Latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (value != null) {
+            l1Hits.increment();
+            return value;
+        }
+
+        start = System.nanoTime();
+        ValueWrapper wrapper = redisCache.get(key);
+        l2Latency.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        if (wrapper == null) {
+            misses.increment();
+            return null;
+        }
+        l2Hits.increment();
+        value = toStoreValue(wrapper.get());
+        localCache.put(localKey(key), value);
+        return value;
+    }
+
+    // 미리 갱신 캐시의 값은 CachedValue로 감싸져 있으므로 실제 값을 꺼내 반환합니다.
+    @Override
+    protected Object fromStoreValue(Object storeValue) {
+        if (storeValue instanceof CachedValue cachedValue) {
+            return super.fromStoreValue(cachedValue.getValue());
+        }
+        return super.fromStoreValue(storeValue);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T> T get(Object key, Callable<T> valueLoader) {
+        Object storeValue = lookup(key);
+        if (storeValue != null) {
+            if (refreshAhead == null || !(storeValue instanceof CachedValue cachedValue)) {
+                return (T) fromStoreValue(storeValue);
+            }
+            long now = System.currentTimeMillis();
+            if (refreshAhead.isServable(cachedValue, now)) {
+                if (refreshAhead.shouldRefresh(cachedValue, now)) {
+                    staleServed.increment();
+                    refreshInBackground(key, valueLoader);
+                }
+                return (T) fromStoreValue(storeValue);
+            }
+        }
+        try {
+            SingleFlight.Result result = singleFlight.execute(localKey(key), () -> load(key, valueLoader));
+            (result.leader() ? flightLeaders : flightCoalesced).increment();
+            return (T) result.value();
+        } catch (ValueRetrievalException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ValueRetrievalException(key, valueLoader, e);
+        }
+    }
+
+    // single-flight의 leader만 실행합니다. 분산 락을 쓰지 않으면 바로 원본에서 읽어 저장합니다.
+    private Object load(Object key, Callable<?> valueLoader) throws Exception {
+        if (leaseLock == null) {
+            return compute(key, valueLoader);
+        }
+
+        String lockName = name + "::" + localKey(key);
+        String token = leaseLock.tryAcquire(lockName);
+        if (token == null) {
+            // 다른 서버가 계산 중이므로 lease 시간 동안 L2에 값이 채워지기를 기다립니다.
+            ValueWrapper wrapper = awaitRedisValue(key);
+            if (wrapper != null) {
+                lockWaited.increment();
+                Object storeValue = toStoreValue(wrapper.get());
+                localCache.put(localKey(key), storeValue);
+                return fromStoreValue(storeValue);
+            }
+            // 기다려도 값이 없으면 그 서버가 실패한 것으로 보고 직접 계산합니다.
+            lockTimeouts.increment();
+        } else {
+            lockAcquired.increment();
+        }
+
+        try {
+            // 락을 얻기 직전에 다른 서버가 계산을 끝냈을 수 있으므로 L2를 한 번 더 확인합니다.
+            ValueWrapper wrapper = token == null ? null : redisCache.get(key);
+            if (wrapper != null && isFresh(wrapper.get())) {
+                Object storeValue = toStoreValue(wrapper.get());
+                localCache.put(localKey(key), storeValue);
+                return fromStoreValue(storeValue);
+            }
+            return compute(key, valueLoader);
+        } finally {
+            leaseLock.release(lockName, token);
+        }
+    }
+
+    // 원본에서 값을 계산하여 L1/L2에 저장하고 실제 값을 반환합니다.
+    private Object compute(Object key, Callable<?> valueLoader) throws Exception {
+        long start = System.currentTimeMillis();
+        Object value = valueLoader.call();
+        long end = System.currentTimeMillis();
+        store(key, refreshAhead == null ? value : new CachedValue(value, end, end - start));
+        return value;
+    }
+
+    // 만료가 가까운 값을 백그라운드에서 다시 계산합니다. 실패하면 기존 값을 그대로 둡니다.
+    // valueLoader는 요청 스레드의 상태로 조회해야 하므로, 제출할 때의 @ReplicaRead 표시, 샤드 번호와
+    // 마지막 쓰기 시각을 넘겨받아 갱신 스레드에 설정합니다. (ShardRouter.scatter와 같습니다.)
+    private void refreshInBackground(Object key, Callable<?> valueLoader) {
+        String localKey = localKey(key);
+        if (!refreshing.add(localKey)) {
+            return;
+        }
+        boolean readOnly = ReplicaRoutingContext.isReadOnly();
+        int shard = ShardContext.current();
+        try {
+            refreshAhead.getExecutor().execute(ReplicaRoutingContext.propagate(() -> {
+                String lockName = name + "::" + localKey;
+                String token = leaseLock == null ? "" : leaseLock.tryAcquire(lockName);
+                Boolean previousReadOnly = ReplicaRoutingContext.setReadOnly(readOnly);
+                Integer previousShard = ShardContext.set(shard);
+                try {
+                    if (token == null) {
+                        return; // 다른 서버가 이미 갱신 중입니다.
+                    }
+                    compute(key, valueLoader);
+                    refreshSucceeded.increment();
+                } catch (Exception e) {
+                    refreshFailed.increment();
+                    log.warn("cache refresh 실패, 기존 값을 계속 사용합니다 : {} {}", name, localKey, e);
+                } finally {
+                    ShardContext.restore(previousShard);
+                    ReplicaRoutingContext.restoreReadOnly(previousReadOnly);
+                    if (leaseLock != null) {
+                        leaseLock.release(lockName, token);
+                    }
+                    refreshing.remove(localKey);
+                }
+            }));
+        } catch (RejectedExecutionException e) {
+            // 갱신 작업이 밀려 있으면 이번에는 건너뛰고, 다음 요청에서 다시 시도합니다.
+            refreshing.remove(localKey);
+        }
+    }
+
+    private boolean isFresh(Object value) {
+        return refreshAhead == null || !(value instanceof CachedValue cachedValue)
+                || !refreshAhead.shouldRefresh(cachedValue, System.currentTimeMillis());
+    }
+
+    private ValueWrapper awaitRedisValue(Object key) {
+        long deadline = System.nanoTime() + leaseLock.getLease().toNanos();
+        while (System.nanoTime() < deadline) {
+            try {
+                Thread.sleep(lockPollInterval.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return null;
+            }
+            ValueWrapper wrapper = redisCache.get(key);
+            if (wrapper != null && isFresh(wrapper.get())) {
+                return wrapper;
+            }
+        }
+        return null;
+    }
+
+    // @CachePut처럼 값을 바꾸는 저장이므로 다른 서버의 L1에 남은 이전 값을 지웁니다.
+    @Override
+    public void put(Object key, Object value) {
+        store(key, refreshAhead == null ? value : new CachedValue(value, System.currentTimeMillis(), 0));
+        invalidationPublisher.publishEvict(name, key);
+    }
+
+    // L1/L2에만 저장합니다. 무효화 메시지는 호출한 쪽에서 필요할 때만 발행합니다.
+    private void store(Object key, Object value) {
+        redisCache.put(key, value);
+        localCache.put(localKey(key), toStoreValue(value));
+    }
+
+    @Override
+    public void evict(Object key) {
+        redisCache.evict(key);
+        localCache.invalidate(localKey(key));
+        invalidationPublisher.publishEvict(name, key);
+    }
+
+    @Override
+    public void clear() {
+        redisCache.clear();
+        localCache.invalidateAll();
+        invalidationPublisher.publishClear(name);
+    }
+
+    // 다른 서버에서 보낸 무효화 메시지를 받았을 때 L1에서만 지웁니다.
+    void evictLocal(String key) {
+        localCache.invalidate(key);
+    }
+
+    void clearLocal() {
+        localCache.invalidateAll();
+    }
+
+    // 무효화 메시지에는 키가 문자열로 담기므로 L1은 키의 문자열 표현으로 저장합니다. (Redis 키도 문자열입니다.)
+    private static String localKey(Object key) {
+        return String.valueOf(key);
+    }
+}
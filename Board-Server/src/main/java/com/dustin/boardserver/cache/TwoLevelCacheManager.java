@@ -0,0 +1,86 @@
+package com.dustin.boardserver.cache;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.data.redis.cache.RedisCacheManager;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// 캐시 이름마다 TwoLevelCache(L1 Caffeine + L2 Redis)를 만들어 주는 CacheManager입니다.
+// 다른 서버가 발행한 무효화 메시지를 구독하여 해당 캐시의 L1 엔트리를 지웁니다.
+public class TwoLevelCacheManager implements CacheManager, MessageListener {
+    private final RedisCacheManager redisCacheManager;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final MeterRegistry meterRegistry;
+    private final long localMaximumSize;
+    private final Duration localExpireAfterWrite;
+    private final RedisLeaseLock leaseLock;
+    private final Duration lockPollInterval;
+    // 미리 갱신을 사용하는 캐시 이름별 정책입니다. 없는 캐시는 일반 TTL 만료를 따릅니다.
+    private final Map<String, RefreshAheadPolicy> refreshAheadPolicies;
+    private final ConcurrentMap<String, TwoLevelCache> caches = new ConcurrentHashMap<>();
+
+    public TwoLevelCacheManager(RedisCacheManager redisCacheManager, CacheInvalidationPublisher invalidationPublisher,
+                                MeterRegistry meterRegistry, long localMaximumSize, Duration localExpireAfterWrite,
+                                RedisLeaseLock leaseLock, Duration lockPollInterval,
+                                Map<String, RefreshAheadPolicy> refreshAheadPolicies) {
+        this.redisCacheManager = redisCacheManager;
+        this.invalidationPublisher = invalidationPublisher;
+        this.meterRegistry = meterRegistry;
+        this.localMaximumSize = localMaximumSize;
+        this.localExpireAfterWrite = localExpireAfterWrite;
+        this.leaseLock = leaseLock;
+        this.lockPollInterval = lockPollInterval;
+        this.refreshAheadPolicies = refreshAheadPolicies;
+    }
+
+    @Override
+    public Cache getCache(String name) {
+        return caches.computeIfAbsent(name, this::createCache);
+    }
+
+    @Override
+    public Collection<String> getCacheNames() {
+        return Collections.unmodifiableSet(caches.keySet());
+    }
+
+    private TwoLevelCache createCache(String name) {
+        com.github.benmanes.caffeine.cache.Cache<String, Object> localCache = Caffeine.newBuilder()
+                .maximumSize(localMaximumSize)
+                .expireAfterWrite(localExpireAfterWrite)
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, localCache, name + ".l1");
+        return new TwoLevelCache(name, localCache, redisCacheManager.getCache(name), invalidationPublisher,
+                leaseLock, lockPollInterval, refreshAheadPolicies.get(name), meterRegistry);
+    }
+
+    // 무효화 메시지를 처리합니다. 자신이 보낸 메시지와 아직 사용하지 않은 캐시에 대한 메시지는 무시합니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3 || parts[0].equals(invalidationPublisher.getNodeId())) {
+            return;
+        }
+        TwoLevelCache cache = caches.get(parts[1]);
+        if (cache == null) {
+            return;
+        }
+        if (CacheInvalidationPublisher.CLEAR_ALL.equals(parts[2])) {
+            cache.clearLocal();
+        } else {
+            cache.evictLocal(parts[2]);
+        }
+    }
+}
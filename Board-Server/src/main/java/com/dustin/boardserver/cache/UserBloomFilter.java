@@ -0,0 +1,124 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.UserDTO;
+import com.dustin.boardserver.mapper.UserProfileMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+// 가입된 아이디(userId)와 닉네임(nickName)의 Bloom filter입니다.
+// 회원가입과 중복 확인 요청마다 user 테이블을 조회하지 않도록, 필터가 "없음"이라고 답하면 DB를 건너뜁니다.
+// "있을 수 있음"이면 호출하는 쪽(UserServiceImpl)에서 DB로 정확히 확인합니다.
+//
+// - 기동 시 Redis에 필터가 없으면 user 테이블을 한 번 읽어 만들고, 회원가입 시 새 값을 추가합니다.
+// - 크기는 현재 회원 수의 growth배(최소 minCapacity)를 담아도 오탐률이 fpp 이하가 되도록 정하며,
+//   회원 수가 그 용량을 넘으면 statsMillis 주기 점검에서 더 크게 다시 만듭니다.
+// - 재구성 중에 가입한 회원은 재구성이 끝난 뒤 스캔 때의 마지막 ID 이후 회원을 다시 읽어 추가하므로 빠지지 않습니다.
+@Component
+@Log4j2
+public class UserBloomFilter {
+
+    private final UserProfileMapper userProfileMapper;
+    private final RedisBloomFilter userIds;
+    private final RedisBloomFilter nickNames;
+
+    @Value("${user.bloom.enabled:true}")
+    private boolean enabled;
+
+    // 목표 오탐률입니다.
+    @Value("${user.bloom.fpp:0.001}")
+    private double fpp;
+
+    // 현재 회원 수의 몇 배까지 목표 오탐률을 유지할지 정합니다.
+    @Value("${user.bloom.growth:2.0}")
+    private double growth;
+
+    @Value("${user.bloom.minCapacity:100000}")
+    private long minCapacity;
+
+    public UserBloomFilter(UserProfileMapper userProfileMapper, StringRedisTemplate redisTemplate, MeterRegistry meterRegistry) {
+        this.userProfileMapper = userProfileMapper;
+        this.userIds = new RedisBloomFilter("user:bloom:userId", redisTemplate, meterRegistry);
+        this.nickNames = new RedisBloomFilter("user:bloom:nickName", redisTemplate, meterRegistry);
+    }
+
+    // false이면 해당 아이디는 확실히 가입되어 있지 않습니다.
+    public boolean mightContainUserId(String userId) {
+        return !enabled || userIds.mightContain(userId);
+    }
+
+    // false이면 해당 닉네임은 확실히 사용 중이 아닙니다.
+    public boolean mightContainNickName(String nickName) {
+        return !enabled || nickNames.mightContain(nickName);
+    }
+
+    // 필터가 있을 수 있다고 했지만 DB에는 없었던 경우 호출합니다.
+    public void recordUserIdFalsePositive() {
+        userIds.recordFalsePositive();
+    }
+
+    public void recordNickNameFalsePositive() {
+        nickNames.recordFalsePositive();
+    }
+
+    // 가입한 회원의 아이디와 닉네임을 추가합니다.
+    public void add(UserDTO userDTO) {
+        if (!enabled) {
+            return;
+        }
+        userIds.add(userDTO.getUserId());
+        if (userDTO.getNickName() != null) {
+            nickNames.add(userDTO.getNickName());
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        if (enabled && (!userIds.isReady() || !nickNames.isReady())) {
+            rebuild();
+        }
+    }
+
+    // 오탐률을 다시 추정하고, 회원 수가 용량을 넘었으면 필터를 다시 만듭니다.
+    @Scheduled(fixedDelayString = "${user.bloom.statsMillis:60000}")
+    public void refresh() {
+        if (!enabled) {
+            return;
+        }
+        userIds.refreshStatistics();
+        nickNames.refreshStatistics();
+        if (userIds.isOverCapacity() || nickNames.isOverCapacity()) {
+            log.info("bloom filter 용량 초과, 다시 만듭니다 : userId fpp={}, nickName fpp={}",
+                    userIds.getEstimatedFpp(), nickNames.getEstimatedFpp());
+            rebuild();
+        }
+    }
+
+    // user 테이블 전체를 읽어 두 필터를 새로 만든 뒤 교체합니다.
+    public synchronized void rebuild() {
+        try {
+            long count = userProfileMapper.countUsers();
+            RedisBloomFilter.Builder userIdBuilder = userIds.builder(count, growth, minCapacity, fpp);
+            RedisBloomFilter.Builder nickNameBuilder = nickNames.builder(count, growth, minCapacity, fpp);
+            int[] maxId = new int[1];
+            userProfileMapper.selectUsersForBloomFilter(0, context -> {
+                UserDTO userDTO = context.getResultObject();
+                userIdBuilder.add(userDTO.getUserId());
+                nickNameBuilder.add(userDTO.getNickName());
+                maxId[0] = Math.max(maxId[0], userDTO.getId());
+            });
+            userIdBuilder.commit();
+            nickNameBuilder.commit();
+
+            // 스캔한 뒤 교체하기 전에 가입한 회원은 교체로 지워졌을 수 있으므로 다시 추가합니다.
+            userProfileMapper.selectUsersForBloomFilter(maxId[0], context -> add(context.getResultObject()));
+        } catch (RuntimeException e) {
+            log.error("bloom filter 재구성 실패", e);
+        }
+    }
+}
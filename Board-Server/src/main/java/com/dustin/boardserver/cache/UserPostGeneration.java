@@ -0,0 +1,39 @@
+package com.dustin.boardserver.cache;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.stereotype.Component;
+
+// 사용자별 게시물 세대(generation) 번호를 관리하는 클래스입니다. (SearchCacheGeneration과 같은 방식)
+// 사용자의 게시물이 등록/수정/삭제되면 1 올리며, 내 게시물 목록(/posts/my-posts)의 ETag에 사용합니다.
+// 세대 번호를 읽는 데는 Redis GET 한 번이면 되므로, 목록이 바뀌었는지 DB를 조회하지 않고 알 수 있습니다.
+@Component
+@Log4j2
+public class UserPostGeneration {
+    private static final String KEY_PREFIX = "posts:gen:user:";
+
+    private final StringRedisTemplate redisTemplate;
+
+    public UserPostGeneration(StringRedisTemplate redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    // 현재 세대 번호입니다. 한 번도 바뀐 적이 없으면 "0"입니다.
+    public String current(int userId) {
+        String generation = redisTemplate.opsForValue().get(KEY_PREFIX + userId);
+        return generation == null ? "0" : generation;
+    }
+
+    // 사용자들의 세대 번호를 올립니다. Redis 장애로 실패해도 게시물 변경 자체는 실패시키지 않습니다.
+    public void bump(int... userIds) {
+        try {
+            for (int userId : userIds) {
+                if (userId != 0) {
+                    redisTemplate.opsForValue().increment(KEY_PREFIX + userId);
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("user post generation 갱신 실패 : userIds={}", userIds, e);
+        }
+    }
+}
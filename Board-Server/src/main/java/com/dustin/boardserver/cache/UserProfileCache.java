@@ -0,0 +1,97 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.UserDTO;
+import com.dustin.boardserver.mapper.UserProfileMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+// 로그인한 사용자의 프로필(user 테이블)을 서버 메모리에 캐시합니다.
+// 거의 모든 게시물 요청이 세션의 사용자 ID로 프로필을 조회하므로, 요청마다 user 테이블을 읽지 않도록 합니다.
+//
+// - 키는 user.id(숫자)이며, 크기(maximumSize)와 만료 시간(expireSecond)으로 제한합니다.
+// - 비밀번호 변경, 탈퇴 시 invalidate로 지우고, Redis pub/sub(CacheInvalidationPublisher)으로 다른 서버에도 알립니다.
+//   메시지를 놓친 서버도 expireSecond가 지나면 새 값을 읽습니다.
+// - getAll은 캐시에 없는 ID만 모아 IN 쿼리 한 번으로 읽습니다.
+// - 비밀번호 해시가 포함된 값이므로 Redis(L2)에는 저장하지 않습니다.
+// 지표: cache.gets{cache=userProfile}(적중/미스), user.profile.load{type=single|batch}(DB 조회 시간)
+@Component
+public class UserProfileCache implements MessageListener {
+    static final String CACHE_NAME = "userProfile";
+
+    private final UserProfileMapper userProfileMapper;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final Cache<Integer, UserDTO> cache;
+    private final Timer singleLoadTimer;
+    private final Timer batchLoadTimer;
+
+    public UserProfileCache(UserProfileMapper userProfileMapper,
+                            CacheInvalidationPublisher invalidationPublisher,
+                            MeterRegistry meterRegistry,
+                            @Value("${user.profile.cache.maximumSize:10000}") long maximumSize,
+                            @Value("${user.profile.cache.expireSecond:300}") long expireSecond) {
+        this.userProfileMapper = userProfileMapper;
+        this.invalidationPublisher = invalidationPublisher;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(expireSecond))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+        this.singleLoadTimer = Timer.builder("user.profile.load").tag("type", "single").register(meterRegistry);
+        this.batchLoadTimer = Timer.builder("user.profile.load").tag("type", "batch").register(meterRegistry);
+    }
+
+    // 사용자 프로필을 반환합니다. 없는 사용자이면 null이며, null은 캐시하지 않습니다.
+    public UserDTO get(int id) {
+        return cache.get(id, key -> singleLoadTimer.record(() -> userProfileMapper.getUserProfile(String.valueOf(key))));
+    }
+
+    // 여러 사용자의 프로필을 한 번에 반환합니다. 캐시에 없는 사용자만 IN 쿼리 한 번으로 읽으며, 없는 사용자는 결과에 포함되지 않습니다.
+    public Map<Integer, UserDTO> getAll(Collection<Integer> ids) {
+        return cache.getAll(ids, this::loadAll);
+    }
+
+    // 프로필이 바뀌거나 삭제되면 이 서버와 다른 서버의 캐시에서 지웁니다.
+    public void invalidate(int id) {
+        cache.invalidate(id);
+        invalidationPublisher.publishEvict(CACHE_NAME, id);
+    }
+
+    // 다른 서버가 발행한 무효화 메시지를 처리합니다. 다른 캐시에 대한 메시지와 자신이 보낸 메시지는 무시합니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (parts.length != 3 || !CACHE_NAME.equals(parts[1]) || parts[0].equals(invalidationPublisher.getNodeId())) {
+            return;
+        }
+        if (CacheInvalidationPublisher.CLEAR_ALL.equals(parts[2])) {
+            cache.invalidateAll();
+        } else {
+            cache.invalidate(Integer.valueOf(parts[2]));
+        }
+    }
+
+    private Map<Integer, UserDTO> loadAll(Set<? extends Integer> ids) {
+        return batchLoadTimer.record(() -> {
+            Map<Integer, UserDTO> loaded = new HashMap<>();
+            for (UserDTO userDTO : userProfileMapper.selectUserProfiles(ids)) {
+                loaded.put(userDTO.getId(), userDTO);
+            }
+            return loaded;
+        });
+    }
+}
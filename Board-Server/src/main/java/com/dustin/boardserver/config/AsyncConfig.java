@@ -0,0 +1,128 @@
+package com.dustin.boardserver.config;
+
+import com.dustin.boardserver.datasource.ReplicaRoutingContext;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.TaskDecorator;
+import org.springframework.core.task.support.TaskExecutorAdapter;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// @EnableAsync: @Async 어노테이션이 붙은 메서드를 별도의 스레드 풀에서 실행하도록 합니다.
+@Configuration
+@EnableAsync
+public class AsyncConfig {
+
+    // 검색 스레드 수입니다. DB 커넥션 풀 크기보다 크게 잡아도 DB 동시 실행 수는 늘지 않습니다.
+    @Value("${search.executor.poolSize:8}")
+    private int searchPoolSize;
+
+    // 검색 대기열 크기입니다. 대기열이 가득 차면 요청을 거절합니다.
+    @Value("${search.executor.queueCapacity:200}")
+    private int searchQueueCapacity;
+
+    // 샤드 조회(scatter-gather) 스레드 수입니다. 보통 (동시 검색 수 * 샤드 수)만큼 필요합니다.
+    @Value("${datasource.shard.scatterPoolSize:16}")
+    private int shardPoolSize;
+
+    // true이면 검색을 가상 스레드에서 실행합니다. (VirtualThreadConfig 참고)
+    @Value("${threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
+    // 게시글 검색(@Async("searchExecutor"))을 실행하는 Executor입니다.
+    // 대기열이 가득 차면 TaskRejectedException을 던져, 톰캣 스레드가 끝없이 쌓이지 않고 바로 실패하도록 합니다.
+    // 가상 스레드 모드에서는 작업마다 가상 스레드를 만들고, 동시에 실행 중인 검색 수를 poolSize + queueCapacity로 제한합니다.
+    // 지표: search.executor.queued(대기열 길이, 스레드 풀 모드), search.executor.active(실행 중인 검색 수),
+    //       search.executor.rejected(거절 수), search.executor.wait(대기열 대기 시간), search.executor.execution(실행 시간)
+    @Bean
+    public Executor searchExecutor(MeterRegistry meterRegistry) {
+        Counter rejected = Counter.builder("search.executor.rejected").register(meterRegistry);
+        Timer waitTimer = Timer.builder("search.executor.wait").register(meterRegistry);
+        Timer executionTimer = Timer.builder("search.executor.execution").register(meterRegistry);
+        AtomicInteger active = meterRegistry.gauge("search.executor.active", new AtomicInteger());
+        // 요청 스레드에서 마지막 쓰기 시각을 넘겨받아, 방금 쓴 세션의 검색은 primary에서 읽습니다. (ReplicaRoutingContext 참고)
+        TaskDecorator taskDecorator = task -> {
+            long submitted = System.nanoTime();
+            Runnable propagated = ReplicaRoutingContext.propagate(task);
+            return () -> {
+                long started = System.nanoTime();
+                waitTimer.record(started - submitted, TimeUnit.NANOSECONDS);
+                active.incrementAndGet();
+                try {
+                    propagated.run();
+                } finally {
+                    active.decrementAndGet();
+                    executionTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+                }
+            };
+        };
+
+        if (virtualThreads) {
+            BoundedVirtualThreadExecutor virtualThreadExecutor =
+                    new BoundedVirtualThreadExecutor("search-vt-", searchPoolSize + searchQueueCapacity);
+            TaskExecutorAdapter executor = new TaskExecutorAdapter(task -> {
+                try {
+                    virtualThreadExecutor.execute(task);
+                } catch (RejectedExecutionException e) {
+                    rejected.increment();
+                    throw e;
+                }
+            });
+            executor.setTaskDecorator(taskDecorator);
+            return executor;
+        }
+
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(searchPoolSize);
+        executor.setMaxPoolSize(searchPoolSize);
+        executor.setQueueCapacity(searchQueueCapacity);
+        executor.setThreadNamePrefix("search-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            rejected.increment();
+            new ThreadPoolExecutor.AbortPolicy().rejectedExecution(task, pool);
+        });
+        executor.setTaskDecorator(taskDecorator);
+        // 종료 시 실행 중인 검색이 끝날 때까지 잠시 기다립니다.
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+
+        // 스레드 풀은 빈 초기화(afterPropertiesSet) 때 만들어지므로 값은 조회 시점에 읽습니다.
+        Gauge.builder("search.executor.queued", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+                .register(meterRegistry);
+        return executor;
+    }
+
+    // 여러 샤드에 같은 조회를 동시에 보내는 Executor입니다. (ShardRouter.scatter 참고)
+    // 샤드 번호와 복제본 라우팅 상태는 ShardRouter가 작업마다 넘겨주므로 TaskDecorator를 두지 않습니다.
+    // 스레드가 모두 바쁘면 요청 스레드가 직접 실행하므로(CallerRunsPolicy) 샤드 조회는 거절되지 않고 느려지기만 합니다.
+    // 지표: shard.executor.active(실행 중인 샤드 조회 수), shard.executor.callerRuns(요청 스레드가 직접 실행한 수)
+    @Bean
+    public Executor shardExecutor(MeterRegistry meterRegistry) {
+        Counter callerRuns = Counter.builder("shard.executor.callerRuns").register(meterRegistry);
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(shardPoolSize);
+        executor.setMaxPoolSize(shardPoolSize);
+        executor.setQueueCapacity(0);
+        executor.setThreadNamePrefix("shard-");
+        executor.setRejectedExecutionHandler((task, pool) -> {
+            callerRuns.increment();
+            new ThreadPoolExecutor.CallerRunsPolicy().rejectedExecution(task, pool);
+        });
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        Gauge.builder("shard.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+                .register(meterRegistry);
+        return executor;
+    }
+}
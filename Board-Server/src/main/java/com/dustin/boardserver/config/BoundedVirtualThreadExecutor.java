@@ -0,0 +1,38 @@
+package com.dustin.boardserver.config;
+
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+
+// 작업마다 가상 스레드를 만들어 실행하는 Executor입니다.
+// 가상 스레드는 개수 제한이 없으므로, 동시에 실행 중인 작업 수를 maxConcurrency로 제한하고
+// 넘치면 스레드 풀의 대기열이 가득 찼을 때와 같이 RejectedExecutionException을 던집니다.
+public class BoundedVirtualThreadExecutor implements Executor {
+    private final ThreadFactory threadFactory;
+    private final Semaphore permits;
+
+    public BoundedVirtualThreadExecutor(String threadNamePrefix, int maxConcurrency) {
+        this.threadFactory = Thread.ofVirtual().name(threadNamePrefix, 0).factory();
+        this.permits = new Semaphore(maxConcurrency);
+    }
+
+    @Override
+    public void execute(Runnable task) {
+        if (!permits.tryAcquire()) {
+            throw new RejectedExecutionException("동시에 실행할 수 있는 작업 수를 초과했습니다");
+        }
+        try {
+            threadFactory.newThread(() -> {
+                try {
+                    task.run();
+                } finally {
+                    permits.release();
+                }
+            }).start();
+        } catch (RuntimeException e) {
+            permits.release();
+            throw e;
+        }
+    }
+}
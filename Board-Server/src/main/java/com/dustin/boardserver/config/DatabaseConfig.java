@@ -1,11 +1,24 @@
 package com.dustin.boardserver.config;
 
+import com.dustin.boardserver.datasource.ReplicaRoutingDataSource;
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRoutingDataSource;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.boot.jdbc.DataSourceBuilder;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
 
 import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 
 
 // @Configuration: 이 클래스가 스프링 설정 클래스임을 나타냅니다.
@@ -13,6 +26,59 @@ import javax.sql.DataSource;
 @Configuration
 public class DatabaseConfig {
 
+    // 쉼표로 구분한 읽기 전용 복제본(replica)의 JDBC URL입니다. 비어 있으면 모든 조회가 primary로 갑니다.
+    @Value("${datasource.replica.urls:}")
+    private String[] replicaUrls;
+
+    @Value("${datasource.replica.username:${spring.datasource.username}}")
+    private String replicaUsername;
+
+    @Value("${datasource.replica.password:${spring.datasource.password}}")
+    private String replicaPassword;
+
+    @Value("${datasource.replica.driver-class-name:${spring.datasource.driver-class-name}}")
+    private String replicaDriverClassName;
+
+    // 복제본 커넥션을 기다리는 최대 시간입니다. 복제본이 죽었을 때 조회가 오래 멈추지 않고 primary로 넘어가도록 짧게 둡니다.
+    @Value("${datasource.replica.connectionTimeoutMillis:1000}")
+    private long replicaConnectionTimeoutMillis;
+
+    // 쓰기 후 이 시간 동안 같은 세션의 조회는 primary에서 읽습니다. 평소 복제 지연보다 넉넉하게 잡습니다.
+    @Value("${datasource.replica.readYourWritesMillis:3000}")
+    private long readYourWritesMillis;
+
+    // 상태 확인에서 커넥션 검사(isValid)를 기다리는 시간입니다.
+    @Value("${datasource.replica.healthCheckTimeoutSecond:1}")
+    private int healthCheckTimeoutSecond;
+
+    // true이면 상태 확인에서 복제 지연(SHOW REPLICA STATUS)도 확인하여, maxLagSecond보다 늦은 복제본은 제외합니다.
+    @Value("${datasource.replica.lagCheck:false}")
+    private boolean lagCheck;
+
+    @Value("${datasource.replica.maxLagSecond:5}")
+    private long maxLagSecond;
+
+    // 쉼표로 구분한 1번 이후 샤드의 JDBC URL입니다. 0번 샤드는 spring.datasource(와 그 복제본)입니다.
+    // 비어 있으면 샤드가 하나뿐이므로 샤딩하지 않을 때와 같게 동작합니다. (ShardRouter 참고)
+    @Value("${datasource.shard.urls:}")
+    private String[] shardUrls;
+
+    @Value("${datasource.shard.username:${spring.datasource.username}}")
+    private String shardUsername;
+
+    @Value("${datasource.shard.password:${spring.datasource.password}}")
+    private String shardPassword;
+
+    @Value("${datasource.shard.driver-class-name:${spring.datasource.driver-class-name}}")
+    private String shardDriverClassName;
+
+    @Value("${datasource.shard.maximumPoolSize:10}")
+    private int shardMaximumPoolSize;
+
+    // 샤딩 전에 만든 post/comment/tag ID 중 가장 큰 값입니다. 이 이하의 ID는 0번 샤드에서 찾습니다. (ShardIdGenerator 참고)
+    @Value("${datasource.shard.legacyMaxId:0}")
+    private long legacyMaxId;
+
     // @ConfigurationProperties: 이 어노테이션은 지정된 접두사(prefix)로 시작하는 속성들을 바인딩하여
     // DataSource 객체를 구성하는 데 사용합니다.
     // "spring.datasource" 접두사는 외부 설정 파일(application.properties 또는 application.yml)에서
@@ -20,13 +86,89 @@ public class DatabaseConfig {
     @ConfigurationProperties(prefix = "spring.datasource")
 
     // @Bean: 이 메서드는 스프링 컨테이너에 의해 관리되는 빈(bean)을 정의합니다.
-    // 이 경우, DataSource 빈이 생성됩니다.
+    // 이 경우, 쓰기와 복제본으로 보낼 수 없는 조회를 처리하는 primary DataSource 빈이 생성됩니다.
     @Bean
-    public DataSource dataSource() {
+    public DataSource primaryDataSource() {
         // DataSourceBuilder를 사용하여 DataSource 객체를 생성합니다.
         // 여기서는 외부 설정 파일에서 주입된 값들을 사용하여 DataSource를 구성하고 반환합니다.
         return DataSourceBuilder.create().build();
     }
-}
 
+    // 읽기 전용 조회를 복제본으로 보내는 DataSource입니다. (ReplicaRoutingDataSource 참고)
+    // 복제본 커넥션 풀은 이 빈이 만들고, 빈이 종료될 때(close) 닫습니다.
+    @Bean
+    public ReplicaRoutingDataSource routingDataSource(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                                      MeterRegistry meterRegistry) {
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        for (String url : replicaUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            String name = "replica-" + replicas.size();
+            HikariDataSource replica = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(replicaDriverClassName)
+                    .url(url.trim())
+                    .username(replicaUsername)
+                    .password(replicaPassword)
+                    .build();
+            replica.setPoolName(name);
+            replica.setReadOnly(true);
+            replica.setConnectionTimeout(replicaConnectionTimeoutMillis);
+            // 복제본이 꺼진 채로 서버가 시작되어도 실패하지 않고, 상태 확인에서 제외됩니다.
+            replica.setInitializationFailTimeout(-1);
+            replicas.put(name, replica);
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas, readYourWritesMillis,
+                healthCheckTimeoutSecond, lagCheck, maxLagSecond, meterRegistry);
+    }
+
+    // 샤드 번호(ShardContext)로 커넥션을 보내는 DataSource입니다. (ShardRoutingDataSource 참고)
+    // 0번 샤드는 복제본 라우팅을 거치고, 1번 이후 샤드는 primary 하나만 두며 복제본은 없습니다.
+    // 1번 이후 샤드의 커넥션 풀은 이 빈이 만들고, 빈이 종료될 때(close) 닫습니다.
+    @Bean
+    public ShardRoutingDataSource shardRoutingDataSource(ReplicaRoutingDataSource routingDataSource) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(routingDataSource);
+        for (String url : shardUrls) {
+            if (url.isBlank()) {
+                continue;
+            }
+            HikariDataSource shard = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .driverClassName(shardDriverClassName)
+                    .url(url.trim())
+                    .username(shardUsername)
+                    .password(shardPassword)
+                    .build();
+            shard.setPoolName("shard-" + shards.size());
+            shard.setMaximumPoolSize(shardMaximumPoolSize);
+            shards.add(shard);
+        }
+        return new ShardRoutingDataSource(shards);
+    }
 
+    // ID 순번은 복제본이 아닌 0번 샤드의 primary에서 받습니다.
+    // 0번 샤드에 legacyMaxId로 가리키지 못한 샤딩 전의 데이터가 있으면 시작하지 않습니다.
+    @Bean
+    public ShardIdGenerator shardIdGenerator(@Qualifier("primaryDataSource") DataSource primaryDataSource,
+                                             ShardRoutingDataSource shardRoutingDataSource) {
+        List<DataSource> shards = new ArrayList<>();
+        shards.add(primaryDataSource);
+        for (int shard = 1; shard < shardRoutingDataSource.shardCount(); shard++) {
+            shards.add(shardRoutingDataSource.shard(shard));
+        }
+        ShardIdGenerator shardIdGenerator = new ShardIdGenerator(shards, legacyMaxId);
+        shardIdGenerator.verifyLegacyRows();
+        return shardIdGenerator;
+    }
+
+    // 애플리케이션(MyBatis, 트랜잭션 매니저)이 사용하는 DataSource입니다.
+    // LazyConnectionDataSourceProxy는 첫 쿼리를 실행할 때 커넥션을 꺼내므로, 그 시점에는
+    // 샤드 번호, @Transactional(readOnly = true) 여부와 @ReplicaRead 표시가 정해져 있어 올바른 곳으로 보낼 수 있습니다.
+    @Primary
+    @Bean
+    public DataSource dataSource(ShardRoutingDataSource shardRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+    }
+}
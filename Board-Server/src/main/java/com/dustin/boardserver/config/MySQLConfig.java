@@ -1,14 +1,18 @@
 package com.dustin.boardserver.config;
 
+import com.dustin.boardserver.datasource.ReadYourWritesInterceptor;
+import com.dustin.boardserver.mybatis.StatementMetricsInterceptor;
 import org.apache.ibatis.session.SqlSessionFactory;
 import org.mybatis.spring.SqlSessionFactoryBean;
 import org.mybatis.spring.annotation.MapperScan;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.core.io.Resource;
 import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
 
 import javax.sql.DataSource;
+import java.util.Properties;
 
 // @Configuration: 이 클래스가 스프링의 설정 클래스임을 나타냅니다.
 // 애플리케이션 컨텍스트에 빈(bean)들을 정의할 수 있습니다.
@@ -19,10 +23,15 @@ import javax.sql.DataSource;
 @MapperScan(basePackages = "com.dustin.boardserver")
 public class MySQLConfig {
 
+    // 모든 샤드에서 동시에 실행하는 조회(ShardRouter.scatter)의 제한 시간입니다.
+    @Value("${datasource.shard.scatterTimeoutMillis:5000}")
+    private long scatterTimeoutMillis;
+
     // @Bean: 이 메서드는 스프링 컨테이너에서 관리하는 빈(bean)을 정의합니다.
     // 이 경우, SqlSessionFactory 객체를 생성하여 반환하는 역할을 합니다.
     @Bean
-    public SqlSessionFactory sqlSessionFactory(DataSource dataSource) throws Exception {
+    public SqlSessionFactory sqlSessionFactory(DataSource dataSource,
+                                               StatementMetricsInterceptor statementMetricsInterceptor) throws Exception {
         // SqlSessionFactoryBean을 생성하여 SqlSessionFactory를 구성합니다.
         final SqlSessionFactoryBean sessionFactory = new SqlSessionFactoryBean();
 
@@ -37,6 +46,18 @@ public class MySQLConfig {
         Resource myBatisConfig = new PathMatchingResourcePatternResolver().getResource("classpath:mybatis-config.xml");
         sessionFactory.setConfigLocation(myBatisConfig);
 
+        // scatter가 시간을 넘겨 요청을 끝내도 작업 스레드의 JDBC 쿼리는 멈추지 않으므로,
+        // scatter로 실행하는 구문은 같은 제한 시간을 statement timeout(timeout="${scatterTimeoutSecond}")으로 걸어 DB에서 멈춥니다.
+        // JDBC의 timeout은 초 단위이므로 올림합니다.
+        Properties variables = new Properties();
+        variables.setProperty("scatterTimeoutSecond",
+                String.valueOf(Math.max(1, (scatterTimeoutMillis + 999) / 1000)));
+        sessionFactory.setConfigurationProperties(variables);
+
+        // 쓰기가 실행되면 같은 세션의 조회를 잠시 primary로 보내도록 기록하는 플러그인과,
+        // 구문별 실행 시간/행 수/오류 수를 기록하고 느린 쿼리를 로그로 남기는 플러그인을 등록합니다.
+        sessionFactory.setPlugins(new ReadYourWritesInterceptor(), statementMetricsInterceptor);
+
         // SqlSessionFactory 객체를 반환합니다. 이 객체는 MyBatis와 상호작용할 때 사용됩니다.
         return sessionFactory.getObject();
     }
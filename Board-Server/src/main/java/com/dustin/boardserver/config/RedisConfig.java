@@ -1,22 +1,44 @@
 package com.dustin.boardserver.config;
 
+import com.dustin.boardserver.cache.CacheInvalidationPublisher;
+import com.dustin.boardserver.cache.PostCacheSerializer;
+import com.dustin.boardserver.cache.RedisLeaseLock;
+import com.dustin.boardserver.cache.RefreshAheadPolicy;
+import com.dustin.boardserver.cache.SearchCacheGeneration;
+import com.dustin.boardserver.cache.TwoLevelCacheManager;
+import com.dustin.boardserver.cache.UserProfileCache;
+import com.dustin.boardserver.search.PostSearchIndex;
+import com.dustin.boardserver.search.TagPostIndex;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
 import org.springframework.data.redis.cache.RedisCacheConfiguration;
 import org.springframework.data.redis.cache.RedisCacheManager;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.connection.RedisStandaloneConfiguration;
 import org.springframework.data.redis.connection.lettuce.LettuceConnectionFactory;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.RedisSerializationContext;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ThreadPoolExecutor;
 
 // @Configuration: 이 클래스가 스프링의 설정 클래스임을 나타냅니다.
 // 애플리케이션 컨텍스트에 빈(bean)들을 정의하고 설정을 관리합니다.
@@ -40,6 +62,57 @@ public class RedisConfig {
     @Value("${expire.defaultTime}")
     private long defaultExpireSecond;
 
+    // 서버 내부(L1) 캐시에 캐시 이름마다 보관할 최대 엔트리 수입니다.
+    @Value("${cache.local.maximumSize:10000}")
+    private long localMaximumSize;
+
+    // 서버 내부(L1) 캐시 엔트리의 만료 시간(초)입니다. 무효화 메시지가 유실되었을 때 오래된 값이 남는 최대 시간이기도 합니다.
+    @Value("${cache.local.expireSecond:30}")
+    private long localExpireSecond;
+
+    // 캐시 미스 시 클러스터 전체에서 한 서버만 다시 계산하도록 Redis 락을 사용할지 여부입니다.
+    @Value("${cache.singleflight.distributedLock:false}")
+    private boolean distributedLock;
+
+    // Redis 락의 임대 시간(ms)입니다. 다른 서버는 이 시간 동안 계산 결과를 기다립니다.
+    @Value("${cache.singleflight.leaseMillis:3000}")
+    private long lockLeaseMillis;
+
+    // 락을 얻지 못한 서버가 L2에 값이 채워졌는지 확인하는 간격(ms)입니다.
+    @Value("${cache.singleflight.pollMillis:50}")
+    private long lockPollMillis;
+
+    // 캐시 값이 이 크기(byte) 이상이면 LZ4로 압축하여 저장합니다.
+    @Value("${cache.serializer.compressThreshold:1024}")
+    private int compressThreshold;
+
+    // 만료 전에 백그라운드에서 미리 갱신할 캐시 이름 목록입니다.
+    @Value("${cache.refreshAhead.caches:}")
+    private List<String> refreshAheadCaches;
+
+    // 이 시간(초)이 지난 값은 오래된 값으로 보고 반환과 동시에 백그라운드에서 다시 계산합니다.
+    @Value("${cache.refreshAhead.softTtlSecond:300}")
+    private long refreshSoftTtlSecond;
+
+    // softTtl 이후에도 오래된 값을 반환할 수 있는 최대 시간(초)입니다. DB 장애 시 이 시간까지 오래된 값을 반환합니다.
+    @Value("${cache.refreshAhead.staleCapSecond:300}")
+    private long refreshStaleCapSecond;
+
+    // XFetch의 beta 값입니다. 클수록 softTtl보다 더 일찍 갱신을 시작합니다.
+    @Value("${cache.refreshAhead.beta:1.0}")
+    private double refreshBeta;
+
+    // 백그라운드 갱신 스레드 수와 대기열 크기입니다. 대기열이 가득 차면 갱신을 건너뛰고 오래된 값을 반환합니다.
+    @Value("${cache.refreshAhead.poolSize:2}")
+    private int refreshPoolSize;
+
+    @Value("${cache.refreshAhead.queueCapacity:100}")
+    private int refreshQueueCapacity;
+
+    // true이면 백그라운드 캐시 갱신을 가상 스레드에서 실행합니다. (VirtualThreadConfig 참고)
+    @Value("${threads.virtual.enabled:false}")
+    private boolean virtualThreads;
+
     // ObjectMapper를 빈(bean)으로 등록합니다. 이 ObjectMapper는 JSON 직렬화 및 역직렬화를 수행하는 데 사용됩니다.
     @Bean
     public ObjectMapper objectMapper() {
@@ -82,11 +155,84 @@ public class RedisConfig {
                         .SerializationPair
                         .fromSerializer(new StringRedisSerializer())) // 키를 문자열로 직렬화합니다.
                 .serializeValuesWith(RedisSerializationContext.SerializationPair
-                        .fromSerializer(new GenericJackson2JsonRedisSerializer(objectMapper))); // 값을 JSON으로 직렬화합니다.
+                        .fromSerializer(new PostCacheSerializer(new GenericJackson2JsonRedisSerializer(objectMapper),
+                                compressThreshold))); // 값을 바이너리로 직렬화하고, 게시물 외의 값과 이전 값은 JSON을 사용합니다.
+
+        // 미리 갱신하는 캐시는 오래된 값도 staleCap까지 반환해야 하므로 Redis TTL을 softTtl + staleCap으로 설정합니다.
+        Map<String, RedisCacheConfiguration> refreshAheadConfigurations = new HashMap<>();
+        Duration hardTtl = Duration.ofSeconds(refreshSoftTtlSecond + refreshStaleCapSecond);
+        for (String cacheName : refreshAheadCaches) {
+            refreshAheadConfigurations.put(cacheName, configuration.entryTtl(hardTtl));
+        }
 
         // 설정된 RedisCacheManager를 반환합니다. 이 매니저는 Redis 서버와의 연결 팩토리를 사용합니다.
         return RedisCacheManager.RedisCacheManagerBuilder.fromConnectionFactory(redisConnectionFactory)
                 .cacheDefaults(configuration) // 기본 캐시 설정을 적용합니다.
+                .withInitialCacheConfigurations(refreshAheadConfigurations)
                 .build();
     }
+
+    // 다른 서버의 L1 캐시를 무효화하기 위한 메시지 발행기를 빈(bean)으로 등록합니다.
+    @Bean
+    public CacheInvalidationPublisher cacheInvalidationPublisher(StringRedisTemplate stringRedisTemplate) {
+        return new CacheInvalidationPublisher(stringRedisTemplate);
+    }
+
+    // 만료가 가까운 캐시 값을 백그라운드에서 다시 계산하는 스레드 풀입니다.
+    // 대기열이 가득 차면 예외를 던지고, 캐시는 이번 갱신을 건너뛴 채 오래된 값을 반환합니다.
+    // 가상 스레드 모드에서는 동시에 실행 중인 갱신 수를 poolSize + queueCapacity로 제한합니다.
+    @Bean
+    public Executor cacheRefreshExecutor() {
+        if (virtualThreads) {
+            return new BoundedVirtualThreadExecutor("cache-refresh-vt-", refreshPoolSize + refreshQueueCapacity);
+        }
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(refreshPoolSize);
+        executor.setMaxPoolSize(refreshPoolSize);
+        executor.setQueueCapacity(refreshQueueCapacity);
+        executor.setThreadNamePrefix("cache-refresh-");
+        executor.setRejectedExecutionHandler(new ThreadPoolExecutor.AbortPolicy());
+        return executor;
+    }
+
+    // @Cacheable 등 스프링 캐시 추상화가 사용하는 기본 CacheManager입니다.
+    // 서버 내부 캐시(L1, Caffeine)를 먼저 조회하고, 없으면 위의 Redis 캐시(L2)를 조회합니다.
+    @Bean
+    @Primary
+    public TwoLevelCacheManager cacheManager(RedisCacheManager redisCacheManager,
+                                             CacheInvalidationPublisher cacheInvalidationPublisher,
+                                             StringRedisTemplate stringRedisTemplate,
+                                             @Qualifier("cacheRefreshExecutor") Executor cacheRefreshExecutor,
+                                             MeterRegistry meterRegistry) {
+        RedisLeaseLock leaseLock = distributedLock
+                ? new RedisLeaseLock(stringRedisTemplate, Duration.ofMillis(lockLeaseMillis))
+                : null;
+        Map<String, RefreshAheadPolicy> refreshAheadPolicies = new HashMap<>();
+        for (String cacheName : refreshAheadCaches) {
+            refreshAheadPolicies.put(cacheName, new RefreshAheadPolicy(Duration.ofSeconds(refreshSoftTtlSecond),
+                    Duration.ofSeconds(refreshStaleCapSecond), refreshBeta, cacheRefreshExecutor));
+        }
+        return new TwoLevelCacheManager(redisCacheManager, cacheInvalidationPublisher, meterRegistry,
+                localMaximumSize, Duration.ofSeconds(localExpireSecond), leaseLock, Duration.ofMillis(lockPollMillis),
+                refreshAheadPolicies);
+    }
+
+    // 다른 서버가 발행한 캐시 무효화 메시지를 구독하여 L1 캐시와 사용자 프로필 캐시에서 해당 엔트리를 지웁니다.
+    // 검색 캐시 세대 번호와 검색 색인도 같은 채널로 다른 서버의 변경을 전달받아 갱신합니다.
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory redisConnectionFactory,
+                                                                       TwoLevelCacheManager cacheManager,
+                                                                       UserProfileCache userProfileCache,
+                                                                       SearchCacheGeneration searchCacheGeneration,
+                                                                       PostSearchIndex postSearchIndex,
+                                                                       TagPostIndex tagPostIndex) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer();
+        container.setConnectionFactory(redisConnectionFactory);
+        container.addMessageListener(cacheManager, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        container.addMessageListener(userProfileCache, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        container.addMessageListener(searchCacheGeneration, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        container.addMessageListener(postSearchIndex, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        container.addMessageListener(tagPostIndex, new ChannelTopic(CacheInvalidationPublisher.CHANNEL));
+        return container;
+    }
 }
@@ -0,0 +1,56 @@
+package com.dustin.boardserver.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.embedded.tomcat.TomcatProtocolHandlerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.Executors;
+
+// threads.virtual.enabled=true일 때 톰캣 요청 처리를 가상 스레드에서 실행합니다.
+// JDBC(MyBatis)와 Redis(Lettuce) 동기 호출은 그대로 블로킹 코드이지만, 가상 스레드가 기다리는 동안
+// 캐리어 스레드는 다른 요청을 처리하므로 동시 처리량이 톰캣 스레드 수에 묶이지 않습니다.
+// @Async 검색 스레드 풀과 캐시 갱신 스레드 풀은 AsyncConfig, RedisConfig에서 같은 설정으로 전환합니다.
+@Configuration
+@ConditionalOnProperty(name = "threads.virtual.enabled", havingValue = "true")
+@Log4j2
+public class VirtualThreadConfig {
+
+    // 톰캣이 요청마다 새 가상 스레드를 만들어 처리하도록 합니다.
+    @Bean
+    public TomcatProtocolHandlerCustomizer<?> virtualThreadProtocolHandlerCustomizer() {
+        return protocolHandler -> protocolHandler.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    // 가상 스레드가 synchronized 블록 안에서 블로킹되면 캐리어 스레드를 붙잡습니다(pinning).
+    // JDBC 드라이버 등에서 이런 구간이 있는지 확인할 수 있도록 JFR의 jdk.VirtualThreadPinned 이벤트를
+    // jvm.threads.virtual.pinned 지표로 세고, 발생 위치를 로그로 남깁니다.
+    // (JVM 옵션 -Djdk.tracePinnedThreads=short 로도 같은 정보를 표준 출력에서 볼 수 있습니다.)
+    @Bean(destroyMethod = "close")
+    public RecordingStream virtualThreadPinningMonitor(MeterRegistry meterRegistry) {
+        Counter pinned = Counter.builder("jvm.threads.virtual.pinned").register(meterRegistry);
+        RecordingStream recordingStream = new RecordingStream();
+        recordingStream.enable("jdk.VirtualThreadPinned").withThreshold(Duration.ofMillis(20)).withStackTrace();
+        recordingStream.onEvent("jdk.VirtualThreadPinned", event -> {
+            pinned.increment();
+            if (event.getStackTrace() != null) {
+                List<String> frames = event.getStackTrace().getFrames().stream()
+                        .filter(RecordedFrame::isJavaFrame)
+                        .limit(5)
+                        .map(frame -> frame.getMethod().getType().getName() + "."
+                                + frame.getMethod().getName() + ":" + frame.getLineNumber())
+                        .toList();
+                log.warn("virtual thread pinned {}ms : {}", event.getDuration().toMillis(), frames);
+            }
+        });
+        recordingStream.startAsync();
+        return recordingStream;
+    }
+}
@@ -4,12 +4,19 @@ import com.dustin.boardserver.aop.LoginCheck;
 import com.dustin.boardserver.dto.CategoryDTO;
 import com.dustin.boardserver.dto.SortStatus;
 import com.dustin.boardserver.service.impl.CategoryServiceImpl;
+import com.dustin.boardserver.service.impl.PostExportServiceImpl;
+import com.dustin.boardserver.dto.response.CommonResponse;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.io.IOException;
+import java.util.List;
+
 // @RestController: 이 클래스가 스프링 MVC의 REST 컨트롤러임을 나타냅니다.
 // 이 클래스의 메서드들은 JSON 또는 XML 형식의 응답을 반환할 수 있습니다.
 @RestController
@@ -26,9 +33,36 @@ public class CategoryController {
     // 이 서비스는 카테고리와 관련된 비즈니스 로직을 처리합니다.
     private CategoryServiceImpl categoryService;
 
-    // 생성자 주입을 통해 CategoryServiceImpl 인스턴스를 주입받습니다.
-    public CategoryController(CategoryServiceImpl categoryService) {
+    // 게시물을 NDJSON으로 내보내는 서비스입니다.
+    private PostExportServiceImpl postExportService;
+
+    // 생성자 주입을 통해 CategoryServiceImpl, PostExportServiceImpl 인스턴스를 주입받습니다.
+    public CategoryController(CategoryServiceImpl categoryService, PostExportServiceImpl postExportService) {
         this.categoryService = categoryService;
+        this.postExportService = postExportService;
+    }
+
+    // GET 요청을 처리하며, 카테고리 목록을 게시물 수와 함께 가져옵니다.
+    // "/categories" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // 게시물 수는 searchCount에 담기며, 검색 화면에서 전체 페이지 수를 계산하는 데 사용합니다.
+    @GetMapping
+    public ResponseEntity<CommonResponse<List<CategoryDTO>>> getCategories() {
+        List<CategoryDTO> categoryDTOList = categoryService.getCategories();
+        CommonResponse<List<CategoryDTO>> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "getCategories", categoryDTOList);
+        return ResponseEntity.ok(commonResponse);
+    }
+
+    // GET 요청을 처리하며, 카테고리의 게시물 전체를 NDJSON(한 줄에 게시물 하나)으로 내려받습니다.
+    // "/categories/{categoryId}/posts/export" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // @LoginCheck(type = LoginCheck.UserType.ADMIN): 이 메서드는 관리자 계정으로 로그인한 사용자만 접근할 수 있습니다.
+    @GetMapping("{categoryId}/posts/export")
+    @LoginCheck(type = LoginCheck.UserType.ADMIN)
+    public void exportCategoryPosts(String accountId,
+                                    @PathVariable(name = "categoryId") int categoryId,
+                                    HttpServletResponse response) throws IOException {
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        postExportService.exportCategory(categoryId, response.getOutputStream());
     }
 
     // POST 요청을 처리하며, 새로운 카테고리를 등록합니다.
@@ -1,21 +1,30 @@
 package com.dustin.boardserver.controller;
 
 import com.dustin.boardserver.aop.LoginCheck;
+import com.dustin.boardserver.cache.CompressedResponseCache;
 import com.dustin.boardserver.dto.CommentDTO;
+import com.dustin.boardserver.dto.CommentPageDTO;
 import com.dustin.boardserver.dto.PostDTO;
 import com.dustin.boardserver.dto.TagDTO;
 import com.dustin.boardserver.dto.UserDTO;
 import com.dustin.boardserver.dto.response.CommonResponse;
+import com.dustin.boardserver.service.impl.PostExportServiceImpl;
 import com.dustin.boardserver.service.impl.PostServiceImpl;
+import com.dustin.boardserver.service.impl.TrendingServiceImpl;
 import com.dustin.boardserver.service.impl.UserServiceImpl;
+import com.dustin.boardserver.utils.ETagUtil;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.io.IOException;
 import java.util.Date;
 import java.util.List;
 
@@ -30,11 +39,18 @@ public class PostController {
     // 이 서비스들은 게시물과 사용자 관련된 비즈니스 로직을 처리합니다.
     private final PostServiceImpl postService;
     private final UserServiceImpl userService;
+    private final TrendingServiceImpl trendingService;
+    private final PostExportServiceImpl postExportService;
+    private final CompressedResponseCache compressedResponseCache;
 
-    // 생성자 주입을 통해 PostServiceImpl 및 UserServiceImpl 인스턴스를 주입받습니다.
-    public PostController(PostServiceImpl postService, UserServiceImpl userService) {
+    // 생성자 주입을 통해 PostServiceImpl, UserServiceImpl, TrendingServiceImpl, PostExportServiceImpl 및 CompressedResponseCache 인스턴스를 주입받습니다.
+    public PostController(PostServiceImpl postService, UserServiceImpl userService, TrendingServiceImpl trendingService,
+                          PostExportServiceImpl postExportService, CompressedResponseCache compressedResponseCache) {
         this.postService = postService;
         this.userService = userService;
+        this.trendingService = trendingService;
+        this.postExportService = postExportService;
+        this.compressedResponseCache = compressedResponseCache;
     }
 
     // POST 요청을 처리하며, 새로운 게시물을 등록합니다.
@@ -53,19 +69,81 @@ public class PostController {
         return ResponseEntity.ok(commonResponse);
     }
 
+    // POST 요청을 처리하며, 여러 게시물을 한 번에 등록합니다.
+    // "/posts/bulk" 경로로 POST 요청이 들어오면 이 메서드가 호출됩니다.
+    // 하나라도 잘못된 항목이 있으면 아무것도 등록하지 않으며, 응답의 각 게시물에는 생성된 ID가 요청 순서대로 채워집니다.
+    @PostMapping("bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    @LoginCheck(type = LoginCheck.UserType.USER)
+    public ResponseEntity<CommonResponse<List<PostDTO>>> registerPosts(String accountId, @RequestBody List<PostDTO> postDTOList) {
+        List<PostDTO> registered = postService.registerBulk(accountId, postDTOList);
+        CommonResponse<List<PostDTO>> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "registerPosts", registered);
+        return ResponseEntity.ok(commonResponse);
+    }
+
     // GET 요청을 처리하며, 사용자의 게시물 정보를 가져옵니다.
     // @GetMapping: 이 메서드는 HTTP GET 요청을 처리합니다.
     // "/posts/my-posts" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
     // @LoginCheck(type = LoginCheck.UserType.USER): 이 메서드는 로그인된 일반 사용자만 접근할 수 있습니다.
+    // 응답에는 사용자 게시물 세대 번호로 만든 ETag가 붙습니다. If-None-Match가 같으면 게시물을 조회하지 않고 304를 반환합니다.
+    // gzip을 허용하는 클라이언트에는 ETag별로 캐시된 압축 본문을 보냅니다. (CompressedResponseCache 참고)
     @GetMapping("my-posts")
     @LoginCheck(type = LoginCheck.UserType.USER)
-    public ResponseEntity<CommonResponse<List<PostDTO>>> myPostInfo(String accountId) {
+    public ResponseEntity<Object> myPostInfo(String accountId, WebRequest webRequest,
+                                             @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         // userService를 통해 사용자 정보를 가져옵니다.
         UserDTO memberInfo = userService.getUserInfo(accountId);
+        boolean gzip = ETagUtil.acceptsGzip(acceptEncoding);
+        String version = postService.getMyProductsVersion(memberInfo.getId());
+        String eTag = version == null ? null : ETagUtil.strong("posts", version, gzip);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null; // 304 Not Modified
+        }
         // postService를 통해 사용자의 게시물 리스트를 가져옵니다.
         List<PostDTO> postDTOList = postService.getMyProducts(memberInfo.getId());
         // 성공 응답을 생성하여 반환합니다.
         CommonResponse<List<PostDTO>> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "myPostInfo", postDTOList);
+        if (eTag == null) {
+            return ResponseEntity.ok(commonResponse);
+        }
+        if (gzip) {
+            return compressedResponseCache.gzipResponse(eTag, commonResponse);
+        }
+        return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).body(commonResponse);
+    }
+
+    // GET 요청을 처리하며, 사용자의 게시물 전체를 NDJSON(한 줄에 게시물 하나)으로 내려받습니다.
+    // "/posts/my-posts/export" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // 게시물이 아주 많아도 목록을 메모리에 만들지 않고 DB에서 읽는 대로 응답에 씁니다. (PostExportServiceImpl 참고)
+    @GetMapping("my-posts/export")
+    @LoginCheck(type = LoginCheck.UserType.USER)
+    public void exportMyPosts(String accountId, HttpServletResponse response) throws IOException {
+        UserDTO memberInfo = userService.getUserInfo(accountId);
+        response.setContentType("application/x-ndjson");
+        response.setCharacterEncoding("UTF-8");
+        postExportService.exportMyProducts(memberInfo.getId(), response.getOutputStream());
+    }
+
+    // GET 요청을 처리하며, 인기 게시물을 점수가 높은 순으로 가져옵니다.
+    // "/posts/trending?categoryId=1&size=20" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // categoryId를 생략하면 전체 게시물의 순위를 반환합니다. 점수는 조회/댓글/등록 시각을 반영합니다. (TrendingServiceImpl 참고)
+    @GetMapping("trending")
+    public ResponseEntity<CommonResponse<List<PostDTO>>> trending(@RequestParam(name = "categoryId", defaultValue = "0") int categoryId,
+                                                                  @RequestParam(name = "size", defaultValue = "0") int size) {
+        List<PostDTO> postDTOList = trendingService.getTrending(categoryId, size);
+        CommonResponse<List<PostDTO>> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "trending", postDTOList);
+        return ResponseEntity.ok(commonResponse);
+    }
+
+    // GET 요청을 처리하며, 게시물 하나를 조회합니다. 조회할 때마다 조회수가 1 증가합니다.
+    // @GetMapping: 이 메서드는 HTTP GET 요청을 처리합니다.
+    // "/posts/{postId}" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    @GetMapping("{postId}")
+    public ResponseEntity<CommonResponse<PostDTO>> getPost(@PathVariable(name = "postId") int postId) {
+        // postService를 통해 게시물을 조회합니다.
+        PostDTO postDTO = postService.getPost(postId);
+        // 성공 응답을 생성하여 반환합니다.
+        CommonResponse<PostDTO> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "getPost", postDTO);
         return ResponseEntity.ok(commonResponse);
     }
 
@@ -86,7 +164,6 @@ public class PostController {
                 .id(postId)
                 .name(postRequest.getName())
                 .contents(postRequest.getContents())
-                .views(postRequest.getViews())
                 .categoryId(postRequest.getCategoryId())
                 .userId(memberInfo.getId())
                 .fileId(postRequest.getFileId())
@@ -122,6 +199,18 @@ public class PostController {
 
     // -------------- comments (댓글 관련 엔드포인트) --------------
 
+    // GET 요청을 처리하며, 게시물의 댓글을 답글 트리와 함께 가져옵니다.
+    // "/posts/{postId}/comments?cursor=0&size=20" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // 페이지는 루트 댓글 기준이며, 다음 페이지는 응답의 nextCursor 값을 cursor에 담아 조회합니다.
+    @GetMapping("{postId}/comments")
+    public ResponseEntity<CommonResponse<CommentPageDTO>> getPostComments(@PathVariable(name = "postId") int postId,
+                                                                          @RequestParam(name = "cursor", defaultValue = "0") int cursor,
+                                                                          @RequestParam(name = "size", defaultValue = "0") int size) {
+        CommentPageDTO commentPage = postService.getComments(postId, cursor, size);
+        CommonResponse<CommentPageDTO> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "getPostComments", commentPage);
+        return ResponseEntity.ok(commonResponse);
+    }
+
     // POST 요청을 처리하며, 새로운 댓글을 등록합니다.
     // @PostMapping: 이 메서드는 HTTP POST 요청을 처리합니다.
     // "/posts/comments" 경로로 POST 요청이 들어오면 이 메서드가 호출됩니다.
@@ -138,6 +227,17 @@ public class PostController {
         return ResponseEntity.ok(commonResponse);
     }
 
+    // POST 요청을 처리하며, 여러 댓글을 한 번에 등록합니다.
+    // "/posts/comments/bulk" 경로로 POST 요청이 들어오면 이 메서드가 호출됩니다.
+    @PostMapping("comments/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    @LoginCheck(type = LoginCheck.UserType.USER)
+    public ResponseEntity<CommonResponse<List<CommentDTO>>> registerPostComments(String accountId, @RequestBody List<CommentDTO> commentDTOList) {
+        List<CommentDTO> registered = postService.registerCommentsBulk(commentDTOList);
+        CommonResponse<List<CommentDTO>> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "registerPostComments", registered);
+        return ResponseEntity.ok(commonResponse);
+    }
+
     // PATCH 요청을 처리하며, 기존 댓글을 업데이트합니다.
     // @PatchMapping: 이 메서드는 HTTP PATCH 요청을 처리합니다.
     // "/posts/comments/{commentId}" 경로로 PATCH 요청이 들어오면 이 메서드가 호출됩니다.
@@ -150,8 +250,10 @@ public class PostController {
         // userService를 통해 사용자 정보를 가져옵니다.
         UserDTO memberInfo = userService.getUserInfo(accountId);
         // memberInfo가 null이 아닌 경우에만 댓글을 업데이트합니다.
-        if(memberInfo != null)
+        if(memberInfo != null) {
+            commentDTO.setId(commentId); // 수정할 댓글은 경로의 commentId로 지정합니다.
             postService.updateComment(commentDTO);
+        }
         // 성공 응답을 생성하여 반환합니다.
         CommonResponse<CommentDTO> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "updatePostComment", commentDTO);
         return ResponseEntity.ok(commonResponse);
@@ -194,6 +296,17 @@ public class PostController {
         return ResponseEntity.ok(commonResponse);
     }
 
+    // POST 요청을 처리하며, 여러 태그를 한 번에 등록합니다.
+    // "/posts/tags/bulk" 경로로 POST 요청이 들어오면 이 메서드가 호출됩니다.
+    @PostMapping("tags/bulk")
+    @ResponseStatus(HttpStatus.CREATED)
+    @LoginCheck(type = LoginCheck.UserType.USER)
+    public ResponseEntity<CommonResponse<List<TagDTO>>> registerPostTags(String accountId, @RequestBody List<TagDTO> tagDTOList) {
+        List<TagDTO> registered = postService.registerTagsBulk(tagDTOList);
+        CommonResponse<List<TagDTO>> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "registerPostTags", registered);
+        return ResponseEntity.ok(commonResponse);
+    }
+
     // PATCH 요청을 처리하며, 기존 태그를 업데이트합니다.
     // @PatchMapping: 이 메서드는 HTTP PATCH 요청을 처리합니다.
     // "/posts/tags/{tagId}" 경로로 PATCH 요청이 들어오면 이 메서드가 호출됩니다.
@@ -206,8 +319,10 @@ public class PostController {
         // userService를 통해 사용자 정보를 가져옵니다.
         UserDTO memberInfo = userService.getUserInfo(accountId);
         // memberInfo가 null이 아닌 경우에만 태그를 업데이트합니다.
-        if(memberInfo != null)
+        if(memberInfo != null) {
+            tagDTO.setId(tagId); // 수정할 태그는 경로의 tagId로 지정합니다.
             postService.updateTag(tagDTO);
+        }
         // 성공 응답을 생성하여 반환합니다.
         CommonResponse<TagDTO> commonResponse = new CommonResponse<>(HttpStatus.OK, "SUCCESS", "updatePostTag", tagDTO);
         return ResponseEntity.ok(commonResponse);
@@ -251,7 +366,6 @@ public class PostController {
     private static class PostRequest {
         private String name;
         private String contents;
-        private int views;
         private int categoryId;
         private int userId;
         private int fileId;
@@ -1,18 +1,29 @@
 package com.dustin.boardserver.controller;
 
+import com.dustin.boardserver.cache.CompressedResponseCache;
 import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.PostPageDTO;
 import com.dustin.boardserver.dto.request.PostSearchRequest;
 import com.dustin.boardserver.service.impl.PostSearchServiceImpl;
+import com.dustin.boardserver.utils.ETagUtil;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.ModelAttribute;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 // @RestController: 이 클래스가 스프링 MVC의 REST 컨트롤러임을 나타냅니다.
 // 이 클래스의 메서드들은 JSON 또는 XML 형식의 응답을 반환할 수 있습니다.
@@ -34,15 +45,74 @@ public class PostSearchController {
     // 이 서비스는 게시물 검색과 관련된 비즈니스 로직을 처리합니다.
     private final PostSearchServiceImpl postSearchService;
 
+    // ETag별로 압축한 검색 응답을 캐시합니다.
+    private final CompressedResponseCache compressedResponseCache;
+
     // @PostMapping: 이 메서드는 HTTP POST 요청을 처리합니다.
     // "/search" 경로로 POST 요청이 들어오면 이 메서드가 호출됩니다.
     // 검색 요청을 처리하고, 그 결과를 PostSearchResponse 객체로 반환합니다.
+    // 다음 페이지는 응답의 nextCursor 값을 요청의 cursor에 담아 조회합니다.
+    // CompletableFuture를 반환하면 스프링 MVC가 비동기 서블릿으로 처리하므로,
+    // 검색이 끝날 때까지 톰캣 요청 스레드를 붙잡지 않습니다.
     @PostMapping
-    public PostSearchResponse search(@RequestBody PostSearchRequest postSearchRequest) {
-        // postSearchService를 통해 검색 요청에 해당하는 게시물 리스트를 가져옵니다.
-        List<PostDTO> postDTOList = postSearchService.getProducts(postSearchRequest);
+    public CompletableFuture<PostSearchResponse> search(@RequestBody PostSearchRequest postSearchRequest) {
+        // postSearchService를 통해 검색 요청에 해당하는 게시물 한 페이지를 가져옵니다.
         // 검색 결과를 담은 PostSearchResponse 객체를 생성하여 반환합니다.
-        return new PostSearchResponse(postDTOList);
+        return postSearchService.getProducts(postSearchRequest)
+                .thenApply(postPage -> new PostSearchResponse(postPage.getPostDTOList(), postPage.getNextCursor()));
+    }
+
+    // @GetMapping: 이 메서드는 HTTP GET 요청을 처리합니다.
+    // "/search?name=스프링&categoryId=3&sortStatus=NEWEST&cursor=&size=20" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // POST /search와 같은 검색을 쿼리 파라미터로 받으며, 같은 결과를 반복해서 조회(polling)하는 클라이언트를 위해 ETag를 붙입니다.
+    // ETag는 검색 캐시 키(카테고리 세대 번호 + 요청 지문)로 만들므로, If-None-Match가 같으면 캐시나 DB를 조회하지 않고 304를 반환합니다.
+    // gzip을 허용하는 클라이언트에는 ETag별로 캐시된 압축 본문을 보냅니다. (CompressedResponseCache 참고)
+    @GetMapping
+    public CompletableFuture<ResponseEntity<Object>> searchByQuery(@ModelAttribute PostSearchRequest postSearchRequest,
+                                                                   WebRequest webRequest,
+                                                                   @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        boolean gzip = ETagUtil.acceptsGzip(acceptEncoding);
+        String version = postSearchService.getProductsVersion(postSearchRequest);
+        String eTag = version == null ? null : ETagUtil.strong("search", version, gzip);
+        if (eTag != null && webRequest.checkNotModified(eTag)) {
+            return null; // 304 Not Modified
+        }
+        return postSearchService.getProducts(postSearchRequest).thenApply(postPage -> {
+            PostSearchResponse response = new PostSearchResponse(postPage.getPostDTOList(), postPage.getNextCursor());
+            if (eTag == null) {
+                return ResponseEntity.ok(response);
+            }
+            if (gzip) {
+                return compressedResponseCache.gzipResponse(eTag, response);
+            }
+            return ResponseEntity.ok().eTag(eTag).varyBy(HttpHeaders.ACCEPT_ENCODING).body(response);
+        });
+    }
+
+    // @GetMapping: 이 메서드는 HTTP GET 요청을 처리합니다.
+    // "/search/keyword?q=검색어" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // 제목과 본문에 검색어가 포함된 게시물을 관련도 순으로 반환합니다. 접두어가 아니어도 검색됩니다.
+    @GetMapping("keyword")
+    public PostSearchResponse searchByKeyword(@RequestParam(name = "q") String keyword,
+                                              @RequestParam(name = "categoryId", defaultValue = "0") int categoryId,
+                                              @RequestParam(name = "size", defaultValue = "0") int size) {
+        List<PostDTO> postDTOList = postSearchService.searchByKeyword(keyword, categoryId, size);
+        return new PostSearchResponse(postDTOList, null);
+    }
+
+    // @GetMapping: 이 메서드는 HTTP GET 요청을 처리합니다.
+    // "/search/tags?all=spring,redis&any=&none=jpa&categoryId=0&cursor=0&size=20" 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // all의 태그를 모두, any의 태그를 하나 이상 가지고 none의 태그는 없는 게시물을 최신순으로 반환합니다.
+    // 다음 페이지는 응답의 nextCursor 값을 cursor에 담아 조회합니다.
+    @GetMapping("tags")
+    public PostSearchResponse searchByTags(@RequestParam(name = "all", required = false) List<String> all,
+                                           @RequestParam(name = "any", required = false) List<String> any,
+                                           @RequestParam(name = "none", required = false) List<String> none,
+                                           @RequestParam(name = "categoryId", defaultValue = "0") int categoryId,
+                                           @RequestParam(name = "cursor", defaultValue = "0") int cursor,
+                                           @RequestParam(name = "size", defaultValue = "0") int size) {
+        PostPageDTO postPage = postSearchService.searchByTags(all, any, none, categoryId, cursor, size);
+        return new PostSearchResponse(postPage.getPostDTOList(), postPage.getNextCursor());
     }
 
     // -------------- response 객체 --------------
@@ -54,5 +124,7 @@ public class PostSearchController {
     private static class PostSearchResponse {
         // 검색 결과로 반환되는 게시물 목록입니다.
         private List<PostDTO> postDTOList;
+        // 다음 페이지를 조회할 때 사용할 커서입니다. 마지막 페이지이면 null입니다.
+        private String nextCursor;
     }
 }
\ No newline at end of file
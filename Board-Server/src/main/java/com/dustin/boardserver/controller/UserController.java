@@ -5,6 +5,7 @@ import com.dustin.boardserver.dto.UserDTO;
 import com.dustin.boardserver.dto.request.UserDeleteId;
 import com.dustin.boardserver.dto.request.UserLoginRequest;
 import com.dustin.boardserver.dto.request.UserUpdatePasswordRequest;
+import com.dustin.boardserver.dto.response.AvailabilityResponse;
 import com.dustin.boardserver.dto.response.LoginResponse;
 import com.dustin.boardserver.dto.response.UserInfoResponse;
 import com.dustin.boardserver.service.impl.UserServiceImpl;
@@ -59,9 +60,25 @@ public class UserController {
         userService.register(userDTO);
     }
 
+    // GET 요청을 처리하며, 아이디를 사용할 수 있는지 확인합니다.
+    // "/users/availability/user-id?userId=..." 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    // 가입되지 않은 아이디는 대부분 Bloom filter에서 바로 답하므로 회원가입이 몰려도 DB를 거의 조회하지 않습니다.
+    @GetMapping("availability/user-id")
+    public AvailabilityResponse checkUserId(@RequestParam(name = "userId") String userId) {
+        return new AvailabilityResponse(userId, !userService.isDuplicatedId(userId));
+    }
+
+    // GET 요청을 처리하며, 닉네임을 사용할 수 있는지 확인합니다.
+    // "/users/availability/nick-name?nickName=..." 경로로 GET 요청이 들어오면 이 메서드가 호출됩니다.
+    @GetMapping("availability/nick-name")
+    public AvailabilityResponse checkNickName(@RequestParam(name = "nickName") String nickName) {
+        return new AvailabilityResponse(nickName, !userService.isDuplicatedNickName(nickName));
+    }
+
     // POST 요청을 처리하며, 사용자의 로그인 요청을 처리합니다.
     // @PostMapping: 이 메서드는 HTTP POST 요청을 처리합니다.
     // "/users/sign-in" 경로로 POST 요청이 들어오면 이 메서드가 호출됩니다.
+    @PostMapping("sign-in")
     public HttpStatus login(@RequestBody UserLoginRequest loginRequest,
                             HttpSession session) {
         ResponseEntity<LoginResponse> responseEntity = null;
@@ -0,0 +1,41 @@
+package com.dustin.boardserver.datasource;
+
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// INSERT/UPDATE/DELETE가 실행되면 현재 요청과 세션에 쓰기 시각을 기록하는 MyBatis 플러그인입니다.
+// 이후 같은 세션의 조회는 readYourWritesMillis 동안 primary로 갑니다. (ReplicaRoutingContext 참고)
+// 트랜잭션 안의 쓰기는 커밋 시점에 한 번 더 기록하여, 트랜잭션이 길어도 커밋 후 readYourWritesMillis를 보장합니다.
+@Intercepts({@Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})})
+public class ReadYourWritesInterceptor implements Interceptor {
+    // 트랜잭션마다 커밋 후 기록을 한 번만 등록하기 위한 리소스 키입니다.
+    private static final Object SYNCHRONIZATION_KEY = new Object();
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object result = invocation.proceed();
+        ReplicaRoutingContext.markWrite();
+        if (TransactionSynchronizationManager.isSynchronizationActive()
+                && !TransactionSynchronizationManager.hasResource(SYNCHRONIZATION_KEY)) {
+            TransactionSynchronizationManager.bindResource(SYNCHRONIZATION_KEY, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    ReplicaRoutingContext.markWrite();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(SYNCHRONIZATION_KEY);
+                }
+            });
+        }
+        return result;
+    }
+}
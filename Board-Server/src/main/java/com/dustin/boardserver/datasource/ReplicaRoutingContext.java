@@ -0,0 +1,112 @@
+package com.dustin.boardserver.datasource;
+
+import com.dustin.boardserver.utils.SessionUtil;
+import jakarta.servlet.http.HttpSession;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+// 현재 스레드의 조회를 복제본(replica)으로 보내도 되는지 판단하는 데 필요한 상태를 보관합니다.
+//
+// - readOnly: @ReplicaRead 메서드 안에서 실행 중이면 true입니다. (ReplicaReadAspect 참고)
+// - 마지막 쓰기 시각: 쓰기를 실행하면 요청 속성과 세션에 기록합니다. (ReadYourWritesInterceptor 참고)
+//   같은 요청의 이후 조회와, 같은 세션에서 readYourWritesMillis 안에 들어온 조회는 primary로 보냅니다.
+//   복제 지연 때문에 방금 쓴 내용이 보이지 않는 일을 막기 위함입니다.
+// - 검색처럼 다른 스레드에서 실행되는 작업은 요청 정보가 없으므로 propagate로 마지막 쓰기 시각을 넘겨줍니다.
+public final class ReplicaRoutingContext {
+    private static final String WROTE_IN_REQUEST = ReplicaRoutingContext.class.getName() + ".WROTE";
+
+    private static final ThreadLocal<Boolean> READ_ONLY = new ThreadLocal<>();
+    private static final ThreadLocal<Long> PROPAGATED_LAST_WRITE_AT = new ThreadLocal<>();
+
+    private ReplicaRoutingContext() {
+    }
+
+    public static boolean isReadOnly() {
+        return Boolean.TRUE.equals(READ_ONLY.get());
+    }
+
+    // 읽기 전용 표시를 바꾸고 이전 값을 반환합니다. 호출한 쪽은 끝난 뒤 restoreReadOnly로 되돌려야 합니다.
+    public static Boolean setReadOnly(boolean readOnly) {
+        Boolean previous = READ_ONLY.get();
+        READ_ONLY.set(readOnly);
+        return previous;
+    }
+
+    public static void restoreReadOnly(Boolean previous) {
+        if (previous == null) {
+            READ_ONLY.remove();
+        } else {
+            READ_ONLY.set(previous);
+        }
+    }
+
+    // 쓰기가 실행되었음을 기록합니다. 요청 스레드가 아니면(스케줄러 등) 기록할 곳이 없으므로 아무것도 하지 않습니다.
+    // 세션이 없는 요청은 새로 만들지 않고 요청 속성에만 기록합니다.
+    public static void markWrite() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        servletAttributes.setAttribute(WROTE_IN_REQUEST, now, RequestAttributes.SCOPE_REQUEST);
+        HttpSession session = servletAttributes.getRequest().getSession(false);
+        if (session != null) {
+            SessionUtil.setLastWriteAt(session, now);
+        }
+    }
+
+    // 방금 쓴 내용을 읽어야 하는 상황이면 true입니다.
+    // 같은 요청 안에서 쓴 적이 있거나, 마지막 쓰기로부터 windowMillis가 지나지 않았으면 primary에서 읽어야 합니다.
+    public static boolean isWithinWriteWindow(long windowMillis) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null && attributes.getAttribute(WROTE_IN_REQUEST, RequestAttributes.SCOPE_REQUEST) != null) {
+            return true;
+        }
+        long lastWriteAt = getLastWriteAt();
+        return lastWriteAt > 0 && System.currentTimeMillis() - lastWriteAt < windowMillis;
+    }
+
+    // 현재 요청(또는 넘겨받은 값)의 마지막 쓰기 시각입니다. 쓴 적이 없으면 0입니다.
+    public static long getLastWriteAt() {
+        Long propagated = PROPAGATED_LAST_WRITE_AT.get();
+        if (propagated != null) {
+            return propagated;
+        }
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (!(attributes instanceof ServletRequestAttributes servletAttributes)) {
+            return 0;
+        }
+        Long wroteInRequest = (Long) servletAttributes.getAttribute(WROTE_IN_REQUEST, RequestAttributes.SCOPE_REQUEST);
+        if (wroteInRequest != null) {
+            return wroteInRequest;
+        }
+        HttpSession session = servletAttributes.getRequest().getSession(false);
+        if (session == null) {
+            return 0;
+        }
+        Long lastWriteAt = SessionUtil.getLastWriteAt(session);
+        return lastWriteAt == null ? 0 : lastWriteAt;
+    }
+
+    // 다른 스레드에서 실행할 작업에 현재 요청의 마지막 쓰기 시각을 넘겨줍니다. (AsyncConfig의 TaskDecorator 참고)
+    public static Runnable propagate(Runnable task) {
+        long lastWriteAt = getLastWriteAt();
+        if (lastWriteAt == 0) {
+            return task;
+        }
+        return () -> {
+            Long previous = PROPAGATED_LAST_WRITE_AT.get();
+            PROPAGATED_LAST_WRITE_AT.set(lastWriteAt);
+            try {
+                task.run();
+            } finally {
+                if (previous == null) {
+                    PROPAGATED_LAST_WRITE_AT.remove();
+                } else {
+                    PROPAGATED_LAST_WRITE_AT.set(previous);
+                }
+            }
+        };
+    }
+}
@@ -0,0 +1,223 @@
+package com.dustin.boardserver.datasource;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// 읽기 전용 조회는 복제본(replica)으로, 나머지는 primary로 보내는 DataSource입니다.
+// 커넥션을 실제로 꺼내는 시점에 경로를 정해야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용합니다. (DatabaseConfig 참고)
+//
+// 복제본으로 보내는 조건 (모두 만족해야 합니다)
+// - @ReplicaRead 메서드 안이거나 @Transactional(readOnly = true) 트랜잭션 안입니다.
+//   쓰기 트랜잭션 안에서는 @ReplicaRead가 있어도 primary를 사용합니다. (트랜잭션 전체가 한 커넥션을 쓰므로)
+// - 같은 요청에서 쓴 적이 없고, 같은 세션의 마지막 쓰기로부터 readYourWritesMillis가 지났습니다. (ReplicaRoutingContext 참고)
+// - 정상인 복제본이 하나 이상 있습니다. 정상인 복제본끼리는 라운드 로빈으로 나눕니다.
+//
+// 복제본 상태는 checkHealth가 주기적으로 확인합니다. 커넥션 검사(isValid)에 실패하거나, lagCheck를 켠 경우
+// 복제 지연(Seconds_Behind_Source)이 maxLagSecond를 넘으면 제외합니다. 커넥션을 꺼내다 실패한 복제본도 바로 제외하고 primary에서 읽습니다.
+// 지표: datasource.route{target=primary|replica}, datasource.route.fallback{reason=readYourWrites|unavailable},
+//       datasource.replica.healthy(정상인 복제본 수)
+@Log4j2
+public class ReplicaRoutingDataSource extends AbstractDataSource {
+    private static final String LAG_QUERY = "SHOW REPLICA STATUS";
+    private static final String LAG_COLUMN = "Seconds_Behind_Source";
+
+    private final DataSource primary;
+    private final List<Replica> replicas = new ArrayList<>();
+    private final AtomicInteger next = new AtomicInteger();
+    private final long readYourWritesMillis;
+    private final int healthCheckTimeoutSecond;
+    private final boolean lagCheck;
+    private final long maxLagSecond;
+
+    private final Counter primaryRoutes;
+    private final Counter replicaRoutes;
+    private final Counter readYourWritesFallbacks;
+    private final Counter unavailableFallbacks;
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, long readYourWritesMillis,
+                                    int healthCheckTimeoutSecond, boolean lagCheck, long maxLagSecond,
+                                    MeterRegistry meterRegistry) {
+        this.primary = primary;
+        replicas.forEach((name, dataSource) -> this.replicas.add(new Replica(name, dataSource)));
+        this.readYourWritesMillis = readYourWritesMillis;
+        this.healthCheckTimeoutSecond = healthCheckTimeoutSecond;
+        this.lagCheck = lagCheck;
+        this.maxLagSecond = maxLagSecond;
+        this.primaryRoutes = Counter.builder("datasource.route").tag("target", "primary").register(meterRegistry);
+        this.replicaRoutes = Counter.builder("datasource.route").tag("target", "replica").register(meterRegistry);
+        this.readYourWritesFallbacks = Counter.builder("datasource.route.fallback").tag("reason", "readYourWrites")
+                .register(meterRegistry);
+        this.unavailableFallbacks = Counter.builder("datasource.route.fallback").tag("reason", "unavailable")
+                .register(meterRegistry);
+        Gauge.builder("datasource.replica.healthy", this, ReplicaRoutingDataSource::healthyReplicaCount)
+                .register(meterRegistry);
+        checkHealth();
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection();
+        }
+        try {
+            return replica.dataSource.getConnection();
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+            unavailableFallbacks.increment();
+            return primary.getConnection();
+        }
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        Replica replica = route();
+        if (replica == null) {
+            return primary.getConnection(username, password);
+        }
+        try {
+            return replica.dataSource.getConnection(username, password);
+        } catch (SQLException e) {
+            replica.markDown(e.getMessage());
+            unavailableFallbacks.increment();
+            return primary.getConnection(username, password);
+        }
+    }
+
+    // 사용할 복제본을 고릅니다. primary를 사용해야 하면 null입니다.
+    private Replica route() {
+        boolean transactionReadOnly = TransactionSynchronizationManager.isCurrentTransactionReadOnly();
+        boolean writeTransaction = TransactionSynchronizationManager.isActualTransactionActive() && !transactionReadOnly;
+        if (writeTransaction || !(transactionReadOnly || ReplicaRoutingContext.isReadOnly())) {
+            primaryRoutes.increment();
+            return null;
+        }
+        if (ReplicaRoutingContext.isWithinWriteWindow(readYourWritesMillis)) {
+            readYourWritesFallbacks.increment();
+            primaryRoutes.increment();
+            return null;
+        }
+        Replica replica = nextHealthy();
+        if (replica == null) {
+            unavailableFallbacks.increment();
+            primaryRoutes.increment();
+            return null;
+        }
+        replicaRoutes.increment();
+        return replica;
+    }
+
+    private Replica nextHealthy() {
+        int size = replicas.size();
+        int start = Math.floorMod(next.getAndIncrement(), Math.max(size, 1));
+        for (int i = 0; i < size; i++) {
+            Replica replica = replicas.get((start + i) % size);
+            if (replica.healthy) {
+                return replica;
+            }
+        }
+        return null;
+    }
+
+    // 모든 복제본의 상태를 확인합니다. 상태가 바뀐 복제본만 로그를 남깁니다.
+    @Scheduled(fixedDelayString = "${datasource.replica.healthCheckMillis:5000}",
+            initialDelayString = "${datasource.replica.healthCheckMillis:5000}")
+    public void checkHealth() {
+        for (Replica replica : replicas) {
+            String problem = probe(replica.dataSource);
+            if (problem == null) {
+                replica.markUp();
+            } else {
+                replica.markDown(problem);
+            }
+        }
+    }
+
+    // 복제본을 사용할 수 없는 이유를 반환합니다. 정상이면 null입니다.
+    private String probe(DataSource dataSource) {
+        try (Connection connection = dataSource.getConnection()) {
+            if (!connection.isValid(healthCheckTimeoutSecond)) {
+                return "connection invalid";
+            }
+            if (!lagCheck) {
+                return null;
+            }
+            try (Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery(LAG_QUERY)) {
+                if (!resultSet.next()) {
+                    return "replication not configured";
+                }
+                long lag = resultSet.getLong(LAG_COLUMN);
+                if (resultSet.wasNull()) {
+                    return "replication stopped";
+                }
+                return lag > maxLagSecond ? "lag " + lag + "s" : null;
+            }
+        } catch (SQLException e) {
+            return e.getMessage();
+        }
+    }
+
+    public int healthyReplicaCount() {
+        int count = 0;
+        for (Replica replica : replicas) {
+            if (replica.healthy) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    // 빈이 종료될 때 복제본 커넥션 풀을 닫습니다. primary는 별도의 빈이므로 여기서 닫지 않습니다.
+    public void close() {
+        for (Replica replica : replicas) {
+            if (replica.dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.error("replica datasource 종료 실패 : {}", replica.name, e);
+                }
+            }
+        }
+    }
+
+    private static final class Replica {
+        private final String name;
+        private final DataSource dataSource;
+        private volatile boolean healthy = true;
+
+        private Replica(String name, DataSource dataSource) {
+            this.name = name;
+            this.dataSource = dataSource;
+        }
+
+        private void markUp() {
+            if (!healthy) {
+                healthy = true;
+                log.info("replica 복구, 조회에 다시 사용합니다 : {}", name);
+            }
+        }
+
+        private void markDown(String problem) {
+            if (healthy) {
+                healthy = false;
+                log.warn("replica 제외, primary에서 조회합니다 : {} ({})", name, problem);
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package com.dustin.boardserver.datasource;
+
+// 현재 스레드의 쿼리를 보낼 샤드 번호를 보관합니다. (ShardRoutingDataSource 참고)
+// 정하지 않았으면 0번 샤드입니다. 사용자/카테고리처럼 샤딩하지 않는 테이블은 항상 0번 샤드에 있습니다.
+// 직접 바꾸지 않고 ShardRouter.onShard/inTransaction/scatter를 통해 사용합니다.
+public final class ShardContext {
+    private static final ThreadLocal<Integer> SHARD = new ThreadLocal<>();
+
+    private ShardContext() {
+    }
+
+    public static int current() {
+        Integer shard = SHARD.get();
+        return shard == null ? 0 : shard;
+    }
+
+    // 샤드를 바꾸고 이전 값을 반환합니다. 호출한 쪽은 끝난 뒤 restore로 되돌려야 합니다.
+    public static Integer set(int shard) {
+        Integer previous = SHARD.get();
+        SHARD.set(shard);
+        return previous;
+    }
+
+    public static void restore(Integer previous) {
+        if (previous == null) {
+            SHARD.remove();
+        } else {
+            SHARD.set(previous);
+        }
+    }
+}
@@ -0,0 +1,187 @@
+package com.dustin.boardserver.datasource;
+
+import com.dustin.boardserver.exception.BoardServerException;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.http.HttpStatus;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLIntegrityConstraintViolationException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+// 샤드에 저장할 게시물/댓글/태그의 ID를 만듭니다. 모든 샤드에서 겹치지 않으며, ID만 보고 샤드를 알 수 있습니다.
+// 샤드가 여럿일 때만 사용합니다. 샤드가 하나면 ID는 AUTO_INCREMENT로 만듭니다. (ShardedPostMapper 참고)
+//
+// ID = 순번 * 샤드 수 + 샤드 번호 (encode 참고)
+// - 순번은 모든 서버와 샤드가 0번 샤드 primary의 id_sequence 테이블 한 행(테이블 이름별)에서 필요한 개수만큼 받습니다.
+//   먼저 받은 순번이 항상 더 작으므로, 서버나 샤드가 달라도 ID는 AUTO_INCREMENT처럼 받은 순서(작성 순서)대로 커집니다.
+//   댓글 트리와 댓글 페이지, 태그 검색의 최신순은 이 순서를 사용합니다. (CommentTreeReader, TagPostIndex 참고)
+// - 순번은 별도 커넥션으로 받고 바로 커밋하므로, 등록 트랜잭션이 롤백되어도 되돌리지 않습니다. ID는 겹치지 않을 뿐 연속되지 않습니다.
+// - 순번 하나는 한 샤드의 ID 하나에만 쓰이므로, 만들 수 있는 ID 수는 int 범위를 샤드 수로 나눈 만큼입니다.
+//   (게시물 ID와 검색 색인/커서가 int이므로 ID도 int 범위 안에서 만듭니다. 범위를 넘으면 등록이 실패합니다.)
+// - id_sequence에 행이 없으면 모든 샤드 테이블의 가장 큰 ID와 legacyMaxId 중 큰 값 다음부터 시작합니다.
+//   새 ID는 legacyMaxId보다 크므로 샤딩 전의 ID와 겹치지 않습니다.
+//
+// 샤딩 전에 만든 행(legacy)의 ID는 샤드 번호를 담고 있지 않고, 모두 0번 샤드에 있습니다.
+// 샤드가 여럿이면 datasource.shard.legacyMaxId에 샤딩 전 post/comment/tag의 가장 큰 ID를 설정합니다.
+// 그 이하의 ID는 샤드 번호와 상관없이 0번 샤드에서 찾습니다. (ShardRouter.shardOf 참고)
+// 설정하지 않은 채 0번 샤드에 ID와 샤드 번호가 맞지 않는 행이 있으면 서버가 시작되지 않습니다. (verifyLegacyRows 참고)
+@Log4j2
+public class ShardIdGenerator {
+    // 순번 이름이자 테이블 이름입니다. 초기값을 구할 때 테이블 이름으로 쓰므로 여기 있는 이름만 받습니다.
+    public static final String POST = "post";
+    public static final String COMMENT = "comment";
+    public static final String TAG = "tag";
+    private static final Set<String> SEQUENCES = Set.of(POST, COMMENT, TAG);
+
+    private final List<DataSource> shards;
+    private final long legacyMaxId;
+
+    public ShardIdGenerator(List<DataSource> shards, long legacyMaxId) {
+        if (legacyMaxId < 0) {
+            throw new IllegalArgumentException("legacyMaxId는 0 이상이어야 합니다 : " + legacyMaxId);
+        }
+        this.shards = List.copyOf(shards);
+        this.legacyMaxId = legacyMaxId;
+    }
+
+    // 샤딩 전에 만든 ID 중 가장 큰 값입니다. 0이면 샤딩 전의 데이터가 없습니다.
+    public long legacyMaxId() {
+        return legacyMaxId;
+    }
+
+    // 0번 샤드에 legacyMaxId보다 크면서 ID가 가리키는 샤드가 0번이 아닌 행이 있으면 시작하지 않습니다.
+    // 그런 행은 샤딩 전의 데이터이므로, 그대로 두면 ID로 조회할 때 다른 샤드에서 찾게 되어 보이지 않습니다.
+    // legacyMaxId를 샤딩 전의 가장 큰 ID로 설정하거나, 데이터를 ID가 가리키는 샤드로 옮긴 뒤 시작해야 합니다.
+    public void verifyLegacyRows() {
+        if (shards.size() == 1) {
+            return;
+        }
+        try (Connection connection = shards.get(0).getConnection()) {
+            for (String sequence : List.of(POST, COMMENT, TAG)) {
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT MAX(id) FROM `" + sequence + "` WHERE id > ? AND MOD(id, ?) <> 0")) {
+                    select.setLong(1, legacyMaxId);
+                    select.setInt(2, shards.size());
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        resultSet.next();
+                        long misplacedId = resultSet.getLong(1);
+                        if (!resultSet.wasNull()) {
+                            throw new IllegalStateException("0번 샤드의 " + sequence + " " + misplacedId
+                                    + "은(는) 샤딩 전의 데이터입니다. datasource.shard.legacyMaxId를 샤딩 전의 가장 큰 ID 이상으로 설정하세요 : legacyMaxId="
+                                    + legacyMaxId);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            log.error("샤딩 전 데이터 확인 실패");
+            throw new IllegalStateException(e.getMessage(), e);
+        }
+    }
+
+    public int nextId(String sequence, int shard) {
+        return nextIds(sequence, shard, 1).get(0);
+    }
+
+    // shard에 저장할 ID를 count개 만듭니다. 순번 count개를 한 번에 받으므로 목록 순서대로 커집니다.
+    public List<Integer> nextIds(String sequence, int shard, int count) {
+        if (!SEQUENCES.contains(sequence)) {
+            throw new IllegalArgumentException("알 수 없는 순번입니다 : " + sequence);
+        }
+        long start = allocate(sequence, count);
+        List<Integer> ids = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            ids.add(encode(start + i, shard));
+        }
+        return ids;
+    }
+
+    // 순번과 샤드 번호로 ID를 만듭니다. ID를 샤드 수로 나눈 나머지가 샤드 번호입니다. (ShardRouter.shardOf 참고)
+    public static long encode(long sequence, int shard, int shardCount) {
+        return sequence * shardCount + shard;
+    }
+
+    private int encode(long sequence, int shard) {
+        long id = encode(sequence, shard, shards.size());
+        if (id > Integer.MAX_VALUE) {
+            log.error("ID 범위 초과 : shard={}, sequence={}", shard, sequence);
+            throw new BoardServerException(HttpStatus.INSUFFICIENT_STORAGE, "더 이상 ID를 만들 수 없습니다");
+        }
+        return (int) id;
+    }
+
+    // 순번 count개를 받고 첫 순번을 반환합니다.
+    private long allocate(String sequence, int count) {
+        try (Connection connection = shards.get(0).getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                long start = reserve(connection, sequence, count);
+                connection.commit();
+                return start;
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            log.error("ID 순번 할당 실패 : {} count={}", sequence, count);
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage());
+        }
+    }
+
+    private long reserve(Connection connection, String sequence, int count) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(
+                "UPDATE id_sequence SET nextValue = nextValue + ? WHERE name = ?")) {
+            update.setLong(1, count);
+            update.setString(2, sequence);
+            if (update.executeUpdate() == 1) {
+                try (PreparedStatement select = connection.prepareStatement(
+                        "SELECT nextValue FROM id_sequence WHERE name = ?")) {
+                    select.setString(1, sequence);
+                    try (ResultSet resultSet = select.executeQuery()) {
+                        resultSet.next();
+                        return resultSet.getLong(1) - count;
+                    }
+                }
+            }
+        }
+
+        // 처음 사용하는 순번입니다. 모든 샤드에 이미 있는 행의 가장 큰 ID와 legacyMaxId보다 큰 ID가 나오는 순번부터 시작합니다.
+        long start = Math.max(maxId(sequence), legacyMaxId) / shards.size() + 1;
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO id_sequence (name, nextValue) VALUES (?, ?)")) {
+            insert.setString(1, sequence);
+            insert.setLong(2, start + count);
+            insert.executeUpdate();
+            log.info("id_sequence 초기화 : {} start={}", sequence, start);
+            return start;
+        } catch (SQLIntegrityConstraintViolationException e) {
+            // 다른 서버가 먼저 초기화했습니다. 트랜잭션을 되돌리고 만들어진 행에서 다시 받습니다.
+            connection.rollback();
+            return reserve(connection, sequence, count);
+        }
+    }
+
+    // 모든 샤드에서 sequence 테이블의 가장 큰 ID입니다.
+    private long maxId(String sequence) throws SQLException {
+        long maxId = 0;
+        for (DataSource shard : shards) {
+            try (Connection connection = shard.getConnection();
+                 Statement statement = connection.createStatement();
+                 ResultSet resultSet = statement.executeQuery("SELECT COALESCE(MAX(id), 0) FROM `" + sequence + "`")) {
+                resultSet.next();
+                maxId = Math.max(maxId, resultSet.getLong(1));
+            }
+        }
+        return maxId;
+    }
+}
@@ -0,0 +1,194 @@
+package com.dustin.boardserver.datasource;
+
+import com.dustin.boardserver.exception.BoardServerException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.IntConsumer;
+import java.util.function.IntFunction;
+import java.util.function.Supplier;
+
+// 게시물/댓글/태그를 어느 샤드에서 읽고 쓸지 정하고, 정한 샤드에서 쿼리를 실행합니다.
+//
+// - 게시물은 작성자의 샤드(userId % 샤드 수)에 저장합니다. 한 사용자의 게시물은 모두 한 샤드에 있으므로
+//   내 게시물 조회/내보내기는 작성자의 샤드만 읽습니다.
+// - 게시물/댓글/태그 ID는 저장된 샤드 번호를 담고 있으므로(ShardIdGenerator 참고), ID로 조회할 때는 ID만 보고 샤드를 찾습니다.
+//   댓글과 태그는 게시물과 같은 샤드에 저장합니다.
+// - 샤딩 전에 만든 행(ID가 legacyMaxId 이하)은 작성자와 상관없이 모두 0번 샤드에 있습니다.
+//   ID로 찾을 때는 0번 샤드를 사용하고, 내 게시물 조회/내보내기는 작성자의 샤드와 함께 0번 샤드도 읽습니다. (shardsOfUser)
+// - 사용자/카테고리는 샤딩하지 않고 0번 샤드에만 있습니다.
+// - 검색처럼 모든 샤드를 읽어야 하는 조회는 scatter로 샤드마다 동시에 실행한 뒤 합칩니다.
+//
+// 트랜잭션은 한 샤드 안에서만 열 수 있습니다. 여러 샤드에 걸친 쓰기는 샤드마다 따로 커밋되며 함께 롤백되지 않습니다.
+// 샤드 수를 바꾸면 기존 ID의 샤드 번호가 달라지므로, 샤드 수는 데이터를 옮기지 않고 바꿀 수 없습니다.
+// 지표: shard.scatter(scatter 전체 소요 시간), shard.scatter.timeout(제한 시간을 넘긴 수)
+@Component
+@Log4j2
+public class ShardRouter {
+    private final ShardRoutingDataSource dataSource;
+    private final ShardIdGenerator idGenerator;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor shardExecutor;
+    private final long scatterTimeoutMillis;
+    private final Timer scatterTimer;
+    private final MeterRegistry meterRegistry;
+
+    public ShardRouter(ShardRoutingDataSource dataSource, ShardIdGenerator idGenerator,
+                       PlatformTransactionManager transactionManager,
+                       @Qualifier("shardExecutor") Executor shardExecutor,
+                       @Value("${datasource.shard.scatterTimeoutMillis:5000}") long scatterTimeoutMillis,
+                       MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.idGenerator = idGenerator;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.shardExecutor = shardExecutor;
+        this.scatterTimeoutMillis = scatterTimeoutMillis;
+        this.scatterTimer = Timer.builder("shard.scatter").register(meterRegistry);
+        this.meterRegistry = meterRegistry;
+    }
+
+    public int shardCount() {
+        return dataSource.shardCount();
+    }
+
+    // 사용자의 새 게시물이 저장되는 샤드입니다.
+    public int shardOfUser(int userId) {
+        return Math.floorMod(userId, shardCount());
+    }
+
+    // 사용자의 게시물이 있을 수 있는 샤드입니다. 샤딩 전의 데이터가 있으면 0번 샤드가 먼저 옵니다.
+    // 샤딩 전의 ID가 모두 더 작으므로, 이 순서로 각 샤드를 ID 순서로 읽으면 전체가 ID 순서입니다.
+    public int[] shardsOfUser(int userId) {
+        int shard = shardOfUser(userId);
+        return idGenerator.legacyMaxId() > 0 && shard != 0 ? new int[]{0, shard} : new int[]{shard};
+    }
+
+    // 게시물/댓글/태그 ID가 저장된 샤드입니다. 샤딩 전에 만든 ID는 0번 샤드에 있습니다.
+    public int shardOf(int id) {
+        if (id <= idGenerator.legacyMaxId()) {
+            return 0;
+        }
+        return Math.floorMod(id, shardCount());
+    }
+
+    public int nextId(String sequence, int shard) {
+        return idGenerator.nextId(sequence, shard);
+    }
+
+    public List<Integer> nextIds(String sequence, int shard, int count) {
+        return idGenerator.nextIds(sequence, shard, count);
+    }
+
+    // shard에서 query를 실행합니다. 이미 다른 샤드를 사용 중인 트랜잭션 안에서는 실행할 수 없습니다.
+    public <T> T onShard(int shard, Supplier<T> query) {
+        Integer bound = dataSource.transactionShard();
+        if (bound != null && bound != shard) {
+            throw new IllegalStateException("트랜잭션이 이미 " + bound + "번 샤드를 사용 중입니다 : " + shard);
+        }
+        Integer previous = ShardContext.set(shard);
+        try {
+            return query.get();
+        } finally {
+            ShardContext.restore(previous);
+        }
+    }
+
+    public void runOnShard(int shard, Runnable command) {
+        onShard(shard, () -> {
+            command.run();
+            return null;
+        });
+    }
+
+    // shard에서 트랜잭션을 열어 work를 실행합니다. 이미 트랜잭션 안이면 그 트랜잭션에 참여합니다.
+    public <T> T inTransaction(int shard, Supplier<T> work) {
+        return onShard(shard, () -> transactionTemplate.execute(status -> work.get()));
+    }
+
+    public void runInTransaction(int shard, Runnable work) {
+        inTransaction(shard, () -> {
+            work.run();
+            return null;
+        });
+    }
+
+    // 모든 샤드에서 query를 동시에 실행하고 결과를 샤드 번호 순서로 반환합니다.
+    // 요청 스레드의 @ReplicaRead 표시와 마지막 쓰기 시각을 넘겨주므로 0번 샤드의 조회는 요청 스레드에서와 같이 복제본으로 갑니다.
+    // 한 샤드라도 실패하거나 scatterTimeoutMillis 안에 끝나지 않으면 전체가 실패합니다.
+    // 시간을 넘기면 작업을 취소(cancel)하지만 JDBC 쿼리는 인터럽트로 멈추지 않으므로,
+    // query의 구문에는 같은 제한 시간의 statement timeout을 걸어 둡니다. (MySQLConfig의 scatterTimeoutSecond 참고)
+    public <T> List<T> scatter(IntFunction<T> query) {
+        int count = shardCount();
+        if (count == 1) {
+            return Collections.singletonList(onShard(0, () -> query.apply(0)));
+        }
+        long start = System.nanoTime();
+        boolean readOnly = ReplicaRoutingContext.isReadOnly();
+        List<CompletableFuture<T>> futures = new ArrayList<>(count);
+        for (int shard = 0; shard < count; shard++) {
+            int target = shard;
+            CompletableFuture<T> future = new CompletableFuture<>();
+            futures.add(future);
+            shardExecutor.execute(ReplicaRoutingContext.propagate(() -> {
+                Boolean previousReadOnly = ReplicaRoutingContext.setReadOnly(readOnly);
+                Integer previousShard = ShardContext.set(target);
+                try {
+                    future.complete(query.apply(target));
+                } catch (Throwable e) {
+                    future.completeExceptionally(e);
+                } finally {
+                    ShardContext.restore(previousShard);
+                    ReplicaRoutingContext.restoreReadOnly(previousReadOnly);
+                }
+            }));
+        }
+
+        try {
+            CompletableFuture.allOf(futures.toArray(new CompletableFuture[0]))
+                    .get(Math.max(0, scatterTimeoutMillis - TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)),
+                            TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            futures.forEach(future -> future.cancel(true));
+            meterRegistry.counter("shard.scatter.timeout").increment();
+            log.error("scatter 시간 초과 : {}ms", scatterTimeoutMillis);
+            throw new BoardServerException(HttpStatus.GATEWAY_TIMEOUT, "샤드 조회 시간이 초과되었습니다");
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, String.valueOf(e.getCause()));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, "샤드 조회가 중단되었습니다");
+        } finally {
+            scatterTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        List<T> results = new ArrayList<>(count);
+        futures.forEach(future -> results.add(future.join()));
+        return results;
+    }
+
+    // 모든 샤드에서 command를 차례로 실행합니다. 색인 재구성처럼 결과를 순서대로 한 곳에 모아야 하는 조회에 사용합니다.
+    public void forEachShard(IntConsumer command) {
+        for (int shard = 0; shard < shardCount(); shard++) {
+            int target = shard;
+            runOnShard(target, () -> command.accept(target));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.dustin.boardserver.datasource;
+
+import lombok.extern.log4j.Log4j2;
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+
+// 현재 스레드의 샤드(ShardContext)로 커넥션을 보내는 DataSource입니다. (DatabaseConfig 참고)
+// 0번 샤드는 복제본 라우팅(ReplicaRoutingDataSource)을 그대로 사용하고, 나머지 샤드는 각자의 커넥션 풀을 사용합니다.
+// 커넥션을 실제로 꺼내는 시점에 샤드를 정해야 하므로 LazyConnectionDataSourceProxy로 감싸서 사용합니다.
+//
+// 트랜잭션 하나는 커넥션 하나를 쓰므로 한 샤드에서만 실행할 수 있습니다.
+// 트랜잭션 안에서 처음 커넥션을 꺼낸 샤드를 기록해 두고(transactionShard), 다른 샤드의 커넥션을 요청하면 실패합니다.
+@Log4j2
+public class ShardRoutingDataSource extends AbstractDataSource {
+    private final List<DataSource> shards;
+
+    public ShardRoutingDataSource(List<DataSource> shards) {
+        if (shards.isEmpty()) {
+            throw new IllegalArgumentException("샤드가 하나 이상 있어야 합니다");
+        }
+        this.shards = List.copyOf(shards);
+    }
+
+    public int shardCount() {
+        return shards.size();
+    }
+
+    public DataSource shard(int shard) {
+        return shards.get(shard);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return route().getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return route().getConnection(username, password);
+    }
+
+    // 현재 트랜잭션이 커넥션을 꺼낸 샤드입니다. 트랜잭션 밖이거나 아직 쿼리를 실행하지 않았으면 null입니다.
+    public Integer transactionShard() {
+        return TransactionSynchronizationManager.isSynchronizationActive()
+                ? (Integer) TransactionSynchronizationManager.getResource(this)
+                : null;
+    }
+
+    private DataSource route() throws SQLException {
+        int shard = ShardContext.current();
+        if (shard < 0 || shard >= shards.size()) {
+            throw new SQLException("존재하지 않는 샤드입니다 : " + shard);
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            Integer bound = transactionShard();
+            if (bound == null) {
+                TransactionSynchronizationManager.bindResource(this, shard);
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        TransactionSynchronizationManager.unbindResourceIfPossible(ShardRoutingDataSource.this);
+                    }
+                });
+            } else if (bound != shard) {
+                throw new SQLException("트랜잭션이 이미 " + bound + "번 샤드를 사용 중입니다 : " + shard);
+            }
+        }
+        return shards.get(shard);
+    }
+
+    // 빈이 종료될 때 1번 이후 샤드의 커넥션 풀을 닫습니다. 0번 샤드는 별도의 빈이므로 여기서 닫지 않습니다.
+    public void close() {
+        for (int shard = 1; shard < shards.size(); shard++) {
+            if (shards.get(shard) instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.error("shard datasource 종료 실패 : {}", shard, e);
+                }
+            }
+        }
+    }
+}
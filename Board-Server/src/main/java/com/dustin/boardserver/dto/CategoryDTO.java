@@ -33,7 +33,8 @@ public class CategoryDTO {
     // 예를 들어, 최신순, 인기순 등의 정렬 상태를 정의할 수 있습니다.
     private SortStatus sortStatus;
 
-    // 이 카테고리가 검색된 횟수를 나타내는 필드입니다.
+    // 이 카테고리의 게시물 수(검색 결과 전체 개수)를 나타내는 필드입니다.
+    // 검색 화면에서 전체 페이지 수를 계산할 때 사용합니다. (CategoryStatisticsService 참고)
     private int searchCount;
 
     // 페이지네이션을 위한 시작 오프셋을 나타내는 필드입니다.
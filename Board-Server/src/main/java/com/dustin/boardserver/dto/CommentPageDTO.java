@@ -0,0 +1,17 @@
+package com.dustin.boardserver.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 게시물의 댓글 한 페이지를 나타내는 클래스입니다. 페이지는 루트 댓글 기준으로 나누며, 각 루트 댓글은 모든 답글을 포함합니다.
+// nextCursor가 null이면 마지막 페이지입니다.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentPageDTO {
+    private List<CommentTreeDTO> comments;
+    private Integer nextCursor;
+}
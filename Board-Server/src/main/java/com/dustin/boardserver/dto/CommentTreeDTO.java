@@ -0,0 +1,27 @@
+package com.dustin.boardserver.dto;
+
+import lombok.*;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 답글을 포함한 댓글 하나를 나타내는 클래스입니다.
+// subCommentId는 부모 댓글의 ID이며, 0이면 게시물에 바로 달린 댓글(루트)입니다.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class CommentTreeDTO {
+    private int id;
+    private int postId;
+    private String contents;
+    private int subCommentId;
+    // 이 댓글에 달린 답글입니다. 작성된 순서(ID 오름차순)로 정렬되어 있습니다.
+    private List<CommentTreeDTO> replies = new ArrayList<>();
+
+    public CommentTreeDTO(CommentDTO commentDTO) {
+        this(commentDTO.getId(), commentDTO.getPostId(), commentDTO.getContents(), commentDTO.getSubCommentId(),
+                new ArrayList<>());
+    }
+}
@@ -0,0 +1,27 @@
+package com.dustin.boardserver.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+import java.util.Date;
+
+// 키셋(커서) 페이지네이션에서 다음 페이지의 시작 위치를 나타내는 클래스입니다.
+// 정렬 기준(SortStatus)에 따라 (createTime, id) 또는 (categoryId, id) 조합으로 마지막으로 읽은 행을 기억합니다.
+@Getter
+@ToString
+@AllArgsConstructor
+public class PostCursor {
+
+    // 이 커서를 발급할 때 사용한 정렬 기준입니다.
+    private SortStatus sortStatus;
+
+    // NEWEST, OLDEST 정렬에서 사용하는 마지막 게시물의 작성 시간입니다.
+    private Date createTime;
+
+    // CATEGORIES 정렬에서 사용하는 마지막 게시물의 카테고리 ID입니다.
+    private int categoryId;
+
+    // 정렬 값이 같은 게시물들 사이의 순서를 결정하는 마지막 게시물의 ID입니다.
+    private int id;
+}
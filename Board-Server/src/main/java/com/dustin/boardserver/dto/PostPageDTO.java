@@ -0,0 +1,17 @@
+package com.dustin.boardserver.dto;
+
+import lombok.*;
+
+import java.util.List;
+
+// 커서 기반으로 조회한 게시물 한 페이지를 나타내는 클래스입니다.
+// nextCursor가 null이면 마지막 페이지입니다.
+@Getter
+@Setter
+@ToString
+@AllArgsConstructor
+@NoArgsConstructor
+public class PostPageDTO {
+    private List<PostDTO> postDTOList;
+    private String nextCursor;
+}
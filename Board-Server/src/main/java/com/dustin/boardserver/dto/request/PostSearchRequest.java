@@ -45,4 +45,11 @@ public class PostSearchRequest {
     // 게시물을 정렬하는 기준을 나타내는 필드입니다.
     // 예를 들어, 최신순, 조회수순 등으로 정렬할 때 사용될 수 있습니다.
     private SortStatus sortStatus;
+
+    // 이전 페이지 응답의 nextCursor 값입니다. 첫 페이지를 요청할 때는 비워둡니다.
+    // 서버가 발급한 불투명(opaque) 토큰이므로 클라이언트는 내용을 해석하지 않고 그대로 전달해야 합니다.
+    private String cursor;
+
+    // 한 페이지에 받을 게시물 수입니다. 0 이하이면 기본값을, 최대값을 넘으면 최대값을 사용합니다.
+    private int size;
 }
@@ -0,0 +1,16 @@
+package com.dustin.boardserver.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 아이디/닉네임 사용 가능 여부 응답입니다.
+@Getter
+@AllArgsConstructor
+public class AvailabilityResponse {
+
+    // 확인한 값입니다.
+    private String value;
+
+    // true이면 사용할 수 있습니다.
+    private boolean available;
+}
@@ -2,10 +2,17 @@ package com.dustin.boardserver.mapper;
 
 import com.dustin.boardserver.dto.CategoryDTO;
 
+import java.util.List;
+
 public interface CategoryMapper {
     public int register(CategoryDTO productDTO);
 
     public void updateCategory(CategoryDTO categoryDTO);
 
     public void deleteCategory(int categoryId);
+
+    public List<CategoryDTO> selectCategories();
+
+    // 카테고리별 게시물 수를 id, searchCount에 담아 반환합니다. 카테고리 게시물 수를 다시 맞출 때만 사용합니다.
+    public List<CategoryDTO> selectPostCountsByCategory();
 }
@@ -2,11 +2,27 @@ package com.dustin.boardserver.mapper;
 
 import com.dustin.boardserver.dto.CommentDTO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+
+import java.util.List;
 
 @Mapper
 public interface CommentMapper {
     public int register(CommentDTO commentDTO);
 
+    // 여러 행을 한 번의 INSERT로 등록합니다.
+    public int registerBulk(@Param("comments") List<CommentDTO> comments);
+
+    // 샤드가 여럿일 때 ShardIdGenerator가 미리 채운 ID로 등록합니다. (ShardedCommentMapper 참고)
+    public int registerWithId(CommentDTO commentDTO);
+
+    public int registerBulkWithIds(@Param("comments") List<CommentDTO> comments);
+
+    public List<CommentDTO> selectCommentsByPostId(int postId);
+
+    // 댓글이 속한 게시물 ID를 조회합니다. 댓글이 없으면 null입니다.
+    public Integer selectPostId(int commentId);
+
     public void updateComments(CommentDTO commentDTO);
 
     public void deletePostComment(int commentId);
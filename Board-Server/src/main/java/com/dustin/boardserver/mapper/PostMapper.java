@@ -2,16 +2,37 @@ package com.dustin.boardserver.mapper;
 
 import com.dustin.boardserver.dto.PostDTO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.cursor.Cursor;
 
 import java.util.List;
+import java.util.Map;
 
 @Mapper
 public interface PostMapper {
     public int register(PostDTO postDTO);
 
+    // 여러 행을 한 번의 INSERT로 등록합니다.
+    public int registerBulk(@Param("posts") List<PostDTO> posts);
+
+    // 샤드가 여럿일 때 ShardIdGenerator가 미리 채운 ID로 등록합니다. (ShardedPostMapper 참고)
+    public int registerWithId(PostDTO postDTO);
+
+    public int registerBulkWithIds(@Param("posts") List<PostDTO> posts);
+
     public List<PostDTO> selectMyProducts(int accountId);
 
+    // 내보내기용 조회입니다. 트랜잭션 안에서 호출하고, 다 읽거나 중단하면 닫아야 합니다.
+    public Cursor<PostDTO> streamMyProducts(@Param("userId") int userId);
+
+    public Cursor<PostDTO> streamPostsByCategory(@Param("categoryId") int categoryId);
+
+    public PostDTO selectPost(int postId);
+
     public void updateProducts(PostDTO postDTO);
 
     public void deleteProduct(int postId);
+
+    // 게시물 ID별 조회수 증가분을 한 문장으로 반영합니다.
+    public int addViews(@Param("deltas") Map<Integer, Long> deltas);
 }
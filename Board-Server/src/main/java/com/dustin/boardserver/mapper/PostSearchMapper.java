@@ -1,12 +1,24 @@
 package com.dustin.boardserver.mapper;
 
+import com.dustin.boardserver.dto.PostCursor;
 import com.dustin.boardserver.dto.PostDTO;
 import com.dustin.boardserver.dto.request.PostSearchRequest;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
 
 import java.util.List;
 
 @Mapper
 public interface PostSearchMapper {
-    public List<PostDTO> selectPosts(PostSearchRequest postSearchRequest);
+    public List<PostDTO> selectPosts(@Param("request") PostSearchRequest postSearchRequest,
+                                     @Param("cursor") PostCursor cursor,
+                                     @Param("limit") int limit);
+
+    public List<PostDTO> selectPostsByIds(@Param("ids") List<Integer> ids);
+
+    public void selectPostsForIndex(ResultHandler<PostDTO> resultHandler);
+
+    // 태그 색인(TagPostIndex)을 다시 만들기 위해 게시물의 ID와 카테고리만 한 행씩 전달합니다.
+    public void selectPostCategoriesForIndex(ResultHandler<PostDTO> resultHandler);
 }
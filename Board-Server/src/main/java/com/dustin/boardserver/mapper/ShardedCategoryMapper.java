@@ -0,0 +1,64 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.dto.CategoryDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+// 카테고리 쿼리를 샤드로 보내는 CategoryMapper입니다. (ShardRouter 참고)
+// 카테고리는 샤딩하지 않으므로 0번 샤드에서 실행하고, 게시물을 세는 쿼리만 모든 샤드의 결과를 더합니다.
+@Primary
+@Component
+public class ShardedCategoryMapper implements CategoryMapper {
+    private final CategoryMapper categoryMapper;
+    private final ShardRouter shardRouter;
+
+    public ShardedCategoryMapper(@Qualifier("categoryMapper") CategoryMapper categoryMapper, ShardRouter shardRouter) {
+        this.categoryMapper = categoryMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public int register(CategoryDTO productDTO) {
+        return shardRouter.onShard(0, () -> categoryMapper.register(productDTO));
+    }
+
+    @Override
+    public void updateCategory(CategoryDTO categoryDTO) {
+        shardRouter.runOnShard(0, () -> categoryMapper.updateCategory(categoryDTO));
+    }
+
+    @Override
+    public void deleteCategory(int categoryId) {
+        shardRouter.runOnShard(0, () -> categoryMapper.deleteCategory(categoryId));
+    }
+
+    @Override
+    public List<CategoryDTO> selectCategories() {
+        return shardRouter.onShard(0, categoryMapper::selectCategories);
+    }
+
+    @Override
+    public List<CategoryDTO> selectPostCountsByCategory() {
+        List<List<CategoryDTO>> partials = shardRouter.scatter(shard -> categoryMapper.selectPostCountsByCategory());
+        if (partials.size() == 1) {
+            return partials.get(0);
+        }
+        Map<Integer, CategoryDTO> merged = new TreeMap<>();
+        for (List<CategoryDTO> partial : partials) {
+            for (CategoryDTO count : partial) {
+                CategoryDTO total = merged.putIfAbsent(count.getId(), count);
+                if (total != null) {
+                    total.setSearchCount(total.getSearchCount() + count.getSearchCount());
+                }
+            }
+        }
+        return new ArrayList<>(merged.values());
+    }
+}
@@ -0,0 +1,84 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.dto.CommentDTO;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 댓글 쿼리를 샤드로 보내는 CommentMapper입니다. (ShardRouter 참고)
+// 댓글은 게시물과 같은 샤드에 저장하므로 게시물 ID나 댓글 ID만 보고 샤드를 찾습니다.
+// 샤드가 하나면 ID는 AUTO_INCREMENT로 만듭니다. (ShardedPostMapper 참고)
+@Primary
+@Component
+public class ShardedCommentMapper implements CommentMapper {
+    private final CommentMapper commentMapper;
+    private final ShardRouter shardRouter;
+
+    public ShardedCommentMapper(@Qualifier("commentMapper") CommentMapper commentMapper, ShardRouter shardRouter) {
+        this.commentMapper = commentMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public int register(CommentDTO commentDTO) {
+        int shard = shardRouter.shardOf(commentDTO.getPostId());
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(shard, () -> commentMapper.register(commentDTO));
+        }
+        commentDTO.setId(shardRouter.nextId(ShardIdGenerator.COMMENT, shard));
+        return shardRouter.onShard(shard, () -> commentMapper.registerWithId(commentDTO));
+    }
+
+    // 같은 샤드의 게시물에 달린 댓글만 한 번에 등록합니다. (PostServiceImpl.registerCommentsBulk 참고)
+    @Override
+    public int registerBulk(List<CommentDTO> comments) {
+        int shard = shardRouter.shardOf(comments.get(0).getPostId());
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(shard, () -> commentMapper.registerBulk(comments));
+        }
+        List<Integer> ids = shardRouter.nextIds(ShardIdGenerator.COMMENT, shard, comments.size());
+        for (int i = 0; i < comments.size(); i++) {
+            if (shardRouter.shardOf(comments.get(i).getPostId()) != shard) {
+                throw new IllegalArgumentException("다른 샤드의 댓글을 함께 등록할 수 없습니다 : " + comments.get(i).getPostId());
+            }
+            comments.get(i).setId(ids.get(i));
+        }
+        return shardRouter.onShard(shard, () -> commentMapper.registerBulkWithIds(comments));
+    }
+
+    // 이미 ID가 있는 댓글을 ID에 담긴 샤드에 등록합니다.
+    @Override
+    public int registerWithId(CommentDTO commentDTO) {
+        return shardRouter.onShard(shardRouter.shardOf(commentDTO.getId()), () -> commentMapper.registerWithId(commentDTO));
+    }
+
+    @Override
+    public int registerBulkWithIds(List<CommentDTO> comments) {
+        return shardRouter.onShard(shardRouter.shardOf(comments.get(0).getId()),
+                () -> commentMapper.registerBulkWithIds(comments));
+    }
+
+    @Override
+    public List<CommentDTO> selectCommentsByPostId(int postId) {
+        return shardRouter.onShard(shardRouter.shardOf(postId), () -> commentMapper.selectCommentsByPostId(postId));
+    }
+
+    @Override
+    public Integer selectPostId(int commentId) {
+        return shardRouter.onShard(shardRouter.shardOf(commentId), () -> commentMapper.selectPostId(commentId));
+    }
+
+    @Override
+    public void updateComments(CommentDTO commentDTO) {
+        shardRouter.runOnShard(shardRouter.shardOf(commentDTO.getId()), () -> commentMapper.updateComments(commentDTO));
+    }
+
+    @Override
+    public void deletePostComment(int commentId) {
+        shardRouter.runOnShard(shardRouter.shardOf(commentId), () -> commentMapper.deletePostComment(commentId));
+    }
+}
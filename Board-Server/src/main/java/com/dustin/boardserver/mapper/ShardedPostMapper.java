@@ -0,0 +1,130 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardContext;
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.dto.PostDTO;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+// 게시물 쿼리를 알맞은 샤드로 보내는 PostMapper입니다. (ShardRouter 참고)
+// @Primary이므로 PostMapper를 주입받는 곳은 모두 이 클래스를 사용하며, MyBatis 매퍼(postMapper)는 이 클래스만 사용합니다.
+// - 등록: 작성자의 샤드에 저장하고 ID는 ShardIdGenerator로 미리 채웁니다.
+//   샤드가 하나면 샤딩하지 않을 때와 같이 AUTO_INCREMENT로 ID를 만들며 id_sequence 테이블이 필요하지 않습니다.
+// - 내 게시물: 작성자의 샤드를 읽습니다. 샤딩 전의 데이터가 있으면 0번 샤드도 읽습니다. (ShardRouter.shardsOfUser 참고)
+// - ID로 조회/수정/삭제: ID에 담긴 샤드에서 실행합니다.
+@Primary
+@Component
+public class ShardedPostMapper implements PostMapper {
+    private final PostMapper postMapper;
+    private final ShardRouter shardRouter;
+
+    public ShardedPostMapper(@Qualifier("postMapper") PostMapper postMapper, ShardRouter shardRouter) {
+        this.postMapper = postMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public int register(PostDTO postDTO) {
+        int shard = shardRouter.shardOfUser(postDTO.getUserId());
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(shard, () -> postMapper.register(postDTO));
+        }
+        postDTO.setId(shardRouter.nextId(ShardIdGenerator.POST, shard));
+        return shardRouter.onShard(shard, () -> postMapper.registerWithId(postDTO));
+    }
+
+    // 같은 사용자의 게시물만 한 번에 등록합니다. (PostServiceImpl.registerBulk 참고)
+    @Override
+    public int registerBulk(List<PostDTO> posts) {
+        int shard = shardRouter.shardOfUser(posts.get(0).getUserId());
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(shard, () -> postMapper.registerBulk(posts));
+        }
+        List<Integer> ids = shardRouter.nextIds(ShardIdGenerator.POST, shard, posts.size());
+        for (int i = 0; i < posts.size(); i++) {
+            if (shardRouter.shardOfUser(posts.get(i).getUserId()) != shard) {
+                throw new IllegalArgumentException("다른 샤드의 게시물을 함께 등록할 수 없습니다 : " + posts.get(i).getUserId());
+            }
+            posts.get(i).setId(ids.get(i));
+        }
+        return shardRouter.onShard(shard, () -> postMapper.registerBulkWithIds(posts));
+    }
+
+    // 이미 ID가 있는 게시물을 ID에 담긴 샤드에 등록합니다.
+    @Override
+    public int registerWithId(PostDTO postDTO) {
+        return shardRouter.onShard(shardRouter.shardOf(postDTO.getId()), () -> postMapper.registerWithId(postDTO));
+    }
+
+    @Override
+    public int registerBulkWithIds(List<PostDTO> posts) {
+        return shardRouter.onShard(shardRouter.shardOf(posts.get(0).getId()), () -> postMapper.registerBulkWithIds(posts));
+    }
+
+    @Override
+    public List<PostDTO> selectMyProducts(int accountId) {
+        int[] shards = shardRouter.shardsOfUser(accountId);
+        if (shards.length == 1) {
+            return shardRouter.onShard(shards[0], () -> postMapper.selectMyProducts(accountId));
+        }
+        List<PostDTO> posts = new ArrayList<>();
+        for (int shard : shards) {
+            posts.addAll(shardRouter.onShard(shard, () -> postMapper.selectMyProducts(accountId)));
+        }
+        return posts;
+    }
+
+    // 사용자의 게시물은 여러 샤드에 있을 수 있으므로 현재 샤드(ShardContext)의 게시물만 읽습니다.
+    // Cursor는 호출한 쪽의 트랜잭션 안에서 읽으므로, 호출한 쪽이 shardsOfUser의 샤드마다 트랜잭션을 열어 차례로 읽습니다.
+    // (PostExportServiceImpl 참고)
+    @Override
+    public Cursor<PostDTO> streamMyProducts(int userId) {
+        return shardRouter.onShard(ShardContext.current(), () -> postMapper.streamMyProducts(userId));
+    }
+
+    // 카테고리의 게시물은 모든 샤드에 흩어져 있으므로 현재 샤드(ShardContext)의 게시물만 읽습니다.
+    // 호출한 쪽이 샤드마다 트랜잭션을 열어 차례로 읽습니다. (PostExportServiceImpl 참고)
+    @Override
+    public Cursor<PostDTO> streamPostsByCategory(int categoryId) {
+        return shardRouter.onShard(ShardContext.current(), () -> postMapper.streamPostsByCategory(categoryId));
+    }
+
+    @Override
+    public PostDTO selectPost(int postId) {
+        return shardRouter.onShard(shardRouter.shardOf(postId), () -> postMapper.selectPost(postId));
+    }
+
+    @Override
+    public void updateProducts(PostDTO postDTO) {
+        shardRouter.runOnShard(shardRouter.shardOf(postDTO.getId()), () -> postMapper.updateProducts(postDTO));
+    }
+
+    @Override
+    public void deleteProduct(int postId) {
+        shardRouter.runOnShard(shardRouter.shardOf(postId), () -> postMapper.deleteProduct(postId));
+    }
+
+    // 조회수 증가분을 한 문장으로 반영합니다. 샤드를 넘나드는 트랜잭션은 없으므로 한 샤드의 게시물만 받습니다.
+    // 여러 샤드에 나누어 반영하면 일부 샤드만 실패했을 때 호출한 쪽이 이미 반영된 증가분까지 다시 시도하게 됩니다.
+    // (PostViewCounter는 샤드별로 나눈 배치를 넘깁니다.)
+    @Override
+    public int addViews(Map<Integer, Long> deltas) {
+        if (deltas.isEmpty()) {
+            return 0;
+        }
+        int shard = shardRouter.shardOf(deltas.keySet().iterator().next());
+        for (Integer postId : deltas.keySet()) {
+            if (shardRouter.shardOf(postId) != shard) {
+                throw new IllegalArgumentException("다른 샤드의 조회수를 함께 반영할 수 없습니다 : " + postId);
+            }
+        }
+        return shardRouter.onShard(shard, () -> postMapper.addViews(deltas));
+    }
+}
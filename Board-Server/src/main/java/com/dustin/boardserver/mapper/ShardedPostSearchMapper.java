@@ -0,0 +1,113 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Date;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+// 게시물 검색 쿼리를 샤드로 보내는 PostSearchMapper입니다. (ShardRouter 참고)
+// - selectPosts: 모든 샤드에서 같은 조건으로 limit개씩 동시에 읽고(scatter), 정렬된 결과를 k-way merge로 합쳐 limit개를 반환합니다.
+//   커서 조건이 (정렬값, id)로 정해져 있어 각 샤드가 같은 커서 뒤의 행만 읽으므로 페이지가 겹치거나 빠지지 않습니다.
+// - selectPostsByIds: ID를 샤드별로 나누어 조회합니다. 반환 순서는 원래처럼 호출하는 쪽에서 맞춥니다.
+// - 색인 재구성용 조회: 샤드를 차례로 읽어 같은 ResultHandler로 넘깁니다.
+@Primary
+@Component
+public class ShardedPostSearchMapper implements PostSearchMapper {
+    // postSearchMapper.xml의 ORDER BY와 같은 순서입니다. MySQL은 오름차순에서 NULL을 먼저 둡니다.
+    private static final Comparator<PostDTO> OLDEST = Comparator
+            .comparing(PostDTO::getCreateTime, Comparator.nullsFirst(Comparator.<Date>naturalOrder()))
+            .thenComparingInt(PostDTO::getId);
+    private static final Comparator<PostDTO> CATEGORIES = Comparator
+            .comparingInt(PostDTO::getCategoryId)
+            .thenComparingInt(PostDTO::getId);
+    private static final Comparator<PostDTO> NEWEST = OLDEST.reversed();
+
+    private final PostSearchMapper postSearchMapper;
+    private final ShardRouter shardRouter;
+
+    public ShardedPostSearchMapper(@Qualifier("postSearchMapper") PostSearchMapper postSearchMapper,
+                                   ShardRouter shardRouter) {
+        this.postSearchMapper = postSearchMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public List<PostDTO> selectPosts(PostSearchRequest postSearchRequest, PostCursor cursor, int limit) {
+        List<List<PostDTO>> partials = shardRouter.scatter(
+                shard -> postSearchMapper.selectPosts(postSearchRequest, cursor, limit));
+        if (partials.size() == 1) {
+            return partials.get(0);
+        }
+        return merge(partials, comparator(postSearchRequest.getSortStatus()), limit);
+    }
+
+    @Override
+    public List<PostDTO> selectPostsByIds(List<Integer> ids) {
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(0, () -> postSearchMapper.selectPostsByIds(ids));
+        }
+        Map<Integer, List<Integer>> idsByShard = new LinkedHashMap<>();
+        for (Integer id : ids) {
+            idsByShard.computeIfAbsent(shardRouter.shardOf(id), shard -> new ArrayList<>()).add(id);
+        }
+        List<PostDTO> posts = new ArrayList<>(ids.size());
+        idsByShard.forEach((shard, shardIds) ->
+                posts.addAll(shardRouter.onShard(shard, () -> postSearchMapper.selectPostsByIds(shardIds))));
+        return posts;
+    }
+
+    @Override
+    public void selectPostsForIndex(ResultHandler<PostDTO> resultHandler) {
+        shardRouter.forEachShard(shard -> postSearchMapper.selectPostsForIndex(resultHandler));
+    }
+
+    @Override
+    public void selectPostCategoriesForIndex(ResultHandler<PostDTO> resultHandler) {
+        shardRouter.forEachShard(shard -> postSearchMapper.selectPostCategoriesForIndex(resultHandler));
+    }
+
+    static Comparator<PostDTO> comparator(SortStatus sortStatus) {
+        if (sortStatus == SortStatus.OLDEST) {
+            return OLDEST;
+        }
+        if (sortStatus == SortStatus.CATEGORIES) {
+            return CATEGORIES;
+        }
+        return NEWEST;
+    }
+
+    // comparator 순서로 정렬된 목록들을 합쳐 앞에서부터 limit개를 반환합니다.
+    // 각 목록의 맨 앞 행만 힙에 두므로 샤드 수가 k일 때 O(limit * log k)입니다.
+    static List<PostDTO> merge(List<List<PostDTO>> sortedLists, Comparator<PostDTO> comparator, int limit) {
+        PriorityQueue<int[]> heads = new PriorityQueue<>(Math.max(1, sortedLists.size()),
+                (a, b) -> comparator.compare(sortedLists.get(a[0]).get(a[1]), sortedLists.get(b[0]).get(b[1])));
+        for (int i = 0; i < sortedLists.size(); i++) {
+            if (!sortedLists.get(i).isEmpty()) {
+                heads.add(new int[]{i, 0});
+            }
+        }
+        List<PostDTO> merged = new ArrayList<>(limit);
+        while (merged.size() < limit && !heads.isEmpty()) {
+            int[] head = heads.poll();
+            List<PostDTO> list = sortedLists.get(head[0]);
+            merged.add(list.get(head[1]));
+            if (++head[1] < list.size()) {
+                heads.add(head);
+            }
+        }
+        return merged;
+    }
+}
@@ -0,0 +1,101 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.dto.TagDTO;
+import org.apache.ibatis.session.ResultHandler;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.context.annotation.Primary;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+// 태그 쿼리를 샤드로 보내는 TagMapper입니다. (ShardRouter 참고)
+// 태그와 게시물 연결(post_tag)은 게시물과 같은 샤드에 저장하므로 게시물 ID나 태그 ID만 보고 샤드를 찾습니다.
+// 샤드가 하나면 ID는 AUTO_INCREMENT로 만듭니다. (ShardedPostMapper 참고)
+@Primary
+@Component
+public class ShardedTagMapper implements TagMapper {
+    private final TagMapper tagMapper;
+    private final ShardRouter shardRouter;
+
+    public ShardedTagMapper(@Qualifier("tagMapper") TagMapper tagMapper, ShardRouter shardRouter) {
+        this.tagMapper = tagMapper;
+        this.shardRouter = shardRouter;
+    }
+
+    @Override
+    public int register(TagDTO tagDTO) {
+        int shard = shardRouter.shardOf(tagDTO.getPostId());
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(shard, () -> tagMapper.register(tagDTO));
+        }
+        tagDTO.setId(shardRouter.nextId(ShardIdGenerator.TAG, shard));
+        return shardRouter.onShard(shard, () -> tagMapper.registerWithId(tagDTO));
+    }
+
+    // 같은 샤드의 게시물에 붙는 태그만 한 번에 등록합니다. (PostServiceImpl.registerTagsBulk 참고)
+    @Override
+    public int registerBulk(List<TagDTO> tags) {
+        int shard = shardOf(tags);
+        if (shardRouter.shardCount() == 1) {
+            return shardRouter.onShard(shard, () -> tagMapper.registerBulk(tags));
+        }
+        List<Integer> ids = shardRouter.nextIds(ShardIdGenerator.TAG, shard, tags.size());
+        for (int i = 0; i < tags.size(); i++) {
+            tags.get(i).setId(ids.get(i));
+        }
+        return shardRouter.onShard(shard, () -> tagMapper.registerBulkWithIds(tags));
+    }
+
+    // 이미 ID가 있는 태그를 ID에 담긴 샤드에 등록합니다.
+    @Override
+    public int registerWithId(TagDTO tagDTO) {
+        return shardRouter.onShard(shardRouter.shardOf(tagDTO.getId()), () -> tagMapper.registerWithId(tagDTO));
+    }
+
+    @Override
+    public int registerBulkWithIds(List<TagDTO> tags) {
+        return shardRouter.onShard(shardRouter.shardOf(tags.get(0).getId()), () -> tagMapper.registerBulkWithIds(tags));
+    }
+
+    @Override
+    public int registerPostTag(TagDTO tagDTO) {
+        return shardRouter.onShard(shardRouter.shardOf(tagDTO.getPostId()), () -> tagMapper.registerPostTag(tagDTO));
+    }
+
+    @Override
+    public int registerPostTagsBulk(List<TagDTO> tags) {
+        return shardRouter.onShard(shardOf(tags), () -> tagMapper.registerPostTagsBulk(tags));
+    }
+
+    @Override
+    public void updateTags(TagDTO tagDTO) {
+        shardRouter.runOnShard(shardRouter.shardOf(tagDTO.getId()), () -> tagMapper.updateTags(tagDTO));
+    }
+
+    @Override
+    public void deletePostTag(int tagId) {
+        shardRouter.runOnShard(shardRouter.shardOf(tagId), () -> tagMapper.deletePostTag(tagId));
+    }
+
+    @Override
+    public void deletePostTagLinks(int tagId) {
+        shardRouter.runOnShard(shardRouter.shardOf(tagId), () -> tagMapper.deletePostTagLinks(tagId));
+    }
+
+    @Override
+    public void selectTagsForIndex(ResultHandler<TagDTO> resultHandler) {
+        shardRouter.forEachShard(shard -> tagMapper.selectTagsForIndex(resultHandler));
+    }
+
+    private int shardOf(List<TagDTO> tags) {
+        int shard = shardRouter.shardOf(tags.get(0).getPostId());
+        for (TagDTO tagDTO : tags) {
+            if (shardRouter.shardOf(tagDTO.getPostId()) != shard) {
+                throw new IllegalArgumentException("다른 샤드의 태그를 함께 등록할 수 없습니다 : " + tagDTO.getPostId());
+            }
+        }
+        return shard;
+    }
+}
@@ -2,12 +2,34 @@ package com.dustin.boardserver.mapper;
 
 import com.dustin.boardserver.dto.TagDTO;
 import org.apache.ibatis.annotations.Mapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.List;
 
 @Mapper
 public interface TagMapper {
     public int register(TagDTO tagDTO);
 
+    // 여러 행을 한 번의 INSERT로 등록합니다.
+    public int registerBulk(@Param("tags") List<TagDTO> tags);
+
+    // 샤드가 여럿일 때 ShardIdGenerator가 미리 채운 ID로 등록합니다. (ShardedTagMapper 참고)
+    public int registerWithId(TagDTO tagDTO);
+
+    public int registerBulkWithIds(@Param("tags") List<TagDTO> tags);
+
+    // 태그와 게시물의 연결(post_tag)을 등록합니다.
+    public int registerPostTag(TagDTO tagDTO);
+
+    public int registerPostTagsBulk(@Param("tags") List<TagDTO> tags);
+
     public void updateTags(TagDTO tagDTO);
 
     public void deletePostTag(int tagId);
+
+    public void deletePostTagLinks(int tagId);
+
+    // 태그 색인(TagPostIndex)을 다시 만들기 위해 존재하는 게시물에 연결된 태그를 한 행씩 전달합니다.
+    public void selectTagsForIndex(ResultHandler<TagDTO> resultHandler);
 }
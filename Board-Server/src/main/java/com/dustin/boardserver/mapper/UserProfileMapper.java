@@ -4,11 +4,18 @@ package com.dustin.boardserver.mapper;
 import com.dustin.boardserver.dto.UserDTO;
 import org.apache.ibatis.annotations.Mapper;
 import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.session.ResultHandler;
+
+import java.util.Collection;
+import java.util.List;
 
 @Mapper
 public interface UserProfileMapper {
     public UserDTO getUserProfile(@Param("id") String id);
 
+    // 여러 사용자의 프로필을 IN 쿼리 한 번으로 조회합니다.
+    public List<UserDTO> selectUserProfiles(@Param("ids") Collection<? extends Integer> ids);
+
     int insertUserProfile(@Param("id") String id, @Param("password") String password, @Param("name") String name, @Param("phone") String phone, @Param("address") String address);
 
     int updateUserProfile(@Param("id") String id, @Param("password") String password, @Param("name") String name, @Param("phone") String phone, @Param("address") String address);
@@ -22,6 +29,13 @@ public interface UserProfileMapper {
 
     int idCheck(String id);
 
+    int nickNameCheck(String nickName);
+
+    long countUsers();
+
+    // Bloom filter(UserBloomFilter)를 만들기 위해 ID가 afterId보다 큰 회원의 아이디와 닉네임을 한 행씩 전달합니다.
+    void selectUsersForBloomFilter(@Param("afterId") int afterId, ResultHandler<UserDTO> resultHandler);
+
     public int updatePassword(UserDTO userDTO);
 
     public int updateAddress(UserDTO userDTO);
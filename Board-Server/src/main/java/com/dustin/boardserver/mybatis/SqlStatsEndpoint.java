@@ -0,0 +1,89 @@
+package com.dustin.boardserver.mybatis;
+
+import io.micrometer.core.instrument.distribution.HistogramSnapshot;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Builder;
+import lombok.Getter;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// 매퍼 구문별 실행 지표를 한 번에 보여 주는 actuator 엔드포인트입니다. (StatementMetricsInterceptor 참고)
+// GET /actuator/sqlstats: 전체 구문을 누적 실행 시간이 큰 순서로 반환합니다.
+// GET /actuator/sqlstats/{statement}: 구문 하나 (예: PostSearchMapper.selectPosts)
+// 백분위는 최근 구간(기본 2분)의 값이고, count/totalMillis/meanRows는 서버 시작 후 누적 값입니다.
+@Component
+@Endpoint(id = "sqlstats")
+public class SqlStatsEndpoint {
+    private final StatementMetricsInterceptor statementMetricsInterceptor;
+
+    public SqlStatsEndpoint(StatementMetricsInterceptor statementMetricsInterceptor) {
+        this.statementMetricsInterceptor = statementMetricsInterceptor;
+    }
+
+    @ReadOperation
+    public List<StatementStats> statements() {
+        List<StatementStats> stats = new ArrayList<>();
+        for (StatementMetricsInterceptor.StatementMetrics metrics : statementMetricsInterceptor.getStatements()) {
+            stats.add(toStats(metrics));
+        }
+        stats.sort(Comparator.comparingDouble(StatementStats::getTotalMillis).reversed());
+        return stats;
+    }
+
+    @ReadOperation
+    public StatementStats statement(@Selector String statement) {
+        for (StatementMetricsInterceptor.StatementMetrics metrics : statementMetricsInterceptor.getStatements()) {
+            if (metrics.getName().equals(statement)) {
+                return toStats(metrics);
+            }
+        }
+        return null; // null이면 actuator가 404를 응답합니다.
+    }
+
+    private static StatementStats toStats(StatementMetricsInterceptor.StatementMetrics metrics) {
+        HistogramSnapshot snapshot = metrics.getTimer().takeSnapshot();
+        StatementStats.StatementStatsBuilder builder = StatementStats.builder()
+                .statement(metrics.getName())
+                .count(snapshot.count())
+                .errors((long) metrics.getErrors().count())
+                .totalMillis(snapshot.total(TimeUnit.MILLISECONDS))
+                .meanMillis(snapshot.mean(TimeUnit.MILLISECONDS))
+                .maxMillis(snapshot.max(TimeUnit.MILLISECONDS))
+                .meanRows(metrics.getRows().mean())
+                .maxRows(metrics.getRows().max());
+        for (ValueAtPercentile percentile : snapshot.percentileValues()) {
+            double millis = percentile.value(TimeUnit.MILLISECONDS);
+            if (percentile.percentile() == 0.5) {
+                builder.p50Millis(millis);
+            } else if (percentile.percentile() == 0.95) {
+                builder.p95Millis(millis);
+            } else if (percentile.percentile() == 0.99) {
+                builder.p99Millis(millis);
+            }
+        }
+        return builder.build();
+    }
+
+    @Getter
+    @Builder
+    public static class StatementStats {
+        private String statement;
+        private long count;
+        private long errors;
+        private double totalMillis;
+        private double meanMillis;
+        private double maxMillis;
+        private double p50Millis;
+        private double p95Millis;
+        private double p99Millis;
+        private double meanRows;
+        private double maxRows;
+    }
+}
@@ -0,0 +1,232 @@
+package com.dustin.boardserver.mybatis;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.apache.ibatis.cache.CacheKey;
+import org.apache.ibatis.executor.Executor;
+import org.apache.ibatis.mapping.BoundSql;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.plugin.Interceptor;
+import org.apache.ibatis.plugin.Intercepts;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.plugin.Signature;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.InvocationTargetException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+// 매퍼 구문(MappedStatement)마다 실행 시간, 반환 행 수, 오류 수를 기록하는 MyBatis 플러그인입니다.
+//
+// - 실행 시간은 구문별 Timer에 기록합니다. 백분위(p50/p95/p99)는 Micrometer가 HdrHistogram으로 계산하며,
+//   기록은 잠금 없이 이루어집니다. 구문별 미터는 처음 실행될 때 한 번만 만들어 두고 재사용합니다.
+// - thresholdMillis보다 오래 걸린 구문은 "slowQuery" 로거에 JSON 한 줄로 남깁니다.
+//   실행된 SQL의 모양(동적 SQL이 적용된 뒤의 SQL, IN 목록은 ?+로 줄임)과 바인딩 값 일부(maxParams개, maxParamLength자)를 포함하며,
+//   이름에 password가 들어간 값은 가립니다.
+// - 느린 쿼리 로그를 만드는 비용은 느린 쿼리에서만 발생하며, 일반 실행에서는 nanoTime 두 번과 미터 기록만 추가됩니다.
+//   (src/jmh의 StatementMetricsInterceptorBenchmark로 측정합니다)
+// 지표: mybatis.statement{statement}(실행 시간), mybatis.statement.rows{statement}(반환/변경 행 수),
+//       mybatis.statement.errors{statement}(오류 수). 구문별 요약은 /actuator/sqlstats에서 볼 수 있습니다.
+@Component
+@Intercepts({
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class}),
+        @Signature(type = Executor.class, method = "query",
+                args = {MappedStatement.class, Object.class, RowBounds.class, ResultHandler.class, CacheKey.class, BoundSql.class}),
+        @Signature(type = Executor.class, method = "queryCursor",
+                args = {MappedStatement.class, Object.class, RowBounds.class}),
+        @Signature(type = Executor.class, method = "update", args = {MappedStatement.class, Object.class})
+})
+public class StatementMetricsInterceptor implements Interceptor {
+    private static final Logger SLOW_QUERY_LOG = LogManager.getLogger("slowQuery");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+    private static final Pattern PLACEHOLDER_LIST = Pattern.compile("\\?(\\s*,\\s*\\?)+");
+    private static final String MASKED = "****";
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+    private final long thresholdNanos;
+    private final int maxParams;
+    private final int maxParamLength;
+    private final int maxSqlLength;
+    private final ConcurrentMap<String, StatementMetrics> statements = new ConcurrentHashMap<>();
+
+    public StatementMetricsInterceptor(MeterRegistry meterRegistry, ObjectMapper objectMapper,
+                                       @Value("${mybatis.slowQuery.thresholdMillis:200}") long thresholdMillis,
+                                       @Value("${mybatis.slowQuery.maxParams:10}") int maxParams,
+                                       @Value("${mybatis.slowQuery.maxParamLength:100}") int maxParamLength,
+                                       @Value("${mybatis.slowQuery.maxSqlLength:2000}") int maxSqlLength) {
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+        this.maxParams = maxParams;
+        this.maxParamLength = maxParamLength;
+        this.maxSqlLength = maxSqlLength;
+    }
+
+    @Override
+    public Object intercept(Invocation invocation) throws Throwable {
+        Object[] args = invocation.getArgs();
+        MappedStatement mappedStatement = (MappedStatement) args[0];
+        StatementMetrics metrics = metrics(mappedStatement.getId());
+        long start = System.nanoTime();
+        Object result;
+        try {
+            result = invocation.proceed();
+        } catch (Throwable e) {
+            long elapsed = System.nanoTime() - start;
+            metrics.timer.record(elapsed, TimeUnit.NANOSECONDS);
+            metrics.errors.increment();
+            if (elapsed >= thresholdNanos) {
+                logSlowQuery(metrics.name, mappedStatement, args, elapsed, -1, e);
+            }
+            throw e;
+        }
+        long elapsed = System.nanoTime() - start;
+        metrics.timer.record(elapsed, TimeUnit.NANOSECONDS);
+        long rows = rowCount(args, result);
+        if (rows >= 0) {
+            metrics.rows.record(rows);
+        }
+        if (elapsed >= thresholdNanos) {
+            logSlowQuery(metrics.name, mappedStatement, args, elapsed, rows, null);
+        }
+        return result;
+    }
+
+    // 지금까지 실행된 구문들의 지표입니다. (SqlStatsEndpoint 참고)
+    public Collection<StatementMetrics> getStatements() {
+        return statements.values();
+    }
+
+    private StatementMetrics metrics(String statementId) {
+        StatementMetrics metrics = statements.get(statementId);
+        return metrics != null ? metrics : statements.computeIfAbsent(statementId, this::register);
+    }
+
+    private StatementMetrics register(String statementId) {
+        String name = shortName(statementId);
+        Timer timer = Timer.builder("mybatis.statement")
+                .tag("statement", name)
+                .publishPercentiles(0.5, 0.95, 0.99)
+                .register(meterRegistry);
+        DistributionSummary rows = DistributionSummary.builder("mybatis.statement.rows")
+                .tag("statement", name)
+                .register(meterRegistry);
+        Counter errors = Counter.builder("mybatis.statement.errors")
+                .tag("statement", name)
+                .register(meterRegistry);
+        return new StatementMetrics(name, timer, rows, errors);
+    }
+
+    // "com.dustin.boardserver.mapper.PostSearchMapper.selectPosts" → "PostSearchMapper.selectPosts"
+    static String shortName(String statementId) {
+        int method = statementId.lastIndexOf('.');
+        int type = method > 0 ? statementId.lastIndexOf('.', method - 1) : -1;
+        return statementId.substring(type + 1);
+    }
+
+    // SELECT는 반환한 행 수, INSERT/UPDATE/DELETE는 변경된 행 수입니다.
+    // ResultHandler로 읽은 결과, Cursor, 배치 실행처럼 행 수를 알 수 없으면 -1입니다.
+    private static long rowCount(Object[] args, Object result) {
+        if (args.length >= 4 && args[3] != null) {
+            return -1;
+        }
+        if (result instanceof List<?> list) {
+            return list.size();
+        }
+        if (result instanceof Integer count && count >= 0) {
+            return count;
+        }
+        return -1;
+    }
+
+    private void logSlowQuery(String name, MappedStatement mappedStatement, Object[] args, long elapsedNanos,
+                              long rows, Throwable error) {
+        try {
+            BoundSql boundSql = args.length == 6 ? (BoundSql) args[5] : mappedStatement.getBoundSql(args[1]);
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("statement", name);
+            entry.put("type", mappedStatement.getSqlCommandType().name());
+            entry.put("elapsedMillis", TimeUnit.NANOSECONDS.toMillis(elapsedNanos));
+            entry.put("rows", rows);
+            if (error != null) {
+                // Invocation.proceed는 매퍼의 예외를 InvocationTargetException으로 감싸므로 원래 예외의 이름을 남깁니다.
+                Throwable cause = error instanceof InvocationTargetException && error.getCause() != null
+                        ? error.getCause() : error;
+                entry.put("error", cause.getClass().getSimpleName());
+            }
+            entry.put("sql", sqlShape(boundSql.getSql()));
+            entry.put("params", sampleParameters(mappedStatement.getConfiguration(), boundSql));
+            SLOW_QUERY_LOG.warn(objectMapper.writeValueAsString(entry));
+        } catch (RuntimeException | JsonProcessingException e) {
+            // 로그를 만들지 못해도 쿼리 결과에는 영향을 주지 않습니다.
+            SLOW_QUERY_LOG.warn("slow query 로그 생성 실패 : {} {}ms", name, TimeUnit.NANOSECONDS.toMillis(elapsedNanos), e);
+        }
+    }
+
+    // 공백을 하나로 줄이고, IN (?, ?, ?) 같은 목록은 길이와 상관없이 같은 모양이 되도록 ?+로 줄입니다.
+    private String sqlShape(String sql) {
+        String shape = PLACEHOLDER_LIST.matcher(WHITESPACE.matcher(sql).replaceAll(" ").trim()).replaceAll("?+");
+        return shape.length() > maxSqlLength ? shape.substring(0, maxSqlLength) + "..." : shape;
+    }
+
+    // 바인딩 값을 앞에서부터 maxParams개까지 "이름=값" 형태로 반환합니다. (DefaultParameterHandler와 같은 방법으로 값을 찾습니다)
+    private List<String> sampleParameters(Configuration configuration, BoundSql boundSql) {
+        List<ParameterMapping> mappings = boundSql.getParameterMappings();
+        Object parameterObject = boundSql.getParameterObject();
+        List<String> params = new ArrayList<>(Math.min(mappings.size(), maxParams));
+        for (int i = 0; i < mappings.size() && i < maxParams; i++) {
+            String property = mappings.get(i).getProperty();
+            Object value;
+            if (property.toLowerCase().contains("password")) {
+                value = MASKED;
+            } else if (boundSql.hasAdditionalParameter(property)) {
+                value = boundSql.getAdditionalParameter(property);
+            } else if (parameterObject == null) {
+                value = null;
+            } else if (configuration.getTypeHandlerRegistry().hasTypeHandler(parameterObject.getClass())) {
+                value = parameterObject;
+            } else {
+                value = configuration.newMetaObject(parameterObject).getValue(property);
+            }
+            String text = String.valueOf(value);
+            params.add(property + "=" + (text.length() > maxParamLength ? text.substring(0, maxParamLength) + "..." : text));
+        }
+        if (mappings.size() > maxParams) {
+            params.add("...(" + mappings.size() + ")");
+        }
+        return params;
+    }
+
+    // 구문 하나의 미터 묶음입니다. name은 "매퍼.메서드" 형태입니다.
+    @Getter
+    @AllArgsConstructor(access = AccessLevel.PRIVATE)
+    public static final class StatementMetrics {
+        private final String name;
+        private final Timer timer;
+        private final DistributionSummary rows;
+        private final Counter errors;
+    }
+}
@@ -0,0 +1,59 @@
+package com.dustin.boardserver.search;
+
+import java.util.function.Consumer;
+
+// 게시물 제목과 본문을 색인어로 나누는 토크나이저입니다.
+// 한글(음절, 자모)과 한자처럼 띄어쓰기만으로 단어 경계를 알 수 없는 문자는 연속된 두 글자씩(bigram) 자르고,
+// 영문과 숫자는 공백/구두점 기준 단어를 소문자로 바꿔 사용합니다.
+// 예) "스프링 부트Boot3 게시판" -> [스프, 프링, 부트, boot3, 게시, 시판]
+// 한 글자짜리 한글 단어는 그대로 한 개의 토큰이 됩니다.
+public class HangulBigramTokenizer {
+
+    // 너무 긴 영문/숫자 토큰(예: URL, 해시값)은 색인 크기만 키우므로 잘라냅니다.
+    private static final int MAX_WORD_LENGTH = 32;
+
+    private HangulBigramTokenizer() {
+    }
+
+    // text를 토큰으로 나누어 순서대로 consumer에 전달합니다. 중간 리스트를 만들지 않습니다.
+    public static void tokenize(String text, Consumer<String> consumer) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        int length = text.length();
+        int i = 0;
+        while (i < length) {
+            char c = text.charAt(i);
+            if (isBigramChar(c)) {
+                int start = i;
+                while (i < length && isBigramChar(text.charAt(i))) {
+                    i++;
+                }
+                if (i - start == 1) {
+                    consumer.accept(String.valueOf(c));
+                } else {
+                    for (int j = start; j < i - 1; j++) {
+                        consumer.accept(text.substring(j, j + 2));
+                    }
+                }
+            } else if (Character.isLetterOrDigit(c)) {
+                int start = i;
+                while (i < length && Character.isLetterOrDigit(text.charAt(i)) && !isBigramChar(text.charAt(i))) {
+                    i++;
+                }
+                int end = Math.min(i, start + MAX_WORD_LENGTH);
+                consumer.accept(text.substring(start, end).toLowerCase());
+            } else {
+                i++;
+            }
+        }
+    }
+
+    // 한글 음절, 한글 자모, 호환 자모, CJK 통합 한자를 bigram 대상 문자로 봅니다.
+    static boolean isBigramChar(char c) {
+        return (c >= '\uAC00' && c <= '\uD7A3')
+                || (c >= '\u1100' && c <= '\u11FF')
+                || (c >= '\u3130' && c <= '\u318F')
+                || (c >= '\u4E00' && c <= '\u9FFF');
+    }
+}
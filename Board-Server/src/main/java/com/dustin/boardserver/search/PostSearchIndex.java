@@ -0,0 +1,399 @@
+package com.dustin.boardserver.search;
+
+import com.dustin.boardserver.cache.CacheInvalidationPublisher;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import com.dustin.boardserver.utils.IntIntHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// 게시물 제목(name)과 본문(contents)에 대한 메모리 역색인(inverted index)입니다.
+// LIKE 'x%' 검색은 접두어만 찾을 수 있고 본문 검색 시 테이블 전체를 읽어야 하므로,
+// 토큰 단위 색인을 메모리에 유지하고 BM25 점수로 상위 K개의 게시물 ID를 찾습니다.
+//
+// - 색인은 PostServiceImpl의 등록/수정/삭제 시점에 증분 갱신됩니다.
+//   바뀐 게시물 ID는 Redis pub/sub(CacheInvalidationPublisher)으로 다른 서버에 알리고,
+//   메시지를 받은 서버는 해당 게시물을 DB에서 다시 읽어 자신의 색인을 고칩니다. 없어진 게시물은 색인에서 지웁니다.
+// - 애플리케이션 기동 시와 rebuildMillis마다 MySQL에서 전체 게시물을 스트리밍으로 읽어 다시 만듭니다.
+//   pub/sub 메시지는 유실될 수 있으므로(Redis 재연결 등), 메시지를 놓친 서버의 색인은 다음 재구성까지 다를 수 있습니다.
+// - 검색은 포스팅 리스트를 게시물 ID 순으로 병합(document-at-a-time)하면서 MaxScore로
+//   상위 K개에 들 수 없는 후보를 건너뛰므로, 흔한 색인어가 포함되어도 전체 점수를 계산하지 않습니다.
+@Component
+@Log4j2
+public class PostSearchIndex implements MessageListener {
+    static final String INDEX_NAME = "postSearchIndex";
+
+    // 제목에 등장한 색인어는 본문보다 중요하므로 가중치를 줍니다.
+    private static final int NAME_WEIGHT = 2;
+
+    private final PostSearchMapper postSearchMapper;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 색인 사용 여부입니다. false이면 모든 갱신을 무시하고 검색 서비스는 LIKE 검색을 사용합니다.
+    @Value("${search.index.enabled:true}")
+    private boolean enabled;
+
+    // 기동 시 MySQL에서 전체 색인을 다시 만들지 여부입니다.
+    @Value("${search.index.rebuildOnStartup:true}")
+    private boolean rebuildOnStartup;
+
+    // BM25 파라미터입니다. k1은 tf 포화 정도, b는 문서 길이 정규화 정도를 조절합니다.
+    @Value("${search.index.bm25.k1:1.2}")
+    private float k1;
+
+    @Value("${search.index.bm25.b:0.75}")
+    private float b;
+
+    private volatile State state = new State();
+
+    // 전체 재색인 중에 들어온 증분 변경입니다. 재색인이 끝나면 새 색인에 다시 적용합니다.
+    // 값이 null이면 삭제를 의미합니다.
+    private Map<Integer, PostDTO> changesDuringRebuild;
+
+    public PostSearchIndex(PostSearchMapper postSearchMapper, CacheInvalidationPublisher invalidationPublisher) {
+        this.postSearchMapper = postSearchMapper;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 게시물을 색인에 추가합니다. 이미 색인된 게시물이면 기존 색인어를 지우고 다시 색인합니다.
+    public void index(PostDTO postDTO) {
+        if (!enabled || postDTO.getId() == 0) {
+            return;
+        }
+        indexLocal(postDTO);
+        invalidationPublisher.publishEvict(INDEX_NAME, postDTO.getId());
+    }
+
+    // 여러 게시물을 색인에 추가합니다. 다른 서버에는 메시지 하나로 알립니다.
+    public void indexAll(Collection<PostDTO> postDTOList) {
+        if (!enabled || postDTOList.isEmpty()) {
+            return;
+        }
+        StringJoiner postIds = new StringJoiner(",");
+        for (PostDTO postDTO : postDTOList) {
+            if (postDTO.getId() != 0) {
+                indexLocal(postDTO);
+                postIds.add(String.valueOf(postDTO.getId()));
+            }
+        }
+        if (postIds.length() > 0) {
+            invalidationPublisher.publishEvict(INDEX_NAME, postIds);
+        }
+    }
+
+    // 게시물을 색인에서 제거합니다.
+    public void remove(int postId) {
+        if (!enabled) {
+            return;
+        }
+        removeLocal(postId);
+        invalidationPublisher.publishEvict(INDEX_NAME, postId);
+    }
+
+    // 다른 서버에서 바뀐 게시물을 DB에서 다시 읽어 이 서버의 색인에 반영합니다. 다른 캐시에 대한 메시지와 자신이 보낸 메시지는 무시합니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (!enabled || parts.length != 3 || !INDEX_NAME.equals(parts[1])
+                || parts[0].equals(invalidationPublisher.getNodeId())) {
+            return;
+        }
+        try {
+            List<Integer> postIds = new ArrayList<>();
+            for (String postId : parts[2].split(",")) {
+                postIds.add(Integer.valueOf(postId));
+            }
+            refresh(postIds);
+        } catch (RuntimeException e) {
+            log.error("search index 갱신 실패 : {}", parts[2], e);
+        }
+    }
+
+    // 게시물을 DB에서 다시 읽어 색인합니다. DB에 없는 게시물은 삭제된 것이므로 색인에서 지웁니다.
+    void refresh(List<Integer> postIds) {
+        Set<Integer> missing = new HashSet<>(postIds);
+        for (PostDTO postDTO : postSearchMapper.selectPostsByIds(postIds)) {
+            indexLocal(postDTO);
+            missing.remove(postDTO.getId());
+        }
+        missing.forEach(this::removeLocal);
+    }
+
+    private void indexLocal(PostDTO postDTO) {
+        lock.writeLock().lock();
+        try {
+            state.put(postDTO);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(postDTO.getId(), postDTO);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void removeLocal(int postId) {
+        lock.writeLock().lock();
+        try {
+            state.remove(postId);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.put(postId, null);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled && rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    // 놓친 pub/sub 메시지가 있어도 색인이 DB와 계속 달라지지 않도록 주기적으로 다시 만듭니다.
+    @Scheduled(fixedDelayString = "${search.index.rebuildMillis:3600000}",
+            initialDelayString = "${search.index.rebuildMillis:3600000}")
+    public void rebuildPeriodically() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // MySQL의 post 테이블 전체를 읽어 새 색인을 만든 뒤 교체합니다.
+    // 새 색인을 만드는 동안에도 기존 색인으로 검색할 수 있고, 그 사이의 증분 변경은 교체 직전에 다시 적용됩니다.
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new HashMap<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            postSearchMapper.selectPostsForIndex(context -> rebuilt.put(context.getResultObject()));
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("search index rebuild 실패", e);
+            return;
+        }
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach((postId, postDTO) -> {
+                if (postDTO == null) {
+                    rebuilt.remove(postId);
+                } else {
+                    rebuilt.put(postDTO);
+                }
+            });
+            changesDuringRebuild = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("search index rebuild 완료 : {} posts, {} terms, {}ms",
+                rebuilt.docLengths.size(), rebuilt.postings.size(), System.currentTimeMillis() - start);
+    }
+
+    // query와 관련도가 높은 게시물 ID를 점수 내림차순으로 최대 limit개 반환합니다.
+    // categoryId가 0이 아니면 해당 카테고리의 게시물만 대상으로 합니다.
+    public int[] search(String query, int categoryId, int limit) {
+        Set<String> terms = new LinkedHashSet<>();
+        HangulBigramTokenizer.tokenize(query, terms::add);
+        if (terms.isEmpty() || limit <= 0) {
+            return new int[0];
+        }
+
+        lock.readLock().lock();
+        try {
+            return state.search(terms, categoryId, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // 색인의 실제 데이터입니다. 재색인 시 새 State를 만들어 통째로 교체합니다.
+    private class State {
+        private final Map<String, PostingList> postings = new HashMap<>();
+        // 게시물을 색인에서 지울 때 어떤 포스팅 리스트를 고쳐야 하는지 알기 위한 정방향 색인입니다.
+        private final Map<Integer, String[]> docTerms = new HashMap<>();
+        private final IntIntHashMap docLengths = new IntIntHashMap();
+        private final IntIntHashMap docCategories = new IntIntHashMap();
+        private long totalLength;
+
+        void put(PostDTO postDTO) {
+            int postId = postDTO.getId();
+            remove(postId);
+
+            Map<String, int[]> frequencies = new HashMap<>();
+            HangulBigramTokenizer.tokenize(postDTO.getName(),
+                    term -> frequencies.computeIfAbsent(term, t -> new int[1])[0] += NAME_WEIGHT);
+            HangulBigramTokenizer.tokenize(postDTO.getContents(),
+                    term -> frequencies.computeIfAbsent(term, t -> new int[1])[0]++);
+
+            String[] terms = new String[frequencies.size()];
+            int length = 0;
+            int i = 0;
+            for (Map.Entry<String, int[]> entry : frequencies.entrySet()) {
+                PostingList postingList = postings.get(entry.getKey());
+                if (postingList == null) {
+                    postingList = new PostingList();
+                    postings.put(entry.getKey(), postingList);
+                }
+                postingList.put(postId, entry.getValue()[0]);
+                terms[i++] = entry.getKey();
+                length += entry.getValue()[0];
+            }
+            docTerms.put(postId, terms);
+            docLengths.put(postId, length);
+            docCategories.put(postId, postDTO.getCategoryId());
+            totalLength += length;
+        }
+
+        void remove(int postId) {
+            String[] terms = docTerms.remove(postId);
+            if (terms == null) {
+                return;
+            }
+            for (String term : terms) {
+                PostingList postingList = postings.get(term);
+                postingList.remove(postId);
+                if (postingList.size == 0) {
+                    postings.remove(term);
+                }
+            }
+            totalLength -= docLengths.get(postId, 0);
+            docLengths.remove(postId);
+            docCategories.remove(postId);
+        }
+
+        int[] search(Set<String> queryTerms, int categoryId, int limit) {
+            int docCount = docLengths.size();
+            if (docCount == 0) {
+                return new int[0];
+            }
+            float avgLength = (float) totalLength / docCount;
+
+            // 쿼리에 포함된 색인어의 포스팅 리스트와 idf, 최대 기여 점수(upper bound)를 준비합니다.
+            List<PostingList> lists = new ArrayList<>(queryTerms.size());
+            for (String term : queryTerms) {
+                PostingList postingList = postings.get(term);
+                if (postingList != null) {
+                    lists.add(postingList);
+                }
+            }
+            int n = lists.size();
+            if (n == 0) {
+                return new int[0];
+            }
+            PostingList[] terms = new PostingList[n];
+            float[] idf = new float[n];
+            float[] upperBound = new float[n];
+            Integer[] order = new Integer[n];
+            for (int t = 0; t < n; t++) {
+                order[t] = t;
+                int df = lists.get(t).size;
+                idf[t] = (float) Math.log(1 + (docCount - df + 0.5) / (df + 0.5));
+            }
+            // MaxScore를 위해 최대 기여 점수가 작은 색인어부터 정렬합니다.
+            Arrays.sort(order, Comparator.comparingDouble(t -> idf[t]));
+            float[] sortedIdf = new float[n];
+            for (int t = 0; t < n; t++) {
+                terms[t] = lists.get(order[t]);
+                sortedIdf[t] = idf[order[t]];
+                upperBound[t] = sortedIdf[t] * (k1 + 1);
+            }
+            float[] cumulativeBound = new float[n];
+            for (int t = 0; t < n; t++) {
+                cumulativeBound[t] = upperBound[t] + (t > 0 ? cumulativeBound[t - 1] : 0f);
+            }
+
+            int[] positions = new int[n];
+            TopKHeap heap = new TopKHeap(limit);
+            // [0, essential) 구간의 색인어만으로는 현재 K번째 점수를 넘을 수 없으므로 후보 생성에 쓰지 않습니다.
+            int essential = 0;
+
+            while (true) {
+                int candidate = Integer.MAX_VALUE;
+                for (int t = essential; t < n; t++) {
+                    if (positions[t] < terms[t].size) {
+                        candidate = Math.min(candidate, terms[t].docs[positions[t]]);
+                    }
+                }
+                if (candidate == Integer.MAX_VALUE) {
+                    break;
+                }
+
+                if (categoryId != 0 && docCategories.get(candidate, 0) != categoryId) {
+                    for (int t = essential; t < n; t++) {
+                        if (positions[t] < terms[t].size && terms[t].docs[positions[t]] == candidate) {
+                            positions[t]++;
+                        }
+                    }
+                    continue;
+                }
+
+                float norm = k1 * (1 - b + b * docLengths.get(candidate, 0) / avgLength);
+                float score = 0f;
+                for (int t = essential; t < n; t++) {
+                    if (positions[t] < terms[t].size && terms[t].docs[positions[t]] == candidate) {
+                        score += bm25(sortedIdf[t], terms[t].freqs[positions[t]], norm);
+                        positions[t]++;
+                    }
+                }
+                // 비필수 색인어는 남은 최대 점수로도 임계값을 넘지 못하면 더 보지 않습니다.
+                boolean pruned = false;
+                for (int t = essential - 1; t >= 0; t--) {
+                    if (score + cumulativeBound[t] <= heap.threshold()) {
+                        pruned = true;
+                        break;
+                    }
+                    positions[t] = terms[t].advance(positions[t], candidate);
+                    if (positions[t] < terms[t].size && terms[t].docs[positions[t]] == candidate) {
+                        score += bm25(sortedIdf[t], terms[t].freqs[positions[t]], norm);
+                    }
+                }
+                if (pruned) {
+                    continue;
+                }
+
+                heap.offer(candidate, score);
+                if (heap.isFull()) {
+                    while (essential < n && cumulativeBound[essential] <= heap.threshold()) {
+                        essential++;
+                    }
+                    if (essential == n) {
+                        break;
+                    }
+                }
+            }
+            return heap.drainDescending();
+        }
+
+        private float bm25(float idf, int tf, float norm) {
+            return idf * tf * (k1 + 1) / (tf + norm);
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.dustin.boardserver.search;
+
+import java.util.Arrays;
+
+// 하나의 색인어(term)가 등장하는 게시물 ID와 등장 횟수(tf)를 오름차순으로 저장하는 포스팅 리스트입니다.
+// 게시물 ID는 대부분 증가하는 순서로 들어오므로 추가는 보통 배열 끝에 붙는 O(1)입니다.
+class PostingList {
+    int[] docs = new int[4];
+    int[] freqs = new int[4];
+    int size;
+
+    void put(int doc, int freq) {
+        int pos = search(doc);
+        if (pos >= 0) {
+            freqs[pos] = freq;
+            return;
+        }
+        pos = -pos - 1;
+        if (size == docs.length) {
+            int capacity = size + (size >> 1) + 1;
+            docs = Arrays.copyOf(docs, capacity);
+            freqs = Arrays.copyOf(freqs, capacity);
+        }
+        System.arraycopy(docs, pos, docs, pos + 1, size - pos);
+        System.arraycopy(freqs, pos, freqs, pos + 1, size - pos);
+        docs[pos] = doc;
+        freqs[pos] = freq;
+        size++;
+    }
+
+    void remove(int doc) {
+        int pos = search(doc);
+        if (pos < 0) {
+            return;
+        }
+        System.arraycopy(docs, pos + 1, docs, pos, size - pos - 1);
+        System.arraycopy(freqs, pos + 1, freqs, pos, size - pos - 1);
+        size--;
+    }
+
+    // from 위치부터 doc 이상인 첫 위치를 갤로핑 탐색으로 찾습니다. 없으면 size를 반환합니다.
+    int advance(int from, int doc) {
+        int bound = 1;
+        int low = from;
+        while (from + bound < size && docs[from + bound] < doc) {
+            low = from + bound;
+            bound <<= 1;
+        }
+        int high = Math.min(from + bound, size);
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (docs[mid] < doc) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private int search(int doc) {
+        // 가장 흔한 경우인 맨 뒤 추가를 먼저 확인합니다.
+        if (size == 0 || docs[size - 1] < doc) {
+            return -size - 1;
+        }
+        return Arrays.binarySearch(docs, 0, size, doc);
+    }
+}
@@ -0,0 +1,493 @@
+package com.dustin.boardserver.search;
+
+import com.dustin.boardserver.cache.CacheInvalidationPublisher;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.TagDTO;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import com.dustin.boardserver.mapper.TagMapper;
+import com.dustin.boardserver.utils.IntIntHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.roaringbitmap.FastAggregation;
+import org.roaringbitmap.IntIterator;
+import org.roaringbitmap.RoaringBitmap;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.connection.Message;
+import org.springframework.data.redis.connection.MessageListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+
+// 태그 이름 → 게시물 ID 집합(RoaringBitmap)을 메모리에 유지하는 태그 색인입니다.
+// 여러 태그의 AND/OR/NOT 조건을 비트맵 교집합/합집합/차집합으로 계산하므로,
+// 게시물이 수백만 개여도 조인이나 GROUP BY 없이 밀리초 단위로 답할 수 있습니다.
+//
+// - 태그 이름은 앞뒤 공백을 지우고 소문자로 바꾸어 비교합니다.
+// - 카테고리별 게시물 비트맵과 전체 게시물 비트맵도 함께 유지하여 카테고리 조건과 NOT 조건에 사용합니다.
+//   삭제된 게시물은 전체 게시물 비트맵에서 빠지므로 태그 비트맵에 남아 있어도 결과에 나오지 않습니다.
+// - 색인은 PostServiceImpl의 게시물/태그 등록, 수정, 삭제 시점에 증분 갱신됩니다.
+//   바뀐 내용은 Redis pub/sub(CacheInvalidationPublisher)으로 다른 서버에 알리고, 메시지를 받은 서버는 같은 변경을 적용합니다.
+//   변경 내용에 태그 이름과 카테고리가 모두 들어 있으므로 DB를 다시 읽지 않습니다.
+// - 애플리케이션 기동 시와 rebuildMillis마다 MySQL의 post, post_tag 테이블에서 다시 만듭니다. (PostSearchIndex와 같은 방식)
+//   pub/sub 메시지는 유실될 수 있고 서로 다른 서버의 메시지는 순서가 바뀔 수 있으므로, 다음 재구성까지 서버마다 색인이 다를 수 있습니다.
+//
+// 메시지의 키는 변경 하나를 한 줄로 적은 목록입니다. 태그 이름은 URL 인코딩하여 쉼표와 줄바꿈이 없게 합니다.
+// P,게시물ID,카테고리ID / p,게시물ID / T,태그ID,게시물ID,이름 / R,태그ID,이름 / t,태그ID
+@Component
+@Log4j2
+public class TagPostIndex implements MessageListener {
+    static final String INDEX_NAME = "tagPostIndex";
+
+    private final TagMapper tagMapper;
+    private final PostSearchMapper postSearchMapper;
+    private final CacheInvalidationPublisher invalidationPublisher;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // 색인 사용 여부입니다. false이면 모든 갱신을 무시하고 태그 검색은 빈 결과를 반환합니다.
+    @Value("${tag.index.enabled:true}")
+    private boolean enabled;
+
+    // 기동 시 MySQL에서 전체 색인을 다시 만들지 여부입니다.
+    @Value("${tag.index.rebuildOnStartup:true}")
+    private boolean rebuildOnStartup;
+
+    private volatile State state = new State();
+
+    // 전체 재색인 중에 들어온 증분 변경입니다. 재색인이 끝나면 새 색인에 같은 순서로 다시 적용합니다.
+    private List<Consumer<State>> changesDuringRebuild;
+
+    public TagPostIndex(TagMapper tagMapper, PostSearchMapper postSearchMapper,
+                        CacheInvalidationPublisher invalidationPublisher) {
+        this.tagMapper = tagMapper;
+        this.postSearchMapper = postSearchMapper;
+        this.invalidationPublisher = invalidationPublisher;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    // 게시물을 추가하거나 카테고리를 바꿉니다.
+    public void putPost(int postId, int categoryId) {
+        if (!enabled) {
+            return;
+        }
+        publish(putPostLocal(postId, categoryId));
+    }
+
+    // 여러 게시물을 추가합니다. 다른 서버에는 메시지 하나로 알립니다.
+    public void putPosts(Collection<PostDTO> postDTOList) {
+        if (!enabled || postDTOList.isEmpty()) {
+            return;
+        }
+        StringJoiner changes = new StringJoiner("\n");
+        for (PostDTO postDTO : postDTOList) {
+            changes.add(putPostLocal(postDTO.getId(), postDTO.getCategoryId()));
+        }
+        publish(changes.toString());
+    }
+
+    public void removePost(int postId) {
+        if (!enabled) {
+            return;
+        }
+        publish(removePostLocal(postId));
+    }
+
+    // 게시물에 태그를 연결합니다. 같은 태그 ID가 이미 있으면 이름을 바꾼 것으로 처리합니다.
+    public void putTag(int tagId, String name, int postId) {
+        String normalized = normalize(name);
+        if (!enabled || normalized == null) {
+            return;
+        }
+        publish(putTagLocal(tagId, normalized, postId));
+    }
+
+    // 여러 태그를 게시물에 연결합니다. 다른 서버에는 메시지 하나로 알립니다.
+    public void putTags(Collection<TagDTO> tagDTOList) {
+        if (!enabled) {
+            return;
+        }
+        StringJoiner changes = new StringJoiner("\n");
+        for (TagDTO tagDTO : tagDTOList) {
+            String normalized = normalize(tagDTO.getName());
+            if (normalized != null) {
+                changes.add(putTagLocal(tagDTO.getId(), normalized, tagDTO.getPostId()));
+            }
+        }
+        if (changes.length() > 0) {
+            publish(changes.toString());
+        }
+    }
+
+    // 태그 이름만 바꿉니다. 연결된 게시물은 그대로입니다.
+    public void renameTag(int tagId, String name) {
+        String normalized = normalize(name);
+        if (!enabled || normalized == null) {
+            return;
+        }
+        publish(renameTagLocal(tagId, normalized));
+    }
+
+    public void removeTag(int tagId) {
+        if (!enabled) {
+            return;
+        }
+        publish(removeTagLocal(tagId));
+    }
+
+    // 다른 서버의 변경을 이 서버의 색인에 적용합니다. 다른 캐시에 대한 메시지와 자신이 보낸 메시지는 무시합니다.
+    @Override
+    public void onMessage(Message message, byte[] pattern) {
+        String[] parts = new String(message.getBody(), StandardCharsets.UTF_8).split("\n", 3);
+        if (!enabled || parts.length != 3 || !INDEX_NAME.equals(parts[1])
+                || parts[0].equals(invalidationPublisher.getNodeId())) {
+            return;
+        }
+        for (String change : parts[2].split("\n")) {
+            try {
+                applyChange(change);
+            } catch (RuntimeException e) {
+                log.error("tag index 갱신 실패 : {}", change, e);
+            }
+        }
+    }
+
+    // 메시지의 변경 한 줄을 적용합니다. 태그 이름은 보낸 서버가 이미 정규화했습니다.
+    private void applyChange(String change) {
+        String[] fields = change.split(",");
+        switch (fields[0]) {
+            case "P" -> putPostLocal(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+            case "p" -> removePostLocal(Integer.parseInt(fields[1]));
+            case "T" -> putTagLocal(Integer.parseInt(fields[1]), decode(fields[3]), Integer.parseInt(fields[2]));
+            case "R" -> renameTagLocal(Integer.parseInt(fields[1]), decode(fields[2]));
+            case "t" -> removeTagLocal(Integer.parseInt(fields[1]));
+            default -> throw new IllegalArgumentException("알 수 없는 tag index 변경입니다 : " + change);
+        }
+    }
+
+    // 아래 메서드들은 이 서버의 색인만 고치고, 다른 서버에 보낼 변경 한 줄을 반환합니다.
+    private String putPostLocal(int postId, int categoryId) {
+        apply(state -> state.putPost(postId, categoryId));
+        return "P," + postId + "," + categoryId;
+    }
+
+    private String removePostLocal(int postId) {
+        apply(state -> state.removePost(postId));
+        return "p," + postId;
+    }
+
+    private String putTagLocal(int tagId, String normalized, int postId) {
+        apply(state -> state.putTag(tagId, normalized, postId));
+        return "T," + tagId + "," + postId + "," + encode(normalized);
+    }
+
+    private String renameTagLocal(int tagId, String normalized) {
+        apply(state -> state.renameTag(tagId, normalized));
+        return "R," + tagId + "," + encode(normalized);
+    }
+
+    private String removeTagLocal(int tagId) {
+        apply(state -> state.removeTag(tagId));
+        return "t," + tagId;
+    }
+
+    private void publish(String changes) {
+        invalidationPublisher.publishEvict(INDEX_NAME, changes);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void rebuildOnStartup() {
+        if (enabled && rebuildOnStartup) {
+            rebuild();
+        }
+    }
+
+    // 놓쳤거나 순서가 바뀐 pub/sub 메시지가 있어도 색인이 DB와 계속 달라지지 않도록 주기적으로 다시 만듭니다.
+    @Scheduled(fixedDelayString = "${tag.index.rebuildMillis:3600000}",
+            initialDelayString = "${tag.index.rebuildMillis:3600000}")
+    public void rebuildPeriodically() {
+        if (enabled) {
+            rebuild();
+        }
+    }
+
+    // MySQL에서 게시물과 태그 연결을 모두 읽어 새 색인을 만든 뒤 교체합니다.
+    // 새 색인을 만드는 동안에도 기존 색인으로 조회할 수 있고, 그 사이의 증분 변경은 교체 직전에 다시 적용됩니다.
+    public void rebuild() {
+        long start = System.currentTimeMillis();
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild = new ArrayList<>();
+        } finally {
+            lock.writeLock().unlock();
+        }
+
+        State rebuilt = new State();
+        try {
+            postSearchMapper.selectPostCategoriesForIndex(context -> {
+                PostDTO post = context.getResultObject();
+                rebuilt.putPost(post.getId(), post.getCategoryId());
+            });
+            tagMapper.selectTagsForIndex(context -> {
+                TagDTO tag = context.getResultObject();
+                String normalized = normalize(tag.getName());
+                if (normalized != null) {
+                    rebuilt.putTag(tag.getId(), normalized, tag.getPostId());
+                }
+            });
+        } catch (RuntimeException e) {
+            lock.writeLock().lock();
+            try {
+                changesDuringRebuild = null;
+            } finally {
+                lock.writeLock().unlock();
+            }
+            log.error("tag index rebuild 실패", e);
+            return;
+        }
+        rebuilt.optimize();
+
+        lock.writeLock().lock();
+        try {
+            changesDuringRebuild.forEach(change -> change.accept(rebuilt));
+            changesDuringRebuild = null;
+            state = rebuilt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+        log.info("tag index rebuild 완료 : {} posts, {} tags, {}ms",
+                rebuilt.allPosts.getCardinality(), rebuilt.postsByTag.size(), System.currentTimeMillis() - start);
+    }
+
+    // 태그 조건에 맞는 게시물 ID를 최신순(ID 내림차순)으로 최대 limit개 반환합니다.
+    // all의 태그를 모두 가지고(AND), any의 태그 중 하나 이상을 가지며(OR), none의 태그는 하나도 없는(NOT) 게시물입니다.
+    // categoryId가 0이 아니면 해당 카테고리의 게시물만, cursor가 0이 아니면 cursor보다 ID가 작은 게시물만 대상으로 합니다.
+    public int[] search(Collection<String> all, Collection<String> any, Collection<String> none,
+                        int categoryId, int cursor, int limit) {
+        if (!enabled || limit <= 0) {
+            return new int[0];
+        }
+        Set<String> allTags = normalizeAll(all);
+        Set<String> anyTags = normalizeAll(any);
+        Set<String> noneTags = normalizeAll(none);
+
+        lock.readLock().lock();
+        try {
+            return state.search(allTags, anyTags, noneTags, categoryId, cursor, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private void apply(Consumer<State> change) {
+        lock.writeLock().lock();
+        try {
+            change.accept(state);
+            if (changesDuringRebuild != null) {
+                changesDuringRebuild.add(change);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private static String normalize(String name) {
+        if (name == null) {
+            return null;
+        }
+        String normalized = name.trim().toLowerCase(Locale.ROOT);
+        return normalized.isEmpty() ? null : normalized;
+    }
+
+    private static String encode(String name) {
+        return URLEncoder.encode(name, StandardCharsets.UTF_8);
+    }
+
+    private static String decode(String name) {
+        return URLDecoder.decode(name, StandardCharsets.UTF_8);
+    }
+
+    private static Set<String> normalizeAll(Collection<String> names) {
+        Set<String> normalized = new LinkedHashSet<>();
+        if (names != null) {
+            for (String name : names) {
+                String tag = normalize(name);
+                if (tag != null) {
+                    normalized.add(tag);
+                }
+            }
+        }
+        return normalized;
+    }
+
+    // 색인의 실제 데이터입니다. 재색인 시 새 State를 만들어 통째로 교체합니다.
+    private static class State {
+        private final Map<String, RoaringBitmap> postsByTag = new HashMap<>();
+        private final Map<Integer, RoaringBitmap> postsByCategory = new HashMap<>();
+        private final RoaringBitmap allPosts = new RoaringBitmap();
+        private final IntIntHashMap categoryByPost = new IntIntHashMap();
+        // 태그 ID별 이름과 게시물입니다. 태그를 지우거나 이름을 바꿀 때 어느 비트맵을 고칠지 알기 위해 사용합니다.
+        private final Map<Integer, TagLink> tagsById = new HashMap<>();
+        // 같은 게시물에 같은 이름의 태그가 여러 개 달린 경우 비트맵에 더해지지 않은 나머지 개수입니다.
+        // 하나를 지워도 다른 태그가 남아 있으면 비트맵에서 빼지 않기 위해 사용하며, 중복이 없으면 비어 있습니다.
+        private final Map<String, IntIntHashMap> duplicateLinks = new HashMap<>();
+
+        void putPost(int postId, int categoryId) {
+            int before = categoryByPost.get(postId, -1);
+            if (before == categoryId) {
+                return;
+            }
+            if (before >= 0) {
+                removeFromCategory(postId, before);
+            }
+            postsByCategory.computeIfAbsent(categoryId, id -> new RoaringBitmap()).add(postId);
+            categoryByPost.put(postId, categoryId);
+            allPosts.add(postId);
+        }
+
+        void removePost(int postId) {
+            int before = categoryByPost.get(postId, -1);
+            if (before >= 0) {
+                removeFromCategory(postId, before);
+                categoryByPost.remove(postId);
+            }
+            allPosts.remove(postId);
+        }
+
+        void putTag(int tagId, String name, int postId) {
+            removeTag(tagId);
+            tagsById.put(tagId, new TagLink(name, postId));
+            link(name, postId);
+        }
+
+        void renameTag(int tagId, String name) {
+            TagLink before = tagsById.get(tagId);
+            if (before != null && !before.name.equals(name)) {
+                putTag(tagId, name, before.postId);
+            }
+        }
+
+        void removeTag(int tagId) {
+            TagLink before = tagsById.remove(tagId);
+            if (before != null) {
+                unlink(before.name, before.postId);
+            }
+        }
+
+        // 재색인 직후 비트맵 컨테이너를 run 인코딩 등 더 작은 형태로 바꿉니다.
+        void optimize() {
+            postsByTag.values().forEach(RoaringBitmap::runOptimize);
+            postsByCategory.values().forEach(RoaringBitmap::runOptimize);
+            allPosts.runOptimize();
+        }
+
+        int[] search(Set<String> allTags, Set<String> anyTags, Set<String> noneTags,
+                     int categoryId, int cursor, int limit) {
+            RoaringBitmap scope = categoryId == 0 ? allPosts : postsByCategory.get(categoryId);
+            if (scope == null) {
+                return new int[0];
+            }
+
+            // AND는 작은 비트맵부터 교집합하여 중간 결과를 빨리 줄이고, 비면 바로 끝냅니다.
+            RoaringBitmap result = null;
+            if (!allTags.isEmpty()) {
+                List<RoaringBitmap> bitmaps = new ArrayList<>(allTags.size() + 1);
+                for (String tag : allTags) {
+                    RoaringBitmap bitmap = postsByTag.get(tag);
+                    if (bitmap == null) {
+                        return new int[0];
+                    }
+                    bitmaps.add(bitmap);
+                }
+                bitmaps.sort(Comparator.comparingLong(RoaringBitmap::getLongCardinality));
+                result = RoaringBitmap.and(bitmaps.get(0), scope);
+                for (int i = 1; i < bitmaps.size() && !result.isEmpty(); i++) {
+                    result.and(bitmaps.get(i));
+                }
+            }
+            if (!anyTags.isEmpty()) {
+                RoaringBitmap union = FastAggregation.or(bitmapsOf(anyTags).iterator());
+                if (result == null) {
+                    result = RoaringBitmap.and(union, scope);
+                } else {
+                    result.and(union);
+                }
+            }
+            if (result == null) {
+                result = scope.clone();
+            }
+            if (!noneTags.isEmpty() && !result.isEmpty()) {
+                result.andNot(FastAggregation.or(bitmapsOf(noneTags).iterator()));
+            }
+            if (cursor > 0) {
+                result.remove(cursor, 0x100000000L);
+            }
+
+            int[] postIds = new int[Math.min(limit, result.getCardinality())];
+            IntIterator iterator = result.getReverseIntIterator();
+            for (int i = 0; i < postIds.length; i++) {
+                postIds[i] = iterator.next();
+            }
+            return postIds;
+        }
+
+        private List<RoaringBitmap> bitmapsOf(Set<String> tags) {
+            List<RoaringBitmap> bitmaps = new ArrayList<>(tags.size());
+            for (String tag : tags) {
+                RoaringBitmap bitmap = postsByTag.get(tag);
+                if (bitmap != null) {
+                    bitmaps.add(bitmap);
+                }
+            }
+            return bitmaps;
+        }
+
+        private void link(String name, int postId) {
+            RoaringBitmap bitmap = postsByTag.computeIfAbsent(name, tag -> new RoaringBitmap());
+            if (!bitmap.checkedAdd(postId)) {
+                duplicateLinks.computeIfAbsent(name, tag -> new IntIntHashMap()).addTo(postId, 1);
+            }
+        }
+
+        private void unlink(String name, int postId) {
+            IntIntHashMap duplicates = duplicateLinks.get(name);
+            if (duplicates != null && duplicates.get(postId, 0) > 0) {
+                if (duplicates.addTo(postId, -1) == 0) {
+                    duplicates.remove(postId);
+                    if (duplicates.size() == 0) {
+                        duplicateLinks.remove(name);
+                    }
+                }
+                return;
+            }
+            RoaringBitmap bitmap = postsByTag.get(name);
+            if (bitmap != null) {
+                bitmap.remove(postId);
+                if (bitmap.isEmpty()) {
+                    postsByTag.remove(name);
+                }
+            }
+        }
+
+        private void removeFromCategory(int postId, int categoryId) {
+            RoaringBitmap bitmap = postsByCategory.get(categoryId);
+            if (bitmap != null) {
+                bitmap.remove(postId);
+                if (bitmap.isEmpty()) {
+                    postsByCategory.remove(categoryId);
+                }
+            }
+        }
+    }
+
+    private record TagLink(String name, int postId) {
+    }
+}
@@ -0,0 +1,94 @@
+package com.dustin.boardserver.search;
+
+// 점수가 높은 상위 K개의 게시물만 유지하는 최소 힙입니다.
+// 박싱 없이 int/float 배열로만 동작하며, 힙이 가득 찬 뒤에는 최소 점수보다 낮은 후보를 O(1)에 버립니다.
+// 점수가 같으면 ID가 큰(더 최근에 작성된) 게시물을 우선합니다.
+class TopKHeap {
+    private final int[] docs;
+    private final float[] scores;
+    private int size;
+
+    TopKHeap(int k) {
+        docs = new int[k];
+        scores = new float[k];
+    }
+
+    boolean isFull() {
+        return size == docs.length;
+    }
+
+    // 힙에 들어가기 위해 넘어야 하는 최소 점수입니다. 힙이 가득 차기 전에는 0입니다.
+    float threshold() {
+        return isFull() ? scores[0] : 0f;
+    }
+
+    void offer(int doc, float score) {
+        if (size < docs.length) {
+            docs[size] = doc;
+            scores[size] = score;
+            siftUp(size++);
+        } else if (greater(doc, score, docs[0], scores[0])) {
+            docs[0] = doc;
+            scores[0] = score;
+            siftDown(0);
+        }
+    }
+
+    // 점수 내림차순으로 정렬된 게시물 ID 배열을 반환합니다. 호출 후 힙은 비워집니다.
+    int[] drainDescending() {
+        int[] result = new int[size];
+        for (int i = size - 1; i >= 0; i--) {
+            result[i] = docs[0];
+            size--;
+            if (size > 0) {
+                docs[0] = docs[size];
+                scores[0] = scores[size];
+                siftDown(0);
+            }
+        }
+        return result;
+    }
+
+    private void siftUp(int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!greater(docs[parent], scores[parent], docs[i], scores[i])) {
+                break;
+            }
+            swap(i, parent);
+            i = parent;
+        }
+    }
+
+    private void siftDown(int i) {
+        while (true) {
+            int left = 2 * i + 1;
+            if (left >= size) {
+                return;
+            }
+            int smallest = left;
+            int right = left + 1;
+            if (right < size && greater(docs[left], scores[left], docs[right], scores[right])) {
+                smallest = right;
+            }
+            if (!greater(docs[i], scores[i], docs[smallest], scores[smallest])) {
+                return;
+            }
+            swap(i, smallest);
+            i = smallest;
+        }
+    }
+
+    private static boolean greater(int docA, float scoreA, int docB, float scoreB) {
+        return scoreA > scoreB || (scoreA == scoreB && docA > docB);
+    }
+
+    private void swap(int a, int b) {
+        int doc = docs[a];
+        docs[a] = docs[b];
+        docs[b] = doc;
+        float score = scores[a];
+        scores[a] = scores[b];
+        scores[b] = score;
+    }
+}
@@ -3,6 +3,8 @@ package com.dustin.boardserver.service;
 
 import com.dustin.boardserver.dto.CategoryDTO;
 
+import java.util.List;
+
 public interface CategoryService {
 
     void register(String accountId, CategoryDTO categoryDTO);
@@ -10,4 +12,6 @@ public interface CategoryService {
     void update(CategoryDTO categoryDTO);
 
     void delete(int categoryId);
+
+    List<CategoryDTO> getCategories();
 }
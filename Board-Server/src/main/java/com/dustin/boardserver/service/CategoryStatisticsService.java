@@ -0,0 +1,19 @@
+package com.dustin.boardserver.service;
+
+
+import java.util.Map;
+
+public interface CategoryStatisticsService {
+
+    void increment(int categoryId, int delta);
+
+    void increment(Map<Integer, Integer> deltas);
+
+    void moveCategory(int beforeCategoryId, int afterCategoryId);
+
+    void removeCategory(int categoryId);
+
+    Map<Integer, Long> getPostCounts();
+
+    void reconcile();
+}
@@ -0,0 +1,11 @@
+package com.dustin.boardserver.service;
+
+
+import java.io.OutputStream;
+
+public interface PostExportService {
+
+    long exportMyProducts(int accountId, OutputStream outputStream);
+
+    long exportCategory(int categoryId, OutputStream outputStream);
+}
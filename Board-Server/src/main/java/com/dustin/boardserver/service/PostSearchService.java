@@ -2,10 +2,18 @@ package com.dustin.boardserver.service;
 
 
 import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.PostPageDTO;
 import com.dustin.boardserver.dto.request.PostSearchRequest;
 
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 public interface PostSearchService {
-    List<PostDTO> getProducts(PostSearchRequest postSearchRequest);
+    CompletableFuture<PostPageDTO> getProducts(PostSearchRequest postSearchRequest);
+
+    String getProductsVersion(PostSearchRequest postSearchRequest);
+
+    List<PostDTO> searchByKeyword(String keyword, int categoryId, int size);
+
+    PostPageDTO searchByTags(List<String> all, List<String> any, List<String> none, int categoryId, int cursor, int size);
 }
@@ -2,6 +2,7 @@ package com.dustin.boardserver.service;
 
 
 import com.dustin.boardserver.dto.CommentDTO;
+import com.dustin.boardserver.dto.CommentPageDTO;
 import com.dustin.boardserver.dto.PostDTO;
 import com.dustin.boardserver.dto.TagDTO;
 
@@ -11,20 +12,32 @@ public interface PostService {
 
     void register(String id, PostDTO postDTO);
 
+    List<PostDTO> registerBulk(String id, List<PostDTO> postDTOList);
+
     List<PostDTO> getMyProducts(int accountId);
 
+    String getMyProductsVersion(int accountId);
+
+    PostDTO getPost(int postId);
+
     void updateProducts(PostDTO postDTO);
 
     void deleteProduct(int userId, int productId);
 
     void registerComment(CommentDTO commentDTO);
 
+    List<CommentDTO> registerCommentsBulk(List<CommentDTO> commentDTOList);
+
+    CommentPageDTO getComments(int postId, int cursor, int size);
+
     void updateComment(CommentDTO commentDTO);
 
     void deletePostComment(int userId, int commentId);
 
     void registerTag(TagDTO tagDTO);
 
+    List<TagDTO> registerTagsBulk(List<TagDTO> tagDTOList);
+
     void updateTag(TagDTO tagDTO);
 
     void deletePostTag(int userId, int tagId);
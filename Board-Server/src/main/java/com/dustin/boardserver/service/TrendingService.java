@@ -0,0 +1,21 @@
+package com.dustin.boardserver.service;
+
+
+import com.dustin.boardserver.dto.PostDTO;
+
+import java.util.List;
+
+public interface TrendingService {
+
+    void recordPost(PostDTO postDTO);
+
+    void recordView(int postId, int categoryId);
+
+    void recordComment(int postId, int categoryId);
+
+    void moveCategory(int postId, int beforeCategoryId, int afterCategoryId);
+
+    void remove(int postId, int categoryId);
+
+    List<PostDTO> getTrending(int categoryId, int size);
+}
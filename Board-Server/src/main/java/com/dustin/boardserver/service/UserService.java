@@ -2,6 +2,9 @@ package com.dustin.boardserver.service;
 
 import com.dustin.boardserver.dto.UserDTO;
 
+import java.util.Collection;
+import java.util.Map;
+
 public interface UserService {
 
     void register(UserDTO userProfile);
@@ -10,8 +13,12 @@ public interface UserService {
 
     boolean isDuplicatedId(String id);
 
+    boolean isDuplicatedNickName(String nickName);
+
     UserDTO getUserInfo(String userId);
 
+    Map<Integer, UserDTO> getUserInfos(Collection<Integer> ids);
+
     void updatePassword(String id, String beforePassword, String afterPassword);
 
     void deleteId(String id, String passWord);
@@ -9,6 +9,9 @@ import lombok.extern.log4j.Log4j2;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 
+import java.util.List;
+import java.util.Map;
+
 // 이 클래스는 CategoryService 인터페이스의 구현체로, 카테고리와 관련된 비즈니스 로직을 처리합니다.
 @Service
 @Log4j2 // 로그를 사용하기 위해 Lombok의 @Log4j2 어노테이션을 사용합니다.
@@ -17,9 +20,13 @@ public class CategoryServiceImpl implements CategoryService {
     // 카테고리와 관련된 데이터베이스 작업을 수행하기 위한 매퍼 객체를 선언합니다.
     private CategoryMapper categoryMapper;
 
+    // 카테고리별 게시물 수를 관리하는 서비스입니다.
+    private CategoryStatisticsServiceImpl categoryStatisticsService;
+
     // CategoryServiceImpl 클래스의 생성자입니다. CategoryMapper 객체를 주입받아 초기화합니다.
-    public CategoryServiceImpl(CategoryMapper categoryMapper) {
+    public CategoryServiceImpl(CategoryMapper categoryMapper, CategoryStatisticsServiceImpl categoryStatisticsService) {
         this.categoryMapper = categoryMapper;
+        this.categoryStatisticsService = categoryStatisticsService;
     }
 
     // 카테고리를 등록하는 메서드입니다. accountId가 null이 아니면 카테고리를 등록하고, 예외가 발생하면 로그를 남기고 BoardServerException을 던집니다.
@@ -60,6 +67,7 @@ public class CategoryServiceImpl implements CategoryService {
         if (categoryId != 0) { // categoryId가 0이 아닌지 확인합니다.
             try {
                 categoryMapper.deleteCategory(categoryId); // 카테고리를 삭제합니다.
+                categoryStatisticsService.removeCategory(categoryId); // 게시물 수도 함께 지웁니다.
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("delete 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -69,4 +77,23 @@ public class CategoryServiceImpl implements CategoryService {
             throw new RuntimeException("deleteCategory ERROR! 물품 카테고리 삭제 메서드를 확인해주세요\n" + "Params : " + categoryId); // 예외를 던집니다.
         }
     }
+
+    // 카테고리 목록을 게시물 수(searchCount)와 함께 반환하는 메서드입니다.
+    // 게시물 수는 Redis hash에서 읽으므로 post 테이블을 조회하지 않습니다.
+    @Override
+    public List<CategoryDTO> getCategories() {
+        List<CategoryDTO> categoryDTOList = null;
+        try {
+            categoryDTOList = categoryMapper.selectCategories(); // 카테고리 목록을 조회합니다.
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("selectCategories 실패"); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        }
+        Map<Integer, Long> postCounts = categoryStatisticsService.getPostCounts();
+        for (CategoryDTO categoryDTO : categoryDTOList) {
+            long postCount = Math.max(0, postCounts.getOrDefault(categoryDTO.getId(), 0L));
+            categoryDTO.setSearchCount((int) Math.min(Integer.MAX_VALUE, postCount));
+        }
+        return categoryDTOList;
+    }
 }
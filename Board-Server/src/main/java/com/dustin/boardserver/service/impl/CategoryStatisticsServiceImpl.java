@@ -0,0 +1,147 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.dto.CategoryDTO;
+import com.dustin.boardserver.mapper.CategoryMapper;
+import com.dustin.boardserver.service.CategoryStatisticsService;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+// 카테고리별 게시물 수를 Redis hash에 유지하는 서비스입니다.
+//
+// - 게시물이 등록/삭제되거나 카테고리를 옮길 때 HINCRBY로 바로 더하고 빼므로, 조회할 때 post 테이블을 COUNT(*)로 읽지 않습니다.
+// - 증감 중 Redis 장애나 서버 종료로 값이 어긋날 수 있으므로 reconcileMillis마다 MySQL의 실제 개수로 다시 맞춥니다.
+//   다시 맞추는 동안 반영된 증감은 잠시 빠질 수 있지만 다음 주기에 바로잡힙니다.
+// - 기동 시 hash가 없으면 바로 한 번 맞춥니다.
+//
+// 키: category:postCount (field: 카테고리 ID, value: 게시물 수)
+@Service
+@Log4j2
+public class CategoryStatisticsServiceImpl implements CategoryStatisticsService {
+    private static final String POST_COUNT_KEY = "category:postCount";
+
+    // KEYS: 게시물 수 hash
+    // ARGV: 카테고리 ID, 게시물 수를 번갈아 나열합니다.
+    // 삭제와 다시 쓰기를 한 스크립트에서 실행하므로, 조회하는 쪽에서 비어 있는 hash를 보지 않습니다.
+    private static final RedisScript<Long> REPLACE_SCRIPT = new DefaultRedisScript<>("""
+            redis.call('del', KEYS[1])
+            for i = 1, #ARGV, 2 do
+                redis.call('hset', KEYS[1], ARGV[i], ARGV[i + 1])
+            end
+            return #ARGV / 2
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final CategoryMapper categoryMapper;
+
+    public CategoryStatisticsServiceImpl(StringRedisTemplate redisTemplate, CategoryMapper categoryMapper) {
+        this.redisTemplate = redisTemplate;
+        this.categoryMapper = categoryMapper;
+    }
+
+    // Redis 장애로 실패해도 게시물 요청은 실패시키지 않습니다. 어긋난 값은 reconcile에서 바로잡습니다.
+    @Override
+    public void increment(int categoryId, int delta) {
+        if (delta == 0) {
+            return;
+        }
+        try {
+            redisTemplate.opsForHash().increment(POST_COUNT_KEY, String.valueOf(categoryId), delta);
+        } catch (RuntimeException e) {
+            log.error("카테고리 게시물 수 반영 실패 : categoryId={}", categoryId, e);
+        }
+    }
+
+    // 여러 카테고리의 증감을 한 번의 파이프라인으로 반영합니다. (일괄 등록)
+    @Override
+    public void increment(Map<Integer, Integer> deltas) {
+        if (deltas.isEmpty()) {
+            return;
+        }
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                byte[] key = POST_COUNT_KEY.getBytes(StandardCharsets.UTF_8);
+                deltas.forEach((categoryId, delta) ->
+                        connection.hashCommands().hIncrBy(key, String.valueOf(categoryId).getBytes(StandardCharsets.UTF_8), delta));
+                return null;
+            });
+        } catch (RuntimeException e) {
+            log.error("카테고리 게시물 수 반영 실패 : {}", deltas, e);
+        }
+    }
+
+    @Override
+    public void moveCategory(int beforeCategoryId, int afterCategoryId) {
+        if (beforeCategoryId == afterCategoryId) {
+            return;
+        }
+        increment(Map.of(beforeCategoryId, -1, afterCategoryId, 1));
+    }
+
+    @Override
+    public void removeCategory(int categoryId) {
+        try {
+            redisTemplate.opsForHash().delete(POST_COUNT_KEY, String.valueOf(categoryId));
+        } catch (RuntimeException e) {
+            log.error("카테고리 게시물 수 삭제 실패 : categoryId={}", categoryId, e);
+        }
+    }
+
+    // 카테고리 ID별 게시물 수입니다. 게시물이 없는 카테고리는 포함되지 않을 수 있습니다.
+    @Override
+    public Map<Integer, Long> getPostCounts() {
+        Map<Object, Object> entries;
+        try {
+            entries = redisTemplate.opsForHash().entries(POST_COUNT_KEY);
+        } catch (RuntimeException e) {
+            log.error("카테고리 게시물 수 조회 실패", e);
+            return Collections.emptyMap();
+        }
+        Map<Integer, Long> postCounts = new HashMap<>();
+        entries.forEach((categoryId, count) ->
+                postCounts.put(Integer.valueOf((String) categoryId), Long.valueOf((String) count)));
+        return postCounts;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void reconcileOnStartup() {
+        try {
+            if (!Boolean.TRUE.equals(redisTemplate.hasKey(POST_COUNT_KEY))) {
+                reconcile();
+            }
+        } catch (RuntimeException e) {
+            log.error("카테고리 게시물 수 확인 실패", e);
+        }
+    }
+
+    // MySQL의 카테고리별 게시물 수로 hash 전체를 다시 씁니다. (post.categoryId 인덱스만 읽습니다.)
+    @Override
+    @Scheduled(fixedDelayString = "${category.count.reconcileMillis:600000}",
+            initialDelayString = "${category.count.reconcileMillis:600000}")
+    public void reconcile() {
+        try {
+            List<CategoryDTO> counts = categoryMapper.selectPostCountsByCategory();
+            List<String> args = new ArrayList<>(counts.size() * 2);
+            for (CategoryDTO count : counts) {
+                args.add(String.valueOf(count.getId()));
+                args.add(String.valueOf(count.getSearchCount()));
+            }
+            redisTemplate.execute(REPLACE_SCRIPT, Collections.singletonList(POST_COUNT_KEY), args.toArray());
+        } catch (RuntimeException e) {
+            log.error("카테고리 게시물 수 재계산 실패", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.dto.CommentDTO;
+import com.dustin.boardserver.dto.CommentTreeDTO;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.CommentMapper;
+import com.dustin.boardserver.utils.IntIntHashMap;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 게시물의 댓글을 한 번의 쿼리로 읽어 답글 트리로 조립하고, 게시물 단위로 캐시하는 클래스입니다.
+// 캐시 키가 게시물 ID 하나이므로 댓글이 바뀌면 그 게시물의 엔트리만 정확히 지울 수 있습니다.
+// (같은 클래스 안에서 호출하면 프록시를 거치지 않아 캐시가 적용되지 않으므로 PostServiceImpl과 클래스를 나누었습니다.)
+@Component
+@Log4j2
+public class CommentTreeReader {
+
+    @Autowired
+    private CommentMapper commentMapper;
+
+    // 게시물의 루트 댓글 목록을 ID 오름차순으로 반환합니다. 각 루트 댓글은 모든 답글을 포함합니다.
+    @Cacheable(value = "postComments", key = "#postId", sync = true)
+    public List<CommentTreeDTO> getCommentTree(int postId) {
+        List<CommentDTO> commentDTOList = null;
+        try {
+            commentDTOList = commentMapper.selectCommentsByPostId(postId);
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("selectCommentsByPostId 실패"); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        }
+        return assemble(commentDTOList);
+    }
+
+    // 댓글이 등록/변경/삭제되면 해당 게시물의 캐시 엔트리를 지웁니다.
+    @CacheEvict(value = "postComments", key = "#postId")
+    public void evict(int postId) {
+    }
+
+    // ID 오름차순으로 정렬된 댓글로 트리를 만듭니다. (O(n))
+    // 먼저 모든 댓글의 노드를 만든 뒤 각 댓글을 부모의 답글로 붙이므로, 부모의 ID가 자식보다 커도 트리를 만들 수 있습니다.
+    // 부모가 삭제되었거나 자기 자신을 부모로 가리키는 댓글은 루트로 취급합니다.
+    // 잘못된 데이터로 부모를 따라가다 순환이 생기면, 순환에서 가장 먼저 나오는(ID가 가장 작은) 댓글을 루트로 올려 끊습니다.
+    static List<CommentTreeDTO> assemble(List<CommentDTO> commentDTOList) {
+        int size = commentDTOList.size();
+        List<CommentTreeDTO> nodes = new ArrayList<>(size);
+        IntIntHashMap indexById = new IntIntHashMap(size);
+        for (CommentDTO commentDTO : commentDTOList) {
+            indexById.put(commentDTO.getId(), nodes.size());
+            nodes.add(new CommentTreeDTO(commentDTO));
+        }
+
+        // 댓글별 부모의 위치입니다. 루트는 -1입니다.
+        int[] parents = new int[size];
+        for (int i = 0; i < size; i++) {
+            int subCommentId = commentDTOList.get(i).getSubCommentId();
+            int parent = subCommentId != 0 ? indexById.get(subCommentId, -1) : -1;
+            parents[i] = parent == i ? -1 : parent;
+        }
+        breakCycles(parents);
+
+        List<CommentTreeDTO> roots = new ArrayList<>();
+        for (int i = 0; i < size; i++) {
+            if (parents[i] < 0) {
+                roots.add(nodes.get(i));
+            } else {
+                nodes.get(parents[i]).getReplies().add(nodes.get(i));
+            }
+        }
+        return roots;
+    }
+
+    // 각 댓글에서 부모를 따라 올라가며 이미 확인한 댓글이나 루트를 만날 때까지 경로를 기록합니다.
+    // 경로 안의 댓글을 다시 만나면 순환이므로, 순환에서 위치가 가장 앞선 댓글의 부모를 지웁니다.
+    private static void breakCycles(int[] parents) {
+        // 0: 확인 전, 1: 현재 경로, 2: 확인 완료
+        byte[] states = new byte[parents.length];
+        int[] path = new int[parents.length];
+        for (int i = 0; i < parents.length; i++) {
+            int length = 0;
+            int node = i;
+            while (node >= 0 && states[node] == 0) {
+                states[node] = 1;
+                path[length++] = node;
+                node = parents[node];
+            }
+            if (node >= 0 && states[node] == 1) {
+                int first = node;
+                for (int k = length - 1; path[k] != node; k--) {
+                    first = Math.min(first, path[k]);
+                }
+                parents[first] = -1;
+            }
+            for (int k = 0; k < length; k++) {
+                states[path[k]] = 2;
+            }
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.PostMapper;
+import com.dustin.boardserver.service.PostExportService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.log4j.Log4j2;
+import org.apache.ibatis.cursor.Cursor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.concurrent.Semaphore;
+import java.util.function.Supplier;
+import java.util.stream.IntStream;
+
+// 게시물을 NDJSON(한 줄에 게시물 하나의 JSON)으로 응답에 바로 써 내보내는 서비스입니다.
+//
+// - MyBatis Cursor로 fetchSize(1000)행씩 읽고, 한 행씩 JSON으로 써서 결과 전체를 List로 만들지 않습니다.
+//   메모리에는 fetchSize만큼의 행과 JsonGenerator의 출력 버퍼만 남으므로 결과 크기와 상관없이 일정합니다.
+//   클라이언트가 느리면 응답 쓰기가 막히고, 그동안 다음 행을 읽지 않습니다.
+// - flushRows행마다 flush하여 클라이언트가 받은 만큼 바로 처리할 수 있게 합니다.
+// - 클라이언트가 연결을 끊으면 쓰기에서 IOException이 발생하고, 이때 Cursor를 닫아 남은 행을 읽지 않습니다.
+//   (useCursorFetch=true이므로 서버 측 커서를 닫을 때 남은 행을 받아 버리지 않습니다)
+// - Cursor는 SqlSession이 열려 있는 동안만 읽을 수 있으므로 읽기 전용 트랜잭션 안에서 실행합니다. (복제본이 있으면 복제본에서 읽습니다)
+// - 내보내기는 끝날 때까지 요청 스레드와 DB 커넥션을 붙잡으므로 동시에 maxConcurrent개까지만 실행합니다.
+// - 샤드가 여럿이면 내 게시물은 작성자의 샤드만 읽고, 카테고리는 샤드를 차례로 읽습니다. (ShardRouter 참고)
+//   트랜잭션은 한 샤드에서만 열 수 있으므로 샤드마다 읽기 전용 트랜잭션을 엽니다.
+// 지표: post.export{type}(소요 시간), post.export.rows{type}(내보낸 행 수), post.export.cancelled{type}(연결이 끊겨 중단된 수)
+@Service
+@Log4j2
+public class PostExportServiceImpl implements PostExportService {
+    private final PostMapper postMapper;
+    private final ShardRouter shardRouter;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final ObjectWriter postWriter;
+    private final Semaphore permits;
+    private final int flushRows;
+    private final MeterRegistry meterRegistry;
+
+    public PostExportServiceImpl(PostMapper postMapper, ShardRouter shardRouter, PlatformTransactionManager transactionManager,
+                                 ObjectMapper objectMapper, MeterRegistry meterRegistry,
+                                 @Value("${export.maxConcurrent:4}") int maxConcurrent,
+                                 @Value("${export.flushRows:500}") int flushRows) {
+        this.postMapper = postMapper;
+        this.shardRouter = shardRouter;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        // 행마다 네트워크로 내보내지 않도록 writeValue 후 자동 flush를 끕니다.
+        this.postWriter = objectMapper.writerFor(PostDTO.class).without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        this.permits = new Semaphore(maxConcurrent);
+        this.flushRows = flushRows;
+        this.meterRegistry = meterRegistry;
+    }
+
+    // 사용자의 게시물을 ID 순서로 내보냅니다. 내보낸 행 수를 반환합니다.
+    // 샤딩 전의 게시물이 있으면 0번 샤드의 게시물(ID가 더 작습니다)을 먼저 내보냅니다. (ShardRouter.shardsOfUser 참고)
+    @Override
+    public long exportMyProducts(int accountId, OutputStream outputStream) {
+        int[] shards = shardRouter.shardsOfUser(accountId);
+        return export("myProducts", shards, () -> postMapper.streamMyProducts(accountId), outputStream);
+    }
+
+    // 카테고리의 게시물을 샤드 순서대로, 샤드 안에서는 ID 순서로 내보냅니다. 내보낸 행 수를 반환합니다.
+    @Override
+    public long exportCategory(int categoryId, OutputStream outputStream) {
+        int[] shards = IntStream.range(0, shardRouter.shardCount()).toArray();
+        return export("category", shards, () -> postMapper.streamPostsByCategory(categoryId), outputStream);
+    }
+
+    private long export(String type, int[] shards, Supplier<Cursor<PostDTO>> query, OutputStream outputStream) {
+        if (!permits.tryAcquire()) {
+            throw new BoardServerException(HttpStatus.TOO_MANY_REQUESTS, "동시에 실행 중인 내보내기가 너무 많습니다.");
+        }
+        Timer.Sample sample = Timer.start(meterRegistry);
+        try {
+            Progress progress = new Progress();
+            for (int shard : shards) {
+                if (progress.cancelled) {
+                    break;
+                }
+                shardRouter.runOnShard(shard, () -> readOnlyTransaction.executeWithoutResult(
+                        status -> write(type, query.get(), outputStream, progress)));
+            }
+            meterRegistry.counter("post.export.rows", "type", type).increment(progress.rows);
+            return progress.rows;
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("export 실패 : {}", type); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        } finally {
+            sample.stop(meterRegistry.timer("post.export", "type", type));
+            permits.release();
+        }
+    }
+
+    private void write(String type, Cursor<PostDTO> cursor, OutputStream outputStream, Progress progress) {
+        try (cursor; JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            // 응답 스트림은 서블릿 컨테이너가 닫습니다.
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            for (PostDTO postDTO : cursor) {
+                postWriter.writeValue(generator, postDTO);
+                generator.writeRaw('\n');
+                if (++progress.rows % flushRows == 0) {
+                    generator.flush();
+                }
+            }
+        } catch (IOException e) {
+            // 클라이언트가 연결을 끊었습니다. try-with-resources가 Cursor를 닫아 조회를 멈춥니다.
+            progress.cancelled = true;
+            meterRegistry.counter("post.export.cancelled", "type", type).increment();
+            log.info("export 중단, 클라이언트 연결 종료 : {} {} rows", type, progress.rows);
+        }
+    }
+
+    // 여러 샤드를 이어서 내보낼 때 지금까지 내보낸 행 수와 중단 여부입니다.
+    private static final class Progress {
+        private long rows;
+        private boolean cancelled;
+    }
+}
@@ -0,0 +1,94 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.aop.ReplicaRead;
+import com.dustin.boardserver.cache.SearchCacheGeneration;
+import com.dustin.boardserver.datasource.ReplicaRoutingContext;
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.PostPageDTO;
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import com.dustin.boardserver.utils.PostCursorUtil;
+import com.dustin.boardserver.utils.PostSearchNormalizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// 게시글 검색 결과를 DB에서 읽고 캐시하는 클래스입니다.
+// @Async 메서드의 반환값(CompletableFuture)은 캐시에 저장할 수 없으므로,
+// 캐시는 이 클래스의 동기 메서드에 적용하고 PostSearchServiceImpl이 검색 전용 스레드 풀에서 이 메서드를 호출합니다.
+// (같은 클래스 안에서 호출하면 프록시를 거치지 않아 캐시가 적용되지 않으므로 클래스를 나누었습니다.)
+@Component
+@Log4j2
+public class PostSearchReader {
+
+    // PostSearchMapper를 주입받아 사용할 수 있도록 필드를 선언합니다.
+    @Autowired
+    private PostSearchMapper productSearchMapper;
+
+    // 검색 캐시의 카테고리별 세대 번호입니다. 최근에 바뀐 카테고리는 primary에서 읽는 데 사용합니다.
+    @Autowired
+    private SearchCacheGeneration searchCacheGeneration;
+
+    // 카테고리의 세대 번호가 바뀐 뒤 이 시간(ms) 동안은 복제본 대신 primary에서 읽습니다.
+    @Value("${datasource.replica.readYourWritesMillis:3000}")
+    private long readYourWritesMillis;
+
+    // 페이지 크기를 지정하지 않았을 때 사용할 기본 페이지 크기입니다.
+    @Value("${search.page.defaultSize:20}")
+    private int defaultPageSize;
+
+    // 클라이언트가 요청할 수 있는 최대 페이지 크기입니다. 한 번에 너무 많은 행을 읽지 않도록 서버에서 제한합니다.
+    @Value("${search.page.maxSize:100}")
+    private int maxPageSize;
+
+    // 게시글 검색 메서드입니다. 캐싱이 적용됩니다.
+    @Cacheable(value = "getProducts", keyGenerator = "postSearchKeyGenerator", sync = true)
+    // 캐싱을 적용하여 동일한 검색 요청에 대해 캐시에 저장된 데이터를 반환하도록 합니다.
+    // 키는 요청의 모든 필드를 정규화한 지문이며, 앞에 카테고리의 세대 번호가 붙어 있어
+    // 해당 카테고리에 게시물이 변경되면 이전 결과는 더 이상 조회되지 않습니다. (PostSearchKeyGenerator 참고)
+    // sync = true: 캐시가 만료된 순간 같은 검색이 동시에 들어와도 DB 조회는 한 번만 실행됩니다. (TwoLevelCache 참고)
+    // @ReplicaRead: 캐시 미스 시 조회는 복제본에서 실행됩니다. lagCheck를 켜면 지연이 maxLagSecond를 넘는 복제본은 사용하지 않습니다.
+    // 다만 세대 번호가 바뀐 직후에 복제본에서 읽으면 변경 전 결과가 새 세대의 키로 캐시되어 TTL 동안 남으므로,
+    // 바뀐 뒤 readYourWritesMillis 동안은 primary에서 읽습니다.
+    @ReplicaRead
+    public PostPageDTO getProducts(PostSearchRequest postSearchRequest) {
+        // 캐시 키와 같은 규칙으로 요청을 정규화합니다.
+        SortStatus sortStatus = PostSearchNormalizer.sortStatus(postSearchRequest.getSortStatus());
+        postSearchRequest.setSortStatus(sortStatus);
+        postSearchRequest.setName(PostSearchNormalizer.text(postSearchRequest.getName()));
+        postSearchRequest.setContents(PostSearchNormalizer.text(postSearchRequest.getContents()));
+        int pageSize = PostSearchNormalizer.pageSize(postSearchRequest.getSize(), defaultPageSize, maxPageSize);
+        PostCursor cursor = PostCursorUtil.decode(postSearchRequest.getCursor(), sortStatus);
+
+        boolean recentlyChanged = searchCacheGeneration.changedWithin(postSearchRequest.getCategoryId(), readYourWritesMillis);
+        Boolean previousReadOnly = recentlyChanged ? ReplicaRoutingContext.setReadOnly(false) : null;
+        List<PostDTO> postDTOList = null; // 검색 결과를 담을 리스트를 선언합니다.
+        try {
+            // 다음 페이지가 있는지 알기 위해 한 건을 더 조회합니다.
+            postDTOList = productSearchMapper.selectPosts(postSearchRequest, cursor, pageSize + 1);
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("selectPosts 실패"); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        } finally {
+            if (recentlyChanged) {
+                ReplicaRoutingContext.restoreReadOnly(previousReadOnly);
+            }
+        }
+
+        String nextCursor = null;
+        if (postDTOList.size() > pageSize) {
+            postDTOList = new ArrayList<>(postDTOList.subList(0, pageSize));
+            nextCursor = PostCursorUtil.encode(sortStatus, postDTOList.get(pageSize - 1));
+        }
+        return new PostPageDTO(postDTOList, nextCursor); // 검색 결과를 반환합니다.
+    }
+}
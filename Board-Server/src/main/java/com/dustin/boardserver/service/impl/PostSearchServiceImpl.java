@@ -1,19 +1,32 @@
 package com.dustin.boardserver.service.impl;
 
 // 필요한 패키지와 클래스들을 임포트합니다.
+import com.dustin.boardserver.cache.PostSearchKeyGenerator;
 import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.PostPageDTO;
+import com.dustin.boardserver.dto.SortStatus;
 import com.dustin.boardserver.dto.request.PostSearchRequest;
 import com.dustin.boardserver.exception.BoardServerException;
 import com.dustin.boardserver.mapper.PostSearchMapper;
+import com.dustin.boardserver.search.PostSearchIndex;
+import com.dustin.boardserver.search.TagPostIndex;
 import com.dustin.boardserver.service.PostSearchService;
+import com.dustin.boardserver.utils.ETagUtil;
+import com.dustin.boardserver.utils.PostSearchNormalizer;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.Cacheable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 // 이 클래스는 PostSearchService 인터페이스의 구현체로, 게시글 검색과 관련된 비즈니스 로직을 처리합니다.
 @Service
@@ -24,19 +37,117 @@ public class PostSearchServiceImpl implements PostSearchService {
     @Autowired
     private PostSearchMapper productSearchMapper;
 
-    // 게시글 검색 메서드입니다. 비동기로 실행되며, 캐싱이 적용됩니다.
-    @Async // 비동기로 메서드를 실행하기 위해 @Async 어노테이션을 사용합니다.
-    @Cacheable(value = "getProducts", key = "'getProducts' + #postSearchRequest.getName() + #postSearchRequest.getCategoryId()")
-    // 캐싱을 적용하여 동일한 검색 요청에 대해 캐시에 저장된 데이터를 반환하도록 합니다.
+    // 캐시가 적용된 게시글 검색입니다.
+    @Autowired
+    private PostSearchReader postSearchReader;
+
+    // 게시물 제목/본문 역색인입니다. 키워드 검색에 사용합니다.
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    // 태그 → 게시물 비트맵 색인입니다. 태그 검색에 사용합니다.
+    @Autowired
+    private TagPostIndex tagPostIndex;
+
+    // 검색 캐시 키를 만드는 KeyGenerator입니다. 검색 결과의 버전(ETag)에도 사용합니다.
+    @Autowired
+    private PostSearchKeyGenerator postSearchKeyGenerator;
+
+    // ETag가 최소한 이 주기로 바뀌도록 하는 시간(초)입니다. (ETagUtil.epoch 참고)
+    @Value("${etag.rotateSecond:600}")
+    private long etagRotateSecond;
+
+    // 페이지 크기를 지정하지 않았을 때 사용할 기본 페이지 크기입니다.
+    @Value("${search.page.defaultSize:20}")
+    private int defaultPageSize;
+
+    // 클라이언트가 요청할 수 있는 최대 페이지 크기입니다. 한 번에 너무 많은 행을 읽지 않도록 서버에서 제한합니다.
+    @Value("${search.page.maxSize:100}")
+    private int maxPageSize;
+
+    // 게시글 검색 메서드입니다. 검색 전용 스레드 풀(searchExecutor)에서 실행되므로
+    // 요청 스레드는 DB 조회를 기다리지 않고 바로 반환됩니다. 캐시는 PostSearchReader에서 적용됩니다.
+    @Async("searchExecutor")
+    @Override
+    public CompletableFuture<PostPageDTO> getProducts(PostSearchRequest postSearchRequest) {
+        return CompletableFuture.completedFuture(postSearchReader.getProducts(postSearchRequest));
+    }
+
+    // 검색 결과의 버전입니다. 검색 캐시 키(카테고리 세대 번호 + 정규화한 요청의 지문)로 만들므로,
+    // 같은 버전이면 같은 캐시 엔트리를 가리키고, 해당 카테고리의 게시물이 바뀌면 버전도 바뀝니다.
+    // DB나 검색 캐시를 조회하지 않으므로 If-None-Match 확인에 사용합니다. Redis 장애로 알 수 없으면 null입니다.
     @Override
-    public List<PostDTO> getProducts(PostSearchRequest postSearchRequest) {
-        List<PostDTO> postDTOList = null; // 검색 결과를 담을 리스트를 선언합니다.
+    public String getProductsVersion(PostSearchRequest postSearchRequest) {
         try {
-            postDTOList = productSearchMapper.selectPosts(postSearchRequest); // 검색 요청을 매퍼를 통해 실행합니다.
+            String key = postSearchKeyGenerator.key(postSearchRequest);
+            return key.substring(key.indexOf(':') + 1) + ":" + ETagUtil.epoch(etagRotateSecond);
+        } catch (RuntimeException e) {
+            log.error("getProductsVersion 실패", e);
+            return null;
+        }
+    }
+
+    // 키워드로 게시물 제목과 본문을 검색하는 메서드입니다. 관련도(BM25) 순으로 최대 size개를 반환합니다.
+    // 색인을 사용하지 않도록 설정되어 있으면 제목 접두어(LIKE) 검색으로 대신합니다.
+    @Override
+    public List<PostDTO> searchByKeyword(String keyword, int categoryId, int size) {
+        int pageSize = PostSearchNormalizer.pageSize(size, defaultPageSize, maxPageSize);
+        if (!postSearchIndex.isEnabled()) {
+            PostSearchRequest postSearchRequest = PostSearchRequest.builder()
+                    .name(keyword)
+                    .categoryId(categoryId)
+                    .sortStatus(SortStatus.NEWEST)
+                    .size(pageSize)
+                    .build();
+            return postSearchReader.getProducts(postSearchRequest).getPostDTOList();
+        }
+
+        int[] postIds = postSearchIndex.search(keyword, categoryId, pageSize);
+        return selectPostsInOrder(postIds);
+    }
+
+    // 태그 조건으로 게시물을 검색하는 메서드입니다. 최신순(ID 내림차순)으로 한 페이지를 반환합니다.
+    // all의 태그를 모두 가지고, any의 태그 중 하나 이상을 가지며, none의 태그는 없는 게시물을 찾습니다.
+    // 다음 페이지는 nextCursor(이전 페이지의 마지막 게시물 ID)를 cursor에 담아 조회합니다.
+    @Override
+    public PostPageDTO searchByTags(List<String> all, List<String> any, List<String> none,
+                                    int categoryId, int cursor, int size) {
+        int pageSize = PostSearchNormalizer.pageSize(size, defaultPageSize, maxPageSize);
+        // 다음 페이지가 있는지 알기 위해 한 개를 더 찾습니다.
+        int[] postIds = tagPostIndex.search(all, any, none, categoryId, cursor, pageSize + 1);
+        boolean hasNext = postIds.length > pageSize;
+        if (hasNext) {
+            postIds = Arrays.copyOf(postIds, pageSize);
+        }
+        String nextCursor = hasNext ? String.valueOf(postIds[pageSize - 1]) : null;
+        return new PostPageDTO(selectPostsInOrder(postIds), nextCursor);
+    }
+
+    // 색인이 찾은 게시물 ID 순서대로 게시물을 조회합니다.
+    private List<PostDTO> selectPostsInOrder(int[] postIds) {
+        if (postIds.length == 0) {
+            return Collections.emptyList();
+        }
+        List<PostDTO> postDTOList = null;
+        try {
+            postDTOList = productSearchMapper.selectPostsByIds(Arrays.stream(postIds).boxed().toList());
         } catch (RuntimeException e) { // 예외가 발생하면
-            log.error("selectPosts 실패"); // 로그를 남기고
+            log.error("selectPostsByIds 실패"); // 로그를 남기고
             throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
         }
-        return postDTOList; // 검색 결과를 반환합니다.
+
+        // IN 조회는 순서를 보장하지 않으므로 색인이 반환한 순서대로 다시 정렬합니다.
+        Map<Integer, PostDTO> postById = new HashMap<>();
+        for (PostDTO postDTO : postDTOList) {
+            postById.put(postDTO.getId(), postDTO);
+        }
+        List<PostDTO> result = new ArrayList<>(postIds.length);
+        for (int postId : postIds) {
+            PostDTO postDTO = postById.get(postId);
+            if (postDTO != null) {
+                result.add(postDTO);
+            }
+        }
+        return result;
     }
 }
@@ -1,24 +1,45 @@
 package com.dustin.boardserver.service.impl;
 
 // 필요한 패키지와 클래스들을 임포트합니다.
+import com.dustin.boardserver.aop.ReplicaRead;
+import com.dustin.boardserver.cache.SearchCacheGeneration;
+import com.dustin.boardserver.cache.UserPostGeneration;
+import com.dustin.boardserver.datasource.ShardRouter;
 import com.dustin.boardserver.dto.CommentDTO;
+import com.dustin.boardserver.dto.CommentPageDTO;
+import com.dustin.boardserver.dto.CommentTreeDTO;
 import com.dustin.boardserver.dto.PostDTO;
 import com.dustin.boardserver.dto.TagDTO;
 import com.dustin.boardserver.dto.UserDTO;
 import com.dustin.boardserver.exception.BoardServerException;
 import com.dustin.boardserver.mapper.CommentMapper;
 import com.dustin.boardserver.mapper.PostMapper;
+import com.dustin.boardserver.mapper.PostSearchMapper;
 import com.dustin.boardserver.mapper.TagMapper;
-import com.dustin.boardserver.mapper.UserProfileMapper;
+import com.dustin.boardserver.search.PostSearchIndex;
+import com.dustin.boardserver.search.TagPostIndex;
 import com.dustin.boardserver.service.PostService;
+import com.dustin.boardserver.utils.ETagUtil;
+import com.dustin.boardserver.utils.PostSearchNormalizer;
+import com.dustin.boardserver.view.PostViewCounter;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.ToIntFunction;
 
 // 이 클래스는 PostService 인터페이스의 구현체로, 게시물과 관련된 비즈니스 로직을 처리합니다.
 @Service
@@ -36,14 +57,62 @@ public class PostServiceImpl implements PostService {
     private TagMapper tagMapper;
 
     @Autowired
-    private UserProfileMapper userProfileMapper;
+    private UserServiceImpl userService;
 
-    // 새로운 게시물을 등록하는 메서드입니다. 캐시를 무효화하여 최신 상태를 유지합니다.
-    @CacheEvict(value = "getProducts", allEntries = true) // 모든 캐시된 'getProducts' 엔트리를 무효화합니다.
+    @Autowired
+    private PostSearchIndex postSearchIndex;
+
+    @Autowired
+    private SearchCacheGeneration searchCacheGeneration;
+
+    @Autowired
+    private UserPostGeneration userPostGeneration;
+
+    @Autowired
+    private PostViewCounter postViewCounter;
+
+    @Autowired
+    private TrendingServiceImpl trendingService;
+
+    @Autowired
+    private PostSearchMapper postSearchMapper;
+
+    @Autowired
+    private CommentTreeReader commentTreeReader;
+
+    @Autowired
+    private TagPostIndex tagPostIndex;
+
+    @Autowired
+    private CategoryStatisticsServiceImpl categoryStatisticsService;
+
+    @Autowired
+    private ShardRouter shardRouter;
+
+    // 댓글 페이지 크기를 지정하지 않았을 때 사용할 기본 크기와 최대 크기입니다. (루트 댓글 수 기준)
+    @Value("${comment.page.defaultSize:20}")
+    private int defaultCommentPageSize;
+
+    @Value("${comment.page.maxSize:100}")
+    private int maxCommentPageSize;
+
+    // 일괄 등록 시 한 번의 INSERT 문에 넣을 최대 행 수입니다.
+    @Value("${bulk.chunkSize:200}")
+    private int bulkChunkSize;
+
+    // 일괄 등록 요청 하나에 담을 수 있는 최대 항목 수입니다.
+    @Value("${bulk.maxSize:5000}")
+    private int bulkMaxSize;
+
+    // ETag가 최소한 이 주기로 바뀌도록 하는 시간(초)입니다. (ETagUtil.epoch 참고)
+    @Value("${etag.rotateSecond:600}")
+    private long etagRotateSecond;
+
+    // 새로운 게시물을 등록하는 메서드입니다. 게시물이 속한 카테고리의 검색 캐시만 무효화합니다.
     @Override
     public void register(String id, PostDTO postDTO) {
         // 사용자 정보를 조회하여 게시물 작성자 정보를 설정합니다.
-        UserDTO memberInfo = userProfileMapper.getUserProfile(id);
+        UserDTO memberInfo = userService.getUserInfo(id);
         postDTO.setUserId(memberInfo.getId());
         postDTO.setCreateTime(new Date()); // 현재 시간을 생성 시간으로 설정합니다.
 
@@ -51,6 +120,12 @@ public class PostServiceImpl implements PostService {
         if (memberInfo != null) {
             try {
                 postMapper.register(postDTO);
+                postSearchIndex.index(postDTO); // 생성된 ID로 검색 색인에 추가합니다.
+                tagPostIndex.putPost(postDTO.getId(), postDTO.getCategoryId());
+                searchCacheGeneration.bump(postDTO.getCategoryId());
+                userPostGeneration.bump(postDTO.getUserId());
+                categoryStatisticsService.increment(postDTO.getCategoryId(), 1);
+                trendingService.recordPost(postDTO);
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("register 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -61,7 +136,50 @@ public class PostServiceImpl implements PostService {
         }
     }
 
-    // 특정 사용자의 게시물을 조회하는 메서드입니다.
+    // 여러 게시물을 한 트랜잭션으로 등록하는 메서드입니다.
+    // 모든 항목을 먼저 검사한 뒤 bulkChunkSize개씩 다중 행 INSERT로 등록하며, 생성된 ID는 요청 순서대로 채워집니다.
+    // 검색 색인과 캐시 무효화는 커밋된 뒤에 한 번만 실행하고, 검색 캐시는 등록된 카테고리마다 한 번만 무효화합니다.
+    // 게시물은 모두 작성자의 샤드에 저장되므로 트랜잭션은 그 샤드에서 엽니다. 사용자는 0번 샤드에 있으므로 트랜잭션 전에 조회합니다.
+    @Override
+    public List<PostDTO> registerBulk(String id, List<PostDTO> postDTOList) {
+        validateBulkSize(postDTOList);
+        UserDTO memberInfo = userService.getUserInfo(id);
+        if (memberInfo == null) {
+            log.error("registerBulk ERROR! {}", id);
+            throw new BoardServerException(HttpStatus.BAD_REQUEST, "registerBulk ERROR! 사용자 정보를 확인해주세요");
+        }
+        Date now = new Date();
+        for (int i = 0; i < postDTOList.size(); i++) {
+            PostDTO postDTO = postDTOList.get(i);
+            if (postDTO == null || postDTO.getName() == null || postDTO.getName().isBlank()) {
+                throw new BoardServerException(HttpStatus.BAD_REQUEST, "registerBulk ERROR! " + i + "번째 게시물의 제목이 없습니다");
+            }
+            postDTO.setUserId(memberInfo.getId());
+            postDTO.setCreateTime(now);
+            postDTO.setViews(0);
+        }
+
+        shardRouter.runInTransaction(shardRouter.shardOfUser(memberInfo.getId()), () -> {
+            insertInChunks(postDTOList, postMapper::registerBulk, "registerBulk");
+
+            afterCommit(() -> {
+                postSearchIndex.indexAll(postDTOList);
+                tagPostIndex.putPosts(postDTOList);
+                Map<Integer, Integer> postCounts = new LinkedHashMap<>();
+                for (PostDTO postDTO : postDTOList) {
+                    trendingService.recordPost(postDTO);
+                    postCounts.merge(postDTO.getCategoryId(), 1, Integer::sum);
+                }
+                searchCacheGeneration.bump(postCounts.keySet().stream().mapToInt(Integer::intValue).toArray());
+                userPostGeneration.bump(memberInfo.getId());
+                categoryStatisticsService.increment(postCounts);
+            });
+        });
+        return postDTOList;
+    }
+
+    // 특정 사용자의 게시물을 조회하는 메서드입니다. 복제본에서 읽으며, 방금 글을 쓴 사용자는 primary에서 읽습니다.
+    @ReplicaRead
     @Override
     public List<PostDTO> getMyProducts(int accountId) {
         List<PostDTO> postDTOList = null;
@@ -74,13 +192,58 @@ public class PostServiceImpl implements PostService {
         return postDTOList; // 조회한 게시물 목록을 반환합니다.
     }
 
-    // 게시물을 업데이트하는 메서드입니다.
+    // 사용자 게시물 목록의 버전입니다. 게시물이 등록/수정/삭제될 때마다 바뀌며, DB를 조회하지 않으므로
+    // If-None-Match 확인에 사용합니다. 조회수 변화는 반영하지 않습니다. Redis 장애로 알 수 없으면 null입니다.
+    @Override
+    public String getMyProductsVersion(int accountId) {
+        try {
+            return accountId + ":" + userPostGeneration.current(accountId) + ":" + ETagUtil.epoch(etagRotateSecond);
+        } catch (RuntimeException e) {
+            log.error("getMyProductsVersion 실패", e);
+            return null;
+        }
+    }
+
+    // 게시물 하나를 조회하는 메서드입니다. 조회수를 1 증가시키고,
+    // 아직 DB에 반영되지 않은 조회수 증가분을 더한 값을 반환합니다. (PostViewCounter 참고)
+    @Override
+    public PostDTO getPost(int postId) {
+        PostDTO postDTO = null;
+        try {
+            postDTO = postMapper.selectPost(postId);
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("getPost 실패"); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        }
+        if (postDTO == null) {
+            throw new BoardServerException(HttpStatus.NOT_FOUND, "존재하지 않는 게시물입니다 : " + postId);
+        }
+        postViewCounter.increment(postId);
+        trendingService.recordView(postId, postDTO.getCategoryId());
+        postDTO.setViews((int) Math.min(Integer.MAX_VALUE, postDTO.getViews() + postViewCounter.pending(postId)));
+        return postDTO;
+    }
+
+    // 게시물을 업데이트하는 메서드입니다. 조회수는 PostViewCounter가 관리하므로 변경하지 않습니다.
+    // 카테고리가 바뀔 수 있으므로 변경 전과 변경 후 카테고리의 검색 캐시를 모두 무효화합니다.
     @Override
     public void updateProducts(PostDTO postDTO) {
         // 게시물 정보와 사용자 ID가 유효한지 확인합니다.
         if (postDTO != null && postDTO.getId() != 0 && postDTO.getUserId() != 0) {
             try {
+                PostDTO before = postMapper.selectPost(postDTO.getId()); // 변경 전 카테고리를 확인합니다.
                 postMapper.updateProducts(postDTO); // 게시물을 업데이트합니다.
+                postSearchIndex.index(postDTO); // 변경된 제목/본문으로 다시 색인합니다.
+                tagPostIndex.putPost(postDTO.getId(), postDTO.getCategoryId());
+                if (before != null) {
+                    searchCacheGeneration.bump(before.getCategoryId(), postDTO.getCategoryId());
+                    userPostGeneration.bump(before.getUserId());
+                    trendingService.moveCategory(postDTO.getId(), before.getCategoryId(), postDTO.getCategoryId());
+                    categoryStatisticsService.moveCategory(before.getCategoryId(), postDTO.getCategoryId());
+                } else {
+                    searchCacheGeneration.bump(postDTO.getCategoryId());
+                    userPostGeneration.bump(postDTO.getUserId());
+                }
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("updateProducts 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -91,13 +254,22 @@ public class PostServiceImpl implements PostService {
         }
     }
 
-    // 게시물을 삭제하는 메서드입니다.
+    // 게시물을 삭제하는 메서드입니다. 삭제된 게시물이 속했던 카테고리의 검색 캐시를 무효화합니다.
     @Override
     public void deleteProduct(int userId, int productId) {
         // 사용자 ID와 게시물 ID가 유효한지 확인합니다.
         if (userId != 0 && productId != 0) {
             try {
+                PostDTO before = postMapper.selectPost(productId); // 삭제 전 카테고리를 확인합니다.
                 postMapper.deleteProduct(productId); // 게시물을 삭제합니다.
+                postSearchIndex.remove(productId); // 검색 색인에서도 제거합니다.
+                tagPostIndex.removePost(productId);
+                if (before != null) {
+                    searchCacheGeneration.bump(before.getCategoryId());
+                    userPostGeneration.bump(before.getUserId());
+                    trendingService.remove(productId, before.getCategoryId());
+                    categoryStatisticsService.increment(before.getCategoryId(), -1);
+                }
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("deleteProduct 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -115,6 +287,11 @@ public class PostServiceImpl implements PostService {
         if (commentDTO.getPostId() != 0) {
             try {
                 commentMapper.register(commentDTO); // 댓글을 등록합니다.
+                commentTreeReader.evict(commentDTO.getPostId()); // 해당 게시물의 댓글 캐시만 지웁니다.
+                PostDTO post = postMapper.selectPost(commentDTO.getPostId()); // 인기 게시물 점수에 반영합니다.
+                if (post != null) {
+                    trendingService.recordComment(post.getId(), post.getCategoryId());
+                }
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("register 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -125,13 +302,79 @@ public class PostServiceImpl implements PostService {
         }
     }
 
+    // 여러 댓글을 등록하는 메서드입니다. 생성된 ID는 각 항목에 채워집니다.
+    // 댓글은 게시물의 샤드에 저장하므로 샤드마다 한 트랜잭션으로 등록합니다. 게시물이 여러 샤드에 있으면
+    // 샤드별로 따로 커밋되므로, 중간에 실패해도 앞서 커밋된 샤드의 댓글은 남습니다.
+    @Override
+    public List<CommentDTO> registerCommentsBulk(List<CommentDTO> commentDTOList) {
+        validateBulkSize(commentDTOList);
+        for (int i = 0; i < commentDTOList.size(); i++) {
+            CommentDTO commentDTO = commentDTOList.get(i);
+            if (commentDTO == null || commentDTO.getPostId() == 0) {
+                throw new BoardServerException(HttpStatus.BAD_REQUEST, "registerCommentsBulk ERROR! " + i + "번째 댓글의 게시물이 없습니다");
+            }
+        }
+
+        groupByShard(commentDTOList, CommentDTO::getPostId).forEach((shard, comments) ->
+                shardRouter.runInTransaction(shard, () -> {
+                    insertInChunks(comments, commentMapper::registerBulk, "registerCommentsBulk");
+
+                    // 댓글이 달린 게시물의 카테고리를 한 번에 조회해 두었다가, 커밋된 뒤 인기 게시물 점수에 반영합니다.
+                    Set<Integer> postIds = new LinkedHashSet<>();
+                    comments.forEach(commentDTO -> postIds.add(commentDTO.getPostId()));
+                    Map<Integer, Integer> categoryByPostId = new HashMap<>();
+                    for (PostDTO post : postSearchMapper.selectPostsByIds(new ArrayList<>(postIds))) {
+                        categoryByPostId.put(post.getId(), post.getCategoryId());
+                    }
+                    afterCommit(() -> {
+                        postIds.forEach(commentTreeReader::evict);
+                        for (CommentDTO commentDTO : comments) {
+                            Integer categoryId = categoryByPostId.get(commentDTO.getPostId());
+                            if (categoryId != null) {
+                                trendingService.recordComment(commentDTO.getPostId(), categoryId);
+                            }
+                        }
+                    });
+                }));
+        return commentDTOList;
+    }
+
+    // 게시물의 댓글을 루트 댓글 기준으로 한 페이지 조회하는 메서드입니다.
+    // 트리는 게시물 단위로 캐시되어 있으므로(CommentTreeReader), 페이지는 캐시된 루트 목록에서 이진 탐색으로 잘라냅니다.
+    // cursor는 이전 페이지의 마지막 루트 댓글 ID이며, 0이면 첫 페이지입니다.
+    @Override
+    public CommentPageDTO getComments(int postId, int cursor, int size) {
+        int pageSize = PostSearchNormalizer.pageSize(size, defaultCommentPageSize, maxCommentPageSize);
+        List<CommentTreeDTO> roots = commentTreeReader.getCommentTree(postId);
+
+        // 루트 댓글은 ID 오름차순이므로 cursor보다 큰 첫 루트 댓글의 위치를 찾습니다.
+        int low = 0;
+        int high = roots.size();
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (roots.get(mid).getId() <= cursor) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        int end = Math.min(roots.size(), low + pageSize);
+        List<CommentTreeDTO> page = new ArrayList<>(roots.subList(low, end));
+        Integer nextCursor = end < roots.size() ? page.get(page.size() - 1).getId() : null;
+        return new CommentPageDTO(page, nextCursor);
+    }
+
     // 댓글을 업데이트하는 메서드입니다.
     @Override
     public void updateComment(CommentDTO commentDTO) {
         // 댓글 정보가 유효한지 확인합니다.
         if (commentDTO != null) {
             try {
+                Integer postId = commentMapper.selectPostId(commentDTO.getId());
                 commentMapper.updateComments(commentDTO); // 댓글을 업데이트합니다.
+                if (postId != null) {
+                    commentTreeReader.evict(postId); // 해당 게시물의 댓글 캐시만 지웁니다.
+                }
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("updateComments 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -148,7 +391,11 @@ public class PostServiceImpl implements PostService {
         // 사용자 ID와 댓글 ID가 유효한지 확인합니다.
         if (userId != 0 && commentId != 0) {
             try {
+                Integer postId = commentMapper.selectPostId(commentId);
                 commentMapper.deletePostComment(commentId); // 댓글을 삭제합니다.
+                if (postId != null) {
+                    commentTreeReader.evict(postId); // 해당 게시물의 댓글 캐시만 지웁니다.
+                }
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("deletePostComment 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -159,13 +406,18 @@ public class PostServiceImpl implements PostService {
         }
     }
 
-    // 태그를 등록하는 메서드입니다.
+    // 태그를 등록하는 메서드입니다. 태그와 게시물의 연결(post_tag)을 게시물의 샤드에서 한 트랜잭션으로 등록하고,
+    // 커밋된 뒤 태그 색인에 추가합니다.
     @Override
     public void registerTag(TagDTO tagDTO) {
         // 태그가 특정 게시물에 속하는지 확인합니다.
         if (tagDTO.getPostId() != 0) {
             try {
-                tagMapper.register(tagDTO); // 태그를 등록합니다.
+                shardRouter.runInTransaction(shardRouter.shardOf(tagDTO.getPostId()), () -> {
+                    tagMapper.register(tagDTO); // 태그를 등록합니다.
+                    tagMapper.registerPostTag(tagDTO); // 생성된 태그 ID로 게시물과 연결합니다.
+                    afterCommit(() -> tagPostIndex.putTag(tagDTO.getId(), tagDTO.getName(), tagDTO.getPostId()));
+                });
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("register 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -176,6 +428,27 @@ public class PostServiceImpl implements PostService {
         }
     }
 
+    // 여러 태그를 등록하는 메서드입니다. 생성된 ID는 각 항목에 채워집니다.
+    // 댓글과 같이 게시물의 샤드마다 한 트랜잭션으로 등록하며, 샤드 사이에는 함께 롤백되지 않습니다.
+    @Override
+    public List<TagDTO> registerTagsBulk(List<TagDTO> tagDTOList) {
+        validateBulkSize(tagDTOList);
+        for (int i = 0; i < tagDTOList.size(); i++) {
+            TagDTO tagDTO = tagDTOList.get(i);
+            if (tagDTO == null || tagDTO.getPostId() == 0) {
+                throw new BoardServerException(HttpStatus.BAD_REQUEST, "registerTagsBulk ERROR! " + i + "번째 태그의 게시물이 없습니다");
+            }
+        }
+
+        groupByShard(tagDTOList, TagDTO::getPostId).forEach((shard, tags) ->
+                shardRouter.runInTransaction(shard, () -> {
+                    insertInChunks(tags, tagMapper::registerBulk, "registerTagsBulk");
+                    insertInChunks(tags, tagMapper::registerPostTagsBulk, "registerPostTagsBulk");
+                    afterCommit(() -> tagPostIndex.putTags(tags));
+                }));
+        return tagDTOList;
+    }
+
     // 태그를 업데이트하는 메서드입니다.
     @Override
     public void updateTag(TagDTO tagDTO) {
@@ -183,6 +456,7 @@ public class PostServiceImpl implements PostService {
         if (tagDTO != null) {
             try {
                 tagMapper.updateTags(tagDTO); // 태그를 업데이트합니다.
+                tagPostIndex.renameTag(tagDTO.getId(), tagDTO.getName()); // 바뀐 이름으로 태그 색인을 고칩니다.
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("updateTags 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -193,13 +467,18 @@ public class PostServiceImpl implements PostService {
         }
     }
 
-    // 특정 사용자의 태그를 삭제하는 메서드입니다.
+    // 특정 사용자의 태그를 삭제하는 메서드입니다. 게시물과의 연결도 태그의 샤드에서 한 트랜잭션으로 지우고,
+    // 커밋된 뒤 태그 색인에서 제거합니다.
     @Override
     public void deletePostTag(int userId, int tagId) {
         // 사용자 ID와 태그 ID가 유효한지 확인합니다.
         if (userId != 0 && tagId != 0) {
             try {
-                tagMapper.deletePostTag(tagId); // 태그를 삭제합니다.
+                shardRouter.runInTransaction(shardRouter.shardOf(tagId), () -> {
+                    tagMapper.deletePostTagLinks(tagId); // 게시물과의 연결을 삭제합니다.
+                    tagMapper.deletePostTag(tagId); // 태그를 삭제합니다.
+                    afterCommit(() -> tagPostIndex.removeTag(tagId));
+                });
             } catch (RuntimeException e) { // 예외가 발생하면
                 log.error("deletePostTag 실패"); // 로그를 남기고
                 throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
@@ -209,4 +488,44 @@ public class PostServiceImpl implements PostService {
             throw new RuntimeException("deletePostTag ERROR! 태그 삭제 메서드를 확인해주세요\n" + "Params : " + tagId);
         }
     }
+
+    private void validateBulkSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new BoardServerException(HttpStatus.BAD_REQUEST, "등록할 항목이 없습니다");
+        }
+        if (items.size() > bulkMaxSize) {
+            throw new BoardServerException(HttpStatus.BAD_REQUEST, "한 번에 등록할 수 있는 항목은 최대 " + bulkMaxSize + "개입니다");
+        }
+    }
+
+    // bulkChunkSize개씩 나누어 다중 행 INSERT를 실행합니다. 실패하면 트랜잭션 전체가 롤백됩니다.
+    private <T> void insertInChunks(List<T> items, Consumer<List<T>> inserter, String name) {
+        try {
+            for (int from = 0; from < items.size(); from += bulkChunkSize) {
+                inserter.accept(items.subList(from, Math.min(items.size(), from + bulkChunkSize)));
+            }
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("{} 실패", name); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        }
+    }
+
+    // 게시물 ID로 항목을 샤드별로 나눕니다. 샤드 안에서는 요청 순서를 유지합니다.
+    private <T> Map<Integer, List<T>> groupByShard(List<T> items, ToIntFunction<T> postId) {
+        Map<Integer, List<T>> groups = new LinkedHashMap<>();
+        for (T item : items) {
+            groups.computeIfAbsent(shardRouter.shardOf(postId.applyAsInt(item)), shard -> new ArrayList<>()).add(item);
+        }
+        return groups;
+    }
+
+    // 트랜잭션이 커밋된 뒤에 실행합니다. 롤백되면 실행하지 않습니다.
+    private static void afterCommit(Runnable task) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                task.run();
+            }
+        });
+    }
 }
@@ -0,0 +1,259 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import com.dustin.boardserver.service.TrendingService;
+import com.dustin.boardserver.utils.PostSearchNormalizer;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.http.HttpStatus;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+// 인기 게시물 순위를 Redis sorted set으로 관리하는 서비스입니다.
+//
+// - 점수는 조회/댓글/등록 이벤트마다 가중치를 더해 갱신하며, 오래된 이벤트일수록 작게 반영되도록 시간 감쇠(decay)를 적용합니다.
+// - 감쇠는 forward decay 방식입니다. 모든 점수를 주기마다 줄이는 대신, 새 이벤트에 기준 시각(landmark)으로부터
+//   exp((now - landmark) / tau)배를 곱해 더합니다. 순위는 모든 점수에 같은 배수를 곱해도 바뀌지 않으므로 결과는 같습니다.
+// - 배수가 너무 커지지 않도록 rescaleSecond마다 모든 점수에 exp(-(now - landmark) / tau)를 곱하고(ZUNIONSTORE WEIGHTS)
+//   기준 시각을 현재로 옮깁니다. 이벤트 반영과 재조정은 Lua 스크립트로 실행되어 서로 섞이지 않습니다.
+// - 각 sorted set은 maxSize개를 조금 넘으면 점수가 낮은 게시물부터 잘라내어 크기를 제한합니다.
+// - 조회 이벤트는 요청마다 Redis를 호출하지 않도록 서버에 모았다가 flushMillis마다 한 번에 반영합니다.
+//
+// 키: trending:all(전체), trending:category:{categoryId}(카테고리별), trending:landmark(기준 시각), trending:keys(sorted set 목록)
+@Service
+@Log4j2
+public class TrendingServiceImpl implements TrendingService {
+    private static final String ALL_KEY = "trending:all";
+    private static final String CATEGORY_KEY_PREFIX = "trending:category:";
+    private static final String LANDMARK_KEY = "trending:landmark";
+    private static final String KEYS_KEY = "trending:keys";
+
+    // KEYS: landmark, keys 목록, 전체 sorted set, 카테고리 sorted set
+    // ARGV: postId, 가중치, 현재 시각(초), tau(초), maxSize
+    private static final RedisScript<Long> RECORD_SCRIPT = new DefaultRedisScript<>("""
+            local landmark = tonumber(redis.call('get', KEYS[1]))
+            local now = tonumber(ARGV[3])
+            if not landmark then
+                landmark = now
+                redis.call('set', KEYS[1], now)
+            end
+            local increment = tonumber(ARGV[2]) * math.exp((now - landmark) / tonumber(ARGV[4]))
+            local maxSize = tonumber(ARGV[5])
+            for i = 3, #KEYS do
+                redis.call('zincrby', KEYS[i], increment, ARGV[1])
+                redis.call('sadd', KEYS[2], KEYS[i])
+                local size = redis.call('zcard', KEYS[i])
+                if size > maxSize + maxSize / 10 then
+                    redis.call('zremrangebyrank', KEYS[i], 0, size - maxSize - 1)
+                end
+            end
+            return 1
+            """, Long.class);
+
+    // KEYS: landmark, keys 목록
+    // ARGV: 현재 시각(초), tau(초), maxSize
+    // 재조정 중에 새 sorted set이 생겨 빠지지 않도록 sorted set 목록은 스크립트 안에서 읽습니다.
+    private static final RedisScript<Long> RESCALE_SCRIPT = new DefaultRedisScript<>("""
+            local landmark = tonumber(redis.call('get', KEYS[1]))
+            local now = tonumber(ARGV[1])
+            if not landmark or now <= landmark then
+                return 0
+            end
+            local factor = math.exp(-(now - landmark) / tonumber(ARGV[2]))
+            local maxSize = tonumber(ARGV[3])
+            for _, key in ipairs(redis.call('smembers', KEYS[2])) do
+                redis.call('zunionstore', key, 1, key, 'WEIGHTS', factor)
+                redis.call('zremrangebyrank', key, 0, -maxSize - 1)
+            end
+            redis.call('set', KEYS[1], now)
+            return 1
+            """, Long.class);
+
+    private final StringRedisTemplate redisTemplate;
+    private final PostSearchMapper postSearchMapper;
+
+    // 카테고리 ID(상위 32비트)와 게시물 ID(하위 32비트)별로 아직 반영하지 않은 조회수입니다.
+    private final Map<Long, LongAdder> pendingViews = new ConcurrentHashMap<>();
+
+    @Value("${trending.weight.post:5}")
+    private double postWeight;
+
+    @Value("${trending.weight.view:1}")
+    private double viewWeight;
+
+    @Value("${trending.weight.comment:3}")
+    private double commentWeight;
+
+    // 점수가 1/e로 줄어드는 시간(초)입니다.
+    @Value("${trending.tauSecond:21600}")
+    private long tauSecond;
+
+    // 기준 시각을 옮기는 주기(초)입니다.
+    @Value("${trending.rescaleSecond:86400}")
+    private long rescaleSecond;
+
+    // sorted set 하나에 남겨 둘 최대 게시물 수입니다.
+    @Value("${trending.maxSize:1000}")
+    private int maxSize;
+
+    @Value("${search.page.defaultSize:20}")
+    private int defaultPageSize;
+
+    @Value("${search.page.maxSize:100}")
+    private int maxPageSize;
+
+    public TrendingServiceImpl(StringRedisTemplate redisTemplate, PostSearchMapper postSearchMapper) {
+        this.redisTemplate = redisTemplate;
+        this.postSearchMapper = postSearchMapper;
+    }
+
+    // 새 게시물은 등록 가중치만큼 점수를 받습니다. 최근 이벤트일수록 크게 반영되므로 최신 게시물이 앞에 옵니다.
+    @Override
+    public void recordPost(PostDTO postDTO) {
+        record(postDTO.getId(), postDTO.getCategoryId(), postWeight);
+    }
+
+    @Override
+    public void recordView(int postId, int categoryId) {
+        pendingViews.computeIfAbsent(pack(categoryId, postId), key -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void recordComment(int postId, int categoryId) {
+        record(postId, categoryId, commentWeight);
+    }
+
+    // 게시물의 카테고리가 바뀌면 이전 카테고리의 점수를 새 카테고리로 옮깁니다.
+    @Override
+    public void moveCategory(int postId, int beforeCategoryId, int afterCategoryId) {
+        if (beforeCategoryId == afterCategoryId) {
+            return;
+        }
+        String member = String.valueOf(postId);
+        try {
+            Double score = redisTemplate.opsForZSet().score(categoryKey(beforeCategoryId), member);
+            redisTemplate.opsForZSet().remove(categoryKey(beforeCategoryId), member);
+            if (score != null) {
+                redisTemplate.opsForZSet().incrementScore(categoryKey(afterCategoryId), member, score);
+                redisTemplate.opsForSet().add(KEYS_KEY, categoryKey(afterCategoryId));
+            }
+        } catch (RuntimeException e) {
+            log.error("trending 카테고리 이동 실패 : postId={}", postId, e);
+        }
+    }
+
+    @Override
+    public void remove(int postId, int categoryId) {
+        try {
+            redisTemplate.opsForZSet().remove(ALL_KEY, String.valueOf(postId));
+            redisTemplate.opsForZSet().remove(categoryKey(categoryId), String.valueOf(postId));
+        } catch (RuntimeException e) {
+            log.error("trending 삭제 실패 : postId={}", postId, e);
+        }
+    }
+
+    // 점수가 높은 순으로 size개의 게시물을 반환합니다. categoryId가 0이면 전체 순위입니다.
+    @Override
+    public List<PostDTO> getTrending(int categoryId, int size) {
+        int pageSize = PostSearchNormalizer.pageSize(size, defaultPageSize, maxPageSize);
+        Set<String> members = redisTemplate.opsForZSet()
+                .reverseRange(categoryId == 0 ? ALL_KEY : categoryKey(categoryId), 0, pageSize - 1);
+        if (members == null || members.isEmpty()) {
+            return Collections.emptyList();
+        }
+        List<Integer> postIds = members.stream().map(Integer::valueOf).toList();
+
+        List<PostDTO> postDTOList = null;
+        try {
+            postDTOList = postSearchMapper.selectPostsByIds(postIds);
+        } catch (RuntimeException e) { // 예외가 발생하면
+            log.error("selectPostsByIds 실패"); // 로그를 남기고
+            throw new BoardServerException(HttpStatus.INTERNAL_SERVER_ERROR, e.getMessage()); // 예외를 던집니다.
+        }
+
+        // IN 조회는 순서를 보장하지 않으므로 점수 순서대로 다시 정렬합니다.
+        Map<Integer, PostDTO> postById = new HashMap<>();
+        for (PostDTO postDTO : postDTOList) {
+            postById.put(postDTO.getId(), postDTO);
+        }
+        List<PostDTO> result = new ArrayList<>(postIds.size());
+        for (int postId : postIds) {
+            PostDTO postDTO = postById.get(postId);
+            if (postDTO != null) {
+                result.add(postDTO);
+            }
+        }
+        return result;
+    }
+
+    // 모아 둔 조회수를 Redis에 반영합니다.
+    // 카운터를 비운 뒤 지우기 전에 들어온 조회는 드물게 누락될 수 있지만, 순위 점수에는 영향이 거의 없습니다.
+    @Scheduled(fixedDelayString = "${trending.flushMillis:5000}")
+    public void flushViews() {
+        for (Map.Entry<Long, LongAdder> entry : pendingViews.entrySet()) {
+            long views = entry.getValue().sumThenReset();
+            if (views == 0) {
+                pendingViews.remove(entry.getKey(), entry.getValue());
+                continue;
+            }
+            long key = entry.getKey();
+            record((int) key, (int) (key >>> 32), viewWeight * views);
+        }
+    }
+
+    // 기준 시각이 rescaleSecond보다 오래되었으면 모든 점수를 줄이고 기준 시각을 현재로 옮깁니다.
+    @Scheduled(fixedDelayString = "${trending.rescaleCheckMillis:60000}")
+    public void rescale() {
+        try {
+            String landmark = redisTemplate.opsForValue().get(LANDMARK_KEY);
+            long now = nowSecond();
+            if (landmark == null || now - Long.parseLong(landmark) < rescaleSecond) {
+                return;
+            }
+            redisTemplate.execute(RESCALE_SCRIPT, Arrays.asList(LANDMARK_KEY, KEYS_KEY),
+                    String.valueOf(now), String.valueOf(tauSecond), String.valueOf(maxSize));
+        } catch (RuntimeException e) {
+            log.error("trending 점수 재조정 실패", e);
+        }
+    }
+
+    // Redis 장애로 실패해도 게시물 요청은 실패시키지 않습니다.
+    private void record(int postId, int categoryId, double weight) {
+        List<String> keys = categoryId == 0
+                ? Arrays.asList(LANDMARK_KEY, KEYS_KEY, ALL_KEY)
+                : Arrays.asList(LANDMARK_KEY, KEYS_KEY, ALL_KEY, categoryKey(categoryId));
+        try {
+            redisTemplate.execute(RECORD_SCRIPT, keys, String.valueOf(postId), String.valueOf(weight),
+                    String.valueOf(nowSecond()), String.valueOf(tauSecond), String.valueOf(maxSize));
+        } catch (RuntimeException e) {
+            log.error("trending 점수 반영 실패 : postId={}", postId, e);
+        }
+    }
+
+    private static String categoryKey(int categoryId) {
+        return CATEGORY_KEY_PREFIX + categoryId;
+    }
+
+    private static long pack(int categoryId, int postId) {
+        return ((long) categoryId << 32) | (postId & 0xFFFFFFFFL);
+    }
+
+    private static long nowSecond() {
+        return System.currentTimeMillis() / 1000;
+    }
+}
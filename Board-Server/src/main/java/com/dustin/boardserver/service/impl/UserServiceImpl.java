@@ -1,6 +1,9 @@
 package com.dustin.boardserver.service.impl;
 
 // 필요한 패키지와 클래스들을 임포트합니다.
+import com.dustin.boardserver.aop.ReplicaRead;
+import com.dustin.boardserver.cache.UserBloomFilter;
+import com.dustin.boardserver.cache.UserProfileCache;
 import com.dustin.boardserver.dto.UserDTO;
 import com.dustin.boardserver.exception.DuplicateIdException;
 import com.dustin.boardserver.mapper.UserProfileMapper;
@@ -8,9 +11,12 @@ import com.dustin.boardserver.service.UserService;
 import com.dustin.boardserver.utils.SHA256Util;
 import lombok.extern.log4j.Log4j2;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DuplicateKeyException;
 import org.springframework.stereotype.Service;
 
+import java.util.Collection;
 import java.util.Date;
+import java.util.Map;
 
 // 이 클래스는 UserService 인터페이스의 구현체로, 사용자와 관련된 비즈니스 로직을 처리합니다.
 @Service
@@ -21,15 +27,41 @@ public class UserServiceImpl implements UserService {
     @Autowired
     private UserProfileMapper userProfileMapper;
 
-    // 생성자에서 UserProfileMapper를 주입받아 초기화합니다.
-    public UserServiceImpl(UserProfileMapper userProfileMapper) {
+    // 사용자 프로필 캐시입니다. 요청마다 user 테이블을 조회하지 않도록 합니다.
+    private final UserProfileCache userProfileCache;
+
+    // 가입된 아이디와 닉네임의 Bloom filter입니다. 확실히 없는 값은 DB를 조회하지 않습니다.
+    private final UserBloomFilter userBloomFilter;
+
+    // 생성자에서 UserProfileMapper, UserProfileCache, UserBloomFilter를 주입받아 초기화합니다.
+    public UserServiceImpl(UserProfileMapper userProfileMapper, UserProfileCache userProfileCache,
+                           UserBloomFilter userBloomFilter) {
         this.userProfileMapper = userProfileMapper;
+        this.userProfileCache = userProfileCache;
+        this.userBloomFilter = userBloomFilter;
     }
 
-    // 사용자의 정보를 조회하는 메서드입니다.
+    // 사용자의 정보를 조회하는 메서드입니다. 세션에 저장된 사용자 ID(user.id)로 캐시를 먼저 조회합니다.
+    // 캐시 미스 시 조회는 복제본에서 실행됩니다. 게시물 등록처럼 쓰기 트랜잭션 안에서 호출되면 primary에서 읽습니다.
+    @ReplicaRead
     @Override
     public UserDTO getUserInfo(String userId) {
-        return userProfileMapper.getUserProfile(userId); // 사용자 ID로 프로필을 조회하여 반환합니다.
+        if (userId == null) {
+            return null;
+        }
+        try {
+            return userProfileCache.get(Integer.parseInt(userId)); // 사용자 ID로 프로필을 조회하여 반환합니다.
+        } catch (NumberFormatException e) {
+            return userProfileMapper.getUserProfile(userId); // 숫자가 아닌 ID는 캐시하지 않고 바로 조회합니다.
+        }
+    }
+
+    // 여러 사용자의 정보를 한 번에 조회하는 메서드입니다. 캐시에 없는 사용자만 IN 쿼리 한 번으로 조회합니다.
+    // 게시물 목록처럼 작성자가 여럿인 응답에서 작성자마다 조회하지 않도록 사용합니다.
+    @ReplicaRead
+    @Override
+    public Map<Integer, UserDTO> getUserInfos(Collection<Integer> ids) {
+        return userProfileCache.getAll(ids);
     }
 
     // 새로운 사용자를 등록하는 메서드입니다.
@@ -41,12 +73,22 @@ public class UserServiceImpl implements UserService {
             // 중복된 아이디일 경우 예외를 던집니다.
             throw new DuplicateIdException("중복된 아이디입니다.");
         }
+        if (isDuplicatedNickName(userDTO.getNickName())) {
+            // 중복된 닉네임일 경우 예외를 던집니다.
+            throw new DuplicateIdException("중복된 닉네임입니다.");
+        }
         // 사용자 생성 시간 설정
         userDTO.setCreateTime(new Date());
         // 비밀번호를 SHA-256으로 암호화합니다.
         userDTO.setPassword(SHA256Util.encryptSHA256(userDTO.getPassword()));
         // 사용자 등록을 시도합니다.
-        int insertCount = userProfileMapper.register(userDTO);
+        // 동시에 같은 아이디로 가입하면 위의 확인을 둘 다 통과할 수 있으므로, 최종 중복 검사는 user.userId 유니크 키가 맡습니다.
+        int insertCount;
+        try {
+            insertCount = userProfileMapper.register(userDTO);
+        } catch (DuplicateKeyException e) {
+            throw new DuplicateIdException("중복된 아이디입니다.");
+        }
 
         // 등록에 실패했을 경우 로그를 남기고 예외를 던집니다.
         if (insertCount != 1) {
@@ -54,6 +96,7 @@ public class UserServiceImpl implements UserService {
             throw new RuntimeException(
                     "insertUser ERROR! 회원가입 메서드를 확인해주세요\n" + "Params : " + userDTO);
         }
+        userBloomFilter.add(userDTO); // 이후 중복 확인에서 새 아이디와 닉네임이 "있을 수 있음"으로 나오도록 추가합니다.
     }
 
     // 사용자의 로그인 정보를 확인하는 메서드입니다.
@@ -67,10 +110,31 @@ public class UserServiceImpl implements UserService {
     }
 
     // 아이디가 중복되었는지 확인하는 메서드입니다.
+    // Bloom filter가 확실히 없다고 답하면 DB를 조회하지 않고, 있을 수 있으면 DB로 정확히 확인합니다.
     @Override
     public boolean isDuplicatedId(String id) {
+        if (!userBloomFilter.mightContainUserId(id)) {
+            return false;
+        }
         // 아이디가 이미 존재하는지 여부를 반환합니다.
-        return userProfileMapper.idCheck(id) == 1;
+        boolean duplicated = userProfileMapper.idCheck(id) == 1;
+        if (!duplicated) {
+            userBloomFilter.recordUserIdFalsePositive();
+        }
+        return duplicated;
+    }
+
+    // 닉네임이 중복되었는지 확인하는 메서드입니다. 아이디와 같은 방식으로 Bloom filter를 먼저 확인합니다.
+    @Override
+    public boolean isDuplicatedNickName(String nickName) {
+        if (!userBloomFilter.mightContainNickName(nickName)) {
+            return false;
+        }
+        boolean duplicated = userProfileMapper.nickNameCheck(nickName) > 0;
+        if (!duplicated) {
+            userBloomFilter.recordNickNameFalsePositive();
+        }
+        return duplicated;
     }
 
     // 사용자의 비밀번호를 변경하는 메서드입니다.
@@ -85,6 +149,7 @@ public class UserServiceImpl implements UserService {
         if (memberInfo != null) {
             memberInfo.setPassword(SHA256Util.encryptSHA256(afterPassword)); // 새 비밀번호를 암호화하여 설정합니다.
             int insertCount = userProfileMapper.updatePassword(memberInfo); // 비밀번호를 업데이트합니다.
+            userProfileCache.invalidate(memberInfo.getId()); // 캐시된 프로필을 지웁니다.
         } else { // 사용자 정보가 존재하지 않을 경우 로그를 남기고 예외를 던집니다.
             log.error("updatePassword ERROR! {}", memberInfo);
             throw new IllegalArgumentException("updatePassword ERROR! 비밀번호 변경 메서드를 확인해주세요\n" + "Params : " + memberInfo);
@@ -102,6 +167,7 @@ public class UserServiceImpl implements UserService {
         // 사용자 정보가 존재할 경우 사용자 프로필을 삭제합니다.
         if (memberInfo != null) {
             userProfileMapper.deleteUserProfile(memberInfo.getUserId());
+            userProfileCache.invalidate(memberInfo.getId()); // 캐시된 프로필을 지웁니다.
         } else { // 사용자 정보가 존재하지 않을 경우 로그를 남기고 예외를 던집니다.
             log.error("deleteId ERROR! {}", memberInfo);
             throw new RuntimeException("deleteId ERROR! id 삭제 메서드를 확인해주세요\n" + "Params : " + memberInfo);
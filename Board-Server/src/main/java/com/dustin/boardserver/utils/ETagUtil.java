@@ -0,0 +1,52 @@
+package com.dustin.boardserver.utils;
+
+// ETag와 Accept-Encoding을 다루는 유틸리티입니다.
+// ETag는 응답 본문을 해시하지 않고 데이터의 버전(세대 번호 등)으로 만들므로, 본문을 만들기 전에 304로 응답할 수 있습니다.
+public class ETagUtil {
+    private static final String GZIP_SUFFIX = "-gz";
+
+    private ETagUtil() {
+    }
+
+    // 강한 ETag를 만듭니다. 예) "posts-12:7:2841"
+    // gzip으로 압축한 응답은 본문 바이트가 다르므로 "-gz"를 붙여 다른 ETag를 사용합니다.
+    public static String strong(String kind, String version, boolean gzip) {
+        return "\"" + kind + "-" + version + (gzip ? GZIP_SUFFIX : "") + "\"";
+    }
+
+    // 세대 번호가 유실되어 이전 번호로 돌아가더라도 ETag가 영원히 같지 않도록, rotateSecond마다 바뀌는 구간 번호입니다.
+    public static long epoch(long rotateSecond) {
+        return System.currentTimeMillis() / 1000 / Math.max(rotateSecond, 1);
+    }
+
+    // Accept-Encoding 헤더가 gzip을 허용하는지 확인합니다. "gzip;q=0"은 허용하지 않는 것으로 봅니다.
+    // gzip이 직접 적혀 있으면 "*"보다 우선합니다. 예) "*, gzip;q=0"은 허용하지 않습니다.
+    public static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        boolean wildcard = false;
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            String name = parts[0].trim();
+            if (name.equalsIgnoreCase("gzip")) {
+                return !isRejected(parts);
+            }
+            if (name.equals("*")) {
+                wildcard = !isRejected(parts);
+            }
+        }
+        return wildcard;
+    }
+
+    // 매개변수 중 q가 0이면 거부한 것입니다.
+    private static boolean isRejected(String[] parts) {
+        for (int i = 1; i < parts.length; i++) {
+            String parameter = parts[i].replace(" ", "");
+            if (parameter.regionMatches(true, 0, "q=", 0, 2)) {
+                return parameter.substring(2).matches("0(\\.0{0,3})?");
+            }
+        }
+        return false;
+    }
+}
@@ -0,0 +1,48 @@
+package com.dustin.boardserver.utils;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+// 서로 다른 값의 개수(cardinality)를 고정된 메모리로 근사하는 HyperLogLog입니다.
+// 레지스터 4096개(16KB)를 사용하며 표준 오차는 약 1.6%입니다.
+// 입력은 이미 고르게 분포된 64비트 해시 값이어야 합니다.
+// 검색 요청마다 add가 불리므로 잠금 없이 레지스터마다 CAS로 최댓값만 올립니다.
+// 대부분의 add는 레지스터 값이 이미 크거나 같아 읽기 한 번으로 끝납니다.
+public class HyperLogLog {
+    private static final int P = 12;
+    private static final int M = 1 << P;
+    private static final double ALPHA_MM = 0.7213 / (1 + 1.079 / M) * M * M;
+
+    private final AtomicIntegerArray registers = new AtomicIntegerArray(M);
+
+    public void add(long hash) {
+        int index = (int) (hash >>> (64 - P));
+        int rank = Long.numberOfLeadingZeros((hash << P) | (1L << (P - 1))) + 1;
+        int current = registers.get(index);
+        while (rank > current) {
+            int witness = registers.compareAndExchange(index, current, rank);
+            if (witness == current) {
+                return;
+            }
+            current = witness;
+        }
+    }
+
+    // 레지스터를 하나씩 읽으므로 add와 동시에 실행되면 그 사이의 추가분이 일부만 반영될 수 있습니다. (지표용 근삿값입니다.)
+    public long estimate() {
+        double sum = 0;
+        int zeros = 0;
+        for (int i = 0; i < M; i++) {
+            int register = registers.get(i);
+            sum += 1.0 / (1L << register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double estimate = ALPHA_MM / sum;
+        // 값이 적을 때는 선형 계수(linear counting)가 더 정확합니다.
+        if (estimate <= 2.5 * M && zeros > 0) {
+            estimate = M * Math.log((double) M / zeros);
+        }
+        return Math.round(estimate);
+    }
+}
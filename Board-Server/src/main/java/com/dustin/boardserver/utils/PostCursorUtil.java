@@ -0,0 +1,53 @@
+package com.dustin.boardserver.utils;
+
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.exception.BoardServerException;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+// 키셋 페이지네이션 커서를 클라이언트에게 전달할 불투명 토큰으로 변환하고, 다시 해석하는 유틸리티입니다.
+// 토큰 형식: base64url("정렬기준:정렬값:id")
+public class PostCursorUtil {
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private PostCursorUtil() {
+    }
+
+    // 페이지의 마지막 게시물로부터 다음 페이지를 위한 커서 토큰을 만듭니다.
+    public static String encode(SortStatus sortStatus, PostDTO last) {
+        long key = sortStatus == SortStatus.CATEGORIES
+                ? last.getCategoryId()
+                : last.getCreateTime().getTime();
+        String raw = sortStatus.name() + ":" + key + ":" + last.getId();
+        return ENCODER.encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 커서 토큰을 해석합니다. 비어 있으면 첫 페이지이므로 null을 반환합니다.
+    // 형식이 잘못되었거나 요청의 정렬 기준과 다르면 BAD_REQUEST 예외를 던집니다.
+    public static PostCursor decode(String token, SortStatus sortStatus) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        try {
+            String[] parts = new String(DECODER.decode(token), StandardCharsets.UTF_8).split(":");
+            SortStatus cursorSort = SortStatus.valueOf(parts[0]);
+            if (parts.length != 3 || cursorSort != sortStatus) {
+                throw new IllegalArgumentException("sortStatus mismatch");
+            }
+            long key = Long.parseLong(parts[1]);
+            int id = Integer.parseInt(parts[2]);
+            if (cursorSort == SortStatus.CATEGORIES) {
+                return new PostCursor(cursorSort, null, (int) key, id);
+            }
+            return new PostCursor(cursorSort, new Date(key), 0, id);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            throw new BoardServerException(HttpStatus.BAD_REQUEST, "잘못된 cursor 값입니다. : " + token);
+        }
+    }
+}
@@ -0,0 +1,36 @@
+package com.dustin.boardserver.utils;
+
+import com.dustin.boardserver.dto.SortStatus;
+
+// 검색 요청 값을 의미가 같은 요청끼리 같은 값이 되도록 정규화하는 유틸리티입니다.
+// 검색 서비스와 캐시 키 생성기가 같은 규칙을 사용해야 같은 의미의 요청이 같은 캐시 키를 갖습니다.
+public class PostSearchNormalizer {
+
+    private PostSearchNormalizer() {
+    }
+
+    // 커서 페이지네이션은 NEWEST, OLDEST, CATEGORIES 정렬만 지원합니다. 그 외에는 최신순으로 조회합니다.
+    public static SortStatus sortStatus(SortStatus sortStatus) {
+        if (sortStatus == SortStatus.OLDEST || sortStatus == SortStatus.CATEGORIES) {
+            return sortStatus;
+        }
+        return SortStatus.NEWEST;
+    }
+
+    // 요청한 페이지 크기를 [1, maxSize] 범위로 맞춥니다. 0 이하이면 기본값을 사용합니다.
+    public static int pageSize(int size, int defaultSize, int maxSize) {
+        if (size <= 0) {
+            return defaultSize;
+        }
+        return Math.min(size, maxSize);
+    }
+
+    // 검색어 앞뒤 공백을 제거합니다. null과 빈 문자열, 공백만 있는 문자열은 모두 조건 없음(null)으로 봅니다.
+    public static String text(String text) {
+        if (text == null) {
+            return null;
+        }
+        String trimmed = text.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
@@ -6,6 +6,7 @@ import jakarta.servlet.http.HttpSession;
 public class SessionUtil {
     private static final String LOGIN_MEMBER_ID = "LOGIN_MEMBER_ID";
     private static final String LOGIN_ADMIN_ID = "LOGIN_ADMIN_ID";
+    private static final String LAST_WRITE_AT = "LAST_WRITE_AT";
     private SessionUtil() {
     }
     public static String getLoginMemberId(HttpSession session) {
@@ -20,6 +21,12 @@ public class SessionUtil {
     public static void setLoginAdminId(HttpSession session, String id) {
         session.setAttribute(LOGIN_ADMIN_ID, id);
     }
+    public static Long getLastWriteAt(HttpSession session) {
+        return (Long) session.getAttribute(LAST_WRITE_AT);
+    }
+    public static void setLastWriteAt(HttpSession session, long lastWriteAt) {
+        session.setAttribute(LAST_WRITE_AT, lastWriteAt);
+    }
     public static void clear(HttpSession session) {
         session.invalidate();
     }
@@ -0,0 +1,201 @@
+package com.dustin.boardserver.view;
+
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.mapper.PostMapper;
+import com.dustin.boardserver.utils.IntLongHashMap;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.log4j.Log4j2;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.ReentrantLock;
+
+// 게시물 조회수를 메모리에 모아 두었다가 주기적으로 한 번에 DB에 반영하는 카운터입니다.
+//
+// - 조회할 때마다 UPDATE를 실행하면 인기 게시물 한 행에 잠금이 몰리므로, 증가분은 메모리의 카운터에만 더합니다.
+// - 카운터는 여러 조각(stripe)으로 나누고 스레드마다 다른 조각을 쓰게 하여,
+//   한 게시물에 요청이 몰려도 하나의 잠금을 두고 경쟁하지 않습니다.
+// - flushMillis마다 모든 조각을 비우고 게시물별로 합친 증가분을 UPDATE ... CASE 한 문장(batchSize개씩)으로 반영합니다.
+//   배치는 게시물의 샤드별로 나누므로 한 배치는 한 샤드의 한 문장이고, 전부 반영되거나 전부 실패합니다.
+//   반영에 실패한 배치의 증가분만 다시 카운터에 더해 다음 주기에 재시도합니다.
+// - 조회수를 읽을 때는 DB 값에 아직 반영되지 않은 증가분(pending)을 더해 반환합니다.
+// - 서버가 정상 종료될 때 남은 증가분을 모두 반영합니다. (비정상 종료 시에는 마지막 주기의 증가분이 유실될 수 있습니다.)
+@Component
+@Log4j2
+public class PostViewCounter {
+    private final PostMapper postMapper;
+    private final ShardRouter shardRouter;
+    private final Stripe[] stripes;
+    private final int stripeMask;
+    // flush 중인 증가분입니다. DB에 반영되기 전까지 pending에 포함하고, 반영된 게시물은 바로 지웁니다.
+    private volatile IntLongHashMap flushing = new IntLongHashMap();
+    // 주기 실행과 종료 시 실행이 겹치지 않도록 합니다.
+    private final ReentrantLock flushLock = new ReentrantLock();
+
+    @Value("${post.view.batchSize:500}")
+    private int batchSize;
+
+    private final Counter flushedViews;
+    private final Counter flushFailures;
+
+    public PostViewCounter(PostMapper postMapper, ShardRouter shardRouter, MeterRegistry meterRegistry,
+                           @Value("${post.view.stripes:16}") int stripeCount) {
+        this.postMapper = postMapper;
+        this.shardRouter = shardRouter;
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new Stripe[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new Stripe();
+        }
+        this.stripeMask = size - 1;
+        this.flushedViews = Counter.builder("post.views.flushed").register(meterRegistry);
+        this.flushFailures = Counter.builder("post.views.flush.failures").register(meterRegistry);
+        Gauge.builder("post.views.pending.posts", this, PostViewCounter::pendingPostCount).register(meterRegistry);
+    }
+
+    // 게시물 조회수를 1 증가시킵니다.
+    public void increment(int postId) {
+        Stripe stripe = stripes[stripeIndex()];
+        stripe.lock.lock();
+        try {
+            stripe.deltas.addTo(postId, 1);
+        } finally {
+            stripe.lock.unlock();
+        }
+    }
+
+    // 아직 DB에 반영되지 않은 조회수 증가분입니다.
+    public long pending(int postId) {
+        long pending = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                pending += stripe.deltas.get(postId, 0);
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        IntLongHashMap flushingNow = flushing;
+        synchronized (flushingNow) {
+            pending += flushingNow.get(postId, 0);
+        }
+        return pending;
+    }
+
+    // 모인 증가분을 DB에 반영합니다.
+    @Scheduled(fixedDelayString = "${post.view.flushMillis:1000}")
+    public void flush() {
+        flushLock.lock();
+        try {
+            IntLongHashMap merged = new IntLongHashMap();
+            flushing = merged;
+            // 조각의 잠금을 잡은 채로 flushing에 옮기므로, 옮기는 중에도 읽는 쪽에서 증가분이 사라져 보이지 않습니다.
+            // (pending은 조각을 먼저 읽으므로 옮기는 순간에는 잠시 두 번 더해져 보일 수 있습니다.)
+            for (Stripe stripe : stripes) {
+                stripe.lock.lock();
+                try {
+                    if (stripe.deltas.size() == 0) {
+                        continue;
+                    }
+                    synchronized (merged) {
+                        stripe.deltas.forEach(merged::addTo);
+                    }
+                    stripe.deltas = new IntLongHashMap();
+                } finally {
+                    stripe.lock.unlock();
+                }
+            }
+
+            // 이후로 merged는 이 스레드만 변경하므로 잠금 없이 순회합니다.
+            // 샤드마다 마지막 배치를 따로 두어 한 배치에는 한 샤드의 게시물만 담습니다.
+            List<Map<Integer, Long>> batches = new ArrayList<>();
+            List<Map<Integer, Long>> lastBatchOfShard = new ArrayList<>();
+            for (int shard = 0; shard < shardRouter.shardCount(); shard++) {
+                lastBatchOfShard.add(null);
+            }
+            merged.forEach((postId, delta) -> {
+                int shard = shardRouter.shardOf(postId);
+                Map<Integer, Long> batch = lastBatchOfShard.get(shard);
+                if (batch == null || batch.size() >= batchSize) {
+                    batch = new LinkedHashMap<>();
+                    batches.add(batch);
+                    lastBatchOfShard.set(shard, batch);
+                }
+                batch.put(postId, delta);
+            });
+            for (Map<Integer, Long> batch : batches) {
+                writeBatch(batch, merged);
+            }
+        } finally {
+            flushLock.unlock();
+        }
+    }
+
+    // 서버 종료 시 남은 증가분을 모두 반영합니다.
+    @PreDestroy
+    public void drain() {
+        flush();
+    }
+
+    private void writeBatch(Map<Integer, Long> batch, IntLongHashMap merged) {
+        try {
+            postMapper.addViews(batch);
+            long total = 0;
+            for (long delta : batch.values()) {
+                total += delta;
+            }
+            flushedViews.increment(total);
+            synchronized (merged) {
+                batch.keySet().forEach(merged::remove);
+            }
+        } catch (RuntimeException e) {
+            // 반영하지 못한 증가분은 카운터에 되돌려 다음 주기에 다시 시도합니다.
+            flushFailures.increment();
+            log.error("조회수 반영 실패, 다음 주기에 다시 시도합니다 : {}건", batch.size(), e);
+            Stripe stripe = stripes[stripeIndex()];
+            stripe.lock.lock();
+            try {
+                synchronized (merged) {
+                    batch.forEach((postId, delta) -> {
+                        stripe.deltas.addTo(postId, delta);
+                        merged.remove(postId);
+                    });
+                }
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+    }
+
+    private int pendingPostCount() {
+        int count = 0;
+        for (Stripe stripe : stripes) {
+            stripe.lock.lock();
+            try {
+                count += stripe.deltas.size();
+            } finally {
+                stripe.lock.unlock();
+            }
+        }
+        return count;
+    }
+
+    // 같은 스레드는 항상 같은 조각을 쓰므로, 서로 다른 요청 스레드는 대부분 서로 다른 잠금을 잡습니다.
+    private int stripeIndex() {
+        long id = Thread.currentThread().threadId();
+        return (int) (id ^ (id >>> 16)) & stripeMask;
+    }
+
+    private static final class Stripe {
+        private final ReentrantLock lock = new ReentrantLock();
+        private IntLongHashMap deltas = new IntLongHashMap();
+    }
+}
@@ -0,0 +1,204 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.CommentTreeDTO;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.PostPageDTO;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.RedisSerializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostCacheSerializerTest {
+    private static final int COMPRESS_THRESHOLD = 512;
+
+    private final PostCacheSerializer serializer = new PostCacheSerializer(new FakeJsonSerializer(), COMPRESS_THRESHOLD);
+
+    @Test
+    void postRoundTrips() {
+        PostDTO post = post(1, "스프링 부트", "본문");
+        byte[] bytes = serializer.serialize(post);
+
+        assertEquals(PostCacheSerializer.VERSION, bytes[0]);
+        assertPostEquals(post, (PostDTO) serializer.deserialize(bytes));
+    }
+
+    @Test
+    void nullFieldsAndNegativeNumbersRoundTrip() {
+        PostDTO post = PostDTO.builder().id(-1).views(Integer.MIN_VALUE).userId(Integer.MAX_VALUE).build();
+
+        assertPostEquals(post, (PostDTO) serializer.deserialize(serializer.serialize(post)));
+    }
+
+    @Test
+    void postListAndPageRoundTrip() {
+        List<PostDTO> posts = List.of(post(1, "a", "b"), post(2, "c", null));
+
+        List<?> list = (List<?>) serializer.deserialize(serializer.serialize(posts));
+        assertEquals(2, list.size());
+        assertPostEquals(posts.get(0), (PostDTO) list.get(0));
+        assertPostEquals(posts.get(1), (PostDTO) list.get(1));
+
+        PostPageDTO page = (PostPageDTO) serializer.deserialize(serializer.serialize(new PostPageDTO(posts, "Ab-_9")));
+        assertEquals("Ab-_9", page.getNextCursor());
+        assertPostEquals(posts.get(1), page.getPostDTOList().get(1));
+
+        PostPageDTO lastPage = (PostPageDTO) serializer.deserialize(serializer.serialize(new PostPageDTO(null, null)));
+        assertNull(lastPage.getPostDTOList());
+        assertNull(lastPage.getNextCursor());
+        assertEquals(List.of(), serializer.deserialize(serializer.serialize(List.of())));
+    }
+
+    @Test
+    void cachedValueRoundTripsWithWrappedValue() {
+        CachedValue cachedValue = new CachedValue(post(3, "제목", "본문"), 1_700_000_000_000L, 42);
+
+        CachedValue read = (CachedValue) serializer.deserialize(serializer.serialize(cachedValue));
+        assertEquals(1_700_000_000_000L, read.getCreatedAt());
+        assertEquals(42, read.getComputeMillis());
+        assertPostEquals((PostDTO) cachedValue.getValue(), (PostDTO) read.getValue());
+    }
+
+    // 지원하지 않는 타입은 JSON 직렬화기로 저장합니다.
+    @Test
+    void otherTypesFallBackToJson() {
+        assertEquals("text", serializer.deserialize(serializer.serialize("text")));
+    }
+
+    @Test
+    void largeValuesAreCompressed() {
+        List<PostDTO> posts = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            posts.add(post(i, "같은 제목", "같은 본문 ".repeat(10)));
+        }
+        byte[] bytes = serializer.serialize(posts);
+
+        assertEquals(PostCacheSerializer.FLAG_LZ4, bytes[1]);
+        List<?> read = (List<?>) serializer.deserialize(bytes);
+        assertEquals(100, read.size());
+        assertPostEquals(posts.get(99), (PostDTO) read.get(99));
+    }
+
+    @Test
+    void smallValuesAreNotCompressed() {
+        assertEquals(0, serializer.serialize(post(1, "a", "b"))[1]);
+    }
+
+    // 이전 버전이 JSON으로 저장한 값은 배포 중에도 JSON 직렬화기로 읽습니다.
+    @Test
+    void legacyJsonIsReadWithJsonSerializer() {
+        assertEquals("legacy", serializer.deserialize("\"legacy\"".getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void emptyBytesAreNull() {
+        assertNull(serializer.deserialize(new byte[0]));
+        assertNull(serializer.deserialize(null));
+        assertEquals(0, serializer.serialize(null).length);
+    }
+
+    @Test
+    void commentTreeListRoundTrips() {
+        CommentTreeDTO reply = new CommentTreeDTO(2, 10, "답글", 1, new ArrayList<>());
+        reply.getReplies().add(new CommentTreeDTO(3, 10, "답글의 답글", 2, null));
+        CommentTreeDTO root = new CommentTreeDTO(1, 10, "댓글", 0, new ArrayList<>(List.of(reply)));
+        List<CommentTreeDTO> comments = List.of(root, new CommentTreeDTO(4, 10, null, 0, new ArrayList<>()));
+
+        List<?> read = (List<?>) serializer.deserialize(serializer.serialize(comments));
+        assertEquals(2, read.size());
+        assertCommentEquals(root, (CommentTreeDTO) read.get(0));
+        assertCommentEquals(comments.get(1), (CommentTreeDTO) read.get(1));
+    }
+
+    // 같은 Redis를 쓰는 다른 버전의 서버가 저장한 값은 예외 대신 캐시 미스로 처리합니다.
+    @Test
+    void unknownVersionIsMiss() {
+        byte[] bytes = serializer.serialize(post(1, "a", "b"));
+        bytes[0] = PostCacheSerializer.VERSION + 1;
+
+        assertNull(serializer.deserialize(bytes));
+        bytes[0] = 0;
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    @Test
+    void unknownTypeIsMiss() {
+        byte[] bytes = {PostCacheSerializer.VERSION, 0, 99};
+
+        assertNull(serializer.deserialize(bytes));
+    }
+
+    // 버전 2는 버전 1의 형식에 타입만 추가했으므로 버전 1로 저장된 값도 읽습니다.
+    @Test
+    void readsPreviousVersion() {
+        PostDTO post = post(1, "a", "b");
+        byte[] bytes = serializer.serialize(post);
+        bytes[0] = 1;
+
+        assertPostEquals(post, (PostDTO) serializer.deserialize(bytes));
+    }
+
+    private static PostDTO post(int id, String name, String contents) {
+        return PostDTO.builder()
+                .id(id)
+                .name(name)
+                .contents(contents)
+                .isAdmin(1)
+                .views(id * 10)
+                .categoryId(2)
+                .userId(7)
+                .fileId(0)
+                .createTime(new Date(1_700_000_000_000L + id))
+                .updateTime(null)
+                .build();
+    }
+
+    private static void assertCommentEquals(CommentTreeDTO expected, CommentTreeDTO actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getPostId(), actual.getPostId());
+        assertEquals(expected.getContents(), actual.getContents());
+        assertEquals(expected.getSubCommentId(), actual.getSubCommentId());
+        if (expected.getReplies() == null) {
+            assertNull(actual.getReplies());
+            return;
+        }
+        assertEquals(expected.getReplies().size(), actual.getReplies().size());
+        for (int i = 0; i < expected.getReplies().size(); i++) {
+            assertCommentEquals(expected.getReplies().get(i), actual.getReplies().get(i));
+        }
+    }
+
+    private static void assertPostEquals(PostDTO expected, PostDTO actual) {
+        assertEquals(expected.getId(), actual.getId());
+        assertEquals(expected.getName(), actual.getName());
+        assertEquals(expected.getIsAdmin(), actual.getIsAdmin());
+        assertEquals(expected.getContents(), actual.getContents());
+        assertEquals(expected.getCreateTime(), actual.getCreateTime());
+        assertEquals(expected.getViews(), actual.getViews());
+        assertEquals(expected.getCategoryId(), actual.getCategoryId());
+        assertEquals(expected.getUserId(), actual.getUserId());
+        assertEquals(expected.getFileId(), actual.getFileId());
+        assertEquals(expected.getUpdateTime(), actual.getUpdateTime());
+    }
+
+    // 문자열만 JSON 문자열로 저장하는 JSON 직렬화기입니다.
+    private static class FakeJsonSerializer implements RedisSerializer<Object> {
+        @Override
+        public byte[] serialize(Object value) {
+            return ("\"" + value + "\"").getBytes(StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public Object deserialize(byte[] bytes) {
+            String json = new String(bytes, StandardCharsets.UTF_8);
+            assertTrue(json.startsWith("\"") && json.endsWith("\""), json);
+            return json.substring(1, json.length() - 1);
+        }
+    }
+}
@@ -0,0 +1,153 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostSearchKeyGeneratorTest {
+    private static final int DEFAULT_PAGE_SIZE = 20;
+    private static final int MAX_PAGE_SIZE = 100;
+    private static final int MAX_TRACKED_CATEGORIES = 4;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private PostSearchKeyGenerator keyGenerator;
+
+    @BeforeEach
+    void setUp() {
+        keyGenerator = new PostSearchKeyGenerator(new FixedSearchCacheGeneration(), meterRegistry);
+        ReflectionTestUtils.setField(keyGenerator, "defaultPageSize", DEFAULT_PAGE_SIZE);
+        ReflectionTestUtils.setField(keyGenerator, "maxPageSize", MAX_PAGE_SIZE);
+        ReflectionTestUtils.setField(keyGenerator, "maxTrackedCategories", MAX_TRACKED_CATEGORIES);
+    }
+
+    @Test
+    void keyContainsGenerationPrefixAndFixedLengthFingerprint() {
+        String key = keyGenerator.key(request().categoryId(3).build());
+
+        assertTrue(key.startsWith("getProducts:c3:7:"), key);
+        assertTrue(key.substring("getProducts:c3:7:".length()).matches("[0-9a-f]{32}"), key);
+    }
+
+    @Test
+    void equivalentRequestsShareKey() {
+        String key = keyGenerator.key(request().name("Spring").contents("Boot").build());
+
+        // 검색어 앞뒤 공백과 대소문자는 같은 검색입니다.
+        assertEquals(key, keyGenerator.key(request().name("  spring ").contents("BOOT").build()));
+        // 정렬과 페이지 크기를 지정하지 않으면 기본값과 같습니다.
+        assertEquals(key, keyGenerator.key(request().name("Spring").contents("Boot")
+                .sortStatus(SortStatus.NEWEST).size(DEFAULT_PAGE_SIZE).build()));
+        assertEquals(keyGenerator.key(request().size(MAX_PAGE_SIZE).build()),
+                keyGenerator.key(request().size(MAX_PAGE_SIZE * 10).build()));
+        // 빈 검색어는 검색어가 없는 것과 같습니다.
+        assertEquals(keyGenerator.key(request().build()), keyGenerator.key(request().name("   ").build()));
+    }
+
+    @Test
+    void differentFieldsGiveDifferentKeys() {
+        Set<String> keys = new HashSet<>();
+        keys.add(keyGenerator.key(request().build()));
+        keys.add(keyGenerator.key(request().name("spring").build()));
+        keys.add(keyGenerator.key(request().contents("spring").build()));
+        keys.add(keyGenerator.key(request().categoryId(1).build()));
+        keys.add(keyGenerator.key(request().sortStatus(SortStatus.OLDEST).build()));
+        keys.add(keyGenerator.key(request().cursor("abc").build()));
+        keys.add(keyGenerator.key(request().size(10).build()));
+
+        assertEquals(7, keys.size());
+    }
+
+    // 검색 쿼리가 사용하지 않는 필드는 결과가 같으므로 같은 키입니다.
+    @Test
+    void fieldsIgnoredBySearchShareKey() {
+        String key = keyGenerator.key(request().name("spring").build());
+
+        assertEquals(key, keyGenerator.key(request().name("spring").id(1).build()));
+        assertEquals(key, keyGenerator.key(request().name("spring").views(10).build()));
+        assertEquals(key, keyGenerator.key(request().name("spring").userId(3).build()));
+    }
+
+    // 커서는 base64url이므로 대소문자만 다른 커서도 서로 다른 페이지입니다.
+    @Test
+    void cursorIsCaseSensitive() {
+        assertNotEquals(keyGenerator.key(request().cursor("AbC-_1").build()),
+                keyGenerator.key(request().cursor("abc-_1").build()));
+    }
+
+    @Test
+    void fieldBoundariesDoNotCollide() {
+        assertNotEquals(keyGenerator.key(request().name("ab").contents("c").build()),
+                keyGenerator.key(request().name("a").contents("bc").build()));
+        assertNotEquals(keyGenerator.key(request().name("abc").build()),
+                keyGenerator.key(request().contents("abc").build()));
+        assertNotEquals(keyGenerator.key(request().name("abc").build()),
+                keyGenerator.key(request().cursor("abc").build()));
+    }
+
+    @Test
+    void randomRequestsDoNotCollide() {
+        Random random = new Random(42);
+        Set<String> requests = new HashSet<>();
+        Set<String> keys = new HashSet<>();
+        for (int i = 0; i < 50_000; i++) {
+            String name = randomText(random);
+            String contents = randomText(random);
+            String cursor = randomText(random);
+            int size = 1 + random.nextInt(MAX_PAGE_SIZE);
+            if (requests.add(name + "\n" + contents + "\n" + cursor + "\n" + size)) {
+                keys.add(keyGenerator.key(request().name(name).contents(contents).cursor(cursor).size(size).build()));
+            }
+        }
+
+        assertEquals(requests.size(), keys.size());
+    }
+
+    // 클라이언트가 보낸 카테고리마다 게이지를 만들지 않고, 정해진 개수를 넘으면 other 하나로 셉니다.
+    @Test
+    void keyCardinalityGaugesAreBounded() {
+        for (int categoryId = 1; categoryId <= 1000; categoryId++) {
+            keyGenerator.key(request().categoryId(categoryId).build());
+        }
+
+        Set<String> categories = new HashSet<>();
+        meterRegistry.getMeters().stream()
+                .filter(meter -> meter.getId().getName().equals("search.cache.keys"))
+                .forEach(meter -> categories.add(meter.getId().getTag("categoryId")));
+        assertEquals(Set.of("1", "2", "3", "4", "other"), categories);
+    }
+
+    private static String randomText(Random random) {
+        char[] chars = new char[random.nextInt(4)];
+        for (int i = 0; i < chars.length; i++) {
+            chars[i] = (char) ('a' + random.nextInt(3));
+        }
+        return new String(chars);
+    }
+
+    private static PostSearchRequest.PostSearchRequestBuilder request() {
+        return PostSearchRequest.builder();
+    }
+
+    // Redis 대신 고정된 세대 번호를 사용합니다.
+    private static class FixedSearchCacheGeneration extends SearchCacheGeneration {
+        FixedSearchCacheGeneration() {
+            super(null, null, 0);
+        }
+
+        @Override
+        public String keyPrefix(int categoryId) {
+            return categoryId == 0 ? "all:7" : "c" + categoryId + ":7";
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package com.dustin.boardserver.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RedisBloomFilterTest {
+
+    @Test
+    void offsetsAreDeterministicAndInRange() {
+        long m = 1_000_003;
+        for (int i = 0; i < 1000; i++) {
+            long[] offsets = RedisBloomFilter.offsets("user" + i, m, 7);
+
+            assertEquals(7, offsets.length);
+            assertArrayEquals(offsets, RedisBloomFilter.offsets("user" + i, m, 7));
+            for (long offset : offsets) {
+                assertTrue(offset >= 0 && offset < m, "offset " + offset);
+            }
+        }
+    }
+
+    // 2^32 비트처럼 int 범위를 넘는 크기에서도 음수나 범위 밖 위치가 나오지 않아야 합니다.
+    @Test
+    void offsetsStayInRangeForLargeFilters() {
+        long m = 1L << 32;
+        boolean aboveIntRange = false;
+        for (int i = 0; i < 1000; i++) {
+            for (long offset : RedisBloomFilter.offsets("user" + i, m, 10)) {
+                assertTrue(offset >= 0 && offset < m, "offset " + offset);
+                aboveIntRange |= offset > Integer.MAX_VALUE;
+            }
+        }
+        assertTrue(aboveIntRange);
+    }
+
+    @Test
+    void differentValuesUseDifferentOffsets() {
+        long[] a = RedisBloomFilter.offsets("alice", 1 << 20, 7);
+        long[] b = RedisBloomFilter.offsets("alicf", 1 << 20, 7);
+
+        assertFalse(Arrays.equals(a, b));
+    }
+
+    // DB collation에서 같은 값은 같은 비트를 씁니다.
+    @Test
+    void normalizeIgnoresCaseAndSurroundingSpaces() {
+        assertEquals("alice", RedisBloomFilter.normalize("  Alice "));
+        assertEquals("", RedisBloomFilter.normalize(null));
+        assertArrayEquals(RedisBloomFilter.offsets(RedisBloomFilter.normalize("ALICE"), 1 << 20, 7),
+                RedisBloomFilter.offsets(RedisBloomFilter.normalize("alice  "), 1 << 20, 7));
+    }
+
+    @Test
+    void optimalBitsFollowsFormula() {
+        // n = 1,000,000, p = 1% → 약 9,585,059비트
+        long bits = RedisBloomFilter.optimalBits(1_000_000, 0.01);
+
+        assertEquals(9_585_059, bits, 8);
+        assertEquals(0, bits % 8);
+        assertEquals(7, RedisBloomFilter.optimalHashes(1_000_000, bits));
+    }
+
+    @Test
+    void optimalBitsIsClamped() {
+        assertEquals(64, RedisBloomFilter.optimalBits(1, 0.5));
+        assertEquals(1L << 32, RedisBloomFilter.optimalBits(10_000_000_000L, 0.0001));
+        assertEquals(1, RedisBloomFilter.optimalHashes(1_000, 64));
+    }
+
+    // optimalBits/optimalHashes로 정한 크기에서 용량만큼 넣었을 때 오탐률이 목표에 가까운지 확인합니다.
+    @Test
+    void falsePositiveRateMatchesTarget() {
+        int capacity = 20_000;
+        double targetFpp = 0.01;
+        long m = RedisBloomFilter.optimalBits(capacity, targetFpp);
+        int k = RedisBloomFilter.optimalHashes(capacity, m);
+        BitSet bits = new BitSet((int) m);
+        for (int i = 0; i < capacity; i++) {
+            for (long offset : RedisBloomFilter.offsets("member" + i, m, k)) {
+                bits.set((int) offset);
+            }
+        }
+
+        for (int i = 0; i < capacity; i++) {
+            assertTrue(contains(bits, "member" + i, m, k));
+        }
+        int falsePositives = 0;
+        int trials = 100_000;
+        for (int i = 0; i < trials; i++) {
+            if (contains(bits, "stranger" + i, m, k)) {
+                falsePositives++;
+            }
+        }
+        double fpp = (double) falsePositives / trials;
+        assertTrue(fpp > targetFpp / 2 && fpp < targetFpp * 1.5, "fpp " + fpp);
+    }
+
+    private static boolean contains(BitSet bits, String value, long m, int k) {
+        for (long offset : RedisBloomFilter.offsets(value, m, k)) {
+            if (!bits.get((int) offset)) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,85 @@
+package com.dustin.boardserver.cache;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RefreshAheadPolicyTest {
+    private static final long CREATED_AT = 1_000_000L;
+    private static final long SOFT_TTL = 60_000L;
+    private static final long STALE_CAP = 30_000L;
+    private static final int TRIALS = 20_000;
+
+    private final RefreshAheadPolicy policy = policy(1.0);
+
+    @Test
+    void hardTtlIsSoftTtlPlusStaleCap() {
+        assertEquals(Duration.ofMillis(SOFT_TTL + STALE_CAP), policy.hardTtl());
+    }
+
+    @Test
+    void servableUntilHardTtl() {
+        CachedValue cachedValue = new CachedValue("value", CREATED_AT, 100);
+
+        assertTrue(policy.isServable(cachedValue, CREATED_AT));
+        assertTrue(policy.isServable(cachedValue, CREATED_AT + SOFT_TTL + STALE_CAP - 1));
+        assertFalse(policy.isServable(cachedValue, CREATED_AT + SOFT_TTL + STALE_CAP));
+    }
+
+    @Test
+    void alwaysRefreshesAfterSoftTtl() {
+        CachedValue cachedValue = new CachedValue("value", CREATED_AT, 100);
+
+        for (int i = 0; i < TRIALS; i++) {
+            assertTrue(policy.shouldRefresh(cachedValue, CREATED_AT + SOFT_TTL));
+            assertTrue(policy.shouldRefresh(cachedValue, CREATED_AT + SOFT_TTL + STALE_CAP - 1));
+        }
+    }
+
+    // 계산 시간이 0이거나 beta가 0이면 일찍 갱신하지 않습니다.
+    @Test
+    void neverRefreshesEarlyWithoutComputeCostOrBeta() {
+        CachedValue free = new CachedValue("value", CREATED_AT, 0);
+        CachedValue costly = new CachedValue("value", CREATED_AT, 1_000);
+        RefreshAheadPolicy noBeta = policy(0.0);
+
+        for (int i = 0; i < TRIALS; i++) {
+            assertFalse(policy.shouldRefresh(free, CREATED_AT + SOFT_TTL - 1));
+            assertFalse(noBeta.shouldRefresh(costly, CREATED_AT + SOFT_TTL - 1));
+        }
+    }
+
+    // XFetch: 만료 computeMillis * beta 전에는 P(-ln(random) >= 1) = 1/e 확률로 갱신합니다.
+    @Test
+    void earlyRefreshProbabilityFollowsXFetch() {
+        CachedValue cachedValue = new CachedValue("value", CREATED_AT, 1_000);
+
+        double oneComputeBefore = refreshRate(policy, cachedValue, CREATED_AT + SOFT_TTL - 1_000);
+        double halfComputeBefore = refreshRate(policy, cachedValue, CREATED_AT + SOFT_TTL - 500);
+        double longBefore = refreshRate(policy, cachedValue, CREATED_AT + SOFT_TTL - 20_000);
+
+        assertEquals(Math.exp(-1), oneComputeBefore, 0.02);
+        assertEquals(Math.exp(-0.5), halfComputeBefore, 0.02);
+        assertEquals(0.0, longBefore, 0.001);
+        // beta가 클수록 더 일찍 갱신합니다.
+        assertEquals(Math.exp(-0.5), refreshRate(policy(2.0), cachedValue, CREATED_AT + SOFT_TTL - 1_000), 0.02);
+    }
+
+    private static double refreshRate(RefreshAheadPolicy policy, CachedValue cachedValue, long now) {
+        int refreshed = 0;
+        for (int i = 0; i < TRIALS; i++) {
+            if (policy.shouldRefresh(cachedValue, now)) {
+                refreshed++;
+            }
+        }
+        return (double) refreshed / TRIALS;
+    }
+
+    private static RefreshAheadPolicy policy(double beta) {
+        return new RefreshAheadPolicy(Duration.ofMillis(SOFT_TTL), Duration.ofMillis(STALE_CAP), beta, Runnable::run);
+    }
+}
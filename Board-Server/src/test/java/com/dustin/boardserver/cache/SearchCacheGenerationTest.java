@@ -0,0 +1,135 @@
+package com.dustin.boardserver.cache;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ValueOperations;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SearchCacheGenerationTest {
+    private final FakeRedisTemplate redisTemplate = new FakeRedisTemplate();
+    private final RecordingPublisher publisher = new RecordingPublisher("node-a");
+
+    @Test
+    void keyPrefixUsesCategoryAndAllGenerations() {
+        SearchCacheGeneration generation = new SearchCacheGeneration(redisTemplate, publisher, 60_000);
+        redisTemplate.values.put("search:gen:category:3", "17");
+
+        assertEquals("c3:17", generation.keyPrefix(3));
+        assertEquals("all:0", generation.keyPrefix(0));
+    }
+
+    // 올린 서버는 보관한 세대 번호를 바로 지우고 다른 서버에 알립니다.
+    @Test
+    void bumpEvictsLocallyAndPublishes() {
+        SearchCacheGeneration generation = new SearchCacheGeneration(redisTemplate, publisher, 60_000);
+        assertEquals("c3:0", generation.keyPrefix(3));
+
+        generation.bump(3);
+
+        assertEquals("c3:1", generation.keyPrefix(3));
+        assertEquals("all:1", generation.keyPrefix(0));
+        assertEquals(List.of("search:gen:category:3", "search:gen:all"), publisher.published);
+    }
+
+    @Test
+    void otherServerEvictsOnMessage() {
+        SearchCacheGeneration other = new SearchCacheGeneration(redisTemplate, new RecordingPublisher("node-b"), 60_000);
+        assertEquals("c3:0", other.keyPrefix(3));
+        redisTemplate.values.put("search:gen:category:3", "1");
+
+        // 다른 캐시에 대한 메시지는 무시하므로 보관한 값을 그대로 씁니다.
+        other.onMessage(message("node-a", "getProducts", "search:gen:category:3"), null);
+        assertEquals("c3:0", other.keyPrefix(3));
+
+        other.onMessage(message("node-a", SearchCacheGeneration.CACHE_NAME, "search:gen:category:3"), null);
+        assertEquals("c3:1", other.keyPrefix(3));
+    }
+
+    // 세대 번호를 읽은 적이 없으면 언제 바뀌었는지 모르므로 방금 바뀐 것으로 봅니다.
+    @Test
+    void unseenCategoryCountsAsChanged() {
+        SearchCacheGeneration generation = new SearchCacheGeneration(redisTemplate, publisher, 60_000);
+
+        assertTrue(generation.changedWithin(3, 1));
+    }
+
+    @Test
+    void changedWithinWindowAfterNewGenerationIsSeen() throws InterruptedException {
+        SearchCacheGeneration generation = new SearchCacheGeneration(redisTemplate, publisher, 0);
+        generation.keyPrefix(3);
+        Thread.sleep(30);
+
+        assertFalse(generation.changedWithin(3, 20));
+        assertTrue(generation.changedWithin(3, 60_000));
+
+        // 같은 세대 번호를 다시 읽어도 처음 본 시각은 바뀌지 않습니다.
+        generation.keyPrefix(3);
+        assertFalse(generation.changedWithin(3, 20));
+
+        // 다른 서버가 올린 세대 번호를 읽으면 그때부터 다시 셉니다.
+        redisTemplate.values.put("search:gen:category:3", "1");
+        generation.keyPrefix(3);
+        assertTrue(generation.changedWithin(3, 20));
+        // 다른 카테고리에는 영향이 없습니다.
+        generation.keyPrefix(4);
+        Thread.sleep(30);
+        assertFalse(generation.changedWithin(4, 20));
+    }
+
+    private static DefaultMessage message(String nodeId, String cacheName, String key) {
+        return new DefaultMessage(CacheInvalidationPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                (nodeId + "\n" + cacheName + "\n" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // Redis 대신 메모리의 값을 읽고 올립니다. get과 increment만 지원합니다.
+    private static class FakeRedisTemplate extends StringRedisTemplate {
+        private final Map<String, String> values = new HashMap<>();
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public ValueOperations<String, String> opsForValue() {
+            return (ValueOperations<String, String>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{ValueOperations.class}, (proxy, method, args) -> switch (method.getName()) {
+                        case "get" -> values.get((String) args[0]);
+                        case "increment" -> {
+                            long value = Long.parseLong(values.getOrDefault((String) args[0], "0")) + 1;
+                            values.put((String) args[0], String.valueOf(value));
+                            yield value;
+                        }
+                        default -> throw new UnsupportedOperationException(method.getName());
+                    });
+        }
+    }
+
+    // 다른 서버에 보낸 메시지의 키를 기록합니다.
+    private static class RecordingPublisher extends CacheInvalidationPublisher {
+        private final List<String> published = new ArrayList<>();
+        private final String nodeId;
+
+        RecordingPublisher(String nodeId) {
+            super(null);
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public void publishEvict(String cacheName, Object key) {
+            published.add(String.valueOf(key));
+        }
+    }
+}
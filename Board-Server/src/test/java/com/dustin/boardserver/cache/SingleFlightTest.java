@@ -0,0 +1,127 @@
+package com.dustin.boardserver.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SingleFlightTest {
+    private static final int FOLLOWERS = 8;
+
+    private final SingleFlight singleFlight = new SingleFlight();
+    private final ExecutorService executor = Executors.newFixedThreadPool(FOLLOWERS + 1);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallsShareOneLoad() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Object value = new Object();
+
+        Future<SingleFlight.Result> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return value;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        List<Future<SingleFlight.Result>> followers = new ArrayList<>();
+        for (int i = 0; i < FOLLOWERS; i++) {
+            followers.add(executor.submit(() -> singleFlight.execute("key", () -> {
+                calls.incrementAndGet();
+                return new Object();
+            })));
+        }
+        // 따라온 요청이 leader의 결과를 기다리기 시작할 시간을 줍니다.
+        Thread.sleep(100);
+        release.countDown();
+
+        assertTrue(leader.get(5, TimeUnit.SECONDS).leader());
+        assertSame(value, leader.get().value());
+        for (Future<SingleFlight.Result> follower : followers) {
+            assertFalse(follower.get(5, TimeUnit.SECONDS).leader());
+            assertSame(value, follower.get().value());
+        }
+        assertEquals(1, calls.get());
+    }
+
+    @Test
+    void followersReceiveLeaderException() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        IllegalStateException failure = new IllegalStateException("db down");
+
+        Future<SingleFlight.Result> leader = executor.submit(() -> singleFlight.execute("key", () -> {
+            loading.countDown();
+            release.await();
+            throw failure;
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        Future<SingleFlight.Result> follower = executor.submit(() -> singleFlight.execute("key", () -> "other"));
+        Thread.sleep(100);
+        release.countDown();
+
+        Exception leaderError = assertThrows(Exception.class, () -> leader.get(5, TimeUnit.SECONDS));
+        Exception followerError = assertThrows(Exception.class, () -> follower.get(5, TimeUnit.SECONDS));
+        assertSame(failure, leaderError.getCause());
+        assertSame(failure, followerError.getCause());
+    }
+
+    // 결과는 저장하지 않으므로 실행이 끝난 뒤의 요청은 다시 실행합니다. 실패한 뒤에도 마찬가지입니다.
+    @Test
+    void completedLoadIsNotReused() throws Exception {
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(IllegalStateException.class, () -> singleFlight.execute("key", () -> {
+            calls.incrementAndGet();
+            throw new IllegalStateException();
+        }));
+        SingleFlight.Result first = singleFlight.execute("key", calls::incrementAndGet);
+        SingleFlight.Result second = singleFlight.execute("key", calls::incrementAndGet);
+
+        assertTrue(first.leader());
+        assertTrue(second.leader());
+        assertEquals(2, first.value());
+        assertEquals(3, second.value());
+    }
+
+    @Test
+    void differentKeysLoadIndependently() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<SingleFlight.Result> slow = executor.submit(() -> singleFlight.execute("a", () -> {
+            loading.countDown();
+            release.await();
+            return "a";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+        // 다른 키는 "a"의 실행이 끝나기를 기다리지 않습니다.
+        SingleFlight.Result other = singleFlight.execute("b", () -> "b");
+        assertTrue(other.leader());
+        assertEquals("b", other.value());
+
+        release.countDown();
+        assertEquals("a", slow.get(5, TimeUnit.SECONDS).value());
+    }
+}
@@ -0,0 +1,210 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.datasource.ReplicaRoutingContext;
+import com.dustin.boardserver.datasource.ShardContext;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.concurrent.ConcurrentMapCache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// L2(Redis)는 메모리 캐시로, 무효화 메시지 발행은 기록으로 대신합니다.
+class TwoLevelCacheTest {
+    private static final int CALLERS = 8;
+
+    private final CountingRedisCache redisCache = new CountingRedisCache();
+    private final RecordingPublisher publisher = new RecordingPublisher();
+    private final TwoLevelCache cache = cache(null);
+    private final ExecutorService executor = Executors.newFixedThreadPool(CALLERS);
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void l1HitDoesNotReadRedis() {
+        redisCache.put("1", "post");
+
+        assertEquals("post", cache.get("1").get());
+        assertEquals("post", cache.get("1").get());
+
+        // 첫 조회에서 L2에서 찾은 값을 L1에 채우므로 두 번째 조회는 L2를 읽지 않습니다.
+        assertEquals(1, redisCache.reads.get());
+    }
+
+    @Test
+    void missIsLoadedIntoBothLevelsWithoutPublishing() {
+        AtomicInteger loads = new AtomicInteger();
+
+        assertEquals("post", cache.get("1", () -> {
+            loads.incrementAndGet();
+            return "post";
+        }));
+        assertEquals("post", cache.get("1", () -> "other"));
+
+        assertEquals(1, loads.get());
+        assertEquals("post", redisCache.getNativeCache().get("1"));
+        assertTrue(publisher.messages.isEmpty(), publisher.messages.toString());
+    }
+
+    @Test
+    void putEvictAndClearPublishInvalidation() {
+        cache.put("1", "post");
+        assertEquals("post", redisCache.getNativeCache().get("1"));
+
+        cache.evict("1");
+        assertNull(redisCache.getNativeCache().get("1"));
+        assertNull(cache.get("1"));
+
+        cache.clear();
+
+        assertEquals(List.of("evict 1", "evict 1", "clear"), publisher.messages);
+    }
+
+    // 다른 서버의 무효화 메시지는 L1에서만 지우므로, 다음 조회는 원본이 아닌 L2에서 다시 채웁니다.
+    @Test
+    void remoteEvictionClearsOnlyLocalCache() {
+        cache.get("1", () -> "post");
+        int reads = redisCache.reads.get();
+
+        cache.evictLocal("1");
+
+        assertEquals("post", cache.get("1", () -> "reloaded"));
+        assertEquals(reads + 1, redisCache.reads.get());
+        assertEquals("post", redisCache.getNativeCache().get("1"));
+
+        cache.clearLocal();
+        assertEquals("post", cache.get("1").get());
+        assertEquals(reads + 2, redisCache.reads.get());
+    }
+
+    @Test
+    void concurrentMissesLoadOnce() throws Exception {
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        Future<Object> leader = executor.submit(() -> cache.get("1", () -> {
+            loads.incrementAndGet();
+            loading.countDown();
+            release.await();
+            return "post";
+        }));
+        assertTrue(loading.await(5, TimeUnit.SECONDS));
+        List<Future<Object>> followers = new ArrayList<>();
+        for (int i = 1; i < CALLERS; i++) {
+            followers.add(executor.submit(() -> cache.get("1", () -> {
+                loads.incrementAndGet();
+                return "other";
+            })));
+        }
+        // 따라온 요청이 leader의 결과를 기다리기 시작할 시간을 줍니다.
+        Thread.sleep(100);
+        release.countDown();
+
+        assertEquals("post", leader.get(5, TimeUnit.SECONDS));
+        for (Future<Object> follower : followers) {
+            assertEquals("post", follower.get(5, TimeUnit.SECONDS));
+        }
+        assertEquals(1, loads.get());
+    }
+
+    // 미리 갱신은 원본이 바뀐 것이 아니므로 새 값을 저장해도 무효화 메시지를 발행하지 않습니다.
+    @Test
+    void refreshAheadDoesNotPublishInvalidation() {
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(Duration.ZERO, Duration.ofMinutes(1), 1.0, Runnable::run);
+        TwoLevelCache refreshing = cache(policy);
+        redisCache.put("1", new CachedValue("old", System.currentTimeMillis(), 0));
+
+        assertEquals("old", refreshing.get("1", () -> "new"));
+
+        CachedValue stored = (CachedValue) redisCache.getNativeCache().get("1");
+        assertEquals("new", stored.getValue());
+        assertTrue(publisher.messages.isEmpty(), publisher.messages.toString());
+    }
+
+    // 갱신은 다른 스레드에서 실행되지만 요청 스레드와 같이 복제본/샤드를 골라 조회하고, 끝나면 갱신 스레드의 상태를 되돌립니다.
+    @Test
+    void refreshRunsWithCallersRoutingContext() throws Exception {
+        RefreshAheadPolicy policy = new RefreshAheadPolicy(Duration.ZERO, Duration.ofMinutes(1), 1.0, executor);
+        TwoLevelCache refreshing = cache(policy);
+        redisCache.put("1", new CachedValue("old", System.currentTimeMillis(), 0));
+        List<Object> seen = new ArrayList<>();
+        CountDownLatch refreshed = new CountDownLatch(1);
+
+        Boolean previousReadOnly = ReplicaRoutingContext.setReadOnly(true);
+        Integer previousShard = ShardContext.set(2);
+        try {
+            assertEquals("old", refreshing.get("1", () -> {
+                seen.add(ReplicaRoutingContext.isReadOnly());
+                seen.add(ShardContext.current());
+                refreshed.countDown();
+                return "new";
+            }));
+        } finally {
+            ShardContext.restore(previousShard);
+            ReplicaRoutingContext.restoreReadOnly(previousReadOnly);
+        }
+        assertTrue(refreshed.await(5, TimeUnit.SECONDS));
+
+        assertEquals(List.of(true, 2), seen);
+        for (int i = 0; i < CALLERS; i++) {
+            assertEquals(List.of(false, 0), executor.submit(
+                    () -> List.of(ReplicaRoutingContext.isReadOnly(), ShardContext.current())).get(5, TimeUnit.SECONDS));
+        }
+    }
+
+    private TwoLevelCache cache(RefreshAheadPolicy refreshAhead) {
+        return new TwoLevelCache("getProducts", Caffeine.newBuilder().maximumSize(100).build(), redisCache, publisher,
+                null, Duration.ofMillis(10), refreshAhead, new SimpleMeterRegistry());
+    }
+
+    // L2 조회 횟수를 셉니다.
+    private static class CountingRedisCache extends ConcurrentMapCache {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        CountingRedisCache() {
+            super("getProducts");
+        }
+
+        @Override
+        public ValueWrapper get(Object key) {
+            reads.incrementAndGet();
+            return super.get(key);
+        }
+    }
+
+    // Redis에 발행하는 대신 메시지를 기록합니다.
+    private static class RecordingPublisher extends CacheInvalidationPublisher {
+        private final List<String> messages = new ArrayList<>();
+
+        RecordingPublisher() {
+            super(null);
+        }
+
+        @Override
+        public void publishEvict(String cacheName, Object key) {
+            messages.add("evict " + key);
+        }
+
+        @Override
+        public void publishClear(String cacheName) {
+            messages.add("clear");
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.dustin.boardserver.cache;
+
+import com.dustin.boardserver.dto.UserDTO;
+import com.dustin.boardserver.mapper.UserProfileMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class UserProfileCacheTest {
+    private final FakeUserProfileMapper userProfileMapper = new FakeUserProfileMapper();
+    private final RecordingPublisher publisher = new RecordingPublisher();
+    private final UserProfileCache cache =
+            new UserProfileCache(userProfileMapper, publisher, new SimpleMeterRegistry(), 100, 300);
+
+    @Test
+    void profileIsLoadedOnce() {
+        userProfileMapper.put(7, "alice");
+
+        assertEquals("alice", cache.get(7).getNickName());
+        assertEquals("alice", cache.get(7).getNickName());
+
+        assertEquals(List.of("7"), userProfileMapper.singleLoads);
+    }
+
+    // 없는 사용자는 캐시하지 않으므로, 나중에 가입하면 바로 보입니다.
+    @Test
+    void missingUserIsNotCached() {
+        assertNull(cache.get(7));
+        userProfileMapper.put(7, "alice");
+
+        assertEquals("alice", cache.get(7).getNickName());
+        assertEquals(List.of("7", "7"), userProfileMapper.singleLoads);
+    }
+
+    // 캐시에 없는 ID만 IN 쿼리 한 번으로 읽고, 없는 사용자는 결과에서 빠집니다.
+    @Test
+    void getAllLoadsOnlyMissingIdsInOneQuery() {
+        userProfileMapper.put(1, "alice");
+        userProfileMapper.put(2, "bob");
+        userProfileMapper.put(3, "carol");
+        cache.get(1);
+
+        Map<Integer, UserDTO> profiles = cache.getAll(List.of(1, 2, 3, 404));
+
+        assertEquals(Set.of(1, 2, 3), profiles.keySet());
+        assertEquals("bob", profiles.get(2).getNickName());
+        assertEquals(List.of(Set.of(2, 3, 404)), userProfileMapper.batchLoads);
+
+        cache.getAll(List.of(1, 2, 3));
+        assertEquals(1, userProfileMapper.batchLoads.size());
+    }
+
+    // 비밀번호 변경/탈퇴 시 이 서버의 캐시를 지우고 다른 서버에 알립니다.
+    @Test
+    void invalidateEvictsAndPublishes() {
+        userProfileMapper.put(7, "alice");
+        cache.get(7);
+        userProfileMapper.put(7, "alice2");
+
+        cache.invalidate(7);
+
+        assertEquals("alice2", cache.get(7).getNickName());
+        assertEquals(List.of(7), publisher.evicted);
+    }
+
+    // 다른 서버의 메시지로 지우며, 자신이 보낸 메시지와 다른 캐시의 메시지는 무시합니다.
+    @Test
+    void otherServersMessageEvictsLocally() {
+        userProfileMapper.put(7, "alice");
+        userProfileMapper.put(8, "bob");
+        cache.get(7);
+        cache.get(8);
+        userProfileMapper.put(7, "alice2");
+        userProfileMapper.put(8, "bob2");
+
+        cache.onMessage(message("node-a", UserProfileCache.CACHE_NAME, "7"), null);
+        cache.onMessage(message("node-b", "getProducts", "7"), null);
+        assertEquals("alice", cache.get(7).getNickName());
+
+        cache.onMessage(message("node-b", UserProfileCache.CACHE_NAME, "7"), null);
+        assertEquals("alice2", cache.get(7).getNickName());
+        assertEquals("bob", cache.get(8).getNickName());
+
+        cache.onMessage(message("node-b", UserProfileCache.CACHE_NAME, CacheInvalidationPublisher.CLEAR_ALL), null);
+        assertEquals("bob2", cache.get(8).getNickName());
+        assertEquals(List.of(), publisher.evicted);
+    }
+
+    private static DefaultMessage message(String nodeId, String cacheName, String key) {
+        return new DefaultMessage(CacheInvalidationPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                (nodeId + "\n" + cacheName + "\n" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // DB 대신 메모리의 프로필을 반환하고, 단건/일괄 조회한 ID를 기록합니다.
+    private static class FakeUserProfileMapper implements UserProfileMapper {
+        private final Map<Integer, UserDTO> profiles = new HashMap<>();
+        private final List<String> singleLoads = new ArrayList<>();
+        private final List<Set<Integer>> batchLoads = new ArrayList<>();
+
+        void put(int id, String nickName) {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setId(id);
+            userDTO.setNickName(nickName);
+            profiles.put(id, userDTO);
+        }
+
+        @Override
+        public UserDTO getUserProfile(String id) {
+            singleLoads.add(id);
+            return profiles.get(Integer.valueOf(id));
+        }
+
+        @Override
+        public List<UserDTO> selectUserProfiles(Collection<? extends Integer> ids) {
+            batchLoads.add(new TreeSet<>(ids));
+            List<UserDTO> found = new ArrayList<>();
+            for (Integer id : ids) {
+                if (profiles.containsKey(id)) {
+                    found.add(profiles.get(id));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public int insertUserProfile(String id, String password, String name, String phone, String address) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int updateUserProfile(String id, String password, String name, String phone, String address) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int deleteUserProfile(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int register(UserDTO userDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public UserDTO findByIdAndPassword(String id, String password) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int idCheck(String id) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int nickNameCheck(String nickName) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public long countUsers() {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void selectUsersForBloomFilter(int afterId, ResultHandler<UserDTO> resultHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int updatePassword(UserDTO userDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int updateAddress(UserDTO userDTO) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // Redis에 발행하는 대신 지운 키를 기록합니다. 이 서버의 ID는 node-a입니다.
+    private static class RecordingPublisher extends CacheInvalidationPublisher {
+        private final List<Object> evicted = new ArrayList<>();
+
+        RecordingPublisher() {
+            super(null);
+        }
+
+        @Override
+        public String getNodeId() {
+            return "node-a";
+        }
+
+        @Override
+        public void publishEvict(String cacheName, Object key) {
+            evicted.add(key);
+        }
+    }
+}
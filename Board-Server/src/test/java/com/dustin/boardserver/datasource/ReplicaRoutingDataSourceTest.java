@@ -0,0 +1,223 @@
+package com.dustin.boardserver.datasource;
+
+import com.dustin.boardserver.aop.ReplicaRead;
+import com.dustin.boardserver.aop.ReplicaReadAspect;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpSession;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+// 내장 H2 DB 두 개를 primary와 복제본으로 두고, 각 DB의 node 테이블에 저장된 이름으로 어디서 읽었는지 확인합니다.
+// 애플리케이션과 같이 LazyConnectionDataSourceProxy로 감싸고 DataSourceTransactionManager로 트랜잭션을 겁니다. (DatabaseConfig 참고)
+class ReplicaRoutingDataSourceTest {
+    private static final DataSource PRIMARY = h2("routing-primary");
+    private static final DataSource REPLICA = h2("routing-replica");
+
+    private final SwitchableDataSource replica = new SwitchableDataSource(REPLICA);
+
+    @BeforeAll
+    static void createTables() {
+        for (DataSource dataSource : new DataSource[]{PRIMARY, REPLICA}) {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS node (name VARCHAR(20))");
+            jdbcTemplate.execute("DELETE FROM node");
+        }
+        new JdbcTemplate(PRIMARY).update("INSERT INTO node VALUES ('primary')");
+        new JdbcTemplate(REPLICA).update("INSERT INTO node VALUES ('replica')");
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void plainQueryUsesPrimary() {
+        Routing routing = new Routing(3000);
+
+        assertEquals("primary", routing.node());
+    }
+
+    @Test
+    void replicaReadMethodUsesReplica() {
+        Routing routing = new Routing(3000);
+
+        assertEquals("replica", routing.reader.replicaNode());
+        // 메서드가 끝나면 표시가 지워져 다시 primary를 사용합니다.
+        assertEquals("primary", routing.reader.node());
+        assertEquals(1.0, routing.meterRegistry.counter("datasource.route", "target", "replica").count());
+    }
+
+    @Test
+    void readOnlyTransactionUsesReplica() {
+        Routing routing = new Routing(3000);
+        TransactionTemplate readOnly = routing.transactionTemplate();
+        readOnly.setReadOnly(true);
+
+        assertEquals("replica", readOnly.execute(status -> routing.node()));
+    }
+
+    // 쓰기 트랜잭션은 한 커넥션을 쓰므로 안에서 @ReplicaRead 메서드를 불러도 primary에서 읽습니다.
+    @Test
+    void writeTransactionStaysOnPrimary() {
+        Routing routing = new Routing(3000);
+
+        assertEquals("primary", routing.transactionTemplate().execute(status -> routing.reader.replicaNode()));
+    }
+
+    @Test
+    void readAfterWriteInSameRequestUsesPrimary() {
+        Routing routing = new Routing(3000);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+        assertEquals("replica", routing.reader.replicaNode());
+
+        ReplicaRoutingContext.markWrite();
+
+        assertEquals("primary", routing.reader.replicaNode());
+        assertEquals(1.0, routing.meterRegistry.counter("datasource.route.fallback", "reason", "readYourWrites").count());
+    }
+
+    // 같은 세션의 다음 요청은 마지막 쓰기로부터 readYourWritesMillis가 지날 때까지 primary에서 읽습니다.
+    @Test
+    void nextRequestInSessionUsesPrimaryUntilWindowPasses() throws InterruptedException {
+        Routing routing = new Routing(200);
+        MockHttpSession session = new MockHttpSession();
+        request(session);
+        ReplicaRoutingContext.markWrite();
+
+        request(session);
+        assertEquals("primary", routing.reader.replicaNode());
+
+        // 다른 세션은 영향을 받지 않습니다.
+        request(new MockHttpSession());
+        assertEquals("replica", routing.reader.replicaNode());
+
+        Thread.sleep(300);
+        request(session);
+        assertEquals("replica", routing.reader.replicaNode());
+    }
+
+    @Test
+    void downReplicaFallsBackToPrimaryUntilHealthCheckPasses() {
+        Routing routing = new Routing(3000);
+        replica.down = true;
+
+        assertEquals("primary", routing.reader.replicaNode());
+        assertEquals(0, routing.routingDataSource.healthyReplicaCount());
+        assertEquals(1.0, routing.meterRegistry.counter("datasource.route.fallback", "reason", "unavailable").count());
+
+        // 복구되어도 상태를 다시 확인하기 전까지는 primary에서 읽습니다.
+        replica.down = false;
+        assertEquals("primary", routing.reader.replicaNode());
+
+        routing.routingDataSource.checkHealth();
+        assertEquals(1, routing.routingDataSource.healthyReplicaCount());
+        assertEquals("replica", routing.reader.replicaNode());
+    }
+
+    @Test
+    void healthCheckExcludesDownReplica() {
+        Routing routing = new Routing(3000);
+        replica.down = true;
+
+        routing.routingDataSource.checkHealth();
+
+        assertEquals(0, routing.routingDataSource.healthyReplicaCount());
+        TransactionTemplate readOnly = routing.transactionTemplate();
+        readOnly.setReadOnly(true);
+        assertEquals("primary", readOnly.execute(status -> routing.node()));
+    }
+
+    private static void request(MockHttpSession session) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setSession(session);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        return dataSource;
+    }
+
+    // 테스트마다 새로 만드는 라우팅 DataSource와 이를 사용하는 JdbcTemplate, @ReplicaRead 프록시입니다.
+    private class Routing {
+        private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        private final ReplicaRoutingDataSource routingDataSource;
+        private final DataSource dataSource;
+        private final JdbcTemplate jdbcTemplate;
+        private final NodeReader reader;
+
+        Routing(long readYourWritesMillis) {
+            routingDataSource = new ReplicaRoutingDataSource(PRIMARY, Map.of("replica-1", replica),
+                    readYourWritesMillis, 1, false, 0, meterRegistry);
+            dataSource = new LazyConnectionDataSourceProxy(routingDataSource);
+            jdbcTemplate = new JdbcTemplate(dataSource);
+            AspectJProxyFactory proxyFactory = new AspectJProxyFactory(new NodeReader(jdbcTemplate));
+            proxyFactory.setProxyTargetClass(true);
+            proxyFactory.addAspect(new ReplicaReadAspect());
+            reader = proxyFactory.getProxy();
+        }
+
+        String node() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+
+        TransactionTemplate transactionTemplate() {
+            return new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        }
+    }
+
+    // @ReplicaRead가 붙은 메서드와 붙지 않은 메서드로 같은 조회를 실행합니다.
+    static class NodeReader {
+        private final JdbcTemplate jdbcTemplate;
+
+        NodeReader(JdbcTemplate jdbcTemplate) {
+            this.jdbcTemplate = jdbcTemplate;
+        }
+
+        @ReplicaRead
+        public String replicaNode() {
+            return node();
+        }
+
+        public String node() {
+            return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+        }
+    }
+
+    // down이면 커넥션을 내주지 않는 복제본입니다.
+    private static class SwitchableDataSource extends DelegatingDataSource {
+        private volatile boolean down;
+
+        SwitchableDataSource(DataSource targetDataSource) {
+            super(targetDataSource);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            if (down) {
+                throw new SQLException("replica down");
+            }
+            return super.getConnection();
+        }
+    }
+}
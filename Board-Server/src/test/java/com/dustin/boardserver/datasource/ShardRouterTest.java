@@ -0,0 +1,233 @@
+package com.dustin.boardserver.datasource;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 내장 H2 DB 세 개를 샤드로 두고 ShardRouter/ShardIdGenerator가 어느 샤드에서 실행하는지 확인합니다.
+// 애플리케이션과 같이 ShardRoutingDataSource를 LazyConnectionDataSourceProxy로 감싸서 사용합니다. (DatabaseConfig 참고)
+class ShardRouterTest {
+    private static final int SHARD_COUNT = 3;
+    private static final AtomicInteger DATABASES = new AtomicInteger();
+
+    private final List<DataSource> shards = new ArrayList<>();
+    private final ExecutorService shardExecutor = Executors.newFixedThreadPool(SHARD_COUNT);
+    // 마지막으로 만든 router의 ID 생성기와, 애플리케이션의 DataSource(LazyConnectionDataSourceProxy)로 쿼리를 실행하는 JdbcTemplate입니다.
+    private ShardIdGenerator idGenerator;
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        shardExecutor.shutdownNow();
+        for (DataSource shard : shards) {
+            new JdbcTemplate(shard).execute("SHUTDOWN");
+        }
+    }
+
+    @Test
+    void postsAreStoredOnAuthorsShard() {
+        ShardRouter router = router(0);
+
+        for (int userId = 1; userId <= 6; userId++) {
+            int id = router.nextId(ShardIdGenerator.POST, router.shardOfUser(userId));
+            int author = userId;
+            router.runInTransaction(router.shardOfUser(userId), () -> insertPost(id, author));
+        }
+
+        assertEquals(List.of(3, 6), userIds(0));
+        assertEquals(List.of(1, 4), userIds(1));
+        assertEquals(List.of(2, 5), userIds(2));
+        assertArrayEquals(new int[]{1}, router.shardsOfUser(4));
+    }
+
+    // ID를 샤드 수로 나눈 나머지가 샤드 번호이고, 여러 스레드가 동시에 받아도 모든 샤드에서 겹치지 않습니다.
+    @Test
+    void idsEncodeShardAndAreUnique() throws Exception {
+        ShardRouter router = router(0);
+        List<Future<List<Integer>>> futures = new ArrayList<>();
+        ExecutorService threads = Executors.newFixedThreadPool(4);
+        try {
+            for (int thread = 0; thread < 4; thread++) {
+                for (int shard = 0; shard < SHARD_COUNT; shard++) {
+                    int target = shard;
+                    futures.add(threads.submit(() -> router.nextIds(ShardIdGenerator.POST, target, 25)));
+                }
+            }
+            Set<Integer> ids = new HashSet<>();
+            for (int i = 0; i < futures.size(); i++) {
+                int shard = i % SHARD_COUNT;
+                for (int id : futures.get(i).get()) {
+                    assertTrue(ids.add(id), "중복 ID " + id);
+                    assertEquals(shard, id % SHARD_COUNT);
+                    assertEquals(shard, router.shardOf(id));
+                }
+            }
+            assertEquals(4 * SHARD_COUNT * 25, ids.size());
+        } finally {
+            threads.shutdownNow();
+        }
+        assertEquals(7 * SHARD_COUNT + 2, ShardIdGenerator.encode(7, 2, SHARD_COUNT));
+    }
+
+    // 순번은 0번 샤드에서 함께 받으므로 서버(ShardIdGenerator)나 샤드가 달라도 나중에 받은 ID가 더 큽니다.
+    @Test
+    void idsIncreaseInAllocationOrderAcrossServersAndShards() {
+        router(0);
+        ShardIdGenerator otherServer = new ShardIdGenerator(shards, 0);
+
+        int previous = 0;
+        for (int i = 0; i < 30; i++) {
+            ShardIdGenerator server = i % 2 == 0 ? idGenerator : otherServer;
+            List<Integer> ids = server.nextIds(ShardIdGenerator.COMMENT, i % SHARD_COUNT, 1 + i % 3);
+            for (int id : ids) {
+                assertTrue(id > previous, previous + " 다음에 " + id);
+                previous = id;
+            }
+        }
+    }
+
+    // id_sequence에 행이 없으면 모든 샤드의 테이블에 이미 있는 가장 큰 ID보다 큰 ID부터 만듭니다.
+    @Test
+    void idsStartAfterExistingRows() {
+        ShardRouter router = router(0);
+        new JdbcTemplate(shards.get(1)).update("INSERT INTO `comment` (id, postId) VALUES (100, 1)");
+
+        int id = router.nextId(ShardIdGenerator.COMMENT, 2);
+
+        assertTrue(id > 100, String.valueOf(id));
+        assertEquals(2, id % SHARD_COUNT);
+    }
+
+    // 샤딩 전의 게시물은 작성자와 상관없이 0번 샤드에 있고, ID가 legacyMaxId 이하입니다.
+    @Test
+    void legacyIdsRouteToFirstShard() {
+        ShardRouter router = router(50);
+        for (int id = 1; id <= 50; id++) {
+            new JdbcTemplate(shards.get(0)).update("INSERT INTO post (id, name, createTime, categoryId, userId) "
+                    + "VALUES (?, 'legacy', CURRENT_TIMESTAMP, 1, ?)", id, id % 7);
+        }
+        idGenerator.verifyLegacyRows();
+
+        assertEquals(0, router.shardOf(7));
+        assertEquals(0, router.shardOf(50));
+        assertEquals(1, router.shardOf(52));
+        assertArrayEquals(new int[]{0, 2}, router.shardsOfUser(5));
+        assertArrayEquals(new int[]{0}, router.shardsOfUser(3));
+
+        // 새 ID는 모든 샤드에서 legacyMaxId보다 크므로 샤딩 전의 ID로 보이지 않습니다.
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            int id = router.nextId(ShardIdGenerator.POST, shard);
+            assertTrue(id > 50, String.valueOf(id));
+            assertEquals(shard, router.shardOf(id));
+        }
+        // 새 게시물이 0번 샤드에 생겨도 ID가 0번 샤드를 가리키므로 다시 시작할 수 있습니다.
+        insertPost(router.nextId(ShardIdGenerator.POST, 0), 3);
+        idGenerator.verifyLegacyRows();
+    }
+
+    // legacyMaxId를 설정하지 않으면 샤딩 전의 행이 다른 샤드를 가리키므로 시작하지 않습니다.
+    @Test
+    void unmigratedRowsWithoutLegacyMaxIdFailStartup() {
+        router(0);
+        new JdbcTemplate(shards.get(0)).update("INSERT INTO tag (id, name) VALUES (4, 'spring')");
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> idGenerator.verifyLegacyRows());
+        assertTrue(e.getMessage().contains("legacyMaxId"), e.getMessage());
+
+        assertThrows(IllegalStateException.class, () -> new ShardIdGenerator(shards, 3).verifyLegacyRows());
+        new ShardIdGenerator(shards, 4).verifyLegacyRows();
+        // 샤드가 하나면 모든 행이 0번 샤드를 가리키므로 확인하지 않습니다.
+        new ShardIdGenerator(shards.subList(0, 1), 0).verifyLegacyRows();
+    }
+
+    @Test
+    void transactionCannotCrossShards() {
+        ShardRouter router = router(0);
+
+        IllegalStateException e = assertThrows(IllegalStateException.class, () -> router.runInTransaction(1, () -> {
+            insertPost(1, 1);
+            router.onShard(2, () -> count("post"));
+        }));
+        assertTrue(e.getMessage().contains("1번 샤드"), e.getMessage());
+
+        // 실패한 트랜잭션은 롤백되고, 트랜잭션 밖에서는 샤드를 바꿔 가며 실행할 수 있습니다.
+        assertEquals(0, router.onShard(1, () -> count("post")));
+        assertEquals(0, router.onShard(2, () -> count("post")));
+    }
+
+    @Test
+    void scatterRunsOnEveryShardInOrder() {
+        ShardRouter router = router(0);
+        new JdbcTemplate(shards.get(1)).update("INSERT INTO tag (id, name) VALUES (1, 'a')");
+        new JdbcTemplate(shards.get(2)).update("INSERT INTO tag (id, name) VALUES (2, 'b'), (5, 'c')");
+
+        assertEquals(List.of(0, 1, 2), router.scatter(shard -> count("tag")));
+    }
+
+    private ShardRouter router(long legacyMaxId) {
+        if (shards.isEmpty()) {
+            for (int shard = 0; shard < SHARD_COUNT; shard++) {
+                shards.add(h2("shard-" + DATABASES.incrementAndGet(), shard == 0));
+            }
+        }
+        ShardRoutingDataSource shardRoutingDataSource = new ShardRoutingDataSource(shards);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        idGenerator = new ShardIdGenerator(shards, legacyMaxId);
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        return new ShardRouter(shardRoutingDataSource, idGenerator, new DataSourceTransactionManager(dataSource),
+                shardExecutor, 5000, new SimpleMeterRegistry());
+    }
+
+    // 현재 샤드(ShardContext)에 게시물을 저장합니다.
+    private void insertPost(int id, int userId) {
+        jdbcTemplate.update("INSERT INTO post (id, name, createTime, categoryId, userId) "
+                + "VALUES (?, 'post', CURRENT_TIMESTAMP, 1, ?)", id, userId);
+    }
+
+    // 현재 샤드(ShardContext)의 행 수입니다.
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private List<Integer> userIds(int shard) {
+        List<Integer> userIds = new ArrayList<>(
+                new JdbcTemplate(shards.get(shard)).queryForList("SELECT userId FROM post", Integer.class));
+        Collections.sort(userIds);
+        return userIds;
+    }
+
+    // ID 순번 테이블은 0번 샤드에만 만듭니다.
+    private static DataSource h2(String name, boolean sequenceTable) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE post (id INT PRIMARY KEY, name VARCHAR(100) NOT NULL, "
+                + "createTime DATETIME NOT NULL, categoryId INT NOT NULL, userId INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE `comment` (id INT PRIMARY KEY, postId INT NOT NULL)");
+        jdbcTemplate.execute("CREATE TABLE tag (id INT PRIMARY KEY, name VARCHAR(45) NOT NULL)");
+        if (sequenceTable) {
+            jdbcTemplate.execute("CREATE TABLE id_sequence (name VARCHAR(45) PRIMARY KEY, nextValue BIGINT NOT NULL)");
+        }
+        return dataSource;
+    }
+}
@@ -0,0 +1,183 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardContext;
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.datasource.ShardRoutingDataSource;
+import com.dustin.boardserver.dto.PostDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ShardedPostMapperTest {
+    private static final int SHARD_COUNT = 3;
+
+    private final RecordingPostMapper postMapper = new RecordingPostMapper();
+
+    @Test
+    void myProductsReadOnlyAuthorsShard() {
+        ShardedPostMapper mapper = mapper(0);
+
+        assertEquals(List.of(2), shards(mapper.selectMyProducts(5)));
+        assertEquals(List.of(0), shards(mapper.selectMyProducts(3)));
+    }
+
+    // 샤딩 전의 게시물은 모두 0번 샤드에 있으므로 작성자의 샤드와 함께 0번 샤드도 읽습니다.
+    @Test
+    void myProductsIncludeLegacyPostsOnFirstShard() {
+        ShardedPostMapper mapper = mapper(1000);
+
+        assertEquals(List.of(0, 2), shards(mapper.selectMyProducts(5)));
+        assertEquals(List.of(0), shards(mapper.selectMyProducts(3)));
+    }
+
+    // 샤딩 전의 ID는 ID를 샤드 수로 나눈 나머지와 상관없이 0번 샤드에서 찾습니다.
+    @Test
+    void legacyIdsAreReadFromFirstShard() {
+        ShardedPostMapper mapper = mapper(1000);
+
+        assertEquals(0, mapper.selectPost(7).getUserId());
+        assertEquals(1, mapper.selectPost(1003).getUserId());
+
+        mapper.addViews(Map.of(7, 1L));
+        mapper.addViews(Map.of(1003, 2L));
+        mapper.addViews(Map.of(1004, 3L));
+        assertEquals(Map.of(0, List.of(7), 1, List.of(1003), 2, List.of(1004)), postMapper.viewsByShard);
+    }
+
+    // 샤드를 넘나드는 트랜잭션은 없으므로, 일부 샤드만 반영되는 조회수 배치는 받지 않습니다.
+    @Test
+    void addViewsRejectsBatchAcrossShards() {
+        ShardedPostMapper mapper = mapper(1000);
+
+        assertThrows(IllegalArgumentException.class, () -> mapper.addViews(Map.of(7, 1L, 1003, 2L)));
+        assertTrue(postMapper.viewsByShard.isEmpty());
+    }
+
+    // 내보내기는 shardsOfUser의 샤드마다 트랜잭션을 열고 streamMyProducts를 부르므로 현재 샤드에서 읽어야 합니다.
+    @Test
+    void streamMyProductsUsesCurrentShard() {
+        ShardedPostMapper mapper = mapper(1000);
+        Integer previous = ShardContext.set(2);
+        try {
+            mapper.streamMyProducts(5);
+        } finally {
+            ShardContext.restore(previous);
+        }
+
+        assertEquals(List.of(2), postMapper.streamedShards);
+    }
+
+    // 샤드가 하나면 샤딩하지 않을 때와 같이 AUTO_INCREMENT로 ID를 만들므로 id_sequence 테이블을 사용하지 않습니다.
+    // 샤드 DataSource는 연결할 수 없으므로 ShardIdGenerator를 부르면 실패합니다.
+    @Test
+    void singleShardRegistersWithAutoIncrement() {
+        ShardedPostMapper mapper = mapper(1, 0);
+
+        mapper.register(PostDTO.builder().userId(5).build());
+        mapper.registerBulk(List.of(PostDTO.builder().userId(5).build(), PostDTO.builder().userId(8).build()));
+
+        assertEquals(List.of("register", "registerBulk"), postMapper.registered);
+    }
+
+    private ShardedPostMapper mapper(long legacyMaxId) {
+        return mapper(SHARD_COUNT, legacyMaxId);
+    }
+
+    private ShardedPostMapper mapper(int shardCount, long legacyMaxId) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            // 쿼리는 RecordingPostMapper가 대신 처리하므로 연결하지 않습니다.
+            shards.add(new JdbcDataSource());
+        }
+        ShardRoutingDataSource shardRoutingDataSource = new ShardRoutingDataSource(shards);
+        ShardRouter shardRouter = new ShardRouter(shardRoutingDataSource, new ShardIdGenerator(shards, legacyMaxId),
+                new DataSourceTransactionManager(shardRoutingDataSource), Runnable::run, 5000, new SimpleMeterRegistry());
+        return new ShardedPostMapper(postMapper, shardRouter);
+    }
+
+    // 게시물의 userId에 담긴 조회한 샤드 번호입니다.
+    private static List<Integer> shards(List<PostDTO> posts) {
+        List<Integer> shards = new ArrayList<>();
+        posts.forEach(post -> shards.add(post.getUserId()));
+        return shards;
+    }
+
+    // DB 대신 현재 샤드(ShardContext) 번호를 userId에 담은 게시물을 반환하고, 호출된 샤드와 등록 메서드를 기록합니다.
+    private static class RecordingPostMapper implements PostMapper {
+        private final List<Integer> streamedShards = new ArrayList<>();
+        private final List<String> registered = new ArrayList<>();
+        private final Map<Integer, List<Integer>> viewsByShard = new TreeMap<>();
+
+        @Override
+        public List<PostDTO> selectMyProducts(int accountId) {
+            return List.of(PostDTO.builder().userId(ShardContext.current()).build());
+        }
+
+        @Override
+        public Cursor<PostDTO> streamMyProducts(int userId) {
+            streamedShards.add(ShardContext.current());
+            return null;
+        }
+
+        @Override
+        public PostDTO selectPost(int postId) {
+            return PostDTO.builder().id(postId).userId(ShardContext.current()).build();
+        }
+
+        @Override
+        public int addViews(Map<Integer, Long> deltas) {
+            viewsByShard.put(ShardContext.current(), new ArrayList<>(deltas.keySet()));
+            return deltas.size();
+        }
+
+        @Override
+        public int register(PostDTO postDTO) {
+            registered.add("register");
+            return 1;
+        }
+
+        @Override
+        public int registerBulk(List<PostDTO> posts) {
+            registered.add("registerBulk");
+            return posts.size();
+        }
+
+        @Override
+        public int registerWithId(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulkWithIds(List<PostDTO> posts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cursor<PostDTO> streamPostsByCategory(int categoryId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateProducts(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteProduct(int postId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,148 @@
+package com.dustin.boardserver.mapper;
+
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.datasource.ShardRoutingDataSource;
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mybatis.spring.SqlSessionFactoryBean;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 같은 게시물을 내장 H2 DB 하나(single)와 샤드 세 개에 나누어 저장하고,
+// 샤드별 selectPosts 결과를 합친(k-way merge) 페이지가 DB 하나에서 읽은 페이지와 같은지 정렬 기준마다 확인합니다.
+// 쿼리는 애플리케이션과 같은 매퍼 XML(mappers/postSearchMapper.xml)을 MyBatis로 실행합니다.
+class ShardedPostSearchMapperTest {
+    private static final int SHARD_COUNT = 3;
+    private static final int POST_COUNT = 200;
+    private static final int PAGE_SIZE = 7;
+
+    private static final ExecutorService SHARD_EXECUTOR = Executors.newFixedThreadPool(SHARD_COUNT);
+    private static PostSearchMapper single;
+    private static ShardedPostSearchMapper sharded;
+
+    @BeforeAll
+    static void setUp() throws Exception {
+        DataSource singleDataSource = h2("search-single");
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            shards.add(h2("search-shard-" + shard));
+        }
+
+        // 작성 시각과 카테고리가 겹치는 게시물을 만들어 (정렬값, id) 순서가 샤드를 넘나들게 합니다.
+        Random random = new Random(42);
+        for (int sequence = 1; sequence <= POST_COUNT; sequence++) {
+            int userId = random.nextInt(30) + 1;
+            int shard = userId % SHARD_COUNT;
+            int id = (int) ShardIdGenerator.encode(sequence, shard, SHARD_COUNT);
+            Object[] row = {id, random.nextBoolean() ? "spring" + sequence : "redis" + sequence, "본문" + sequence,
+                    new Timestamp(1_700_000_000_000L + random.nextInt(40) * 1000L), random.nextInt(4) + 1, userId};
+            String insert = "INSERT INTO post (id, name, contents, createTime, categoryId, userId) VALUES (?, ?, ?, ?, ?, ?)";
+            new JdbcTemplate(singleDataSource).update(insert, row);
+            new JdbcTemplate(shards.get(shard)).update(insert, row);
+        }
+
+        single = mapper(singleDataSource);
+        ShardRoutingDataSource shardRoutingDataSource = new ShardRoutingDataSource(shards);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(shardRoutingDataSource);
+        ShardRouter shardRouter = new ShardRouter(shardRoutingDataSource, new ShardIdGenerator(shards, 0),
+                new DataSourceTransactionManager(dataSource), SHARD_EXECUTOR, 5000, new SimpleMeterRegistry());
+        sharded = new ShardedPostSearchMapper(mapper(dataSource), shardRouter);
+    }
+
+    @AfterAll
+    static void tearDown() {
+        SHARD_EXECUTOR.shutdownNow();
+    }
+
+    @Test
+    void mergedPagesMatchSingleDatabaseForEverySortStatus() {
+        for (SortStatus sortStatus : SortStatus.values()) {
+            assertSamePages(request(sortStatus, 0, null));
+        }
+    }
+
+    @Test
+    void mergedPagesMatchSingleDatabaseWithFilters() {
+        for (SortStatus sortStatus : SortStatus.values()) {
+            assertSamePages(request(sortStatus, 2, null));
+            assertSamePages(request(sortStatus, 0, "spring"));
+        }
+    }
+
+    // 첫 페이지부터 마지막 페이지까지 커서로 넘기며 두 쪽의 ID 순서를 비교합니다. 모든 게시물이 한 번씩 나와야 합니다.
+    private static void assertSamePages(PostSearchRequest request) {
+        PostCursor cursor = null;
+        int pages = 0;
+        List<Integer> all = new ArrayList<>();
+        while (true) {
+            List<PostDTO> expected = single.selectPosts(request, cursor, PAGE_SIZE);
+            List<PostDTO> actual = sharded.selectPosts(request, cursor, PAGE_SIZE);
+            assertEquals(ids(expected), ids(actual), request.getSortStatus() + " page " + pages);
+            all.addAll(ids(actual));
+            pages++;
+            if (actual.size() < PAGE_SIZE) {
+                break;
+            }
+            PostDTO last = actual.get(PAGE_SIZE - 1);
+            cursor = new PostCursor(request.getSortStatus(), last.getCreateTime(), last.getCategoryId(), last.getId());
+        }
+        assertTrue(pages > 2, request.toString());
+        assertEquals(single.selectPosts(request, null, POST_COUNT).size(), all.size());
+        assertEquals(all.size(), all.stream().distinct().count());
+    }
+
+    private static PostSearchRequest request(SortStatus sortStatus, int categoryId, String name) {
+        return PostSearchRequest.builder().sortStatus(sortStatus).categoryId(categoryId).name(name).build();
+    }
+
+    private static List<Integer> ids(List<PostDTO> posts) {
+        List<Integer> ids = new ArrayList<>(posts.size());
+        posts.forEach(post -> ids.add(post.getId()));
+        return ids;
+    }
+
+    private static PostSearchMapper mapper(DataSource dataSource) throws Exception {
+        SqlSessionFactoryBean factoryBean = new SqlSessionFactoryBean();
+        factoryBean.setDataSource(dataSource);
+        factoryBean.setConfigLocation(new ClassPathResource("mybatis-config.xml"));
+        Properties variables = new Properties();
+        variables.setProperty("scatterTimeoutSecond", "5");
+        factoryBean.setConfigurationProperties(variables);
+        factoryBean.setMapperLocations(new ClassPathResource("mappers/postSearchMapper.xml"));
+        return new SqlSessionTemplate(factoryBean.getObject()).getMapper(PostSearchMapper.class);
+    }
+
+    private static DataSource h2(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;CASE_INSENSITIVE_IDENTIFIERS=TRUE;DB_CLOSE_DELAY=-1");
+        new JdbcTemplate(dataSource).execute("CREATE TABLE IF NOT EXISTS post (id INT PRIMARY KEY, "
+                + "name VARCHAR(100) NOT NULL, isAdmin TINYINT NOT NULL DEFAULT 0, contents VARCHAR(4000), "
+                + "createTime DATETIME NOT NULL, views INT NOT NULL DEFAULT 0, categoryId INT NOT NULL, "
+                + "userId INT NOT NULL, fileId INT NOT NULL DEFAULT 0, updateTime DATETIME)");
+        new JdbcTemplate(dataSource).execute("DELETE FROM post");
+        return dataSource;
+    }
+}
@@ -0,0 +1,220 @@
+package com.dustin.boardserver.mybatis;
+
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.builder.StaticSqlSource;
+import org.apache.ibatis.mapping.MappedStatement;
+import org.apache.ibatis.mapping.ParameterMapping;
+import org.apache.ibatis.mapping.SqlCommandType;
+import org.apache.ibatis.plugin.Invocation;
+import org.apache.ibatis.session.Configuration;
+import org.apache.ibatis.session.ResultHandler;
+import org.apache.ibatis.session.RowBounds;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 매퍼 대신 FakeExecutor를 Invocation으로 호출합니다. (StatementMetricsInterceptorBenchmark와 같은 방법)
+// 느린 쿼리 로그는 "slowQuery" 로거에 붙인 ListAppender로 확인합니다.
+class StatementMetricsInterceptorTest {
+    private static final String SELECT_POSTS = "com.dustin.boardserver.mapper.PostSearchMapper.selectPosts";
+    private static final String UPDATE_POST = "com.dustin.boardserver.mapper.PostMapper.updateProducts";
+    private static final String UPDATE_PASSWORD = "com.dustin.boardserver.mapper.UserProfileMapper.updatePassword";
+
+    private final Configuration configuration = new Configuration();
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Logger slowQueryLogger = (Logger) LoggerFactory.getLogger("slowQuery");
+    private final ListAppender<ILoggingEvent> slowQueries = new ListAppender<>();
+
+    @BeforeEach
+    void setUp() {
+        slowQueries.start();
+        slowQueryLogger.addAppender(slowQueries);
+    }
+
+    @AfterEach
+    void tearDown() {
+        slowQueryLogger.detachAppender(slowQueries);
+    }
+
+    // SELECT는 반환한 행 수, UPDATE는 변경된 행 수를 기록하고, ResultHandler로 읽은 결과는 행 수를 알 수 없으므로 기록하지 않습니다.
+    @Test
+    void rowCountsAreRecordedPerStatement() throws Throwable {
+        StatementMetricsInterceptor interceptor = interceptor(Long.MAX_VALUE / 1_000_000, 10, 100);
+        MappedStatement select = statement(SELECT_POSTS, SqlCommandType.SELECT, "SELECT id FROM post", List.of());
+        MappedStatement update = statement(UPDATE_POST, SqlCommandType.UPDATE, "UPDATE post SET views = 0", List.of());
+
+        interceptor.intercept(query(new FakeExecutor(List.of(1, 2, 3)), select, null));
+        interceptor.intercept(query(new FakeExecutor(List.of(4)), select, null));
+        interceptor.intercept(query(new FakeExecutor(List.of()), select, context -> { }));
+        interceptor.intercept(update(new FakeExecutor(2), update));
+
+        StatementMetricsInterceptor.StatementMetrics selectMetrics = metrics(interceptor, "PostSearchMapper.selectPosts");
+        assertEquals(3, selectMetrics.getTimer().count());
+        assertEquals(2, selectMetrics.getRows().count());
+        assertEquals(4.0, selectMetrics.getRows().totalAmount());
+        StatementMetricsInterceptor.StatementMetrics updateMetrics = metrics(interceptor, "PostMapper.updateProducts");
+        assertEquals(2.0, updateMetrics.getRows().totalAmount());
+        assertTrue(slowQueries.list.isEmpty());
+    }
+
+    @Test
+    void errorsAreCountedAndRethrown() {
+        StatementMetricsInterceptor interceptor = interceptor(Long.MAX_VALUE / 1_000_000, 10, 100);
+        MappedStatement select = statement(SELECT_POSTS, SqlCommandType.SELECT, "SELECT id FROM post", List.of());
+
+        assertThrows(InvocationTargetException.class,
+                () -> interceptor.intercept(query(new FakeExecutor(new IllegalStateException("timeout")), select, null)));
+
+        StatementMetricsInterceptor.StatementMetrics metrics = metrics(interceptor, "PostSearchMapper.selectPosts");
+        assertEquals(1.0, metrics.getErrors().count());
+        assertEquals(1, metrics.getTimer().count());
+        assertEquals(0, metrics.getRows().count());
+    }
+
+    // 느린 쿼리는 SQL 모양(공백을 줄이고 IN 목록은 ?+)과 앞부분의 바인딩 값을 JSON 한 줄로 남기며, 비밀번호는 가립니다.
+    @Test
+    void slowQueryIsLoggedAsJsonLine() throws Throwable {
+        StatementMetricsInterceptor interceptor = interceptor(0, 4, 5);
+        MappedStatement select = statement(SELECT_POSTS, SqlCommandType.SELECT,
+                "SELECT id\n    FROM post\n   WHERE id IN (?, ?,\n ?) AND name = ? AND password = ?",
+                List.of("id0", "id1", "id2", "name", "password"));
+        Map<String, Object> parameter = new LinkedHashMap<>();
+        parameter.put("id0", 1);
+        parameter.put("id1", 2);
+        parameter.put("id2", 3);
+        parameter.put("name", "abcdefghij");
+        parameter.put("password", "secret");
+
+        interceptor.intercept(query(new FakeExecutor(List.of(1, 2)), select, parameter, null));
+
+        JsonNode entry = readSingleEntry();
+        assertEquals("PostSearchMapper.selectPosts", entry.get("statement").asText());
+        assertEquals("SELECT", entry.get("type").asText());
+        assertEquals(2, entry.get("rows").asLong());
+        assertTrue(entry.get("elapsedMillis").isNumber());
+        assertEquals("SELECT id FROM post WHERE id IN (?+) AND name = ? AND password = ?", entry.get("sql").asText());
+        assertEquals(List.of("id0=1", "id1=2", "id2=3", "name=abcde...", "...(5)"), texts(entry.get("params")));
+    }
+
+    // 실패한 느린 쿼리는 Invocation이 감싼 예외가 아닌 매퍼가 던진 예외의 이름을 남깁니다.
+    @Test
+    void failedSlowQueryIsLoggedWithError() {
+        StatementMetricsInterceptor interceptor = interceptor(0, 10, 100);
+        MappedStatement update = statement(UPDATE_PASSWORD, SqlCommandType.UPDATE,
+                "UPDATE user SET password = ? WHERE id = ?", List.of("password", "id"));
+        Map<String, Object> parameter = Map.of("password", "secret", "id", 7);
+
+        assertThrows(InvocationTargetException.class, () -> interceptor.intercept(
+                new Invocation(new FakeExecutor(new IllegalStateException("lock wait timeout")), updateMethod(),
+                        new Object[]{update, parameter})));
+
+        JsonNode entry = readSingleEntry();
+        assertEquals("UPDATE", entry.get("type").asText());
+        assertEquals(-1, entry.get("rows").asLong());
+        assertEquals("UserProfileMapper.updatePassword", entry.get("statement").asText());
+        assertEquals("IllegalStateException", entry.get("error").asText());
+        assertEquals(List.of("password=****", "id=7"), texts(entry.get("params")));
+    }
+
+    private JsonNode readSingleEntry() {
+        assertEquals(1, slowQueries.list.size());
+        try {
+            return objectMapper.readTree(slowQueries.list.get(0).getFormattedMessage());
+        } catch (Exception e) {
+            throw new AssertionError(slowQueries.list.get(0).getFormattedMessage(), e);
+        }
+    }
+
+    private StatementMetricsInterceptor interceptor(long thresholdMillis, int maxParams, int maxParamLength) {
+        return new StatementMetricsInterceptor(new SimpleMeterRegistry(), objectMapper, thresholdMillis, maxParams,
+                maxParamLength, 2000);
+    }
+
+    private MappedStatement statement(String id, SqlCommandType type, String sql, List<String> properties) {
+        List<ParameterMapping> mappings = new ArrayList<>();
+        for (String property : properties) {
+            mappings.add(new ParameterMapping.Builder(configuration, property, Object.class).build());
+        }
+        return new MappedStatement.Builder(configuration, id, new StaticSqlSource(configuration, sql, mappings), type)
+                .build();
+    }
+
+    private static Invocation query(FakeExecutor executor, MappedStatement mappedStatement,
+                                    ResultHandler<?> resultHandler) throws NoSuchMethodException {
+        return query(executor, mappedStatement, null, resultHandler);
+    }
+
+    private static Invocation query(FakeExecutor executor, MappedStatement mappedStatement, Object parameter,
+                                    ResultHandler<?> resultHandler) throws NoSuchMethodException {
+        return new Invocation(executor, FakeExecutor.class.getMethod("query", MappedStatement.class, Object.class,
+                RowBounds.class, ResultHandler.class),
+                new Object[]{mappedStatement, parameter, RowBounds.DEFAULT, resultHandler});
+    }
+
+    private static Invocation update(FakeExecutor executor, MappedStatement mappedStatement)
+            throws NoSuchMethodException {
+        return new Invocation(executor, updateMethod(), new Object[]{mappedStatement, null});
+    }
+
+    private static Method updateMethod() throws NoSuchMethodException {
+        return FakeExecutor.class.getMethod("update", MappedStatement.class, Object.class);
+    }
+
+    private static StatementMetricsInterceptor.StatementMetrics metrics(StatementMetricsInterceptor interceptor,
+                                                                        String name) {
+        for (StatementMetricsInterceptor.StatementMetrics metrics : interceptor.getStatements()) {
+            if (metrics.getName().equals(name)) {
+                return metrics;
+            }
+        }
+        throw new AssertionError(name);
+    }
+
+    private static List<String> texts(JsonNode array) {
+        List<String> texts = new ArrayList<>();
+        array.forEach(node -> texts.add(node.asText()));
+        return texts;
+    }
+
+    // Executor.query/update와 같은 인자를 받아 미리 정한 결과를 반환하거나 예외를 던집니다.
+    public static class FakeExecutor {
+        private final Object result;
+
+        FakeExecutor(Object result) {
+            this.result = result;
+        }
+
+        public Object query(MappedStatement mappedStatement, Object parameter, RowBounds rowBounds,
+                            ResultHandler<?> resultHandler) {
+            return execute();
+        }
+
+        public Object update(MappedStatement mappedStatement, Object parameter) {
+            return execute();
+        }
+
+        private Object execute() {
+            if (result instanceof RuntimeException e) {
+                throw e;
+            }
+            return result;
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package com.dustin.boardserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HangulBigramTokenizerTest {
+
+    @Test
+    void splitsHangulIntoBigramsAndLowercasesWords() {
+        assertEquals(List.of("스프", "프링", "부트", "boot3", "게시", "시판"), tokenize("스프링 부트Boot3 게시판"));
+    }
+
+    @Test
+    void keepsSingleHangulCharacterAsToken() {
+        assertEquals(List.of("글", "a"), tokenize("글 A"));
+    }
+
+    @Test
+    void splitsOnPunctuationAndScriptChange() {
+        assertEquals(List.of("redis", "캐시", "v2", "9"), tokenize("Redis캐시, v2!9"));
+    }
+
+    @Test
+    void truncatesLongWords() {
+        String word = "a".repeat(100);
+
+        assertEquals(List.of("a".repeat(32)), tokenize(word));
+    }
+
+    @Test
+    void bigramsHanjaAndJamo() {
+        assertEquals(List.of("漢字", "ㅋㅋ"), tokenize("漢字 ㅋㅋ"));
+    }
+
+    @Test
+    void emptyTextHasNoTokens() {
+        assertTrue(tokenize(null).isEmpty());
+        assertTrue(tokenize("").isEmpty());
+        assertTrue(tokenize(" ,.!? ").isEmpty());
+    }
+
+    private static List<String> tokenize(String text) {
+        List<String> tokens = new ArrayList<>();
+        HangulBigramTokenizer.tokenize(text, tokens::add);
+        return tokens;
+    }
+}
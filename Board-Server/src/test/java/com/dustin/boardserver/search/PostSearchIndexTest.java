@@ -0,0 +1,295 @@
+package com.dustin.boardserver.search;
+
+import com.dustin.boardserver.cache.CacheInvalidationPublisher;
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostSearchIndexTest {
+    private static final float K1 = 1.2f;
+    private static final float B = 0.75f;
+    private static final String[] WORDS = {
+            "스프링", "부트", "게시판", "레디스", "캐시", "검색", "색인", "자바", "서버", "데이터베이스",
+            "spring", "redis", "java", "mysql", "cache"
+    };
+
+    private final FakePostSearchMapper mapper = new FakePostSearchMapper();
+    private final RecordingPublisher publisher = new RecordingPublisher();
+    private PostSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new PostSearchIndex(mapper, publisher);
+        ReflectionTestUtils.setField(index, "enabled", true);
+        ReflectionTestUtils.setField(index, "k1", K1);
+        ReflectionTestUtils.setField(index, "b", B);
+    }
+
+    @Test
+    void ranksTitleMatchAboveBodyMatch() {
+        index.index(post(1, 1, "잡담", "스프링 이야기"));
+        index.index(post(2, 1, "스프링 입문", "잡담"));
+        index.index(post(3, 1, "레디스", "캐시"));
+
+        assertArrayEquals(new int[]{2, 1}, index.search("스프링", 0, 10));
+    }
+
+    @Test
+    void filtersByCategory() {
+        index.index(post(1, 1, "스프링", null));
+        index.index(post(2, 2, "스프링", null));
+        index.index(post(3, 1, "스프링 부트", null));
+
+        // 같은 색인어라도 더 짧은 게시물의 점수가 높습니다.
+        assertArrayEquals(new int[]{1, 3}, index.search("스프링", 1, 10));
+        assertArrayEquals(new int[]{2}, index.search("스프링", 2, 10));
+        assertArrayEquals(new int[0], index.search("스프링", 3, 10));
+    }
+
+    @Test
+    void reindexAndRemoveReplacePreviousTerms() {
+        index.index(post(1, 1, "스프링", null));
+        index.index(post(1, 1, "레디스", null));
+
+        assertArrayEquals(new int[0], index.search("스프링", 0, 10));
+        assertArrayEquals(new int[]{1}, index.search("레디스", 0, 10));
+
+        index.remove(1);
+        assertArrayEquals(new int[0], index.search("레디스", 0, 10));
+    }
+
+    // MaxScore로 건너뛴 결과가 모든 게시물의 BM25 점수를 계산해 정렬한 결과와 같은 점수 순서인지 확인합니다.
+    @Test
+    void maxScoreMatchesExhaustiveBm25() {
+        Random random = new Random(20240101);
+        List<PostDTO> posts = new ArrayList<>();
+        for (int id = 1; id <= 400; id++) {
+            PostDTO postDTO = post(id, 1 + random.nextInt(3), words(random, 1 + random.nextInt(3)),
+                    words(random, random.nextInt(12)));
+            posts.add(postDTO);
+            index.index(postDTO);
+        }
+        // 중간에 지운 게시물은 점수 계산에서도 빠져야 합니다.
+        for (int id = 5; id <= 400; id += 37) {
+            index.remove(id);
+            posts.remove(findPost(posts, id));
+        }
+
+        for (int query = 0; query < 200; query++) {
+            String keyword = words(random, 1 + random.nextInt(3));
+            int categoryId = random.nextInt(4);
+            int limit = 1 + random.nextInt(20);
+
+            List<float[]> expected = exhaustive(posts, keyword, categoryId);
+            int[] actual = index.search(keyword, categoryId, limit);
+
+            assertEquals(Math.min(limit, expected.size()), actual.length, keyword);
+            Map<Integer, Float> scores = new HashMap<>();
+            expected.forEach(entry -> scores.put((int) entry[0], entry[1]));
+            for (int i = 0; i < actual.length; i++) {
+                // 부동소수점 합산 순서 차이로 같은 점수의 순서가 바뀔 수 있으므로 ID 대신 점수를 비교합니다.
+                assertEquals(expected.get(i)[1], scores.get(actual[i]), 1e-4, keyword + " #" + i);
+            }
+        }
+    }
+
+    @Test
+    void publishesChangedPostIds() {
+        index.index(post(1, 1, "스프링", null));
+        index.indexAll(List.of(post(2, 1, "부트", null), post(3, 1, "자바", null)));
+        index.remove(1);
+
+        assertEquals(List.of("1", "2,3", "1"), publisher.published);
+    }
+
+    @Test
+    void reloadsPostsChangedOnOtherServer() {
+        index.index(post(1, 1, "스프링", null));
+        index.index(post(2, 1, "스프링", null));
+        mapper.posts.put(1, post(1, 1, "레디스", null));
+        mapper.posts.put(3, post(3, 1, "스프링", null));
+
+        // 1번은 수정, 2번은 삭제, 3번은 새로 등록된 게시물입니다.
+        index.onMessage(message("other-node", PostSearchIndex.INDEX_NAME, "1,2,3"), null);
+
+        assertArrayEquals(new int[]{3}, index.search("스프링", 0, 10));
+        assertArrayEquals(new int[]{1}, index.search("레디스", 0, 10));
+    }
+
+    @Test
+    void ignoresOwnAndUnrelatedMessages() {
+        index.index(post(1, 1, "스프링", null));
+
+        index.onMessage(message(publisher.getNodeId(), PostSearchIndex.INDEX_NAME, "1"), null);
+        index.onMessage(message("other-node", "getProducts", "1"), null);
+
+        assertArrayEquals(new int[]{1}, index.search("스프링", 0, 10));
+    }
+
+    @Test
+    void rebuildReadsAllPosts() {
+        mapper.posts.put(1, post(1, 1, "스프링", null));
+        mapper.posts.put(2, post(2, 1, "스프링 부트", null));
+        index.index(post(9, 1, "스프링", null));
+
+        index.rebuild();
+
+        assertArrayEquals(new int[]{1, 2}, index.search("스프링", 0, 10));
+    }
+
+    private List<float[]> exhaustive(List<PostDTO> posts, String keyword, int categoryId) {
+        Set<String> queryTerms = new LinkedHashSet<>();
+        HangulBigramTokenizer.tokenize(keyword, queryTerms::add);
+
+        Map<Integer, Map<String, Integer>> frequencies = new HashMap<>();
+        Map<String, Integer> docFrequencies = new HashMap<>();
+        long totalLength = 0;
+        for (PostDTO postDTO : posts) {
+            Map<String, Integer> tf = new HashMap<>();
+            HangulBigramTokenizer.tokenize(postDTO.getName(), term -> tf.merge(term, 2, Integer::sum));
+            HangulBigramTokenizer.tokenize(postDTO.getContents(), term -> tf.merge(term, 1, Integer::sum));
+            frequencies.put(postDTO.getId(), tf);
+            tf.keySet().forEach(term -> docFrequencies.merge(term, 1, Integer::sum));
+            totalLength += tf.values().stream().mapToInt(Integer::intValue).sum();
+        }
+        float avgLength = (float) totalLength / posts.size();
+
+        List<float[]> scored = new ArrayList<>();
+        for (PostDTO postDTO : posts) {
+            if (categoryId != 0 && postDTO.getCategoryId() != categoryId) {
+                continue;
+            }
+            Map<String, Integer> tf = frequencies.get(postDTO.getId());
+            int length = tf.values().stream().mapToInt(Integer::intValue).sum();
+            float score = 0f;
+            boolean matched = false;
+            for (String term : queryTerms) {
+                Integer freq = tf.get(term);
+                if (freq == null) {
+                    continue;
+                }
+                matched = true;
+                int df = docFrequencies.get(term);
+                float idf = (float) Math.log(1 + (posts.size() - df + 0.5) / (df + 0.5));
+                float norm = K1 * (1 - B + B * length / avgLength);
+                score += idf * freq * (K1 + 1) / (freq + norm);
+            }
+            if (matched) {
+                scored.add(new float[]{postDTO.getId(), score});
+            }
+        }
+        scored.sort(Comparator.<float[]>comparingDouble(entry -> entry[1]).reversed());
+        return scored;
+    }
+
+    private static String words(Random random, int count) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < count; i++) {
+            text.append(WORDS[random.nextInt(WORDS.length)]).append(' ');
+        }
+        return text.toString();
+    }
+
+    private static PostDTO findPost(List<PostDTO> posts, int id) {
+        return posts.stream().filter(postDTO -> postDTO.getId() == id).findFirst().orElseThrow();
+    }
+
+    private static PostDTO post(int id, int categoryId, String name, String contents) {
+        return PostDTO.builder().id(id).categoryId(categoryId).name(name).contents(contents).build();
+    }
+
+    private static DefaultMessage message(String nodeId, String cacheName, String key) {
+        return new DefaultMessage(CacheInvalidationPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                (nodeId + "\n" + cacheName + "\n" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    // 다른 서버에 보낸 메시지를 기록합니다.
+    private static class RecordingPublisher extends CacheInvalidationPublisher {
+        private final List<String> published = new ArrayList<>();
+
+        RecordingPublisher() {
+            super(null);
+        }
+
+        @Override
+        public void publishEvict(String cacheName, Object key) {
+            published.add(String.valueOf(key));
+        }
+    }
+
+    // DB 대신 메모리의 게시물을 반환합니다.
+    private static class FakePostSearchMapper implements PostSearchMapper {
+        private final Map<Integer, PostDTO> posts = new TreeMap<>();
+
+        @Override
+        public List<PostDTO> selectPosts(PostSearchRequest postSearchRequest, PostCursor cursor, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PostDTO> selectPostsByIds(List<Integer> ids) {
+            List<PostDTO> found = new ArrayList<>();
+            for (Integer id : new HashSet<>(ids)) {
+                if (posts.containsKey(id)) {
+                    found.add(posts.get(id));
+                }
+            }
+            return found;
+        }
+
+        @Override
+        public void selectPostsForIndex(ResultHandler<PostDTO> resultHandler) {
+            int[] count = new int[1];
+            for (PostDTO postDTO : posts.values()) {
+                count[0]++;
+                resultHandler.handleResult(new ResultContext<>() {
+                    @Override
+                    public PostDTO getResultObject() {
+                        return postDTO;
+                    }
+
+                    @Override
+                    public int getResultCount() {
+                        return count[0];
+                    }
+
+                    @Override
+                    public boolean isStopped() {
+                        return false;
+                    }
+
+                    @Override
+                    public void stop() {
+                    }
+                });
+            }
+        }
+
+        @Override
+        public void selectPostCategoriesForIndex(ResultHandler<PostDTO> resultHandler) {
+            selectPostsForIndex(resultHandler);
+        }
+    }
+}
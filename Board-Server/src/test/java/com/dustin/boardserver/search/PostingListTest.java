@@ -0,0 +1,93 @@
+package com.dustin.boardserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class PostingListTest {
+
+    @Test
+    void keepsDocsSortedWhenInsertedOutOfOrder() {
+        PostingList postingList = new PostingList();
+        postingList.put(5, 1);
+        postingList.put(1, 2);
+        postingList.put(9, 3);
+        postingList.put(3, 4);
+
+        assertArrayEquals(new int[]{1, 3, 5, 9}, Arrays.copyOf(postingList.docs, postingList.size));
+        assertArrayEquals(new int[]{2, 4, 1, 3}, Arrays.copyOf(postingList.freqs, postingList.size));
+    }
+
+    @Test
+    void putOverwritesFrequencyOfExistingDoc() {
+        PostingList postingList = new PostingList();
+        postingList.put(7, 1);
+        postingList.put(7, 5);
+
+        assertEquals(1, postingList.size);
+        assertEquals(5, postingList.freqs[0]);
+    }
+
+    @Test
+    void removeDropsOnlyThatDoc() {
+        PostingList postingList = new PostingList();
+        for (int doc = 1; doc <= 5; doc++) {
+            postingList.put(doc, doc * 10);
+        }
+        postingList.remove(3);
+        postingList.remove(42);
+
+        assertArrayEquals(new int[]{1, 2, 4, 5}, Arrays.copyOf(postingList.docs, postingList.size));
+        assertArrayEquals(new int[]{10, 20, 40, 50}, Arrays.copyOf(postingList.freqs, postingList.size));
+    }
+
+    @Test
+    void advanceFindsFirstDocAtLeastTarget() {
+        PostingList postingList = new PostingList();
+        for (int doc = 0; doc < 1000; doc += 3) {
+            postingList.put(doc, 1);
+        }
+
+        assertEquals(0, postingList.advance(0, 0));
+        assertEquals(1, postingList.advance(0, 1));
+        assertEquals(1, postingList.advance(0, 3));
+        assertEquals(100, postingList.advance(0, 298));
+        assertEquals(100, postingList.advance(50, 300));
+        // 이미 target 이상인 위치에서 시작하면 그 위치를 그대로 반환합니다.
+        assertEquals(200, postingList.advance(200, 10));
+        assertEquals(postingList.size, postingList.advance(0, 1000));
+    }
+
+    @Test
+    void matchesSortedMapUnderRandomChanges() {
+        Random random = new Random(42);
+        PostingList postingList = new PostingList();
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        for (int i = 0; i < 5000; i++) {
+            int doc = random.nextInt(500);
+            if (random.nextInt(4) == 0) {
+                postingList.remove(doc);
+                expected.remove(doc);
+            } else {
+                int freq = 1 + random.nextInt(9);
+                postingList.put(doc, freq);
+                expected.put(doc, freq);
+            }
+        }
+
+        assertArrayEquals(expected.keySet().stream().mapToInt(Integer::intValue).toArray(),
+                Arrays.copyOf(postingList.docs, postingList.size));
+        assertArrayEquals(expected.values().stream().mapToInt(Integer::intValue).toArray(),
+                Arrays.copyOf(postingList.freqs, postingList.size));
+        for (int target = 0; target <= 500; target++) {
+            Integer ceiling = expected.ceilingKey(target);
+            int position = postingList.advance(0, target);
+            assertEquals(ceiling == null ? postingList.size : expected.headMap(ceiling).size(), position);
+        }
+    }
+}
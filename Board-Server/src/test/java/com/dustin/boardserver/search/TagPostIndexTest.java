@@ -0,0 +1,329 @@
+package com.dustin.boardserver.search;
+
+import com.dustin.boardserver.cache.CacheInvalidationPublisher;
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.TagDTO;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import com.dustin.boardserver.mapper.TagMapper;
+import org.apache.ibatis.session.ResultContext;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.connection.DefaultMessage;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TagPostIndexTest {
+    private final FakePostSearchMapper postSearchMapper = new FakePostSearchMapper();
+    private final FakeTagMapper tagMapper = new FakeTagMapper();
+    private final RecordingPublisher publisher = new RecordingPublisher("node-a");
+    private TagPostIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = newIndex(publisher);
+        // 1~6번 게시물: 홀수는 1번 카테고리, 짝수는 2번 카테고리
+        for (int postId = 1; postId <= 6; postId++) {
+            index.putPost(postId, postId % 2 == 1 ? 1 : 2);
+        }
+        int tagId = 100;
+        for (int postId = 1; postId <= 6; postId++) {
+            index.putTag(tagId++, "Spring", postId);
+            if (postId % 2 == 0) {
+                index.putTag(tagId++, "redis", postId);
+            }
+            if (postId % 3 == 0) {
+                index.putTag(tagId++, "java", postId);
+            }
+        }
+        publisher.published.clear();
+    }
+
+    @Test
+    void allTagsAreIntersected() {
+        assertArrayEquals(new int[]{6, 4, 2}, search(List.of("spring", "redis"), null, null, 0));
+        assertArrayEquals(new int[]{6}, search(List.of("redis", "java"), null, null, 0));
+        assertArrayEquals(new int[0], search(List.of("redis", "unknown"), null, null, 0));
+    }
+
+    @Test
+    void anyTagsAreUnited() {
+        assertArrayEquals(new int[]{6, 4, 3, 2}, search(null, List.of("redis", "java"), null, 0));
+        assertArrayEquals(new int[]{6, 3}, search(List.of("spring"), List.of("java", "unknown"), null, 0));
+    }
+
+    @Test
+    void noneTagsAreExcluded() {
+        assertArrayEquals(new int[]{5, 1}, search(null, null, List.of("redis", "java"), 0));
+        assertArrayEquals(new int[]{4, 2}, search(List.of("redis"), null, List.of("java"), 0));
+    }
+
+    // 태그 이름은 앞뒤 공백과 대소문자를 무시합니다.
+    @Test
+    void tagNamesAreNormalized() {
+        assertArrayEquals(new int[]{6, 3}, search(List.of("  JAVA "), null, null, 0));
+    }
+
+    @Test
+    void filtersByCategory() {
+        assertArrayEquals(new int[]{5, 3, 1}, search(List.of("spring"), null, null, 1));
+        assertArrayEquals(new int[]{3}, search(List.of("java"), null, null, 1));
+        assertArrayEquals(new int[0], search(List.of("spring"), null, null, 9));
+    }
+
+    @Test
+    void pagesWithCursorInDescendingIdOrder() {
+        assertArrayEquals(new int[]{6, 5}, index.search(List.of("spring"), null, null, 0, 0, 2));
+        assertArrayEquals(new int[]{4, 3}, index.search(List.of("spring"), null, null, 0, 5, 2));
+        assertArrayEquals(new int[]{2, 1}, index.search(List.of("spring"), null, null, 0, 3, 2));
+        assertArrayEquals(new int[0], index.search(List.of("spring"), null, null, 0, 1, 2));
+    }
+
+    @Test
+    void removedPostsAndTagsAreExcluded() {
+        index.removePost(6);
+        assertArrayEquals(new int[]{3}, search(List.of("java"), null, null, 0));
+
+        // 3번 게시물의 java 태그(ID 104)를 지웁니다.
+        index.removeTag(104);
+        assertArrayEquals(new int[0], search(List.of("java"), null, null, 0));
+    }
+
+    // 같은 게시물에 같은 이름의 태그가 두 개면 하나를 지워도 남아 있습니다.
+    @Test
+    void duplicateTagOnSamePostSurvivesSingleRemoval() {
+        index.putTag(200, "kotlin", 1);
+        index.putTag(201, "Kotlin", 1);
+
+        index.removeTag(200);
+        assertArrayEquals(new int[]{1}, search(List.of("kotlin"), null, null, 0));
+
+        index.removeTag(201);
+        assertArrayEquals(new int[0], search(List.of("kotlin"), null, null, 0));
+    }
+
+    @Test
+    void renameMovesPostToNewTag() {
+        index.renameTag(104, "jvm");
+
+        assertArrayEquals(new int[]{6}, search(List.of("java"), null, null, 0));
+        assertArrayEquals(new int[]{3}, search(List.of("jvm"), null, null, 0));
+    }
+
+    @Test
+    void categoryChangeMovesPost() {
+        index.putPost(1, 2);
+
+        assertArrayEquals(new int[]{5, 3}, search(List.of("spring"), null, null, 1));
+        assertArrayEquals(new int[]{6, 4, 2, 1}, search(List.of("spring"), null, null, 2));
+    }
+
+    // 다른 서버에 보낸 변경을 그대로 적용하면 같은 색인이 됩니다.
+    @Test
+    void otherServerAppliesPublishedChanges() {
+        RecordingPublisher otherPublisher = new RecordingPublisher("node-b");
+        TagPostIndex other = newIndex(otherPublisher);
+
+        index.putPosts(List.of(post(7, 1), post(8, 2)));
+        index.putTags(List.of(new TagDTO(300, "C, Sharp\n", null, 7), new TagDTO(301, "  ", null, 8),
+                new TagDTO(302, "redis", null, 8)));
+        index.putTag(303, "java", 8);
+        index.renameTag(303, "자바");
+        index.removeTag(302);
+        index.removePost(1);
+        for (String changes : publisher.published) {
+            other.onMessage(message("node-a", TagPostIndex.INDEX_NAME, changes), null);
+        }
+
+        assertEquals(6, publisher.published.size());
+        assertArrayEquals(new int[]{7}, other.search(List.of("c, sharp"), null, null, 0, 0, 10));
+        assertArrayEquals(new int[]{8}, other.search(List.of("자바"), null, null, 0, 0, 10));
+        assertArrayEquals(new int[0], other.search(List.of("redis"), null, null, 0, 0, 10));
+        assertArrayEquals(new int[]{8}, other.search(null, null, null, 2, 0, 10));
+        assertArrayEquals(new int[]{7}, other.search(null, null, null, 1, 0, 10));
+        // 받은 변경은 다시 보내지 않습니다.
+        assertEquals(0, otherPublisher.published.size());
+    }
+
+    @Test
+    void ignoresOwnAndUnrelatedMessages() {
+        index.onMessage(message(publisher.getNodeId(), TagPostIndex.INDEX_NAME, "p,1"), null);
+        index.onMessage(message("node-b", PostSearchIndex.INDEX_NAME, "p,1"), null);
+
+        assertArrayEquals(new int[]{5, 3, 1}, search(List.of("spring"), null, null, 1));
+    }
+
+    // 잘못된 변경 한 줄은 건너뛰고 나머지는 적용합니다.
+    @Test
+    void skipsMalformedChange() {
+        index.onMessage(message("node-b", TagPostIndex.INDEX_NAME, "X,1\np,1"), null);
+
+        assertArrayEquals(new int[]{5, 3}, search(List.of("spring"), null, null, 1));
+    }
+
+    @Test
+    void rebuildReadsPostsAndTags() {
+        postSearchMapper.posts.add(post(10, 1));
+        postSearchMapper.posts.add(post(11, 1));
+        tagMapper.tags.add(new TagDTO(1, "Docker", null, 10));
+        tagMapper.tags.add(new TagDTO(2, "docker", null, 11));
+
+        index.rebuild();
+
+        assertArrayEquals(new int[]{11, 10}, search(List.of("docker"), null, null, 0));
+        assertArrayEquals(new int[0], search(List.of("spring"), null, null, 0));
+    }
+
+    private int[] search(List<String> all, List<String> any, List<String> none, int categoryId) {
+        return index.search(all, any, none, categoryId, 0, 10);
+    }
+
+    private TagPostIndex newIndex(CacheInvalidationPublisher invalidationPublisher) {
+        TagPostIndex tagPostIndex = new TagPostIndex(tagMapper, postSearchMapper, invalidationPublisher);
+        ReflectionTestUtils.setField(tagPostIndex, "enabled", true);
+        return tagPostIndex;
+    }
+
+    private static PostDTO post(int id, int categoryId) {
+        return PostDTO.builder().id(id).categoryId(categoryId).build();
+    }
+
+    private static DefaultMessage message(String nodeId, String cacheName, String key) {
+        return new DefaultMessage(CacheInvalidationPublisher.CHANNEL.getBytes(StandardCharsets.UTF_8),
+                (nodeId + "\n" + cacheName + "\n" + key).getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static <T> void stream(List<T> rows, ResultHandler<T> resultHandler) {
+        for (T row : rows) {
+            resultHandler.handleResult(new ResultContext<>() {
+                @Override
+                public T getResultObject() {
+                    return row;
+                }
+
+                @Override
+                public int getResultCount() {
+                    return rows.indexOf(row) + 1;
+                }
+
+                @Override
+                public boolean isStopped() {
+                    return false;
+                }
+
+                @Override
+                public void stop() {
+                }
+            });
+        }
+    }
+
+    // 다른 서버에 보낸 메시지의 키를 기록합니다.
+    private static class RecordingPublisher extends CacheInvalidationPublisher {
+        private final List<String> published = new ArrayList<>();
+        private final String nodeId;
+
+        RecordingPublisher(String nodeId) {
+            super(null);
+            this.nodeId = nodeId;
+        }
+
+        @Override
+        public String getNodeId() {
+            return nodeId;
+        }
+
+        @Override
+        public void publishEvict(String cacheName, Object key) {
+            published.add(String.valueOf(key));
+        }
+    }
+
+    // 재색인할 때 DB 대신 메모리의 게시물을 전달합니다.
+    private static class FakePostSearchMapper implements PostSearchMapper {
+        private final List<PostDTO> posts = new ArrayList<>();
+
+        @Override
+        public List<PostDTO> selectPosts(PostSearchRequest postSearchRequest, PostCursor cursor, int limit) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PostDTO> selectPostsByIds(List<Integer> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void selectPostsForIndex(ResultHandler<PostDTO> resultHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void selectPostCategoriesForIndex(ResultHandler<PostDTO> resultHandler) {
+            stream(posts, resultHandler);
+        }
+    }
+
+    // 재색인할 때 DB 대신 메모리의 태그 연결을 전달합니다.
+    private static class FakeTagMapper implements TagMapper {
+        private final List<TagDTO> tags = new ArrayList<>();
+
+        @Override
+        public void selectTagsForIndex(ResultHandler<TagDTO> resultHandler) {
+            stream(tags, resultHandler);
+        }
+
+        @Override
+        public int register(TagDTO tagDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulk(List<TagDTO> tags) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerWithId(TagDTO tagDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulkWithIds(List<TagDTO> tags) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerPostTag(TagDTO tagDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerPostTagsBulk(List<TagDTO> tags) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateTags(TagDTO tagDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deletePostTag(int tagId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deletePostTagLinks(int tagId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
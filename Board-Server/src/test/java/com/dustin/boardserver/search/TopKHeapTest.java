@@ -0,0 +1,87 @@
+package com.dustin.boardserver.search;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TopKHeapTest {
+
+    @Test
+    void keepsHighestScoresInDescendingOrder() {
+        TopKHeap heap = new TopKHeap(3);
+        heap.offer(1, 0.5f);
+        heap.offer(2, 3.0f);
+        heap.offer(3, 1.0f);
+        heap.offer(4, 2.0f);
+        heap.offer(5, 0.1f);
+
+        assertArrayEquals(new int[]{2, 4, 3}, heap.drainDescending());
+    }
+
+    @Test
+    void prefersLargerIdOnTies() {
+        TopKHeap heap = new TopKHeap(2);
+        heap.offer(10, 1f);
+        heap.offer(30, 1f);
+        heap.offer(20, 1f);
+
+        assertArrayEquals(new int[]{30, 20}, heap.drainDescending());
+    }
+
+    @Test
+    void thresholdIsZeroUntilFull() {
+        TopKHeap heap = new TopKHeap(2);
+        heap.offer(1, 5f);
+
+        assertFalse(heap.isFull());
+        assertEquals(0f, heap.threshold(), 0f);
+
+        heap.offer(2, 3f);
+        assertTrue(heap.isFull());
+        assertEquals(3f, heap.threshold(), 0f);
+
+        heap.offer(3, 4f);
+        assertEquals(4f, heap.threshold(), 0f);
+    }
+
+    @Test
+    void returnsFewerThanKWhenNotFull() {
+        TopKHeap heap = new TopKHeap(10);
+        heap.offer(7, 2f);
+        heap.offer(8, 1f);
+
+        assertArrayEquals(new int[]{7, 8}, heap.drainDescending());
+        assertArrayEquals(new int[0], heap.drainDescending());
+    }
+
+    @Test
+    void matchesFullSort() {
+        Random random = new Random(7);
+        for (int k : new int[]{1, 5, 50}) {
+            TopKHeap heap = new TopKHeap(k);
+            List<float[]> offered = new ArrayList<>();
+            for (int doc = 0; doc < 1000; doc++) {
+                // 같은 점수가 자주 나오도록 점수를 몇 단계로만 만듭니다.
+                float score = random.nextInt(20) / 4f;
+                heap.offer(doc, score);
+                offered.add(new float[]{doc, score});
+            }
+            offered.sort(Comparator.<float[]>comparingDouble(entry -> entry[1])
+                    .thenComparingDouble(entry -> entry[0]).reversed());
+            int[] expected = new int[k];
+            for (int i = 0; i < k; i++) {
+                expected[i] = (int) offered.get(i)[0];
+            }
+
+            assertArrayEquals(expected, heap.drainDescending());
+        }
+    }
+}
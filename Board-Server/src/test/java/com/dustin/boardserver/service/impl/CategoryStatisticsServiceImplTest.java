@@ -0,0 +1,220 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.dto.CategoryDTO;
+import com.dustin.boardserver.mapper.CategoryMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.connection.RedisHashCommands;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.lang.reflect.Proxy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CategoryStatisticsServiceImplTest {
+    private static final String POST_COUNT_KEY = "category:postCount";
+
+    private final FakeRedisTemplate redisTemplate = new FakeRedisTemplate();
+    private final FakeCategoryMapper categoryMapper = new FakeCategoryMapper();
+    private final CategoryStatisticsServiceImpl statisticsService =
+            new CategoryStatisticsServiceImpl(redisTemplate, categoryMapper);
+
+    @Test
+    void incrementsAccumulatePerCategory() {
+        statisticsService.increment(3, 1);
+        statisticsService.increment(3, 1);
+        statisticsService.increment(5, 0);
+        // 일괄 등록과 카테고리 이동은 여러 카테고리를 한 파이프라인으로 반영합니다.
+        statisticsService.increment(Map.of(3, 2, 4, 1));
+        statisticsService.moveCategory(3, 4);
+        statisticsService.moveCategory(4, 4);
+
+        assertEquals(Map.of(3, 3L, 4, 2L), statisticsService.getPostCounts());
+        assertEquals(2, redisTemplate.pipelines);
+    }
+
+    @Test
+    void removeCategoryDropsItsCount() {
+        statisticsService.increment(Map.of(3, 2, 4, 1));
+
+        statisticsService.removeCategory(3);
+
+        assertEquals(Map.of(4, 1L), statisticsService.getPostCounts());
+    }
+
+    // 어긋난 값과 지워진 카테고리는 MySQL의 개수로 통째로 바뀝니다.
+    @Test
+    void reconcileReplacesCountsWithDatabase() {
+        statisticsService.increment(3, 10);
+        statisticsService.increment(9, 4);
+        categoryMapper.counts = List.of(count(3, 5), count(4, 2));
+
+        statisticsService.reconcile();
+
+        assertEquals(Map.of(3, 5L, 4, 2L), statisticsService.getPostCounts());
+    }
+
+    // 기동할 때는 hash가 없을 때만 다시 맞춥니다.
+    @Test
+    void startupReconcilesOnlyWhenCountsAreMissing() {
+        categoryMapper.counts = List.of(count(3, 5));
+
+        statisticsService.reconcileOnStartup();
+        assertEquals(1, categoryMapper.calls);
+        assertEquals(Map.of(3, 5L), statisticsService.getPostCounts());
+
+        statisticsService.reconcileOnStartup();
+        assertEquals(1, categoryMapper.calls);
+    }
+
+    // Redis 장애는 게시물 요청을 실패시키지 않습니다. 어긋난 값은 reconcile에서 바로잡습니다.
+    @Test
+    void redisFailureIsNotPropagated() {
+        redisTemplate.down = true;
+
+        statisticsService.increment(3, 1);
+        statisticsService.increment(Map.of(3, 2));
+        statisticsService.removeCategory(3);
+        statisticsService.reconcile();
+        statisticsService.reconcileOnStartup();
+
+        assertTrue(statisticsService.getPostCounts().isEmpty());
+        redisTemplate.down = false;
+        assertTrue(statisticsService.getPostCounts().isEmpty());
+    }
+
+    private static CategoryDTO count(int categoryId, int postCount) {
+        CategoryDTO categoryDTO = new CategoryDTO();
+        categoryDTO.setId(categoryId);
+        categoryDTO.setSearchCount(postCount);
+        return categoryDTO;
+    }
+
+    // Redis 대신 메모리의 hash 하나(category:postCount)를 씁니다. 서비스가 사용하는 명령만 지원하며,
+    // 게시물 수를 다시 쓰는 스크립트는 Redis와 같이 hash를 지우고 인자의 카테고리 ID, 게시물 수를 차례로 씁니다.
+    private static class FakeRedisTemplate extends StringRedisTemplate {
+        private final Map<String, Long> counts = new LinkedHashMap<>();
+        private int pipelines;
+        private boolean down;
+
+        @Override
+        public Boolean hasKey(String key) {
+            checkUp(key);
+            // Redis는 빈 hash를 지우므로 필드가 없으면 키도 없습니다.
+            return !counts.isEmpty();
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <HK, HV> HashOperations<String, HK, HV> opsForHash() {
+            return (HashOperations<String, HK, HV>) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{HashOperations.class}, (proxy, method, args) -> {
+                        checkUp((String) args[0]);
+                        return switch (method.getName()) {
+                            case "increment" -> counts.merge((String) args[1], ((Number) args[2]).longValue(), Long::sum);
+                            case "delete" -> {
+                                long deleted = 0;
+                                for (Object field : (Object[]) args[1]) {
+                                    deleted += counts.remove((String) field) != null ? 1 : 0;
+                                }
+                                yield deleted;
+                            }
+                            case "entries" -> {
+                                Map<Object, Object> entries = new LinkedHashMap<>();
+                                counts.forEach((field, count) -> entries.put(field, String.valueOf(count)));
+                                yield entries;
+                            }
+                            default -> throw new UnsupportedOperationException(method.getName());
+                        };
+                    });
+        }
+
+        @Override
+        public List<Object> executePipelined(RedisCallback<?> action) {
+            if (down) {
+                throw new RedisConnectionFailureException("redis down");
+            }
+            pipelines++;
+            List<Object> results = new ArrayList<>();
+            RedisHashCommands hashCommands = (RedisHashCommands) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{RedisHashCommands.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("hIncrBy")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        checkUp(new String((byte[]) args[0], StandardCharsets.UTF_8));
+                        Long count = counts.merge(new String((byte[]) args[1], StandardCharsets.UTF_8),
+                                (Long) args[2], Long::sum);
+                        results.add(count);
+                        return null;
+                    });
+            RedisConnection connection = (RedisConnection) Proxy.newProxyInstance(getClass().getClassLoader(),
+                    new Class<?>[]{RedisConnection.class}, (proxy, method, args) -> {
+                        if (!method.getName().equals("hashCommands")) {
+                            throw new UnsupportedOperationException(method.getName());
+                        }
+                        return hashCommands;
+                    });
+            action.doInRedis(connection);
+            return results;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T execute(RedisScript<T> script, List<String> keys, Object... args) {
+            checkUp(keys.get(0));
+            counts.clear();
+            for (int i = 0; i < args.length; i += 2) {
+                counts.put((String) args[i], Long.valueOf((String) args[i + 1]));
+            }
+            return (T) Long.valueOf(args.length / 2);
+        }
+
+        private void checkUp(String key) {
+            if (down) {
+                throw new RedisConnectionFailureException("redis down");
+            }
+            assertEquals(POST_COUNT_KEY, key);
+        }
+    }
+
+    private static class FakeCategoryMapper implements CategoryMapper {
+        private List<CategoryDTO> counts = List.of();
+        private int calls;
+
+        @Override
+        public List<CategoryDTO> selectPostCountsByCategory() {
+            calls++;
+            return counts;
+        }
+
+        @Override
+        public int register(CategoryDTO productDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateCategory(CategoryDTO categoryDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteCategory(int categoryId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<CategoryDTO> selectCategories() {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
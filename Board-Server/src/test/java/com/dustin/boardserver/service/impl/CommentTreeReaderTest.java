@@ -0,0 +1,92 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.dto.CommentDTO;
+import com.dustin.boardserver.dto.CommentTreeDTO;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.StringJoiner;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 트리는 "ID(답글, 답글)" 형태의 문자열로 비교합니다.
+class CommentTreeReaderTest {
+
+    @Test
+    void repliesAreAttachedInIdOrder() {
+        List<CommentTreeDTO> roots = CommentTreeReader.assemble(List.of(
+                comment(1, 0), comment(2, 1), comment(3, 0), comment(4, 2), comment(5, 1)));
+
+        assertEquals("1(2(4), 5), 3", render(roots));
+    }
+
+    // 부모가 삭제되었거나 자기 자신을 부모로 가리키는 댓글은 루트가 됩니다.
+    @Test
+    void orphansAndSelfParentsBecomeRoots() {
+        List<CommentTreeDTO> roots = CommentTreeReader.assemble(List.of(
+                comment(2, 1), comment(3, 2), comment(4, 4), comment(6, 99)));
+
+        assertEquals("2(3), 4, 6", render(roots));
+    }
+
+    // 잘못된 데이터로 부모의 ID가 자식보다 커도 부모 밑에 붙습니다.
+    @Test
+    void parentWithLargerIdIsStillAttached() {
+        List<CommentTreeDTO> roots = CommentTreeReader.assemble(List.of(
+                comment(1, 3), comment(2, 1), comment(3, 0)));
+
+        assertEquals("3(1(2))", render(roots));
+    }
+
+    // 순환은 ID가 가장 작은 댓글을 루트로 올려 끊고, 순환으로 이어지는 댓글은 그대로 답글로 남습니다.
+    @Test
+    void cyclesAreBrokenAtSmallestId() {
+        List<CommentTreeDTO> roots = CommentTreeReader.assemble(List.of(
+                comment(3, 20), comment(10, 11), comment(11, 12), comment(12, 10),
+                comment(20, 21), comment(21, 20)));
+
+        assertEquals("10(12(11)), 20(3, 21)", render(roots));
+    }
+
+    // 재귀하지 않으므로 답글이 아주 깊게 이어져도 스택이 넘치지 않습니다.
+    @Test
+    void deepThreadIsAssembled() {
+        int depth = 100_000;
+        List<CommentDTO> comments = new ArrayList<>(depth);
+        for (int id = 1; id <= depth; id++) {
+            comments.add(comment(id, id - 1));
+        }
+
+        List<CommentTreeDTO> roots = CommentTreeReader.assemble(comments);
+
+        assertEquals(1, roots.size());
+        CommentTreeDTO node = roots.get(0);
+        for (int id = 1; id < depth; id++) {
+            assertEquals(id, node.getId());
+            assertEquals(1, node.getReplies().size());
+            node = node.getReplies().get(0);
+        }
+        assertEquals(depth, node.getId());
+        assertTrue(node.getReplies().isEmpty());
+    }
+
+    @Test
+    void noCommentsGiveEmptyTree() {
+        assertTrue(CommentTreeReader.assemble(List.of()).isEmpty());
+    }
+
+    private static CommentDTO comment(int id, int subCommentId) {
+        return CommentDTO.builder().id(id).postId(1).contents("comment" + id).subCommentId(subCommentId).build();
+    }
+
+    private static String render(List<CommentTreeDTO> nodes) {
+        StringJoiner joiner = new StringJoiner(", ");
+        for (CommentTreeDTO node : nodes) {
+            joiner.add(node.getReplies().isEmpty() ? String.valueOf(node.getId())
+                    : node.getId() + "(" + render(node.getReplies()) + ")");
+        }
+        return joiner.toString();
+    }
+}
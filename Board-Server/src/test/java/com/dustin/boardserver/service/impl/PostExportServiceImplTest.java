@@ -0,0 +1,244 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.datasource.ShardContext;
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.datasource.ShardRoutingDataSource;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.PostMapper;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import javax.sql.DataSource;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 샤드 세 개에 게시물이 5개씩 있는 것처럼 가짜 Cursor를 돌려주고, 내보낸 NDJSON과 Cursor를 읽은 만큼을 확인합니다.
+class PostExportServiceImplTest {
+    private static final int SHARD_COUNT = 3;
+    private static final int POSTS_PER_SHARD = 5;
+    private static final int FLUSH_ROWS = 2;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StreamingPostMapper postMapper = new StreamingPostMapper();
+
+    @Test
+    void categoryIsExportedAsOneJsonLinePerPostAcrossShards() throws IOException {
+        ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+        long rows = exportService(4).exportCategory(1, outputStream);
+
+        String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+        assertEquals(SHARD_COUNT * POSTS_PER_SHARD, rows);
+        assertEquals(SHARD_COUNT * POSTS_PER_SHARD, lines.length);
+        assertEquals(1, objectMapper.readValue(lines[0], PostDTO.class).getId());
+        assertEquals(2 * 100 + POSTS_PER_SHARD, objectMapper.readValue(lines[lines.length - 1], PostDTO.class).getId());
+        assertEquals(List.of(0, 1, 2), postMapper.shards);
+        postMapper.cursors.forEach(cursor -> assertFalse(cursor.isOpen()));
+    }
+
+    // 클라이언트가 연결을 끊으면 Cursor를 닫아 남은 행과 다음 샤드를 읽지 않고, 오류 대신 중단으로 기록합니다.
+    @Test
+    void disconnectClosesCursorAndSkipsRemainingShards() {
+        long rows = exportService(4).exportCategory(1, new DisconnectedOutputStream());
+
+        // 첫 flush(FLUSH_ROWS행)에서 쓰기가 실패합니다.
+        assertEquals(FLUSH_ROWS, rows);
+        assertEquals(List.of(0), postMapper.shards);
+        FakeCursor cursor = postMapper.cursors.get(0);
+        assertEquals(FLUSH_ROWS, cursor.read);
+        assertFalse(cursor.isOpen());
+        assertEquals(1.0, meterRegistry.counter("post.export.cancelled", "type", "category").count());
+    }
+
+    @Test
+    void exportsOverLimitAreRejected() {
+        BoardServerException e = assertThrows(BoardServerException.class,
+                () -> exportService(0).exportMyProducts(5, new ByteArrayOutputStream()));
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getCode());
+        assertTrue(postMapper.shards.isEmpty());
+    }
+
+    private PostExportServiceImpl exportService(int maxConcurrent) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < SHARD_COUNT; shard++) {
+            // 쿼리는 StreamingPostMapper가 대신 처리하므로 연결하지 않습니다.
+            shards.add(new JdbcDataSource());
+        }
+        NoOpTransactionManager transactionManager = new NoOpTransactionManager();
+        ShardRouter shardRouter = new ShardRouter(new ShardRoutingDataSource(shards), new ShardIdGenerator(shards, 0),
+                transactionManager, Runnable::run, 5000, meterRegistry);
+        return new PostExportServiceImpl(postMapper, shardRouter, transactionManager, objectMapper, meterRegistry,
+                maxConcurrent, FLUSH_ROWS);
+    }
+
+    // 연결이 끊긴 클라이언트처럼 모든 쓰기에서 실패합니다.
+    private static class DisconnectedOutputStream extends OutputStream {
+        @Override
+        public void write(int b) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            throw new IOException("Broken pipe");
+        }
+    }
+
+    private static class NoOpTransactionManager implements PlatformTransactionManager {
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+        }
+    }
+
+    // 현재 샤드(ShardContext)의 게시물 POSTS_PER_SHARD개를 읽는 Cursor를 돌려주고, 조회한 샤드와 Cursor를 기록합니다.
+    // 게시물 ID는 샤드 * 100 + 순번입니다.
+    private static class StreamingPostMapper implements PostMapper {
+        private final List<Integer> shards = new ArrayList<>();
+        private final List<FakeCursor> cursors = new ArrayList<>();
+
+        @Override
+        public Cursor<PostDTO> streamPostsByCategory(int categoryId) {
+            int shard = ShardContext.current();
+            shards.add(shard);
+            FakeCursor cursor = new FakeCursor(shard * 100);
+            cursors.add(cursor);
+            return cursor;
+        }
+
+        @Override
+        public Cursor<PostDTO> streamMyProducts(int userId) {
+            return streamPostsByCategory(0);
+        }
+
+        @Override
+        public int register(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerWithId(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulk(List<PostDTO> posts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulkWithIds(List<PostDTO> posts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PostDTO> selectMyProducts(int accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PostDTO selectPost(int postId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateProducts(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteProduct(int postId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int addViews(Map<Integer, Long> deltas) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    // 읽은 행 수를 세고, 닫힌 뒤에 읽으면 실패합니다.
+    private static class FakeCursor implements Cursor<PostDTO> {
+        private final int firstId;
+        private int read;
+        private boolean closed;
+
+        FakeCursor(int idBase) {
+            this.firstId = idBase + 1;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return !closed;
+        }
+
+        @Override
+        public boolean isConsumed() {
+            return read == POSTS_PER_SHARD;
+        }
+
+        @Override
+        public int getCurrentIndex() {
+            return read - 1;
+        }
+
+        @Override
+        public void close() {
+            closed = true;
+        }
+
+        @Override
+        public Iterator<PostDTO> iterator() {
+            return new Iterator<>() {
+                @Override
+                public boolean hasNext() {
+                    if (closed) {
+                        throw new IllegalStateException("닫힌 Cursor입니다");
+                    }
+                    return read < POSTS_PER_SHARD;
+                }
+
+                @Override
+                public PostDTO next() {
+                    if (!hasNext()) {
+                        throw new NoSuchElementException();
+                    }
+                    int id = firstId + read++;
+                    return PostDTO.builder().id(id).name("post" + id).categoryId(1).build();
+                }
+            };
+        }
+    }
+}
@@ -0,0 +1,138 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.cache.SearchCacheGeneration;
+import com.dustin.boardserver.datasource.ReplicaRoutingContext;
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.request.PostSearchRequest;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.PostSearchMapper;
+import org.apache.ibatis.session.ResultHandler;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostSearchReaderTest {
+    private static final long READ_YOUR_WRITES_MILLIS = 3000;
+
+    private final FakePostSearchMapper postSearchMapper = new FakePostSearchMapper();
+    private final FakeSearchCacheGeneration searchCacheGeneration = new FakeSearchCacheGeneration();
+    private final PostSearchReader reader = new PostSearchReader();
+    private Boolean previousReadOnly;
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(reader, "productSearchMapper", postSearchMapper);
+        ReflectionTestUtils.setField(reader, "searchCacheGeneration", searchCacheGeneration);
+        ReflectionTestUtils.setField(reader, "readYourWritesMillis", READ_YOUR_WRITES_MILLIS);
+        ReflectionTestUtils.setField(reader, "defaultPageSize", 20);
+        ReflectionTestUtils.setField(reader, "maxPageSize", 100);
+        // @ReplicaRead 메서드 안에서 실행되는 상황입니다. (ReplicaReadAspect 참고)
+        previousReadOnly = ReplicaRoutingContext.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReplicaRoutingContext.restoreReadOnly(previousReadOnly);
+    }
+
+    @Test
+    void readsFromReplicaWhenGenerationIsOld() {
+        reader.getProducts(PostSearchRequest.builder().categoryId(3).build());
+
+        assertEquals(List.of(true), postSearchMapper.readOnlyAtQuery);
+        assertEquals(List.of("3:" + READ_YOUR_WRITES_MILLIS), searchCacheGeneration.asked);
+    }
+
+    // 세대 번호가 바뀐 직후에는 복제본에 변경이 아직 없을 수 있으므로 primary에서 읽어 새 세대의 키로 캐시합니다.
+    @Test
+    void readsFromPrimaryRightAfterGenerationChange() {
+        searchCacheGeneration.recentlyChanged.add(3);
+
+        reader.getProducts(PostSearchRequest.builder().categoryId(3).build());
+        reader.getProducts(PostSearchRequest.builder().categoryId(4).build());
+
+        assertEquals(List.of(false, true), postSearchMapper.readOnlyAtQuery);
+        // 끝나면 @ReplicaRead의 표시를 되돌립니다.
+        assertTrue(ReplicaRoutingContext.isReadOnly());
+    }
+
+    @Test
+    void restoresReadOnlyWhenQueryFails() {
+        searchCacheGeneration.recentlyChanged.add(0);
+        postSearchMapper.failing = true;
+
+        assertThrows(BoardServerException.class, () -> reader.getProducts(PostSearchRequest.builder().build()));
+
+        assertEquals(List.of(false), postSearchMapper.readOnlyAtQuery);
+        assertTrue(ReplicaRoutingContext.isReadOnly());
+    }
+
+    @Test
+    void leavesReadOnlyUnsetOutsideReplicaRead() {
+        ReplicaRoutingContext.restoreReadOnly(null);
+        searchCacheGeneration.recentlyChanged.add(3);
+
+        reader.getProducts(PostSearchRequest.builder().categoryId(3).build());
+
+        assertFalse(ReplicaRoutingContext.isReadOnly());
+        assertEquals(List.of(false), postSearchMapper.readOnlyAtQuery);
+    }
+
+    // recentlyChanged의 카테고리만 최근에 바뀐 것으로 답합니다. 물어본 카테고리와 기간을 기록합니다.
+    private static class FakeSearchCacheGeneration extends SearchCacheGeneration {
+        private final Set<Integer> recentlyChanged = new HashSet<>();
+        private final List<String> asked = new ArrayList<>();
+
+        FakeSearchCacheGeneration() {
+            super(null, null, 0);
+        }
+
+        @Override
+        public boolean changedWithin(int categoryId, long windowMillis) {
+            asked.add(categoryId + ":" + windowMillis);
+            return recentlyChanged.contains(categoryId);
+        }
+    }
+
+    // 조회할 때 현재 스레드가 읽기 전용으로 표시되어 있었는지 기록합니다.
+    private static class FakePostSearchMapper implements PostSearchMapper {
+        private final List<Boolean> readOnlyAtQuery = new ArrayList<>();
+        private boolean failing;
+
+        @Override
+        public List<PostDTO> selectPosts(PostSearchRequest postSearchRequest, PostCursor cursor, int limit) {
+            readOnlyAtQuery.add(ReplicaRoutingContext.isReadOnly());
+            if (failing) {
+                throw new IllegalStateException("db down");
+            }
+            return new ArrayList<>();
+        }
+
+        @Override
+        public List<PostDTO> selectPostsByIds(List<Integer> ids) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void selectPostsForIndex(ResultHandler<PostDTO> resultHandler) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void selectPostCategoriesForIndex(ResultHandler<PostDTO> resultHandler) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.dustin.boardserver.service.impl;
+
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.datasource.ShardRoutingDataSource;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.UserDTO;
+import com.dustin.boardserver.exception.BoardServerException;
+import com.dustin.boardserver.mapper.PostMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+// 게시물 일괄 등록(registerBulk)이 청크로 나누어 한 트랜잭션에서 등록하는지 확인합니다.
+// 샤드는 하나이므로 AUTO_INCREMENT처럼 ID를 채우는 가짜 매퍼를 사용합니다.
+class PostServiceImplTest {
+    private static final int CHUNK_SIZE = 200;
+    private static final int AUTHOR = 7;
+
+    private final AutoIncrementPostMapper postMapper = new AutoIncrementPostMapper();
+    private final RecordingTransactionManager transactionManager = new RecordingTransactionManager();
+    private PostServiceImpl postService;
+
+    @BeforeEach
+    void setUp() {
+        // 쿼리는 가짜 매퍼가 처리하므로 샤드 DataSource는 연결하지 않습니다.
+        List<DataSource> shards = List.of(new JdbcDataSource());
+        ShardRouter shardRouter = new ShardRouter(new ShardRoutingDataSource(shards), new ShardIdGenerator(shards, 0),
+                transactionManager, Runnable::run, 5000, new SimpleMeterRegistry());
+
+        postService = new PostServiceImpl();
+        ReflectionTestUtils.setField(postService, "postMapper", postMapper);
+        ReflectionTestUtils.setField(postService, "userService", new FixedUserService());
+        ReflectionTestUtils.setField(postService, "shardRouter", shardRouter);
+        ReflectionTestUtils.setField(postService, "bulkChunkSize", CHUNK_SIZE);
+        ReflectionTestUtils.setField(postService, "bulkMaxSize", 1000);
+    }
+
+    @Test
+    void bulkPostsAreInsertedInChunksInOneTransaction() {
+        List<PostDTO> posts = posts(450);
+
+        List<PostDTO> registered = postService.registerBulk("author", posts);
+
+        assertSame(posts, registered);
+        assertEquals(List.of(200, 200, 50), postMapper.chunkSizes);
+        assertEquals(1, transactionManager.commits);
+        assertEquals(0, transactionManager.rollbacks);
+    }
+
+    // 생성된 ID는 청크를 넘어서도 요청 순서대로 채워집니다.
+    @Test
+    void generatedIdsFollowRequestOrder() {
+        List<PostDTO> registered = postService.registerBulk("author", posts(450));
+
+        for (int i = 0; i < registered.size(); i++) {
+            PostDTO post = registered.get(i);
+            assertEquals(i + 1, post.getId());
+            assertEquals("post" + i, post.getName());
+            assertEquals(AUTHOR, post.getUserId());
+            assertEquals(0, post.getViews());
+        }
+    }
+
+    // 한 청크라도 실패하면 앞서 실행한 청크까지 트랜잭션 전체가 롤백됩니다.
+    @Test
+    void failedChunkRollsBackWholeBatch() {
+        postMapper.failingChunk = 2;
+
+        BoardServerException e = assertThrows(BoardServerException.class,
+                () -> postService.registerBulk("author", posts(450)));
+
+        assertEquals("chunk 2 failed", e.getMsg());
+        assertEquals(0, transactionManager.commits);
+        assertEquals(1, transactionManager.rollbacks);
+    }
+
+    // 모든 항목을 먼저 검사하므로, 잘못된 항목이 있으면 트랜잭션을 열지 않고 아무것도 등록하지 않습니다.
+    @Test
+    void invalidItemRejectsBatchBeforeInsert() {
+        List<PostDTO> posts = posts(450);
+        posts.get(300).setName(" ");
+
+        BoardServerException e = assertThrows(BoardServerException.class,
+                () -> postService.registerBulk("author", posts));
+
+        assertTrue(e.getMsg().contains("300번째"), e.getMsg());
+        assertTrue(postMapper.chunkSizes.isEmpty());
+        assertEquals(0, transactionManager.commits + transactionManager.rollbacks);
+    }
+
+    @Test
+    void oversizedBatchIsRejected() {
+        assertThrows(BoardServerException.class, () -> postService.registerBulk("author", posts(1001)));
+        assertThrows(BoardServerException.class, () -> postService.registerBulk("author", List.of()));
+
+        assertTrue(postMapper.chunkSizes.isEmpty());
+    }
+
+    private static List<PostDTO> posts(int count) {
+        List<PostDTO> posts = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            posts.add(PostDTO.builder().name("post" + i).categoryId(1 + i % 3).views(i).build());
+        }
+        return posts;
+    }
+
+    // 트랜잭션의 커밋/롤백 횟수를 셉니다. 커밋 뒤 작업(색인, 캐시 무효화)은 확인하지 않으므로 실행하지 않고 버립니다.
+    private static class RecordingTransactionManager implements PlatformTransactionManager {
+        private int commits;
+        private int rollbacks;
+
+        @Override
+        public TransactionStatus getTransaction(TransactionDefinition definition) {
+            TransactionSynchronizationManager.initSynchronization();
+            return new SimpleTransactionStatus();
+        }
+
+        @Override
+        public void commit(TransactionStatus status) {
+            commits++;
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        @Override
+        public void rollback(TransactionStatus status) {
+            rollbacks++;
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static class FixedUserService extends UserServiceImpl {
+        FixedUserService() {
+            super(null, null, null);
+        }
+
+        @Override
+        public UserDTO getUserInfo(String userId) {
+            UserDTO userDTO = new UserDTO();
+            userDTO.setId(AUTHOR);
+            userDTO.setUserId(userId);
+            return userDTO;
+        }
+    }
+
+    // 다중 행 INSERT의 AUTO_INCREMENT처럼 받은 순서대로 ID를 채우고, 청크 크기를 기록합니다.
+    // failingChunk번째(1부터) 청크는 실패합니다.
+    private static class AutoIncrementPostMapper implements PostMapper {
+        private final List<Integer> chunkSizes = new ArrayList<>();
+        private int failingChunk;
+        private int nextId = 1;
+
+        @Override
+        public int registerBulk(List<PostDTO> posts) {
+            chunkSizes.add(posts.size());
+            if (chunkSizes.size() == failingChunk) {
+                throw new IllegalStateException("chunk " + failingChunk + " failed");
+            }
+            posts.forEach(post -> post.setId(nextId++));
+            return posts.size();
+        }
+
+        @Override
+        public int register(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerWithId(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulkWithIds(List<PostDTO> posts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PostDTO> selectMyProducts(int accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cursor<PostDTO> streamMyProducts(int userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cursor<PostDTO> streamPostsByCategory(int categoryId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PostDTO selectPost(int postId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateProducts(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteProduct(int postId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int addViews(Map<Integer, Long> deltas) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
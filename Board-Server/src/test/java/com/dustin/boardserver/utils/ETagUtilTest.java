@@ -0,0 +1,52 @@
+package com.dustin.boardserver.utils;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ETagUtilTest {
+
+    @Test
+    void acceptsListedGzip() {
+        assertTrue(ETagUtil.acceptsGzip("gzip"));
+        assertTrue(ETagUtil.acceptsGzip("gzip, deflate, br"));
+        assertTrue(ETagUtil.acceptsGzip("br;q=1.0, GZIP;q=0.5"));
+        assertTrue(ETagUtil.acceptsGzip("gzip; q=0.001"));
+        assertTrue(ETagUtil.acceptsGzip("*"));
+    }
+
+    @Test
+    void rejectsMissingGzip() {
+        assertFalse(ETagUtil.acceptsGzip(null));
+        assertFalse(ETagUtil.acceptsGzip(""));
+        assertFalse(ETagUtil.acceptsGzip("identity"));
+        assertFalse(ETagUtil.acceptsGzip("deflate, br"));
+        assertFalse(ETagUtil.acceptsGzip("x-gzipped"));
+    }
+
+    // q=0은 해당 인코딩을 받지 않겠다는 뜻입니다.
+    @Test
+    void rejectsZeroQuality() {
+        assertFalse(ETagUtil.acceptsGzip("gzip;q=0"));
+        assertFalse(ETagUtil.acceptsGzip("gzip; q = 0.000"));
+        assertFalse(ETagUtil.acceptsGzip("gzip;Q=0.0"));
+        assertFalse(ETagUtil.acceptsGzip("*;q=0"));
+    }
+
+    // gzip이 직접 적혀 있으면 "*"보다 우선합니다.
+    @Test
+    void explicitGzipOverridesWildcard() {
+        assertFalse(ETagUtil.acceptsGzip("*, gzip;q=0"));
+        assertTrue(ETagUtil.acceptsGzip("*;q=0, gzip"));
+    }
+
+    @Test
+    void strongETagMarksGzipVariant() {
+        assertEquals("\"posts-12:7\"", ETagUtil.strong("posts", "12:7", false));
+        assertEquals("\"posts-12:7-gz\"", ETagUtil.strong("posts", "12:7", true));
+        assertNotEquals(ETagUtil.strong("posts", "12:7", false), ETagUtil.strong("posts", "12:7", true));
+    }
+}
@@ -0,0 +1,87 @@
+package com.dustin.boardserver.utils;
+
+import com.dustin.boardserver.dto.PostCursor;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.dto.SortStatus;
+import com.dustin.boardserver.exception.BoardServerException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Date;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class PostCursorUtilTest {
+
+    @Test
+    void createTimeCursorRoundTrips() {
+        PostDTO last = PostDTO.builder().id(42).createTime(new Date(1_700_000_000_123L)).categoryId(7).build();
+
+        for (SortStatus sortStatus : new SortStatus[]{SortStatus.NEWEST, SortStatus.OLDEST}) {
+            PostCursor cursor = PostCursorUtil.decode(PostCursorUtil.encode(sortStatus, last), sortStatus);
+
+            assertEquals(sortStatus, cursor.getSortStatus());
+            assertEquals(last.getCreateTime(), cursor.getCreateTime());
+            assertEquals(42, cursor.getId());
+        }
+    }
+
+    @Test
+    void categoryCursorRoundTrips() {
+        PostDTO last = PostDTO.builder().id(Integer.MAX_VALUE).categoryId(3).build();
+
+        PostCursor cursor = PostCursorUtil.decode(PostCursorUtil.encode(SortStatus.CATEGORIES, last), SortStatus.CATEGORIES);
+
+        assertEquals(SortStatus.CATEGORIES, cursor.getSortStatus());
+        assertNull(cursor.getCreateTime());
+        assertEquals(3, cursor.getCategoryId());
+        assertEquals(Integer.MAX_VALUE, cursor.getId());
+    }
+
+    @Test
+    void tokenIsUnpaddedBase64Url() {
+        PostDTO last = PostDTO.builder().id(1).createTime(new Date(0)).build();
+
+        String token = PostCursorUtil.encode(SortStatus.NEWEST, last);
+
+        assertEquals(-1, token.indexOf('='));
+        assertEquals(-1, token.indexOf('+'));
+        assertEquals(-1, token.indexOf('/'));
+    }
+
+    @Test
+    void emptyTokenMeansFirstPage() {
+        assertNull(PostCursorUtil.decode(null, SortStatus.NEWEST));
+        assertNull(PostCursorUtil.decode("", SortStatus.NEWEST));
+    }
+
+    @Test
+    void rejectsTokenOfOtherSortStatus() {
+        PostDTO last = PostDTO.builder().id(1).createTime(new Date(0)).build();
+        String token = PostCursorUtil.encode(SortStatus.NEWEST, last);
+
+        assertBadRequest(token, SortStatus.OLDEST);
+    }
+
+    @Test
+    void rejectsMalformedToken() {
+        assertBadRequest("!!!", SortStatus.NEWEST);
+        assertBadRequest(base64("NEWEST:abc:1"), SortStatus.NEWEST);
+        assertBadRequest(base64("NEWEST:1"), SortStatus.NEWEST);
+        assertBadRequest(base64("NEWEST:1:2:3"), SortStatus.NEWEST);
+        assertBadRequest(base64("UNKNOWN:1:2"), SortStatus.NEWEST);
+    }
+
+    private static void assertBadRequest(String token, SortStatus sortStatus) {
+        BoardServerException e = assertThrows(BoardServerException.class, () -> PostCursorUtil.decode(token, sortStatus));
+        assertEquals(HttpStatus.BAD_REQUEST, e.getCode());
+    }
+
+    private static String base64(String raw) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,242 @@
+package com.dustin.boardserver.view;
+
+import com.dustin.boardserver.datasource.ShardIdGenerator;
+import com.dustin.boardserver.datasource.ShardRouter;
+import com.dustin.boardserver.datasource.ShardRoutingDataSource;
+import com.dustin.boardserver.dto.PostDTO;
+import com.dustin.boardserver.mapper.PostMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.ibatis.cursor.Cursor;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class PostViewCounterTest {
+    private final FakePostMapper postMapper = new FakePostMapper();
+    private PostViewCounter counter;
+
+    @BeforeEach
+    void setUp() {
+        counter = counter(1);
+    }
+
+    @Test
+    void flushWritesSummedDeltasFromAllThreads() throws InterruptedException {
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++) {
+            Thread thread = new Thread(() -> {
+                for (int i = 0; i < 1000; i++) {
+                    counter.increment(1);
+                    if (i % 10 == 0) {
+                        counter.increment(2);
+                    }
+                }
+            });
+            threads.add(thread);
+            thread.start();
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        assertEquals(8000, counter.pending(1));
+        assertEquals(800, counter.pending(2));
+
+        counter.flush();
+
+        assertEquals(Map.of(1, 8000L, 2, 800L), postMapper.written);
+        assertEquals(0, counter.pending(1));
+        assertEquals(0, counter.pending(2));
+    }
+
+    @Test
+    void emptyFlushDoesNotWrite() {
+        counter.flush();
+
+        assertEquals(0, postMapper.calls);
+    }
+
+    @Test
+    void splitsUpdatesIntoBatches() {
+        ReflectionTestUtils.setField(counter, "batchSize", 2);
+        for (int postId = 1; postId <= 5; postId++) {
+            counter.increment(postId);
+        }
+
+        counter.flush();
+
+        assertEquals(3, postMapper.calls);
+        assertTrue(postMapper.batchSizes.stream().allMatch(size -> size <= 2), postMapper.batchSizes.toString());
+        assertEquals(5, postMapper.written.size());
+    }
+
+    // 반영에 실패한 증가분은 사라지지 않고 다음 주기에 그 사이 증가분과 함께 반영됩니다.
+    @Test
+    void failedFlushIsRetriedWithNewViews() {
+        counter.increment(1);
+        counter.increment(1);
+        postMapper.failingPostIds.add(1);
+
+        counter.flush();
+
+        assertEquals(2, counter.pending(1));
+        assertTrue(postMapper.written.isEmpty());
+
+        counter.increment(1);
+        postMapper.failingPostIds.clear();
+        counter.flush();
+
+        assertEquals(Map.of(1, 3L), postMapper.written);
+        assertEquals(0, counter.pending(1));
+    }
+
+    // 실패한 배치만 다시 시도하고, 성공한 배치는 두 번 반영하지 않습니다.
+    @Test
+    void onlyFailedBatchIsRetried() {
+        ReflectionTestUtils.setField(counter, "batchSize", 1);
+        counter.increment(1);
+        counter.increment(2);
+        postMapper.failingPostIds.add(2);
+
+        counter.flush();
+
+        assertEquals(Map.of(1, 1L), postMapper.written);
+        assertEquals(0, counter.pending(1));
+        assertEquals(1, counter.pending(2));
+
+        postMapper.failingPostIds.clear();
+        counter.flush();
+
+        assertEquals(Map.of(1, 1L, 2, 1L), postMapper.written);
+    }
+
+    // 배치는 한 샤드의 게시물만 담으므로, 한 샤드가 실패해도 다른 샤드에 반영된 증가분은 다시 시도하지 않습니다.
+    @Test
+    void batchesAreSplitByShardAndOnlyFailedShardIsRetried() {
+        counter = counter(2);
+        for (int postId = 1; postId <= 6; postId++) {
+            counter.increment(postId);
+        }
+        postMapper.failingPostIds.add(3);
+
+        counter.flush();
+
+        assertEquals(2, postMapper.calls);
+        assertEquals(Map.of(2, 1L, 4, 1L, 6, 1L), postMapper.written);
+        assertEquals(0, counter.pending(2));
+        assertEquals(1, counter.pending(1));
+        assertEquals(1, counter.pending(5));
+
+        postMapper.failingPostIds.clear();
+        counter.flush();
+
+        assertEquals(Map.of(1, 1L, 2, 1L, 3, 1L, 4, 1L, 5, 1L, 6, 1L), postMapper.written);
+    }
+
+    @Test
+    void drainFlushesRemainingViews() {
+        counter.increment(7);
+
+        counter.drain();
+
+        assertEquals(Map.of(7, 1L), postMapper.written);
+    }
+
+    // 쿼리는 FakePostMapper가 대신 처리하므로 샤드 DataSource는 연결하지 않습니다.
+    private PostViewCounter counter(int shardCount) {
+        List<DataSource> shards = new ArrayList<>();
+        for (int shard = 0; shard < shardCount; shard++) {
+            shards.add(new JdbcDataSource());
+        }
+        ShardRoutingDataSource shardRoutingDataSource = new ShardRoutingDataSource(shards);
+        ShardRouter shardRouter = new ShardRouter(shardRoutingDataSource, new ShardIdGenerator(shards, 0),
+                new DataSourceTransactionManager(shardRoutingDataSource), Runnable::run, 5000, new SimpleMeterRegistry());
+        PostViewCounter counter = new PostViewCounter(postMapper, shardRouter, new SimpleMeterRegistry(), 4);
+        ReflectionTestUtils.setField(counter, "batchSize", 500);
+        return counter;
+    }
+
+    // DB 대신 반영된 조회수 증가분을 기록합니다. failingPostIds의 게시물이 포함된 배치는 실패합니다.
+    private static class FakePostMapper implements PostMapper {
+        private final Map<Integer, Long> written = new HashMap<>();
+        private final Set<Integer> failingPostIds = new HashSet<>();
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private int calls;
+
+        @Override
+        public int addViews(Map<Integer, Long> deltas) {
+            calls++;
+            batchSizes.add(deltas.size());
+            for (Integer postId : deltas.keySet()) {
+                if (failingPostIds.contains(postId)) {
+                    throw new IllegalStateException("db down");
+                }
+            }
+            deltas.forEach((postId, delta) -> written.merge(postId, delta, Long::sum));
+            return deltas.size();
+        }
+
+        @Override
+        public int register(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulk(List<PostDTO> posts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerWithId(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public int registerBulkWithIds(List<PostDTO> posts) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public List<PostDTO> selectMyProducts(int accountId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cursor<PostDTO> streamMyProducts(int userId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public Cursor<PostDTO> streamPostsByCategory(int categoryId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public PostDTO selectPost(int postId) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void updateProducts(PostDTO postDTO) {
+            throw new UnsupportedOperationException();
+        }
+
+        @Override
+        public void deleteProduct(int postId) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}